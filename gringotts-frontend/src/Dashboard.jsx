@@ -80,14 +80,13 @@ const Dashboard = () => {
         }
 
         if (!userId) return;
-        // Try to fetch account/card summary from backend
+        // Try to fetch account/card summary from backend (single aggregate call)
         const fetchSummary = async () => {
             try {
-                const accRes = await api.get(`/api/accounts/by-user/${userId}`);
-                const cardRes = await api.get(`/api/cards/by-user/${userId}`);
+                const res = await api.get('/api/dashboard');
                 // prefer stored tempPin if present
-                const fetchedAccount = Array.isArray(accRes.data) ? accRes.data[0] : accRes.data;
-                const fetchedCard = Array.isArray(cardRes.data) ? cardRes.data[0] : cardRes.data;
+                const fetchedAccount = res.data?.accounts?.[0];
+                const fetchedCard = res.data?.cards?.[0];
                 setData(prev => ({ account: prev?.account || fetchedAccount, card: prev?.card || fetchedCard }));
             } catch (err) {
                 console.warn('Could not fetch account/card summary', err?.response?.status, err?.response?.data || err.message || err);
@@ -130,11 +129,8 @@ const Dashboard = () => {
     const syncFromServer = async () => {
         if (!userId) return;
         try {
-            const accRes = await api.get(`/api/accounts/by-user/${userId}`);
-            const cardRes = await api.get(`/api/cards/by-user/${userId}`);
-            const fetchedAccount = Array.isArray(accRes.data) ? accRes.data[0] : accRes.data;
-            const fetchedCard = Array.isArray(cardRes.data) ? cardRes.data[0] : cardRes.data;
-            setData({ account: fetchedAccount, card: fetchedCard });
+            const res = await api.get('/api/dashboard');
+            setData({ account: res.data?.accounts?.[0], card: res.data?.cards?.[0] });
         } catch (e) { alert('Sync failed: ' + (e?.message || e)); }
     }
 
@@ -13,10 +13,12 @@ const Pay = () => {
     
     // Form State
     const [targetAccountNumber, setTargetAccountNumber] = useState('');
+    const [payBy, setPayBy] = useState('ACCOUNT'); // or 'ALIAS' (phone number / email)
     const [amount, setAmount] = useState('');
     const [targetAccountType, setTargetAccountType] = useState('SAVINGS'); 
     const [isSubmitting, setIsSubmitting] = useState(false);
     const [msg, setMsg] = useState({ type: '', text: '' });
+    const [topPayees, setTopPayees] = useState([]);
     
     // UI State
     const [profileExpanded, setProfileExpanded] = useState(false);
@@ -44,6 +46,14 @@ const Pay = () => {
         fetchAccounts();
     }, []);
 
+    // 2. Frequent payees of the selected account (suggestions for the account number field)
+    useEffect(() => {
+        if (!selectedAccount) return;
+        api.get(`/api/accounts/${selectedAccount.id}/top-payees?limit=5`)
+            .then(res => setTopPayees(res.data || []))
+            .catch(() => setTopPayees([]));
+    }, [selectedAccount?.id]);
+
     const handleLogout = async () => {
         try { await api.post('/api/auth/logout'); } catch (e) {}
         localStorage.clear();
@@ -68,9 +78,13 @@ const Pay = () => {
         try {
             const payload = {
                 fromAccountId: selectedAccount.id,
-                toAccountNumber: targetAccountNumber,
                 amount: amount
             };
+            if (payBy === 'ALIAS') {
+                payload.toAlias = targetAccountNumber;
+            } else {
+                payload.toAccountNumber = targetAccountNumber;
+            }
 
             await api.post('/api/transactions/transfer', payload);
             setMsg({ type: 'success', text: 'Transfer Successful!' });
@@ -149,13 +163,28 @@ const Pay = () => {
                                 required 
                                 placeholder=" "
                                 value={targetAccountNumber}
-                                onChange={(e) => setTargetAccountNumber(e.target.value.replace(/\D/g, ''))}
+                                onChange={(e) => setTargetAccountNumber(payBy === 'ALIAS' ? e.target.value : e.target.value.replace(/\D/g, ''))}
                                 minLength={6}
+                                list={payBy === 'ALIAS' ? undefined : 'top-payees'}
                             />
-                            <label>To Account Number</label>
+                            <label>{payBy === 'ALIAS' ? 'To Phone or Email' : 'To Account Number'}</label>
+                            <datalist id="top-payees">
+                                {topPayees.map(p => (
+                                    <option key={p.accountNumber} value={p.accountNumber}>{formatDigits(p.accountNumber)}</option>
+                                ))}
+                            </datalist>
                         </div>
 
                         <div className="input-box dropdown-box">
+                             <div className="select-wrapper">
+                                <select
+                                    value={payBy}
+                                    onChange={(e) => { setPayBy(e.target.value); setTargetAccountNumber(''); }}
+                                >
+                                    <option value="ACCOUNT">Account Number</option>
+                                    <option value="ALIAS">Phone / Email</option>
+                                </select>
+                             </div>
                              <div className="select-wrapper">
                                 <select 
                                     value={targetAccountType}
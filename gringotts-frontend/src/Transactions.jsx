@@ -98,8 +98,8 @@ const Transactions = () => {
 
     // --- Helper Logic ---
 
-    // Is the money leaving or entering MY account?
-    const isDebit = (tx) => tx.account.id === myAccountId;
+    // Is the money leaving or entering MY account? (amount is signed by the backend)
+    const isDebit = (tx) => tx.amount < 0;
 
     // Group by Month (e.g., "January 2026")
     const groupedTransactions = transactions.reduce((groups, tx) => {
@@ -192,7 +192,7 @@ const Transactions = () => {
                                 const debit = isDebit(tx);
                                 return (
                                     <div key={tx.id} className="tx-row" onClick={() => setSelectedTx(tx)}>
-                                        <div className="col ref-col">{tx.referenceId.substring(0, 8)}...</div>
+                                        <div className="col ref-col">...{tx.referenceId.slice(-8)}</div>
                                         <div className="col">
                                             <span className={`badge ${debit ? 'badge-sent' : 'badge-received'}`}>
                                                 {debit ? 'Sent' : 'Received'}
@@ -202,7 +202,7 @@ const Transactions = () => {
                                             {new Date(tx.timestamp).toLocaleDateString()}
                                         </div>
                                         <div className={`col amount-col ${debit ? 'red-text' : 'green-text'}`}>
-                                            {debit ? '-' : '+'}${tx.amount.toFixed(2)}
+                                            {debit ? '-' : '+'}${Math.abs(tx.amount).toFixed(2)}
                                         </div>
                                         <div className="col" style={{fontSize: '0.8em', opacity: 0.7}}>
                                             {tx.type}
@@ -225,7 +225,7 @@ const Transactions = () => {
                         </h3>
                         
                         <div className={`rubik-number big-amount ${isDebit(selectedTx) ? 'red-text' : 'green-text'}`}>
-                            {isDebit(selectedTx) ? '-' : '+'}${selectedTx.amount.toFixed(2)}
+                            {isDebit(selectedTx) ? '-' : '+'}${Math.abs(selectedTx.amount).toFixed(2)}
                         </div>
 
                         <div className="tx-details-grid">
@@ -243,15 +243,13 @@ const Transactions = () => {
 
                             <label>{isDebit(selectedTx) ? 'To Account:' : 'From Account:'}</label>
                             <span className="rubik-number">
-                                {isDebit(selectedTx) 
-                                    ? (selectedTx.targetAccount?.accountNumber || 'External') 
-                                    : (selectedTx.account?.accountNumber || 'System')}
+                                {selectedTx.counterpartyAccountNumber || (isDebit(selectedTx) ? 'External' : 'System')}
                             </span>
                             
                             <label>Balance After:</label>
                             <span className="rubik-number" style={{color: 'white', fontWeight: 'bold'}}>
-                                {/* Display correct running balance based on perspective */}
-                                ${ (isDebit(selectedTx) ? selectedTx.sourceBalanceAfter : selectedTx.targetBalanceAfter)?.toFixed(2) || '---' }
+                                {/* Running balance is already resolved for this account */}
+                                ${ selectedTx.balanceAfter?.toFixed(2) || '---' }
                             </span>
                         </div>
 
@@ -1,12 +1,15 @@
 package com.gringotts.banking.account;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gringotts.banking.money.Money;
 import com.gringotts.banking.user.User;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Currency;
 
 /**
  * Represents a Bank Account owned by a User.
@@ -21,16 +24,22 @@ public class Account {
     private Long id;
 
     // Link to the User (One User can have Many Accounts)
-    @ManyToOne
+    // Lazy + hidden from JSON: the owner (and their password hash) is never part of an account payload
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     @Column(name = "account_number", nullable = false, unique = true)
     private String accountNumber;
 
-    // Using BigDecimal for financial precision
+    // Minor units (BIGINT) via MoneyConverter, in the account's currency
     @Column(nullable = false)
-    private BigDecimal balance = BigDecimal.ZERO;
+    private Money balance = Money.ZERO;
+
+    // ISO 4217 code; every amount on the account (balance, deposits, debits) is in this currency
+    @Column(nullable = false, length = 3)
+    private String currency = Money.DEFAULT_CURRENCY.getCurrencyCode();
 
     @Column(name = "account_type", nullable = false)
     private String accountType = "SAVINGS"; // Default
@@ -38,6 +47,31 @@ public class Account {
     @Column(nullable = false)
     private String status = "ACTIVE";
 
+    // Bumped on every balance/status change; drives the ETags of accounts and history responses.
+    // Also the per-account movement sequence: each Transaction records the value it produced.
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    // Hot accounts only: number of balance slots credits are spread over (0 = not sharded).
+    // For a sharded account 'balance' is the main pool and the real balance is pool + slots (see BalanceSlotService).
+    @JsonIgnore
+    @Column(name = "slot_count", nullable = false)
+    private Integer slotCount = 0;
+
+    // Sum of the slots in minor units. Not read with the row: BalanceSlotService.withSlotBalance()
+    // loads it for sharded accounts only, where a total balance is actually needed
+    @Transient
+    private Long slotBalance;
+
+    // Priced movements (transfers out, card purchases) on 'feeCountDay', for the daily-count fee bands.
+    // Kept on the row the movement already locks, so pricing costs no query.
+    @JsonIgnore
+    @Column(name = "fee_count_day")
+    private LocalDate feeCountDay;
+    @JsonIgnore
+    @Column(name = "fee_count")
+    private Integer feeCount;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -62,8 +96,26 @@ public class Account {
     public String getAccountNumber() { return accountNumber; }
     public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
 
-    public BigDecimal getBalance() { return balance; }
-    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    // Total balance: main pool plus balance slots for sharded accounts (once loaded by BalanceSlotService)
+    // (the column only holds minor units: tag them with the account's currency)
+    public Money getBalance() {
+        Money main = getMainBalance();
+        return isSharded() && slotBalance != null ? main.plus(Money.ofMinor(slotBalance, getCurrencyUnit())) : main;
+    }
+    public void setBalance(Money balance) { this.balance = balance; }
+
+    // The main pool only (equals getBalance() unless sharded)
+    @JsonIgnore
+    public Money getMainBalance() { return Money.ofMinor(balance.minorUnits(), getCurrencyUnit()); }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    @JsonIgnore
+    public Currency getCurrencyUnit() { return Currency.getInstance(currency); }
+
+    @JsonIgnore
+    public boolean isSharded() { return slotCount != null && slotCount > 0; }
 
     public String getAccountType() { return accountType; }
     public void setAccountType(String accountType) { this.accountType = accountType; }
@@ -71,6 +123,22 @@ public class Account {
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Integer getSlotCount() { return slotCount; }
+    public void setSlotCount(Integer slotCount) { this.slotCount = slotCount; }
+
+    // Set by BalanceSlotService only (null = not loaded)
+    Long getSlotBalance() { return slotBalance; }
+    void setSlotBalance(Long slotBalance) { this.slotBalance = slotBalance; }
+
+    public LocalDate getFeeCountDay() { return feeCountDay; }
+    public void setFeeCountDay(LocalDate feeCountDay) { this.feeCountDay = feeCountDay; }
+
+    public Integer getFeeCount() { return feeCount; }
+    public void setFeeCount(Integer feeCount) { this.feeCount = feeCount; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
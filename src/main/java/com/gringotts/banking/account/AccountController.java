@@ -1,10 +1,21 @@
 package com.gringotts.banking.account;
 
+import com.gringotts.banking.ledger.LedgerService;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.partition.PartitionedExecutor;
+import com.gringotts.banking.payee.PayeeService;
+import com.gringotts.banking.rollup.RollupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -14,13 +25,31 @@ public class AccountController {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private PartitionedExecutor partitionedExecutor;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private PayeeService payeeService;
+
+    private static final int MAX_BATCH_IDS = 1000;
+
+    private static final int MAX_SERIES_POINTS = 2000;
+
     // NEW ENDPOINT: Create Account
     // POST /api/accounts/{id}
+    // Body: { "accountType": "SAVINGS", "currency": "EUR" } (currency defaults to USD)
     @PostMapping("/{userId}")
     public ResponseEntity<?> createAccount(@PathVariable Long userId, @RequestBody Map<String, String> request) {
         try {
             String type = request.getOrDefault("accountType", "SAVINGS");
-            Account account = accountService.createAccount(userId, type);
+            String currency = request.getOrDefault("currency", "USD");
+            Account account = accountService.createAccount(userId, type, currency);
             return ResponseEntity.ok(account);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -31,10 +60,10 @@ public class AccountController {
     // POST /api/accounts/{id}/deposit
     // Body: { "amount": 500.00 }
     @PostMapping("/{id}/deposit")
-    public ResponseEntity<?> deposit(@PathVariable Long id, @RequestBody Map<String, BigDecimal> request) {
+    public ResponseEntity<?> deposit(@PathVariable Long id, @RequestBody Map<String, Money> request) {
         try {
-            BigDecimal amount = request.get("amount");
-            Account account = accountService.deposit(id, amount);
+            Money amount = request.get("amount");
+            Account account = PartitionedExecutor.await(partitionedExecutor.submit(id, () -> accountService.deposit(id, amount)));
             return ResponseEntity.ok(account);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -53,12 +82,116 @@ public class AccountController {
     }
 
     // GET /api/accounts/by-user/{userId}
+    // Conditional GET: answers 304 from the version check alone when the client's ETag is current
     @GetMapping("/by-user/{userId}")
-    public ResponseEntity<?> getAccountsByUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getAccountsByUser(@PathVariable Long userId, WebRequest webRequest) {
+        try {
+            String etag = accountService.getAccountsETag(userId);
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).build();
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(accountService.getAccountsByUser(userId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Money in / out per month and transaction type (reads the rollups only, never the history)
+    // GET /api/accounts/{id}/summary?from=2025-11&to=2026-10&category=groceries (defaults: the last 12 months, all categories)
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<?> getSummary(@PathVariable Long id,
+                                        @RequestParam(required = false) String from, // Format: YYYY-MM
+                                        @RequestParam(required = false) String to,
+                                        @RequestParam(required = false) String category) {
+        try {
+            YearMonth end = to != null ? YearMonth.parse(to) : YearMonth.now();
+            YearMonth start = from != null ? YearMonth.parse(from) : end.minusMonths(11);
+            return ResponseEntity.ok(rollupService.getSummary(id, start, end, category));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Balance as of a past instant (support: "what was the balance on X?")
+    // GET /api/accounts/{id}/balance?at=2026-03-31T18:00:00 (or a plain date = end of that day; default: now)
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<?> getBalanceAt(@PathVariable Long id, @RequestParam(required = false) String at) {
+        try {
+            return ResponseEntity.ok(ledgerService.getBalanceAsOf(id, parseInstant(at)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Batch: many accounts at one instant (one statement)
+    // GET /api/accounts/balances?ids=1,2,3&at=2026-03-31
+    @GetMapping("/balances")
+    public ResponseEntity<?> getBalancesAt(@RequestParam List<Long> ids, @RequestParam(required = false) String at) {
         try {
-            return ResponseEntity.ok(accountService.getAccountsByUser(userId));
+            if (ids.size() > MAX_BATCH_IDS) {
+                return ResponseEntity.badRequest().body("At most " + MAX_BATCH_IDS + " accounts per request");
+            }
+            return ResponseEntity.ok(ledgerService.getBalancesAsOf(ids, parseInstant(at)));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    // Balance over time for the dashboard chart, downsampled on the server (at most 'points' points)
+    // GET /api/accounts/{id}/balance-series?from=2026-01-01&to=2026-03-31&points=300 (defaults: last 90 days, 500)
+    @GetMapping("/{id}/balance-series")
+    public ResponseEntity<?> getBalanceSeries(@PathVariable Long id,
+                                              @RequestParam(required = false) String from,
+                                              @RequestParam(required = false) String to,
+                                              @RequestParam(defaultValue = "500") int points) {
+        try {
+            if (points < 2 || points > MAX_SERIES_POINTS) {
+                return ResponseEntity.badRequest().body("points must be between 2 and " + MAX_SERIES_POINTS);
+            }
+            LocalDateTime end = parseInstant(to);
+            // A plain 'from' date starts at the beginning of that day
+            LocalDateTime start = from == null ? end.minusDays(90)
+                    : from.length() == 10 ? LocalDate.parse(from).atStartOfDay() : LocalDateTime.parse(from);
+            return ResponseEntity.ok(ledgerService.getBalanceSeries(id, start, end, points));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Frequent payees for the Pay form (a fixed-size summary per account, never a scan of its transfers)
+    // GET /api/accounts/{id}/top-payees?limit=5
+    @GetMapping("/{id}/top-payees")
+    public ResponseEntity<?> getTopPayees(@PathVariable Long id, @RequestParam(defaultValue = "10") int limit) {
+        try {
+            if (limit < 1) {
+                return ResponseEntity.badRequest().body("limit must be positive");
+            }
+            return ResponseEntity.ok(payeeService.getTopPayees(id, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Recount the frequent payees from the full transfer history
+    // POST /api/accounts/{id}/top-payees/rebuild (ROLE_ADMIN, see SecurityConfig)
+    @PostMapping("/{id}/top-payees/rebuild")
+    public ResponseEntity<?> rebuildTopPayees(@PathVariable Long id) {
+        try {
+            payeeService.rebuild(id);
+            return ResponseEntity.ok(payeeService.getTopPayees(id, Integer.MAX_VALUE));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    // "2026-03-31T18:00:00" as is; "2026-03-31" = the end of that day (to the microsecond the DB keeps)
+    private static LocalDateTime parseInstant(String at) {
+        if (at == null) {
+            return LocalDateTime.now();
+        }
+        return at.length() == 10 ? LocalDate.parse(at).atTime(23, 59, 59, 999_999_000) : LocalDateTime.parse(at);
+    }
 }
\ No newline at end of file
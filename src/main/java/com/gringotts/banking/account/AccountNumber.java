@@ -0,0 +1,8 @@
+package com.gringotts.banking.account;
+
+/**
+ * Minimal (id, account number) pair of an Account.
+ * Fetched instead of the full entity when only the numbers of a few accounts are needed.
+ */
+public record AccountNumber(Long id, String accountNumber) {
+}
@@ -1,10 +1,21 @@
 package com.gringotts.banking.account;
 
+import com.gringotts.banking.alias.AliasRow;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
@@ -17,6 +28,95 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     // Find by Account Number (Useful for transfers later)
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    /**
+     * Loads an account with a row lock (SELECT ... FOR UPDATE) held until commit.
+     * Used by every balance mutation so that balance and version (the movement sequence)
+     * are never updated from a stale read.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Share lock (SELECT ... FOR SHARE): used for credits to sharded accounts, which only need the
+     * account to stay ACTIVE while many of them run at once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForShare(@Param("id") Long id);
+
+    @Query("SELECT a.slotCount FROM Account a WHERE a.id = :id")
+    Optional<Integer> findSlotCountById(@Param("id") Long id);
+
+    @Query("SELECT a.currency FROM Account a WHERE a.id = :id")
+    Optional<String> findCurrencyById(@Param("id") Long id);
+
+    @Query("SELECT a.id FROM Account a ORDER BY a.id")
+    List<Long> findAllIds();
+
+    /**
+     * Locks several accounts in one statement, in id order (same order as transfers, so no deadlock).
+     * Used by the GroupCommitter.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Interest accrual: the next ACTIVE accounts of a type in the id range [fromId, toId), locked, in id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id >= :fromId AND a.id < :toId AND a.accountType = :type " +
+            "AND a.status = 'ACTIVE' ORDER BY a.id")
+    List<Account> findActiveByTypeForUpdate(@Param("type") String type, @Param("fromId") Long fromId,
+                                            @Param("toId") Long toId, Pageable limit);
+
+    // Interest accrual: lowest and highest id of the accounts of a type (one row, nulls if there are none)
+    @Query("SELECT MIN(a.id), MAX(a.id) FROM Account a WHERE a.accountType = :type")
+    List<Object[]> findIdRangeByAccountType(@Param("type") String type);
+
+    // Numbers of the given accounts that are still ACTIVE (payee suggestions)
+    @Query("SELECT new com.gringotts.banking.account.AccountNumber(a.id, a.accountNumber) FROM Account a " +
+            "WHERE a.id IN :ids AND a.status = 'ACTIVE'")
+    List<AccountNumber> findActiveNumbersByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Alias directory: every ACTIVE account with its owner's alias data, grouped by user (oldest account first)
+    String ALIAS_ROW = "SELECT new com.gringotts.banking.alias.AliasRow(u.id, u.email, u.phoneNumber, " +
+            "u.firstName, u.lastName, u.defaultAccountId, a.id, a.accountNumber) FROM Account a JOIN a.user u " +
+            "WHERE a.status = 'ACTIVE' ";
+
+    /**
+     * Full load, streamed (must be consumed inside a transaction).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(ALIAS_ROW + "ORDER BY u.id, a.id")
+    Stream<AliasRow> streamAliasRows();
+
+    // One user's rows, after a change to them
+    @Query(ALIAS_ROW + "AND u.id = :userId ORDER BY a.id")
+    List<AliasRow> findAliasRowsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Admin lookup index load: (user id, account number) of every account, open or closed, streamed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.user.id, a.accountNumber FROM Account a")
+    Stream<Object[]> streamAccountNumbers();
+
+    @Query("SELECT a.accountNumber FROM Account a WHERE a.user.id = :userId")
+    List<String> findAccountNumbersByUserId(@Param("userId") Long userId);
+
     // Fetch only active accounts for the dashboard
     List<Account> findByUserIdAndStatus(Long userId, String status);
+
+    // ETag support: versions only, no entity is loaded.
+    // A sharded account's credits bump its slots, not the row, so the slot versions are added in.
+    String EFFECTIVE_VERSION = "a.version + COALESCE((SELECT SUM(s.version) FROM BalanceSlot s WHERE s.accountId = a.id), 0)";
+
+    @Query("SELECT new com.gringotts.banking.account.AccountVersion(a.id, " + EFFECTIVE_VERSION + ") FROM Account a " +
+            "WHERE a.user.id = :userId AND a.status = :status ORDER BY a.id")
+    List<AccountVersion> findVersionsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") String status);
+
+    @Query("SELECT " + EFFECTIVE_VERSION + " FROM Account a WHERE a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 package com.gringotts.banking.account;
 
+import com.gringotts.banking.alias.AliasChangedEvent;
+import com.gringotts.banking.ledger.LedgerService;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.BalanceChangedEvent;
+import com.gringotts.banking.transaction.ReferenceIdGenerator;
 import com.gringotts.banking.transaction.Transaction;
 import com.gringotts.banking.transaction.TransactionRepository;
 import com.gringotts.banking.transaction.TransactionType;
 import com.gringotts.banking.user.User;
 import com.gringotts.banking.user.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.Currency;
 import java.util.List;
-import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -30,6 +35,18 @@ public class AccountService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private BalanceSlotService balanceSlotService;
+
+    @Autowired
+    private ReferenceIdGenerator referenceIdGenerator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Creates a new bank account for a user.
      * Flow: User Profile Setup -> Controller -> Service -> DB.
@@ -37,9 +54,22 @@ public class AccountService {
      *
      * @param userId      The owner of the account.
      * @param accountType "SAVINGS" or "CHECKING".
+     * @param currency    ISO 4217 code the account is held in (e.g. "USD", "EUR", "JPY"; not KWD, see Money.isSupported).
      * @return The created Account entity.
      */
-    public Account createAccount(Long userId, String accountType) {
+    public Account createAccount(Long userId, String accountType, String currency) {
+        Currency unit;
+        try {
+            unit = Currency.getInstance(currency.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported currency: " + currency);
+        }
+        if (!Money.isSupported(unit)) {
+            // e.g. KWD: amounts are entered with 2 decimals, its 3rd one could never be paid in or out
+            throw new RuntimeException("Unsupported currency: " + unit.getCurrencyCode()
+                    + " (accounts hold currencies with at most " + Money.DEFAULT_CURRENCY.getDefaultFractionDigits() + " decimals)");
+        }
+
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -47,9 +77,19 @@ public class AccountService {
         account.setUser(user);
         account.setAccountNumber(generateAccountNumber());
         account.setAccountType(accountType);
-        account.setBalance(BigDecimal.ZERO);
+        account.setCurrency(unit.getCurrencyCode());
+        account.setBalance(Money.ofMinor(0, unit));
 
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        eventPublisher.publishEvent(new AliasChangedEvent(userId)); // may be their first account
+        return saved;
+    }
+
+    /**
+     * Overloaded method for accounts in the default currency.
+     */
+    public Account createAccount(Long userId, String accountType) {
+        return createAccount(userId, accountType, Money.DEFAULT_CURRENCY.getCurrencyCode());
     }
 
     /**
@@ -63,33 +103,64 @@ public class AccountService {
      * @return The updated Account entity.
      */
     @Transactional
-    public Account deposit(Long accountId, BigDecimal amount, TransactionType type) {
-        Account account = accountRepository.findById(accountId)
+    public Account deposit(Long accountId, Money amount, TransactionType type) {
+        Account account = accountRepository.findByIdForUpdate(accountId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
 
-        // 1. Update Balance
-        BigDecimal newBalance = account.getBalance().add(amount);
-        account.setBalance(newBalance);
-        Account savedAccount = accountRepository.save(account);
+        applyDeposit(account, amount, type);
+        return balanceSlotService.withSlotBalance(account); // total balance in the response
+    }
+
+    /**
+     * Deposit logic on an account the caller has ALREADY locked, inside the caller's DB transaction.
+     * Shared by deposit() and the GroupCommitter (which locks a whole group of accounts at once).
+     *
+     * @return The logged Transaction.
+     */
+    public Transaction applyDeposit(Account account, Money amount, TransactionType type) {
+        // 0. Amounts are always in the account's own currency
+        amount = amount.withCurrency(account.getCurrencyUnit());
+
+        // 1. Update Balance (a sharded account takes the credit in one of its balance slots)
+        // (running balance and sequence are not tracked for sharded accounts)
+        Money newBalance = null;
+        if (account.isSharded()) {
+            balanceSlotService.credit(account, amount);
+        } else {
+            newBalance = account.getBalance().plus(amount);
+            account.setBalance(newBalance);
+        }
+        account.setVersion(account.getVersion() + 1);
+        accountRepository.save(account);
+        Long seq = account.isSharded() ? null : account.getVersion();
 
         // 2. Log Transaction
         Transaction transaction = new Transaction();
-        transaction.setReferenceId(UUID.randomUUID().toString());
+        transaction.setReferenceId(referenceIdGenerator.next());
         transaction.setAccount(account);
         transaction.setTargetAccount(null);
         transaction.setAmount(amount);
         transaction.setType(type);
         transaction.setDescription("Deposit via " + (type == TransactionType.CARD_DEPOSIT ? "ATM" : "Branch"));
+        transaction.setSourceBalanceAfter(newBalance);
+        transaction.setSourceSeq(seq);
 
         transactionRepository.save(transaction);
+        ledgerService.record(transaction); // credit entry, same DB transaction
+
+        // 3. Notify listeners (delivered after commit)
+        eventPublisher.publishEvent(new BalanceChangedEvent(account.getId(), null,
+                transaction.getReferenceId(), type, amount, newBalance, seq));
 
-        return savedAccount;
+        return transaction;
     }
 
     /**
      * Overloaded method for default Cash Deposits.
+     * Transactional itself: the self-call below does not go through the Spring proxy.
      */
-    public Account deposit(Long accountId, BigDecimal amount) {
+    @Transactional
+    public Account deposit(Long accountId, Money amount) {
         return deposit(accountId, amount, TransactionType.CASH_DEPOSIT);
     }
 
@@ -97,15 +168,31 @@ public class AccountService {
      * Fetches all accounts belonging to a specific user if only ACTIVE.
      */
     public List<Account> getAccountsByUser(Long userId) {
-        // Return only ACTIVE accounts
-        return accountRepository.findByUserIdAndStatus(userId, "ACTIVE");
+        // Return only ACTIVE accounts (hot sharded ones with their slots, in one extra query)
+        return balanceSlotService.withSlotBalances(accountRepository.findByUserIdAndStatus(userId, "ACTIVE"));
+    }
+
+    /**
+     * Strong ETag of the user's ACTIVE account list.
+     * Built from (id, version) pairs only, so a 304 never loads the accounts themselves.
+     * Any deposit, transfer, withdrawal, new or closed account changes it.
+     */
+    public String getAccountsETag(Long userId) {
+        StringBuilder etag = new StringBuilder("\"acc-").append(userId);
+        for (AccountVersion v : accountRepository.findVersionsByUserIdAndStatus(userId, "ACTIVE")) {
+            etag.append('.').append(v.id()).append(':').append(v.version());
+        }
+        return etag.append('"').toString();
     }
 
     /**
      * Deletes an account by making the status as closed.
+     * Locks the row like every balance/status change: an unlocked read + save would write back a stale
+     * balance and version over a movement committed in between (and hand out its sequence again).
      */
+    @Transactional
     public void deleteAccount(Long accountId) {
-        Account account = accountRepository.findById(accountId)
+        Account account = accountRepository.findByIdForUpdate(accountId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
 
         // Check if already closed
@@ -114,8 +201,32 @@ public class AccountService {
         }
 
         // Soft Delete Logic
+        // (version is the movement sequence, so it stays: the ETag changes anyway, closed accounts leave the ACTIVE list)
         account.setStatus("CLOSED");
         accountRepository.save(account);
+        eventPublisher.publishEvent(new AliasChangedEvent(account.getUser().getId())); // aliases move to another account
+    }
+
+    /**
+     * Chooses the account that receives payments to the user's phone / email aliases.
+     *
+     * @throws RuntimeException if the account is not the user's, or not ACTIVE.
+     */
+    public void setDefaultAccount(Long userId, Long accountId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        if (!account.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Account does not belong to this user");
+        }
+        if (!"ACTIVE".equals(account.getStatus())) {
+            throw new RuntimeException("Account is CLOSED");
+        }
+
+        user.setDefaultAccountId(accountId);
+        userRepository.save(user);
+        eventPublisher.publishEvent(new AliasChangedEvent(userId));
     }
 
     /**
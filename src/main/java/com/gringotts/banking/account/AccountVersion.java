@@ -0,0 +1,8 @@
+package com.gringotts.banking.account;
+
+/**
+ * Minimal (id, version) pair of an Account.
+ * Fetched instead of the full entity when only the ETag of an account list is needed.
+ */
+public record AccountVersion(Long id, Long version) {
+}
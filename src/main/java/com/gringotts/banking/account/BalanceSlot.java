@@ -0,0 +1,60 @@
+package com.gringotts.banking.account;
+
+import com.gringotts.banking.money.Money;
+import jakarta.persistence.*;
+
+/**
+ * One slice of a sharded (hot) account's balance.
+ * Maps to table: 'balance_slots'
+ * Credits pick a random slot, so N slots mean N rows to contend on instead of one.
+ */
+@Entity
+@Table(name = "balance_slots", uniqueConstraints =
+        @UniqueConstraint(name = "uk_slot_account_slot", columnNames = {"account_id", "slot"}))
+public class BalanceSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    // 0 .. slotCount - 1
+    @Column(nullable = false, updatable = false)
+    private Integer slot;
+
+    @Column(nullable = false)
+    private Money balance = Money.ZERO;
+
+    // Bumped on every change; added to the account's version for ETags
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    // --- CONSTRUCTORS ---
+
+    public BalanceSlot() {
+    }
+
+    public BalanceSlot(Long accountId, Integer slot) {
+        this.accountId = accountId;
+        this.slot = slot;
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public Integer getSlot() { return slot; }
+    public void setSlot(Integer slot) { this.slot = slot; }
+
+    public Money getBalance() { return balance; }
+    public void setBalance(Money balance) { this.balance = balance; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
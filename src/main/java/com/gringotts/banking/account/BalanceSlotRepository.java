@@ -0,0 +1,53 @@
+package com.gringotts.banking.account;
+
+import com.gringotts.banking.money.Money;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSlotRepository extends JpaRepository<BalanceSlot, Long> {
+
+    /**
+     * Credits one slot in place (single-row UPDATE, locks only that slot).
+     * Native so the increment stays plain BIGINT arithmetic on minor units.
+     */
+    @Modifying
+    @Query(value = "UPDATE balance_slots SET balance = balance + :minorUnits, version = version + 1 " +
+            "WHERE account_id = :accountId AND slot = :slot", nativeQuery = true)
+    int credit(@Param("accountId") Long accountId, @Param("slot") Integer slot, @Param("minorUnits") long minorUnits);
+
+    /**
+     * Debit: the fullest slot that can cover the amount on its own, locked.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BalanceSlot> findFirstByAccountIdAndBalanceGreaterThanEqualOrderByBalanceDesc(Long accountId, Money amount);
+
+    /**
+     * Rebalance: every slot of the account, locked in slot order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BalanceSlot s WHERE s.accountId = :accountId ORDER BY s.slot")
+    List<BalanceSlot> findAllByAccountIdForUpdate(@Param("accountId") Long accountId);
+
+    /**
+     * Sum of one account's slots, in minor units.
+     */
+    @Query(value = "SELECT COALESCE(SUM(balance), 0) FROM balance_slots WHERE account_id = :accountId", nativeQuery = true)
+    long sumByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Slot sums of several accounts in one query: [accountId, minor units] per account that has slots.
+     */
+    @Query(value = "SELECT account_id, SUM(balance) FROM balance_slots WHERE account_id IN (:accountIds) " +
+            "GROUP BY account_id", nativeQuery = true)
+    List<Object[]> sumByAccountIdIn(@Param("accountIds") Collection<Long> accountIds);
+}
@@ -0,0 +1,158 @@
+package com.gringotts.banking.account;
+
+import com.gringotts.banking.money.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Business Logic for sharded (hot) accounts.
+ * A sharded account keeps a main pool in 'accounts.balance' plus N rows in 'balance_slots';
+ * its real balance is the sum. Account.getBalance() returns that sum once withSlotBalance() has loaded the
+ * slots; they are not read with every Account load (non-sharded accounts, the vast majority, never need them).
+ *
+ * - Credits only SHARE-lock the account row and add to one random slot, so concurrent credits
+ *   serialize on 1/N of the rows instead of all on one.
+ * - Debits EXCLUSIVE-lock the account (as before), then take from the main pool, else from one slot
+ *   with enough funds, else sweep every slot into the pool (rebalance) and take from it.
+ *
+ * Running balance and movement sequence are not tracked per credit on these accounts
+ * (balanceAfter/seq are null); history clients reload instead of delta-syncing.
+ */
+@Service
+public class BalanceSlotService {
+
+    private static final int MAX_SLOTS = 256;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceSlotRepository balanceSlotRepository;
+
+    /**
+     * Marks an account as hot and spreads its future credits over 'slots' rows.
+     * Can only grow the number of slots; existing money stays in the main pool.
+     */
+    @Transactional
+    public Account shard(Long accountId, int slots) {
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+
+        if (slots < 1 || slots > MAX_SLOTS) {
+            throw new RuntimeException("Slots must be between 1 and " + MAX_SLOTS);
+        }
+        if (slots <= account.getSlotCount()) {
+            throw new RuntimeException("Account already has " + account.getSlotCount() + " slots");
+        }
+
+        for (int slot = account.getSlotCount(); slot < slots; slot++) {
+            balanceSlotRepository.save(new BalanceSlot(accountId, slot));
+        }
+        account.setSlotCount(slots);
+        account.setVersion(account.getVersion() + 1);
+        return withSlotBalance(accountRepository.save(account));
+    }
+
+    /**
+     * Loads the slot sum into a sharded account, so getBalance() is its total (one query).
+     * No-op for an account that is not sharded.
+     */
+    public Account withSlotBalance(Account account) {
+        if (account.isSharded()) {
+            account.setSlotBalance(balanceSlotRepository.sumByAccountId(account.getId()));
+        }
+        return account;
+    }
+
+    /**
+     * Same for a list of accounts: one query for all the sharded ones, none if there are none.
+     */
+    public List<Account> withSlotBalances(List<Account> accounts) {
+        List<Long> shardedIds = accounts.stream().filter(Account::isSharded).map(Account::getId).toList();
+        if (shardedIds.isEmpty()) {
+            return accounts;
+        }
+        Map<Long, Long> sums = new HashMap<>();
+        for (Object[] row : balanceSlotRepository.sumByAccountIdIn(shardedIds)) {
+            sums.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        for (Account account : accounts) {
+            if (account.isSharded()) {
+                account.setSlotBalance(sums.getOrDefault(account.getId(), 0L));
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * Adds money to one random slot. The caller holds (at least) a share lock on the account.
+     */
+    public void credit(Account account, Money amount) {
+        int slot = ThreadLocalRandom.current().nextInt(account.getSlotCount());
+        if (balanceSlotRepository.credit(account.getId(), slot, amount.minorUnits()) != 1) {
+            throw new RuntimeException("Balance slot " + slot + " missing for account " + account.getId());
+        }
+    }
+
+    /**
+     * Takes money from a sharded account. The caller holds the exclusive account lock.
+     * Flow: main pool -> one slot that covers it -> rebalance (sweep all slots into the pool).
+     */
+    public void debit(Account account, Money amount) {
+        // 1. Main pool (covered by the account lock the caller already holds)
+        if (!account.getMainBalance().isLessThan(amount)) {
+            account.setBalance(account.getMainBalance().minus(amount));
+            return;
+        }
+
+        // 2. A single slot with enough funds
+        Optional<BalanceSlot> slot = balanceSlotRepository
+                .findFirstByAccountIdAndBalanceGreaterThanEqualOrderByBalanceDesc(account.getId(), amount);
+        if (slot.isPresent()) {
+            BalanceSlot s = slot.get();
+            s.setBalance(balanceOf(s, account).minus(amount));
+            s.setVersion(s.getVersion() + 1);
+            balanceSlotRepository.save(s);
+            adjustSlotBalance(account, amount.negate().minorUnits());
+            return;
+        }
+
+        // 3. Rebalance: sweep every slot into the main pool, then debit the pool
+        List<BalanceSlot> slots = balanceSlotRepository.findAllByAccountIdForUpdate(account.getId());
+        Money pool = account.getMainBalance();
+        for (BalanceSlot s : slots) {
+            pool = pool.plus(balanceOf(s, account));
+        }
+        if (pool.isLessThan(amount)) {
+            throw new RuntimeException("Insufficient funds"); // nothing modified yet
+        }
+        for (BalanceSlot s : slots) {
+            s.setBalance(Money.ZERO);
+            s.setVersion(s.getVersion() + 1);
+        }
+        balanceSlotRepository.saveAll(slots);
+        account.setBalance(pool.minus(amount));
+        account.setSlotBalance(0L);
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    // Keeps a slot sum loaded by withSlotBalance() in step with a slot just changed
+    private static void adjustSlotBalance(Account account, long minorUnits) {
+        if (account.getSlotBalance() != null) {
+            account.setSlotBalance(account.getSlotBalance() + minorUnits);
+        }
+    }
+
+    // Slot columns hold minor units of the account's currency
+    private static Money balanceOf(BalanceSlot slot, Account account) {
+        return Money.ofMinor(slot.getBalance().minorUnits(), account.getCurrencyUnit());
+    }
+}
@@ -0,0 +1,46 @@
+package com.gringotts.banking.activity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Composite keyset cursor of the activity feed: (timestamp, entry id) of the last item served.
+ * The next page continues strictly after it in (timestamp DESC, id DESC) order, in every account at once.
+ * Text form: "{epoch micros}.{entry id}" (opaque to clients).
+ */
+public record ActivityCursor(LocalDateTime timestamp, long entryId) {
+
+    /**
+     * Start of the feed: sorts after every real entry (DATETIME max, so MySQL accepts it too).
+     */
+    public static final ActivityCursor START = new ActivityCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public static ActivityCursor after(ActivityItem item) {
+        return new ActivityCursor(item.timestamp(), item.entryId());
+    }
+
+    /**
+     * @param text A cursor from a previous page, or null for the first page.
+     */
+    public static ActivityCursor parse(String text) {
+        if (text == null || text.isBlank()) {
+            return START;
+        }
+        try {
+            int dot = text.indexOf('.');
+            long micros = Long.parseLong(text.substring(0, dot));
+            long id = Long.parseLong(text.substring(dot + 1));
+            return new ActivityCursor(LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    @Override
+    public String toString() {
+        LocalDateTime t = timestamp.truncatedTo(ChronoUnit.MICROS);
+        return (t.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + t.getNano() / 1_000) + "." + entryId;
+    }
+}
@@ -0,0 +1,37 @@
+package com.gringotts.banking.activity;
+
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+/**
+ * One line of a user's unified activity feed: a ledger entry plus the account it belongs to.
+ * Built directly by the JPQL query (see LedgerEntryRepository.findActivityBefore).
+ *
+ * @param entryId       Ledger entry id: tie-breaker of the feed order and part of the page cursor.
+ * @param accountNumber Which of the user's accounts moved.
+ * @param amount        Signed from that account's perspective (negative = money left it).
+ * @param currency      ISO 4217 code of that account: the feed mixes accounts, so every line carries its own.
+ */
+public record ActivityItem(
+        Long entryId,
+        Long accountId,
+        String accountNumber,
+        String referenceId,
+        LocalDateTime timestamp,
+        TransactionType type,
+        String description,
+        Money amount,
+        String counterpartyAccountNumber,
+        Money balanceAfter,
+        String currency) {
+
+    // The amount columns only hold minor units: tag them with the account's currency
+    public ActivityItem {
+        Currency unit = Currency.getInstance(currency);
+        amount = amount.inMinorUnitsOf(unit);
+        balanceAfter = balanceAfter == null ? null : balanceAfter.inMinorUnitsOf(unit);
+    }
+}
@@ -0,0 +1,11 @@
+package com.gringotts.banking.activity;
+
+import java.util.List;
+
+/**
+ * One page of the activity feed, newest first.
+ *
+ * @param nextCursor Pass back as 'cursor' to get the next page; null on the last page.
+ */
+public record ActivityPage(List<ActivityItem> items, String nextCursor) {
+}
@@ -0,0 +1,98 @@
+package com.gringotts.banking.activity;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.ledger.LedgerEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Unified activity feed: the movements of all of a user's ACTIVE accounts in one timeline, newest first.
+ * Flow, per page:
+ * 1. The user's accounts (one query).
+ * 2. One keyset read per account: its next (limit + 1) entries after the cursor
+ *    (a bounded range scan of idx_ledger_account_time, whose rows also carry the id).
+ * 3. k-way merge: a heap holds the head of each account's run; pop the newest, push that run's next
+ *    row, until the page is full. Only as many rows as the page needs are ever taken.
+ * The last item served becomes the cursor of the next page, so no offset is ever skipped over.
+ */
+@Service
+public class ActivityService {
+
+    // Newest first; entry ids break ties between entries of the same instant
+    static final Comparator<ActivityItem> NEWEST_FIRST = Comparator
+            .comparing(ActivityItem::timestamp)
+            .thenComparing(ActivityItem::entryId)
+            .reversed();
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    /**
+     * @param cursor 'nextCursor' of the previous page, or null for the first page.
+     * @param limit  Page size.
+     */
+    public ActivityPage getActivity(Long userId, String cursor, int limit) {
+        ActivityCursor after = ActivityCursor.parse(cursor);
+        List<Account> accounts = accountRepository.findByUserIdAndStatus(userId, "ACTIVE");
+
+        // 1. Open one run per account (a page never takes more than 'limit' rows from one account;
+        //    the extra row tells whether anything follows)
+        PriorityQueue<Run> heap = new PriorityQueue<>(Math.max(1, accounts.size()),
+                Comparator.comparing(Run::head, NEWEST_FIRST));
+        PageRequest firstRows = PageRequest.of(0, limit + 1);
+        for (Account account : accounts) {
+            List<ActivityItem> rows = ledgerEntryRepository.findActivityBefore(
+                    account.getId(), after.timestamp(), after.entryId(), firstRows);
+            Run run = new Run(rows.iterator());
+            if (run.advance()) {
+                heap.add(run);
+            }
+        }
+
+        // 2. Merge
+        List<ActivityItem> items = new ArrayList<>(limit);
+        while (items.size() < limit && !heap.isEmpty()) {
+            Run newest = heap.poll();
+            items.add(newest.head());
+            if (newest.advance()) {
+                heap.add(newest);
+            }
+        }
+
+        // 3. More left in any run -> there is a next page
+        String next = heap.isEmpty() || items.isEmpty() ? null : ActivityCursor.after(items.getLast()).toString();
+        return new ActivityPage(items, next);
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    // One account's entries, newest first; 'head' is the next one to merge
+    private static final class Run {
+        private final Iterator<ActivityItem> rows;
+        private ActivityItem head;
+
+        Run(Iterator<ActivityItem> rows) {
+            this.rows = rows;
+        }
+
+        ActivityItem head() {
+            return head;
+        }
+
+        boolean advance() {
+            head = rows.hasNext() ? rows.next() : null;
+            return head != null;
+        }
+    }
+}
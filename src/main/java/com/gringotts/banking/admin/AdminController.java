@@ -0,0 +1,112 @@
+package com.gringotts.banking.admin;
+
+import com.gringotts.banking.account.BalanceSlotService;
+import com.gringotts.banking.interest.InterestAccrualJob;
+import com.gringotts.banking.standing.StandingOrderRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Back-office endpoints. Everything under /api/admin requires ROLE_ADMIN (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private CustomerIndex customerIndex;
+
+    @Autowired
+    private StandingOrderRunner standingOrderRunner;
+
+    @Autowired
+    private InterestAccrualJob interestAccrualJob;
+
+    @Autowired
+    private BalanceSlotService balanceSlotService;
+
+    private static final int MAX_LOOKUP_RESULTS = 100;
+
+    /**
+     * Customers whose username, email, phone number or account number starts with the prefix.
+     * Endpoint: GET /api/admin/lookup?prefix=harry&limit=20
+     * Served from the in-memory index (see CustomerIndex); only the matched users are read from the DB.
+     */
+    @GetMapping("/lookup")
+    public ResponseEntity<?> lookup(@RequestParam String prefix, @RequestParam(defaultValue = "20") int limit) {
+        try {
+            if (limit < 1 || limit > MAX_LOOKUP_RESULTS) {
+                return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_LOOKUP_RESULTS);
+            }
+            return ResponseEntity.ok(customerIndex.search(prefix, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the lookup index from the database (e.g. after a bulk import).
+     * Endpoint: POST /api/admin/lookup/reload
+     */
+    @PostMapping("/lookup/reload")
+    public ResponseEntity<?> reloadLookup() {
+        try {
+            customerIndex.reload();
+            return ResponseEntity.ok(customerIndex.stats());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Pays the due standing orders now instead of waiting for the next poll (this node's share of them).
+     * Endpoint: POST /api/admin/standing-orders/run
+     */
+    @PostMapping("/standing-orders/run")
+    public ResponseEntity<?> runStandingOrders() {
+        try {
+            return ResponseEntity.ok(Map.of("paid", standingOrderRunner.runDue()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Accrues SAVINGS interest now instead of waiting for the next check: one day, or every closed day still due.
+     * Endpoint: POST /api/admin/interest/run?date=2026-10-18 (date optional)
+     * Returns per day the accounts processed and the throughput (accounts/s).
+     */
+    @PostMapping("/interest/run")
+    public ResponseEntity<?> runInterest(@RequestParam(required = false) String date) {
+        try {
+            return ResponseEntity.ok(date == null || date.isBlank()
+                    ? interestAccrualJob.catchUp()
+                    : List.of(interestAccrualJob.accrue(LocalDate.parse(date))));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Marks a hot (e.g. merchant) account as sharded: its credits are spread over N balance slots.
+     * Endpoint: POST /api/admin/accounts/{id}/shard
+     * Body: { "slots": 16 }
+     */
+    @PostMapping("/accounts/{id}/shard")
+    public ResponseEntity<?> shard(@PathVariable Long id, @RequestBody Map<String, Integer> request) {
+        try {
+            Integer slots = request.get("slots");
+            if (slots == null) {
+                return ResponseEntity.badRequest().body("Missing required field: slots");
+            }
+            return ResponseEntity.ok(balanceSlotService.shard(id, slots));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.gringotts.banking.admin;
+
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.admin.PrefixIndex.Posting;
+import com.gringotts.banking.alias.AliasChangedEvent;
+import com.gringotts.banking.user.User;
+import com.gringotts.banking.user.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Back-office customer lookup by the beginning of a username, email, phone number or account number,
+ * without LIKE 'abc%' over several columns.
+ *
+ * Every searchable value is a key "field tag + normalized value" (e.g. "e" + "harry@hogwarts.test") in:
+ * - base: a packed sorted array of all keys (PrefixIndex), built by one streamed scan at startup;
+ * - delta: the current keys of users changed since, in a concurrent skip list. Their base keys are ignored.
+ * A lookup is one binary search + short scan per field in each, merged in key order.
+ * Once the delta holds 'max-delta' users it is folded into a new base in the background (one linear merge)
+ * and swapped in, so changes are cheap and lookups stay flat.
+ *
+ * Changes arrive as AliasChangedEvent (new user, profile update, account opened / closed), after commit.
+ */
+@Service
+public class CustomerIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerIndex.class);
+
+    // Field tags (first byte of every key)
+    static final char USERNAME = 'u';
+    static final char EMAIL = 'e';
+    static final char PHONE = 'p';
+    static final char ACCOUNT = 'a';
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Changed users kept in the delta before it is merged into the base
+    @Value("${app.admin-lookup.max-delta:100000}")
+    private int maxDelta;
+
+    private volatile PrefixIndex base = PrefixIndex.EMPTY;
+
+    // userId -> its current postings, for users changed since the base was built
+    private final ConcurrentHashMap<Long, List<Posting>> changed = new ConcurrentHashMap<>();
+    private final NavigableSet<Posting> delta = new ConcurrentSkipListSet<>(PrefixIndex.COMPARATOR);
+
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("customer-index-compact").daemon().factory());
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Builds the base from scratch: one streamed scan of users and one of accounts, sorted once.
+     *
+     * @return Number of keys indexed.
+     */
+    public synchronized int reload() {
+        PrefixIndex.Builder builder = new PrefixIndex.Builder();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            try (Stream<Object[]> users = userRepository.streamLookupKeys()) {
+                users.forEach(row -> {
+                    long userId = ((Number) row[0]).longValue();
+                    for (Posting p : postings(userId, (String) row[1], (String) row[2], (String) row[3], List.of())) {
+                        builder.add(p.key(), userId);
+                    }
+                });
+            }
+            try (Stream<Object[]> accounts = accountRepository.streamAccountNumbers()) {
+                accounts.forEach(row -> builder.add(key(ACCOUNT, (String) row[1]), ((Number) row[0]).longValue()));
+            }
+        });
+
+        base = builder.build(true);
+        changed.clear();
+        delta.clear();
+        logger.info("Customer lookup index loaded: {} keys", base.size());
+        return base.size();
+    }
+
+    /**
+     * Re-reads one user (two queries) and replaces their keys in the delta.
+     */
+    public void refresh(Long userId) {
+        List<String> accountNumbers = accountRepository.findAccountNumbersByUserId(userId);
+        List<Posting> current = userRepository.findById(userId)
+                .map(u -> postings(userId, u.getUsername(), u.getEmail(), u.getPhoneNumber(), accountNumbers))
+                .orElse(List.of());
+
+        synchronized (this) {
+            // New keys first, so a concurrent lookup never misses the user entirely
+            delta.addAll(current);
+            List<Posting> old = changed.put(userId, current);
+            if (old != null) {
+                NavigableSet<Posting> kept = new TreeSet<>(PrefixIndex.COMPARATOR);
+                kept.addAll(current);
+                old.stream().filter(p -> !kept.contains(p)).forEach(delta::remove);
+            }
+        }
+        if (changed.size() >= maxDelta && compacting.compareAndSet(false, true)) {
+            compactor.submit(this::compact);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChanged(AliasChangedEvent event) {
+        refresh(event.userId());
+    }
+
+    /**
+     * Users with a username, email, phone number or account number starting with the prefix,
+     * in key order (an exact match comes first), at most one match per user.
+     *
+     * @param prefix Case-insensitive; for phone / account numbers, spaces and punctuation are ignored.
+     */
+    public List<IndexMatch> lookup(String prefix, int limit) {
+        String text = prefix == null ? "" : prefix.strip().toLowerCase(Locale.ROOT);
+        if (text.isEmpty()) {
+            throw new RuntimeException("prefix is required");
+        }
+
+        // 1. Candidates per field (each already in key order, at most 'limit' each)
+        List<IndexMatch> candidates = new ArrayList<>();
+        candidates.addAll(scan(key(USERNAME, text), limit));
+        candidates.addAll(scan(key(EMAIL, text), limit));
+        String digits = text.replaceAll("[\\s+()\\-]", "");
+        if (!digits.isEmpty() && digits.chars().allMatch(Character::isDigit)) {
+            candidates.addAll(scan(key(PHONE, digits), limit));
+            candidates.addAll(scan(key(ACCOUNT, digits), limit));
+        }
+
+        // 2. Merge the fields by matched value, one match per user
+        candidates.sort((a, b) -> a.value().compareTo(b.value()));
+        Map<Long, IndexMatch> byUser = new LinkedHashMap<>();
+        for (IndexMatch m : candidates) {
+            if (byUser.size() == limit) {
+                break;
+            }
+            byUser.putIfAbsent(m.userId(), m);
+        }
+        return List.copyOf(byUser.values());
+    }
+
+    /**
+     * lookup() with each match's customer details (one read of at most 'limit' users by id).
+     */
+    public List<CustomerMatch> search(String prefix, int limit) {
+        List<IndexMatch> matches = lookup(prefix, limit);
+        Map<Long, User> users = userRepository.findAllById(matches.stream().map(IndexMatch::userId).toList())
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<CustomerMatch> result = new ArrayList<>(matches.size());
+        for (IndexMatch m : matches) {
+            User u = users.get(m.userId());
+            if (u != null) {
+                result.add(new CustomerMatch(u.getId(), u.getUsername(), u.getFirstName(), u.getLastName(),
+                        u.getEmail(), u.getPhoneNumber(), m.field(), m.value()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sizes for monitoring: keys in the base, users in the delta.
+     */
+    public Map<String, Integer> stats() {
+        return Map.of("baseKeys", base.size(), "changedUsers", changed.size());
+    }
+
+    /**
+     * Folds the delta into a new base. Runs in the background; lookups and refreshes continue meanwhile.
+     */
+    void compact() {
+        try {
+            // 1. Snapshot of the changed users
+            PrefixIndex current;
+            Map<Long, List<Posting>> snapshot;
+            synchronized (this) {
+                current = base;
+                snapshot = new HashMap<>(changed);
+            }
+
+            // 2. Linear merge (no lock held)
+            Posting[] replacements = snapshot.values().stream().flatMap(List::stream)
+                    .sorted(PrefixIndex.COMPARATOR).toArray(Posting[]::new);
+            PrefixIndex merged = current.merge(replacements, snapshot::containsKey);
+
+            // 3. Swap; users changed again since the snapshot stay in the delta (their list is a new one)
+            synchronized (this) {
+                if (base != current) {
+                    return; // reload() replaced everything meanwhile
+                }
+                base = merged;
+                snapshot.forEach((userId, postings) -> {
+                    if (changed.remove(userId, postings)) {
+                        postings.forEach(delta::remove);
+                    }
+                });
+            }
+            logger.info("Customer lookup index compacted: {} changed users merged, {} keys", snapshot.size(), merged.size());
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    /**
+     * One indexed key of a user.
+     *
+     * @param field "username", "email", "phone" or "account".
+     * @param value The normalized value that matched (lower case; digits only for phone numbers).
+     */
+    public record IndexMatch(long userId, String field, String value) {
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    // Up to 'limit' keys starting with 'prefix', in order: base (skipping changed users) merged with the delta
+    private List<IndexMatch> scan(byte[] prefix, int limit) {
+        PrefixIndex index = base;
+        List<Posting> found = new ArrayList<>(limit);
+        for (int i = index.lowerBound(prefix); i < index.size() && index.startsWith(i, prefix) && found.size() < limit; i++) {
+            if (!changed.containsKey(index.userId(i))) {
+                found.add(new Posting(index.key(i), index.userId(i)));
+            }
+        }
+        int fromDelta = 0;
+        for (Posting p : delta.tailSet(new Posting(prefix, Long.MIN_VALUE), true)) {
+            if (!startsWith(p.key(), prefix) || fromDelta++ == limit) {
+                break;
+            }
+            found.add(p);
+        }
+        found.sort(PrefixIndex.COMPARATOR);
+
+        List<IndexMatch> matches = new ArrayList<>(Math.min(limit, found.size()));
+        for (Posting p : found.subList(0, Math.min(limit, found.size()))) {
+            matches.add(new IndexMatch(p.userId(), fieldName((char) p.key()[0]),
+                    new String(p.key(), 1, p.key().length - 1, StandardCharsets.UTF_8)));
+        }
+        return matches;
+    }
+
+    private static List<Posting> postings(long userId, String username, String email, String phone,
+                                          List<String> accountNumbers) {
+        List<Posting> postings = new ArrayList<>(3 + accountNumbers.size());
+        if (username != null && !username.isBlank()) {
+            postings.add(new Posting(key(USERNAME, username.strip().toLowerCase(Locale.ROOT)), userId));
+        }
+        if (email != null && !email.isBlank()) {
+            postings.add(new Posting(key(EMAIL, email.strip().toLowerCase(Locale.ROOT)), userId));
+        }
+        String phoneDigits = phone == null ? "" : phone.replaceAll("\\D", "");
+        if (!phoneDigits.isEmpty()) {
+            postings.add(new Posting(key(PHONE, phoneDigits), userId));
+        }
+        for (String number : accountNumbers) {
+            postings.add(new Posting(key(ACCOUNT, number), userId));
+        }
+        return postings;
+    }
+
+    private static byte[] key(char field, String value) {
+        return (field + value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean startsWith(byte[] key, byte[] prefix) {
+        return key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static String fieldName(char tag) {
+        return switch (tag) {
+            case USERNAME -> "username";
+            case EMAIL -> "email";
+            case PHONE -> "phone";
+            default -> "account";
+        };
+    }
+}
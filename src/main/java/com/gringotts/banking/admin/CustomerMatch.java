@@ -0,0 +1,18 @@
+package com.gringotts.banking.admin;
+
+/**
+ * One customer found by the admin lookup (GET /api/admin/lookup?prefix=).
+ *
+ * @param matchedField "username", "email", "phone" or "account".
+ * @param matchedValue The value that starts with the prefix (normalized: lower case, phone digits only).
+ */
+public record CustomerMatch(
+        Long userId,
+        String username,
+        String firstName,
+        String lastName,
+        String email,
+        String phoneNumber,
+        String matchedField,
+        String matchedValue) {
+}
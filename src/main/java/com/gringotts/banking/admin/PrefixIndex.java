@@ -0,0 +1,187 @@
+package com.gringotts.banking.admin;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable sorted array of (key, userId) postings, packed for tens of millions of keys:
+ * every key back to back in one byte[] (UTF-8), an int[] of offsets and a long[] of user ids,
+ * about (key length + 12) bytes per posting and no object per entry.
+ * A prefix query is one binary search for the first key >= prefix, then a forward scan
+ * while keys still start with it.
+ *
+ * Keys compare as unsigned bytes, the same order as the Posting COMPARATOR used by the delta.
+ */
+final class PrefixIndex {
+
+    static final PrefixIndex EMPTY = new Builder().build(false);
+
+    /**
+     * One key of one user (used by the mutable delta and to feed the builder).
+     */
+    record Posting(byte[] key, long userId) {
+    }
+
+    static final Comparator<Posting> COMPARATOR = (a, b) -> {
+        int c = Arrays.compareUnsigned(a.key(), b.key());
+        return c != 0 ? c : Long.compare(a.userId(), b.userId());
+    };
+
+    private final byte[] keys;
+    private final int[] offsets; // size + 1 entries: key i is keys[offsets[i], offsets[i + 1])
+    private final long[] userIds;
+
+    private PrefixIndex(byte[] keys, int[] offsets, long[] userIds) {
+        this.keys = keys;
+        this.offsets = offsets;
+        this.userIds = userIds;
+    }
+
+    int size() {
+        return userIds.length;
+    }
+
+    long userId(int i) {
+        return userIds[i];
+    }
+
+    byte[] key(int i) {
+        return Arrays.copyOfRange(keys, offsets[i], offsets[i + 1]);
+    }
+
+    /**
+     * @return The first position whose key is >= prefix (size() if none).
+     */
+    int lowerBound(byte[] prefix) {
+        int lo = 0;
+        int hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(mid, prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    boolean startsWith(int i, byte[] prefix) {
+        int length = offsets[i + 1] - offsets[i];
+        return length >= prefix.length
+                && Arrays.equals(keys, offsets[i], offsets[i] + prefix.length, prefix, 0, prefix.length);
+    }
+
+    /**
+     * Compaction: this index without the postings of the replaced users, plus their current postings.
+     * One linear merge of two sorted sequences.
+     *
+     * @param replaced Current postings of the changed users, sorted with COMPARATOR.
+     * @param isReplaced Whether a user's postings in this index are outdated.
+     */
+    PrefixIndex merge(Posting[] replaced, LongPredicate isReplaced) {
+        Builder builder = new Builder();
+        int i = 0;
+        int j = 0;
+        while (i < size() || j < replaced.length) {
+            if (i < size() && isReplaced.test(userIds[i])) {
+                i++;
+            } else if (j < replaced.length && (i == size() || compare(i, replaced[j]) > 0)) {
+                builder.add(replaced[j].key(), replaced[j].userId());
+                j++;
+            } else {
+                builder.add(key(i), userIds[i]);
+                i++;
+            }
+        }
+        return builder.build(false);
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private int compare(int i, byte[] other) {
+        return Arrays.compareUnsigned(keys, offsets[i], offsets[i + 1], other, 0, other.length);
+    }
+
+    private int compare(int i, Posting other) {
+        int c = compare(i, other.key());
+        return c != 0 ? c : Long.compare(userIds[i], other.userId());
+    }
+
+    /**
+     * Appends postings into growing packed arrays, then sorts them once (unless fed in order).
+     */
+    static final class Builder {
+
+        private byte[] keys = new byte[1024];
+        private int[] offsets = new int[65];
+        private long[] userIds = new long[64];
+        private int size;
+
+        void add(byte[] key, long userId) {
+            if (size == userIds.length) {
+                userIds = Arrays.copyOf(userIds, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2 + 1);
+            }
+            int end = offsets[size];
+            if (end + key.length > keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(keys.length * 2, end + key.length));
+            }
+            System.arraycopy(key, 0, keys, end, key.length);
+            userIds[size] = userId;
+            offsets[++size] = end + key.length;
+        }
+
+        /**
+         * @param sort false if the postings were added in COMPARATOR order already.
+         */
+        PrefixIndex build(boolean sort) {
+            if (!sort) {
+                return new PrefixIndex(Arrays.copyOf(keys, offsets[size]), Arrays.copyOf(offsets, size + 1),
+                        Arrays.copyOf(userIds, size));
+            }
+            // Sort a permutation (merge sort on an int[]: no boxing), then lay the keys out in that order
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            mergeSort(order, new int[size], 0, size);
+
+            byte[] sortedKeys = new byte[offsets[size]];
+            int[] sortedOffsets = new int[size + 1];
+            long[] sortedIds = new long[size];
+            for (int i = 0; i < size; i++) {
+                int k = order[i];
+                int length = offsets[k + 1] - offsets[k];
+                System.arraycopy(keys, offsets[k], sortedKeys, sortedOffsets[i], length);
+                sortedOffsets[i + 1] = sortedOffsets[i] + length;
+                sortedIds[i] = userIds[k];
+            }
+            return new PrefixIndex(sortedKeys, sortedOffsets, sortedIds);
+        }
+
+        private void mergeSort(int[] a, int[] tmp, int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            mergeSort(a, tmp, from, mid);
+            mergeSort(a, tmp, mid, to);
+            if (compare(a[mid - 1], a[mid]) <= 0) {
+                return; // already in order
+            }
+            System.arraycopy(a, from, tmp, from, to - from);
+            int i = from;
+            int j = mid;
+            for (int k = from; k < to; k++) {
+                a[k] = j >= to || (i < mid && compare(tmp[i], tmp[j]) <= 0) ? tmp[i++] : tmp[j++];
+            }
+        }
+
+        private int compare(int a, int b) {
+            int c = Arrays.compareUnsigned(keys, offsets[a], offsets[a + 1], keys, offsets[b], offsets[b + 1]);
+            return c != 0 ? c : Long.compare(userIds[a], userIds[b]);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.gringotts.banking.alias;
+
+/**
+ * Published when something the alias directory derives from a user changed:
+ * their email / phone number, their default account, or the set of their ACTIVE accounts
+ * (and on registration). AliasDirectory and the admin CustomerIndex re-read that user after commit.
+ *
+ * @param userId The user whose aliases may now point elsewhere.
+ */
+public record AliasChangedEvent(Long userId) {
+}
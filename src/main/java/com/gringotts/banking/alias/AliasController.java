@@ -0,0 +1,47 @@
+package com.gringotts.banking.alias;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Pay by phone number / email (see AliasDirectory).
+ */
+@RestController
+@RequestMapping("/api/aliases")
+public class AliasController {
+
+    @Autowired
+    private AliasDirectory aliasDirectory;
+
+    /**
+     * Who would receive a payment to this alias (the Pay form shows it before sending).
+     * Endpoint: GET /api/aliases?value=harry@hogwarts.test
+     * Returns: { "alias": "...", "name": "Harry P.", "accountEnding": "1234" }
+     */
+    @GetMapping
+    public ResponseEntity<?> lookup(@RequestParam String value) {
+        try {
+            AliasTarget target = aliasDirectory.resolve(value);
+            String number = target.accountNumber();
+            return ResponseEntity.ok(new AliasMatch(value, target.displayName(), number.substring(Math.max(0, number.length() - 4))));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the directory from the database (e.g. after users were changed outside the API).
+     * Endpoint: POST /api/aliases/reload (ROLE_ADMIN, see SecurityConfig)
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload() {
+        try {
+            return ResponseEntity.ok(Map.of("aliases", aliasDirectory.reload()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.gringotts.banking.alias;
+
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.user.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Pay-by-alias: phone number / email -> the owner's default ACTIVE account, resolved from memory.
+ * Flow: startup (or POST /api/aliases/reload) streams every ACTIVE account with its owner in one scan
+ * -> hash index of normalized aliases. AliasChangedEvent (profile update, account opened/closed,
+ * default changed) re-reads that one user after commit.
+ *
+ * resolve() is a map lookup, so an alias transfer costs no more queries than one by account id.
+ * A stale entry is harmless: the transfer still locks the target and refuses a CLOSED account.
+ * An alias that normalizes the same for several users (data from before phone numbers were unique by their
+ * digits, see User.phoneKey) is refused instead of paying whichever user was indexed last.
+ */
+@Service
+public class AliasDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(AliasDirectory.class);
+
+    // Shortest phone number accepted as an alias (digits)
+    static final int MIN_PHONE_DIGITS = 6;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Stands in 'targets' for an alias claimed by more than one user
+    private static final AliasTarget AMBIGUOUS = new AliasTarget(null, null, null, null);
+
+    // Replaced as a whole by reload()
+    private volatile Index index = new Index();
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the whole index from one streamed scan and swaps it in.
+     * Synchronized with refresh(), so a user refreshed during the scan is not overwritten by older rows.
+     *
+     * @return Number of aliases loaded.
+     */
+    public synchronized int reload() {
+        Index fresh = new Index();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            try (Stream<AliasRow> rows = accountRepository.streamAliasRows()) {
+                // Rows come grouped by user: index each user once their last row is seen
+                List<AliasRow> user = new ArrayList<>();
+                rows.forEachOrdered(row -> {
+                    if (!user.isEmpty() && !user.getFirst().userId().equals(row.userId())) {
+                        put(user, fresh);
+                        user.clear();
+                    }
+                    user.add(row);
+                });
+                put(user, fresh);
+            }
+        });
+
+        index = fresh;
+        logger.info("Alias directory loaded: {} aliases ({} ambiguous)", fresh.targets.size(), fresh.claimants.size());
+        return fresh.targets.size();
+    }
+
+    /**
+     * Re-reads one user (one query) and replaces their aliases.
+     */
+    public synchronized void refresh(Long userId) {
+        List<AliasRow> rows = accountRepository.findAliasRowsByUserId(userId);
+        Index current = index;
+        List<String> old = current.aliasesByUser.remove(userId);
+        if (old != null) {
+            old.forEach(alias -> current.remove(alias, userId));
+        }
+        put(rows, current);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAliasChanged(AliasChangedEvent event) {
+        refresh(event.userId());
+    }
+
+    /**
+     * @param alias A phone number (any formatting) or an email address.
+     * @throws RuntimeException if the alias is malformed, nobody can receive payments on it, or several users share it.
+     */
+    public AliasTarget resolve(String alias) {
+        AliasTarget target = index.targets.get(normalize(alias));
+        if (target == null) {
+            throw new RuntimeException("No account is registered for " + alias);
+        }
+        if (target == AMBIGUOUS) {
+            throw new RuntimeException(alias + " is registered to more than one customer, pay by account number");
+        }
+        return target;
+    }
+
+    public int size() {
+        return index.targets.size();
+    }
+
+    /**
+     * Canonical key of an alias: "email:" + lower-cased address, or "phone:" + its digits only
+     * ("+44 (0)20 7946-0018" and "4402079460018" are the same phone).
+     */
+    static String normalize(String alias) {
+        if (alias == null || alias.isBlank()) {
+            throw new RuntimeException("Alias is required");
+        }
+        String value = alias.strip();
+        if (value.indexOf('@') > 0) {
+            return "email:" + value.toLowerCase(Locale.ROOT);
+        }
+        String digits = User.phoneKey(value);
+        if (digits == null || digits.length() < MIN_PHONE_DIGITS) {
+            throw new RuntimeException("Not a phone number or email: " + alias);
+        }
+        return "phone:" + digits;
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    /**
+     * One build of the directory. Writes happen under the directory's lock; resolve() only reads 'targets'.
+     */
+    private static final class Index {
+
+        // Normalized alias ("email:..." / "phone:...") -> target, or AMBIGUOUS
+        final Map<String, AliasTarget> targets = new ConcurrentHashMap<>();
+
+        // userId -> its aliases currently in 'targets' (to drop the old ones when a user changes)
+        final Map<Long, List<String>> aliasesByUser = new ConcurrentHashMap<>();
+
+        // Aliases claimed by several users -> every claimant (userId -> target), until only one is left
+        final Map<String, Map<Long, AliasTarget>> claimants = new HashMap<>();
+
+        void add(String alias, AliasTarget target) {
+            Map<Long, AliasTarget> shared = claimants.get(alias);
+            AliasTarget current = targets.get(alias);
+            if (shared == null && (current == null || current.userId().equals(target.userId()))) {
+                targets.put(alias, target);
+                return;
+            }
+            if (shared == null) {
+                shared = new HashMap<>();
+                shared.put(current.userId(), current);
+                claimants.put(alias, shared);
+            }
+            shared.put(target.userId(), target);
+            targets.put(alias, AMBIGUOUS);
+            logger.warn("Alias shared by users {}: refused until only one of them keeps it", shared.keySet());
+        }
+
+        void remove(String alias, Long userId) {
+            Map<Long, AliasTarget> shared = claimants.get(alias);
+            if (shared == null) {
+                // Only an entry still pointing at this user (a freed alias may already belong to someone else)
+                targets.computeIfPresent(alias, (a, t) -> t.userId().equals(userId) ? null : t);
+                return;
+            }
+            shared.remove(userId);
+            if (shared.size() == 1) {
+                claimants.remove(alias);
+                targets.put(alias, shared.values().iterator().next());
+            }
+        }
+    }
+
+    // Indexes one user's rows (all ACTIVE accounts, oldest first) under their aliases
+    private static void put(List<AliasRow> rows, Index index) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        // The chosen default if it is still ACTIVE, else the oldest account
+        AliasRow first = rows.getFirst();
+        AliasRow account = rows.stream()
+                .filter(r -> r.accountId().equals(first.defaultAccountId()))
+                .findFirst()
+                .orElse(first);
+        AliasTarget target = new AliasTarget(first.userId(), account.accountId(), account.accountNumber(),
+                displayName(first.firstName(), first.lastName()));
+
+        List<String> aliases = new ArrayList<>(2);
+        for (String raw : new String[]{first.email(), first.phoneNumber()}) {
+            String alias = normalizeQuietly(raw);
+            if (alias != null) {
+                index.add(alias, target);
+                aliases.add(alias);
+            }
+        }
+        index.aliasesByUser.put(first.userId(), aliases);
+    }
+
+    private static String normalizeQuietly(String raw) {
+        try {
+            return raw == null || raw.isBlank() ? null : normalize(raw);
+        } catch (RuntimeException e) {
+            return null; // e.g. a too short phone number on file: not usable as an alias
+        }
+    }
+
+    // "Harry P."
+    private static String displayName(String firstName, String lastName) {
+        String first = firstName == null ? "" : firstName.strip();
+        String initial = lastName == null || lastName.isBlank() ? "" : lastName.strip().charAt(0) + ".";
+        String name = (first + " " + initial).strip();
+        return name.isEmpty() ? "Gringotts customer" : name;
+    }
+}
@@ -0,0 +1,10 @@
+package com.gringotts.banking.alias;
+
+/**
+ * What a payer sees before paying an alias (GET /api/aliases?value=...): enough to recognise the payee,
+ * never the full account number.
+ *
+ * @param accountEnding Last 4 digits of the receiving account.
+ */
+public record AliasMatch(String alias, String name, String accountEnding) {
+}
@@ -0,0 +1,15 @@
+package com.gringotts.banking.alias;
+
+/**
+ * One ACTIVE account with its owner's alias data (a row of the directory load).
+ */
+public record AliasRow(
+        Long userId,
+        String email,
+        String phoneNumber,
+        String firstName,
+        String lastName,
+        Long defaultAccountId,
+        Long accountId,
+        String accountNumber) {
+}
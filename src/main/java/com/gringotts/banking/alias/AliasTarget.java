@@ -0,0 +1,9 @@
+package com.gringotts.banking.alias;
+
+/**
+ * Where payments to an alias go: the owner's default ACTIVE account.
+ *
+ * @param displayName First name and last initial, for the payer to confirm ("Harry P.").
+ */
+public record AliasTarget(Long userId, Long accountId, String accountNumber, String displayName) {
+}
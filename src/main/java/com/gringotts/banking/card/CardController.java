@@ -1,10 +1,13 @@
 package com.gringotts.banking.card;
 
+import com.gringotts.banking.money.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.math.BigDecimal;
 import java.util.Map;
 import java.util.List;
 
@@ -68,7 +71,7 @@ public class CardController {
         try {
             String cardNumber = request.get("cardNumber").toString();
             String pin = request.get("pin").toString();
-            BigDecimal amount = new BigDecimal(request.get("amount").toString());
+            Money amount = Money.parse(request.get("amount").toString());
 
             cardService.performDeposit(cardNumber, pin, amount);
             return ResponseEntity.ok("ATM Deposit Successful");
@@ -80,7 +83,8 @@ public class CardController {
     /**
      * Simulation of a Card Purchase (Swipe).
      * Endpoint: POST /api/cards/pay
-     * Body: { "cardNumber": "...", "cvv": "...", "pin": "...", "amount": 50 }
+     * Body: { "cardNumber": "...", "cvv": "...", "pin": "...", "amount": 50, "merchant": "TESCO EXPRESS" }
+     * (merchant is optional; it goes into the description and decides the spending category)
      */
     @PostMapping("/pay")
     public ResponseEntity<?> pay(@RequestBody Map<String, Object> request) {
@@ -88,18 +92,28 @@ public class CardController {
             String cardNumber = request.get("cardNumber").toString();
             String cvv = request.get("cvv").toString();
             String pin = request.get("pin").toString();
-            BigDecimal amount = new BigDecimal(request.get("amount").toString());
+            Money amount = Money.parse(request.get("amount").toString());
+            Object merchant = request.get("merchant");
 
-            cardService.pay(cardNumber, cvv, pin, amount);
+            cardService.pay(cardNumber, cvv, pin, amount, merchant == null ? null : merchant.toString());
             return ResponseEntity.ok("Payment Successful");
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
-    // ✅ ADD THIS NEW ENDPOINT
+    /**
+     * Lists the user's cards (PIN masked).
+     * Endpoint: GET /api/cards/by-user/{userId}
+     * Conditional GET: answers 304 from the card ids + update times alone when the client's ETag is current.
+     */
     @GetMapping("/by-user/{userId}")
-    public ResponseEntity<List<CardResponse>> getCardsByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(cardService.getCardsByUser(userId));
+    public ResponseEntity<List<CardResponse>> getCardsByUser(@PathVariable Long userId, WebRequest webRequest) {
+        String etag = cardService.getCardsETag(userId);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                .body(cardService.getCardsByUser(userId));
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.gringotts.banking.card;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -26,4 +28,17 @@ public interface CardRepository extends JpaRepository<Card, Long> {
      * Finds all cards linked to a specific account.
      */
     List<Card> findByAccountId(Long accountId);
+
+    /**
+     * Finds all cards of all accounts owned by a user.
+     * Single JOIN query (cards -> accounts) instead of one lookup per account.
+     */
+    List<Card> findByAccountUserId(Long userId);
+
+    /**
+     * (id, updatedAt) of the user's cards (ETag support: no entity is loaded).
+     */
+    @Query("SELECT new com.gringotts.banking.card.CardVersion(c.id, c.updatedAt) FROM Card c " +
+            "WHERE c.account.user.id = :userId ORDER BY c.id")
+    List<CardVersion> findVersionsByAccountUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
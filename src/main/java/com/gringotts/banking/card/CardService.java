@@ -3,14 +3,18 @@ package com.gringotts.banking.card;
 import com.gringotts.banking.account.Account;
 import com.gringotts.banking.account.AccountRepository;
 import com.gringotts.banking.account.AccountService;
+import com.gringotts.banking.commit.GroupCommitter;
+import com.gringotts.banking.commit.MoneyMovement;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.partition.PartitionedExecutor;
 import com.gringotts.banking.transaction.TransactionService;
 import com.gringotts.banking.transaction.TransactionType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.ArrayList;
@@ -21,6 +25,9 @@ import java.util.ArrayList;
 @Service
 public class CardService {
 
+    // Keeps "Card Purchase: 1234 at <merchant>" within the description column
+    private static final int MAX_MERCHANT_LENGTH = 200;
+
     @Autowired
     private CardRepository cardRepository;
 
@@ -36,6 +43,12 @@ public class CardService {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private PartitionedExecutor partitionedExecutor;
+
+    @Autowired
+    private GroupCommitter groupCommitter;
+
     /**
      * Issues a new Debit Card linked to an Account.
      * Flow: Frontend -> CardController -> CardService -> DB.
@@ -75,50 +88,74 @@ public class CardService {
     }
 
 
+    /**
+     * Lists every card of every account owned by the user.
+     * One JOIN query for all accounts (no per-account lookups).
+     */
     public List<CardResponse> getCardsByUser(Long userId) {
-        // 1. Find all accounts for this user
-        List<Account> accounts = accountRepository.findByUserId(userId);
+        List<Card> cards = cardRepository.findByAccountUserId(userId);
 
         List<CardResponse> responses = new ArrayList<>();
-
-        // 2. For each account, find its cards
-        for (Account account : accounts) {
-            List<Card> cards = cardRepository.findByAccountId(account.getId());
-
-            for (Card card : cards) {
-                CardResponse res = new CardResponse();
-                res.setId(card.getId());
-                res.setAccountId(account.getId());
-                res.setCardNumber(card.getCardNumber());
-                res.setCvv(card.getCvv());
-                res.setExpiry(card.getExpiryDate().toString());
-                res.setCardType(card.getCardType());
-
-                // NOTE: We cannot return the 'tempPin' here because it is hashed in the DB.
-                // We return null or masked value. The user only sees the PIN once upon creation.
-                res.setTempPin("****");
-
-                responses.add(res);
-            }
+        for (Card card : cards) {
+            CardResponse res = new CardResponse();
+            res.setId(card.getId());
+            res.setAccountId(card.getAccount().getId()); // FK only, the lazy Account is not loaded
+            res.setCardNumber(card.getCardNumber());
+            res.setCvv(card.getCvv());
+            res.setExpiry(card.getExpiryDate().toString());
+            res.setCardType(card.getCardType());
+
+            // NOTE: We cannot return the 'tempPin' here because it is hashed in the DB.
+            // We return null or masked value. The user only sees the PIN once upon creation.
+            res.setTempPin("****");
+
+            responses.add(res);
         }
         return responses;
     }
 
+    /**
+     * Strong ETag of the user's card list: ids + last update of each card (a blocked or edited card changes it too).
+     */
+    public String getCardsETag(Long userId) {
+        StringBuilder etag = new StringBuilder("\"card-").append(userId);
+        for (CardVersion v : cardRepository.findVersionsByAccountUserId(userId)) {
+            etag.append('.').append(v.id()).append(':')
+                    .append(v.updatedAt() == null ? 0 : v.updatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        return etag.append('"').toString();
+    }
+
     /**
      * Performs an ATM Deposit using Card credentials.
      * Flow: ATM -> CardService (Validate PIN) -> AccountService (Add Money).
      * Note: ATM deposits do not require CVV checks.
+     * With group commit on, the deposit shares a DB transaction with concurrent card movements.
      */
-    public void performDeposit(String cardNumber, String pin, BigDecimal amount) {
+    public void performDeposit(String cardNumber, String pin, Money amount) {
         Card card = validateCardDetails(cardNumber, pin);
-        accountService.deposit(card.getAccount().getId(), amount, TransactionType.CARD_DEPOSIT);
+        Long accountId = card.getAccount().getId();
+        if (groupCommitter.isEnabled()) {
+            PartitionedExecutor.await(groupCommitter.submit(
+                    new MoneyMovement(accountId, amount, TransactionType.CARD_DEPOSIT, null)));
+            return;
+        }
+        PartitionedExecutor.await(partitionedExecutor.submit(accountId,
+                () -> accountService.deposit(accountId, amount, TransactionType.CARD_DEPOSIT)));
     }
 
     /**
      * Performs a Point-of-Sale or Online Payment.
      * Flow: Merchant -> CardService (Validate PIN + CVV + Expiry) -> TransactionService (Deduct Money).
      */
-    public void pay(String cardNumber, String cvv, String pin, BigDecimal amount) {
+    public void pay(String cardNumber, String cvv, String pin, Money amount) {
+        pay(cardNumber, cvv, pin, amount, null);
+    }
+
+    /**
+     * Same, naming the merchant: "Card Purchase: 1234 at TESCO EXPRESS" (categorized from the merchant name).
+     */
+    public void pay(String cardNumber, String cvv, String pin, Money amount, String merchant) {
         Card card = validateCardDetails(cardNumber, pin);
 
         // Additional checks for Payments
@@ -129,17 +166,27 @@ public class CardService {
             throw new RuntimeException("Card has expired");
         }
 
-        transactionService.withdraw(
-                card.getAccount().getId(),
-                amount,
-                "Card Purchase: " + cardNumber.substring(12), // Masked for privacy
-                TransactionType.CARD_PURCHASE
-        );
+        Long accountId = card.getAccount().getId();
+        String description = "Card Purchase: " + cardNumber.substring(12) // Masked for privacy
+                + (merchant == null || merchant.isBlank() ? "" : " at " + truncate(merchant.strip(), MAX_MERCHANT_LENGTH));
+        if (groupCommitter.isEnabled()) {
+            PartitionedExecutor.await(groupCommitter.submit(
+                    new MoneyMovement(accountId, amount, TransactionType.CARD_PURCHASE, description)));
+            return;
+        }
+        PartitionedExecutor.await(partitionedExecutor.submit(accountId, () -> {
+            transactionService.withdraw(accountId, amount, description, TransactionType.CARD_PURCHASE);
+            return null;
+        }));
     }
 
 
     // --- PRIVATE HELPERS ---
 
+    private static String truncate(String text, int max) {
+        return text.length() <= max ? text : text.substring(0, max);
+    }
+
     private Card validateCardDetails(String cardNumber, String pin) {
         Card card = cardRepository.findByCardNumber(cardNumber)
                 .orElseThrow(() -> new RuntimeException("Invalid Card Number"));
@@ -0,0 +1,10 @@
+package com.gringotts.banking.card;
+
+import java.time.LocalDateTime;
+
+/**
+ * Minimal (id, updatedAt) pair of a Card.
+ * Fetched instead of the full entity when only the ETag of a card list is needed.
+ */
+public record CardVersion(Long id, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,52 @@
+package com.gringotts.banking.category;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Spending categories assigned to card purchases and transfers.
+ */
+@RestController
+@RequestMapping("/api/categories")
+public class CategoryController {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    /**
+     * The categories of the rules in use.
+     * Endpoint: GET /api/categories
+     * Returns: { "categories": ["groceries", ...], "keywords": 412, "loadedAt": "..." }
+     */
+    @GetMapping
+    public ResponseEntity<?> getCategories() {
+        return ResponseEntity.ok(describe(categoryService.getMatcher()));
+    }
+
+    /**
+     * Re-reads the rule file now (e.g. right after editing it). New movements use the new rules at once.
+     * Endpoint: POST /api/categories/reload (ROLE_ADMIN, see SecurityConfig)
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload() {
+        try {
+            return ResponseEntity.ok(describe(categoryService.reload()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private static Map<String, Object> describe(MerchantMatcher matcher) {
+        return Map.of("categories", matcher.categories().stream().sorted().toList(),
+                "keywords", matcher.keywordCount(),
+                "loadedAt", matcher.loadedAt());
+    }
+}
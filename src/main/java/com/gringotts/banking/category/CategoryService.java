@@ -0,0 +1,134 @@
+package com.gringotts.banking.category;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spending categories (groceries, travel, ...) for card purchases and transfers.
+ * Flow: rule file -> reload() compiles an immutable MerchantMatcher -> one volatile write publishes it.
+ * categorize() reads that reference once: no lock, no I/O, safe inside the movement's DB transaction.
+ *
+ * Rule file ('app.categories.rules'), one category per line, '#' starts a comment:
+ *   groceries: tesco, whole foods, trader joe's
+ *   travel: uber, ryanair, marriott
+ */
+@Service
+public class CategoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryService.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${app.categories.rules:classpath:categories.txt}")
+    private String rulesLocation;
+
+    // Reload period (0 = only on startup and POST /api/categories/reload)
+    @Value("${app.categories.refresh-ms:0}")
+    private long refreshMs;
+
+    private volatile MerchantMatcher matcher = MerchantMatcher.EMPTY;
+
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    public void init() {
+        reloadQuietly();
+        if (refreshMs > 0) {
+            refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("category-reload").daemon().factory());
+            refresher.scheduleWithFixedDelay(this::reloadQuietly, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Re-reads the rule file, compiles it and swaps the matcher in one step.
+     * Movements running meanwhile keep the matcher they already read.
+     */
+    public MerchantMatcher reload() {
+        Resource resource = resourceLoader.getResource(rulesLocation);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            MerchantMatcher fresh = MerchantMatcher.compile(parse(reader));
+            matcher = fresh;
+            logger.info("Category rules loaded: {} keywords in {} categories", fresh.keywordCount(), fresh.categories().size());
+            return fresh;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read category rules from " + rulesLocation, e);
+        }
+    }
+
+    /**
+     * @return The category of the description's merchant, or null if no rule matches.
+     */
+    public String categorize(String description) {
+        return matcher.categorize(description);
+    }
+
+    public MerchantMatcher getMatcher() {
+        return matcher;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    /**
+     * "category: keyword, keyword" lines -> keyword -> category (a keyword listed twice keeps its first category).
+     */
+    static Map<String, String> parse(BufferedReader reader) throws IOException {
+        Map<String, String> rules = new LinkedHashMap<>();
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            int hash = line.indexOf('#');
+            line = (hash >= 0 ? line.substring(0, hash) : line).strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Category rules line " + number + ": expected 'category: keyword, ...'");
+            }
+            String category = line.substring(0, colon).strip().toLowerCase(Locale.ROOT);
+            for (String keyword : line.substring(colon + 1).split(",")) {
+                if (!keyword.isBlank()) {
+                    rules.putIfAbsent(keyword.strip().toLowerCase(Locale.ROOT), category);
+                }
+            }
+        }
+        return rules;
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Keep serving the last good rules
+            logger.warn("Category rules reload failed: {}", e.getMessage());
+        }
+    }
+}
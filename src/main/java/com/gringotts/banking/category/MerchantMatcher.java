@@ -0,0 +1,195 @@
+package com.gringotts.banking.category;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable Aho-Corasick automaton over the merchant keywords of the category rules.
+ * categorize() reads a description once, left to right, whatever the number of keywords
+ * (instead of one regex per rule).
+ *
+ * Matching rules:
+ * - Case-insensitive; a keyword only counts on word boundaries ("bp" does not match "bpay").
+ * - The longest matching keyword wins (more specific: "uber eats" before "uber"); ties go to the first one found.
+ *
+ * Built once per rule load and published by CategoryService with a single volatile write,
+ * so readers never see a half-built automaton.
+ */
+public final class MerchantMatcher {
+
+    public static final MerchantMatcher EMPTY = compile(Map.of());
+
+    // Per node: children as parallel sorted arrays (binary search), failure link, output
+    private final char[][] childChars;
+    private final int[][] childNodes;
+    private final int[] fail;
+    // Keyword ending exactly here (-1 if none), and the nearest node on the failure chain that has one
+    private final int[] keyword;
+    private final int[] dictLink;
+
+    private final int[] keywordLength;
+    private final String[] keywordCategory;
+
+    private final Set<String> categories;
+    private final Instant loadedAt;
+
+    private MerchantMatcher(char[][] childChars, int[][] childNodes, int[] fail, int[] keyword, int[] dictLink,
+                            int[] keywordLength, String[] keywordCategory, Set<String> categories) {
+        this.childChars = childChars;
+        this.childNodes = childNodes;
+        this.fail = fail;
+        this.keyword = keyword;
+        this.dictLink = dictLink;
+        this.keywordLength = keywordLength;
+        this.keywordCategory = keywordCategory;
+        this.categories = categories;
+        this.loadedAt = Instant.now();
+    }
+
+    /**
+     * Builds the automaton.
+     * Flow: trie of the keywords -> failure links breadth first (the longest proper suffix that is also
+     * a trie path) -> dictionary links (shortcut to the next keyword on that suffix chain).
+     *
+     * @param rules keyword -> category (keywords are lower-cased; blank ones are skipped).
+     */
+    public static MerchantMatcher compile(Map<String, String> rules) {
+        // 1. Trie (TreeMap children while building, so the final arrays come out sorted)
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        List<Integer> ends = new ArrayList<>();
+        ends.add(-1);
+        List<Integer> lengths = new ArrayList<>();
+        List<String> cats = new ArrayList<>();
+        Set<String> categories = new LinkedHashSet<>();
+
+        for (Map.Entry<String, String> rule : rules.entrySet()) {
+            String word = rule.getKey().strip().toLowerCase(Locale.ROOT);
+            if (word.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < word.length(); i++) {
+                Integer next = trie.get(node).get(word.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(-1);
+                    trie.get(node).put(word.charAt(i), next);
+                }
+                node = next;
+            }
+            if (ends.get(node) < 0) {
+                ends.set(node, lengths.size());
+                lengths.add(word.length());
+                cats.add(rule.getValue());
+                categories.add(rule.getValue());
+            }
+        }
+
+        int n = trie.size();
+        char[][] childChars = new char[n][];
+        int[][] childNodes = new int[n][];
+        for (int i = 0; i < n; i++) {
+            TreeMap<Character, Integer> children = trie.get(i);
+            childChars[i] = new char[children.size()];
+            childNodes[i] = new int[children.size()];
+            int k = 0;
+            for (Map.Entry<Character, Integer> c : children.entrySet()) {
+                childChars[i][k] = c.getKey();
+                childNodes[i][k++] = c.getValue();
+            }
+        }
+        int[] keyword = ends.stream().mapToInt(Integer::intValue).toArray();
+
+        // 2. Failure and dictionary links, breadth first (a node's links only depend on shallower nodes)
+        int[] fail = new int[n];
+        int[] dictLink = new int[n];
+        Arrays.fill(dictLink, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : childNodes[0]) {
+            queue.add(child); // depth 1: fail to the root
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int k = 0; k < childChars[node].length; k++) {
+                char c = childChars[node][k];
+                int child = childNodes[node][k];
+                int f = fail[node];
+                while (f != 0 && child(childChars, childNodes, f, c) < 0) {
+                    f = fail[f];
+                }
+                int target = child(childChars, childNodes, f, c);
+                fail[child] = target >= 0 ? target : 0;
+                dictLink[child] = keyword[fail[child]] >= 0 ? fail[child] : dictLink[fail[child]];
+                queue.add(child);
+            }
+        }
+
+        return new MerchantMatcher(childChars, childNodes, fail, keyword, dictLink,
+                lengths.stream().mapToInt(Integer::intValue).toArray(), cats.toArray(String[]::new),
+                Set.copyOf(categories));
+    }
+
+    /**
+     * @return The category of the best keyword in the text, or null if none matches.
+     */
+    public String categorize(String text) {
+        if (text == null || keywordLength.length == 0) {
+            return null;
+        }
+        int best = -1;
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next;
+            while ((next = child(childChars, childNodes, node, c)) < 0 && node != 0) {
+                node = fail[node];
+            }
+            node = Math.max(next, 0);
+
+            // Every keyword ending at i: this node's own, then along the dictionary links
+            for (int out = keyword[node] >= 0 ? node : dictLink[node]; out >= 0; out = dictLink[out]) {
+                int k = keyword[out];
+                int start = i - keywordLength[k] + 1;
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)
+                        && (best < 0 || keywordLength[k] > keywordLength[best])) {
+                    best = k;
+                }
+            }
+        }
+        return best < 0 ? null : keywordCategory[best];
+    }
+
+    public int keywordCount() {
+        return keywordLength.length;
+    }
+
+    public Set<String> categories() {
+        return categories;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private static int child(char[][] childChars, int[][] childNodes, int node, char c) {
+        int k = Arrays.binarySearch(childChars[node], c);
+        return k >= 0 ? childNodes[node][k] : -1;
+    }
+
+    // Outside the text, or not a letter/digit
+    private static boolean isBoundary(String text, int i) {
+        return i < 0 || i >= text.length() || !Character.isLetterOrDigit(text.charAt(i));
+    }
+}
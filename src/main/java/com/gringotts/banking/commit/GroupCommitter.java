@@ -0,0 +1,242 @@
+package com.gringotts.banking.commit;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.account.AccountService;
+import com.gringotts.banking.transaction.Transaction;
+import com.gringotts.banking.transaction.TransactionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Group commit for small single-account movements (card payments, ATM deposits).
+ * Flow: callers submit() -> queue -> the committer thread collects a group (up to max-batch requests,
+ * or whatever arrived within window-ms of the first) -> ONE DB transaction: lock all the group's
+ * accounts in one statement, apply every movement, commit (one fsync) -> complete each caller's future.
+ *
+ * Isolation between callers:
+ * - A rejected movement (insufficient funds, closed account, ...) fails before touching anything,
+ *   so only that caller's future fails and the rest of the group commits.
+ * - If the group's transaction itself fails (DB error), every movement is retried in its own
+ *   transaction, so only the culprit fails.
+ *
+ * When disabled, each movement runs in its own transaction on the caller's thread (the old path).
+ *
+ * Shutdown lets the group being committed finish, then fails everything still queued (nothing of it
+ * was applied) and rejects later submissions, so no caller waits on a future that never completes.
+ */
+@Component
+public class GroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitter.class);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.group-commit.max-batch:64}")
+    private int maxBatch;
+
+    @Value("${app.group-commit.window-ms:2}")
+    private long windowMs;
+
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread committer;
+
+    private volatile boolean stopped;
+
+    private record Pending(MoneyMovement movement, CompletableFuture<Transaction> result) {
+    }
+
+    // Queued by shutdown(): the committer commits what it gathered before it, then exits
+    private static final Pending STOP = new Pending(null, null);
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (enabled) {
+            committer = Thread.ofPlatform().name("group-commit").daemon().start(this::run);
+        }
+    }
+
+    /**
+     * Queues a movement for the next group.
+     *
+     * @return Completes with the movement's own Transaction, or its own exception.
+     */
+    public CompletableFuture<Transaction> submit(MoneyMovement movement) {
+        CompletableFuture<Transaction> result = new CompletableFuture<>();
+        if (stopped) {
+            result.completeExceptionally(stoppedException());
+        } else if (!enabled) {
+            commitAlone(new Pending(movement, result));
+        } else {
+            queue.add(new Pending(movement, result));
+            if (stopped) {
+                failQueued(); // raced with shutdown(): nobody is left to take it
+            }
+        }
+        return result;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        if (committer != null) {
+            queue.add(STOP);
+            try {
+                committer.join(TimeUnit.SECONDS.toMillis(10)); // the group in flight commits or fails on its own
+                if (committer.isAlive()) {
+                    committer.interrupt(); // stuck (e.g. on the DB): give up on it
+                    committer.join(TimeUnit.SECONDS.toMillis(1));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        failQueued();
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(maxBatch);
+        boolean stopping = false;
+        while (!stopping && !Thread.currentThread().isInterrupted()) {
+            try {
+                // 1. Block for the first request, then gather more until the window closes or the group is full
+                //    (or STOP arrives: the group gathered so far is still committed)
+                Pending next = queue.take();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (next != null) {
+                    if (next == STOP) {
+                        stopping = true;
+                        break;
+                    }
+                    group.add(next);
+                    if (group.size() == maxBatch) {
+                        break;
+                    }
+                    next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+
+                // 2. One transaction for the whole group
+                if (!group.isEmpty()) {
+                    commitGroup(group);
+                }
+            } catch (InterruptedException e) {
+                // Stopping while gathering: the partial group was never applied
+                group.forEach(p -> p.result().completeExceptionally(stoppedException()));
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("Group commit loop failed", e);
+                group.forEach(p -> p.result().completeExceptionally(e));
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void failQueued() {
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.stream().filter(p -> p != STOP).forEach(p -> p.result().completeExceptionally(stoppedException()));
+    }
+
+    private static RuntimeException stoppedException() {
+        return new RuntimeException("Group commit is shut down, movement not applied");
+    }
+
+    private void commitGroup(List<Pending> group) {
+        Map<Pending, Transaction> done = new HashMap<>();
+        Map<Pending, RuntimeException> rejected = new HashMap<>();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // 1. Lock every account of the group in one statement (id order)
+                TreeSet<Long> ids = group.stream().map(p -> p.movement().accountId())
+                        .collect(Collectors.toCollection(TreeSet::new));
+                Map<Long, Account> accounts = accountRepository.findAllByIdForUpdate(ids).stream()
+                        .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+                // 2. Apply in arrival order; a rejected movement has changed nothing
+                for (Pending pending : group) {
+                    try {
+                        Account account = accounts.get(pending.movement().accountId());
+                        if (account == null) {
+                            throw new RuntimeException("Account not found");
+                        }
+                        done.put(pending, apply(account, pending.movement()));
+                    } catch (RuntimeException e) {
+                        rejected.put(pending, e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // 3. The group's transaction failed as a whole: fall back to one transaction per movement
+            logger.warn("Group of {} failed ({}), retrying individually", group.size(), e.getMessage());
+            group.forEach(this::commitAlone);
+            return;
+        }
+
+        // 4. Committed: answer every caller
+        done.forEach((pending, transaction) -> pending.result().complete(transaction));
+        rejected.forEach((pending, e) -> pending.result().completeExceptionally(e));
+    }
+
+    private void commitAlone(Pending pending) {
+        try {
+            Transaction transaction = transactionTemplate.execute(status -> {
+                Account account = accountRepository.findByIdForUpdate(pending.movement().accountId())
+                        .orElseThrow(() -> new RuntimeException("Account not found"));
+                return apply(account, pending.movement());
+            });
+            pending.result().complete(transaction);
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private Transaction apply(Account account, MoneyMovement movement) {
+        if (movement.type().isDeposit()) {
+            return accountService.applyDeposit(account, movement.amount(), movement.type());
+        }
+        return transactionService.applyWithdrawal(account, movement.amount(), movement.description(), movement.type());
+    }
+}
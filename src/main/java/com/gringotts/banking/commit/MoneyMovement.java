@@ -0,0 +1,15 @@
+package com.gringotts.banking.commit;
+
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.TransactionType;
+
+/**
+ * A single-account credit or debit waiting for group commit.
+ *
+ * @param accountId   The account to move money on.
+ * @param amount      Always positive; the type says which direction.
+ * @param type        Deposit types credit the account, everything else debits it.
+ * @param description Stored on the Transaction row (debits only; deposits build their own).
+ */
+public record MoneyMovement(Long accountId, Money amount, TransactionType type, String description) {
+}
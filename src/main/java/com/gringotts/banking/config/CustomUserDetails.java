@@ -0,0 +1,25 @@
+package com.gringotts.banking.config;
+
+import com.gringotts.banking.user.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * The authenticated principal: Spring Security's user plus the 'User' entity it was built from.
+ * JwtFilter loads the user once per request; endpoints that need the entity take it from here
+ * instead of reading it from the DB again. (Detached: basic fields only, no lazy associations.)
+ */
+public class CustomUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final User user;
+
+    public CustomUserDetails(User user) {
+        super(user.getUsername(), // Always use the unique username as the principal
+                user.getPassword(), // The hashed password from DB
+                List.of(new SimpleGrantedAuthority(user.getRole()))); // "ROLE_USER" / "ROLE_ADMIN"
+        this.user = user;
+    }
+
+    public User getUser() { return user; }
+}
@@ -8,8 +8,6 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-
 /**
  * Bridges the gap between our Custom Database 'User' and Spring Security's 'UserDetails'.
  * Used during the Login process to fetch user credentials.
@@ -35,11 +33,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsernameOrEmail(input, input)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with identifier: " + input));
 
-        // Convert our User entity to a Spring Security compatible User
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(), // Always use the unique username as the principal
-                user.getPassword(), // The hashed password from DB
-                new ArrayList<>()   // Authorities/Roles (Empty for now)
-        );
+        // Convert our User entity to a Spring Security compatible User (which keeps the entity, see CustomUserDetails)
+        return new CustomUserDetails(user);
     }
 }
\ No newline at end of file
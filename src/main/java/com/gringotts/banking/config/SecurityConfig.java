@@ -1,5 +1,6 @@
 package com.gringotts.banking.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.http.HttpMethod;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -69,6 +70,13 @@ public class SecurityConfig {
                         .requestMatchers("/uploads/**").permitAll() // Allow browsers to load images
                         // ✅ FIX: Explicitly allow OPTIONS requests (Preflight)
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Async re-dispatch of an already authenticated request (e.g. SSE stream completion)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Back-office endpoints: users with role ROLE_ADMIN only
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        // ... and the operational reloads/rebuilds that live next to their features
+                        .requestMatchers(HttpMethod.POST, "/api/fx/refresh", "/api/fees/reload", "/api/categories/reload",
+                                "/api/aliases/reload", "/api/accounts/*/top-payees/rebuild").hasRole("ADMIN")
                         // All other endpoints (Accounts, Transactions, Cards) are now LOCKED.
                         // You must send a valid JWT Token in the header to access them.
                         .anyRequest().authenticated()
@@ -0,0 +1,35 @@
+package com.gringotts.banking.dashboard;
+
+import com.gringotts.banking.config.CustomUserDetails;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST API for the Dashboard screen.
+ * Replaces the separate profile/accounts/cards/history calls with one request.
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    /**
+     * Endpoint: GET /api/dashboard
+     * Security: Uses the JWT Token (Authentication object) to identify the user; the principal already holds it.
+     */
+    @GetMapping
+    public ResponseEntity<?> getDashboard(Authentication authentication) {
+        try {
+            CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+            return ResponseEntity.ok(dashboardService.getDashboard(principal.getUser()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
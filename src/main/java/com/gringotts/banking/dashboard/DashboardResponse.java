@@ -0,0 +1,27 @@
+package com.gringotts.banking.dashboard;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.card.CardResponse;
+import com.gringotts.banking.transaction.TransactionView;
+import com.gringotts.banking.user.UserDTO;
+
+import java.util.List;
+
+/**
+ * Everything the Dashboard screen needs, in one document.
+ * A part that could not be loaded before the deadline is null and listed in 'unavailable',
+ * so the frontend can render the rest and retry only what is missing.
+ *
+ * @param profile            The logged-in user's profile.
+ * @param accounts           ACTIVE accounts of the user.
+ * @param cards              Cards of all the user's accounts (PIN masked).
+ * @param recentTransactions Latest movements of the primary (first) account.
+ * @param unavailable        Names of the parts above that timed out or failed.
+ */
+public record DashboardResponse(
+        UserDTO profile,
+        List<Account> accounts,
+        List<CardResponse> cards,
+        List<TransactionView> recentTransactions,
+        List<String> unavailable) {
+}
@@ -0,0 +1,141 @@
+package com.gringotts.banking.dashboard;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountService;
+import com.gringotts.banking.card.CardResponse;
+import com.gringotts.banking.card.CardService;
+import com.gringotts.banking.transaction.TransactionService;
+import com.gringotts.banking.transaction.TransactionView;
+import com.gringotts.banking.user.User;
+import com.gringotts.banking.user.UserDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds the Dashboard document in a single round trip.
+ * Flow: DashboardController (User from the JWT principal) -> fan out accounts/cards/recent history
+ * on virtual threads -> wait for all of them against ONE shared deadline -> assemble.
+ *
+ * Every part is scoped to the request: when the deadline passes, unfinished parts are
+ * cancelled (interrupted) and reported as 'unavailable' instead of failing the whole page.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    // Total time budget for all parts together
+    @Value("${app.dashboard.deadline-ms:800}")
+    private long deadlineMs;
+
+    @Value("${app.dashboard.recent-transactions:5}")
+    private int recentTransactions;
+
+    // One cheap virtual thread per part; blocking JDBC calls don't pin platform threads
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Loads profile, accounts, cards and recent transactions for the logged-in user.
+     *
+     * @param user The authenticated user, as JwtFilter loaded it (not read again).
+     * @return The combined document, possibly with some parts marked unavailable.
+     */
+    public DashboardResponse getDashboard(User user) {
+        // 1. The user is needed by every part (already loaded with the principal)
+        Long userId = user.getId();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        // 2. Fork: the independent parts start together
+        Future<List<Account>> accounts = executor.submit(() -> accountService.getAccountsByUser(userId));
+        Future<List<CardResponse>> cards = executor.submit(() -> cardService.getCardsByUser(userId));
+        Future<List<TransactionView>> recent = executor.submit(() -> {
+            // Needs the primary account id, so it waits on the accounts part (cheap on a virtual thread)
+            List<Account> owned = accounts.get();
+            if (owned.isEmpty()) {
+                return List.of();
+            }
+            return transactionService.getTransactionHistory(owned.get(0).getId(),
+                    PageRequest.of(0, recentTransactions)).getContent();
+        });
+
+        // 3. Join: every part shares the same deadline
+        List<String> unavailable = new ArrayList<>();
+        try {
+            return new DashboardResponse(
+                    toProfile(user),
+                    await(accounts, "accounts", deadline, unavailable),
+                    await(cards, "cards", deadline, unavailable),
+                    await(recent, "recentTransactions", deadline, unavailable),
+                    unavailable);
+        } finally {
+            // 4. Nothing outlives the request
+            accounts.cancel(true);
+            cards.cancel(true);
+            recent.cancel(true);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    /**
+     * Waits for one part until the shared deadline.
+     * Returns null (and records the part name) if it failed or ran out of time.
+     */
+    private <T> T await(Future<T> part, String name, long deadline, List<String> unavailable) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return part.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Dashboard part '{}' missed the {} ms deadline", name, deadlineMs);
+        } catch (ExecutionException e) {
+            logger.warn("Dashboard part '{}' failed: {}", name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        part.cancel(true);
+        unavailable.add(name);
+        return null;
+    }
+
+    private UserDTO toProfile(User user) {
+        return new UserDTO(
+                user.getUsername(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getPhoneNumber(),
+                user.getEmail(),
+                user.getAddress(),
+                user.getDateOfBirth(),
+                user.getProfileImageUrl()
+        );
+    }
+}
@@ -0,0 +1,54 @@
+package com.gringotts.banking.fee;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Fee rules charged on transfers and card purchases.
+ */
+@RestController
+@RequestMapping("/api/fees")
+public class FeeController {
+
+    @Autowired
+    private FeeService feeService;
+
+    /**
+     * The rule version in use.
+     * Endpoint: GET /api/fees
+     * Returns: { "version": "2026-10", "rules": 6, "tableSize": 40, "loadedAt": "..." }
+     */
+    @GetMapping
+    public ResponseEntity<?> getSchedule() {
+        return ResponseEntity.ok(describe(feeService.getSchedule()));
+    }
+
+    /**
+     * Re-reads the rule file now (e.g. right after publishing a new version). New movements are priced with it at once.
+     * Endpoint: POST /api/fees/reload (ROLE_ADMIN, see SecurityConfig)
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload() {
+        try {
+            return ResponseEntity.ok(describe(feeService.reload()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private static Map<String, Object> describe(FeeSchedule schedule) {
+        return Map.of("version", schedule.version(),
+                "currency", schedule.currency().getCurrencyCode(),
+                "rules", schedule.ruleCount(),
+                "tableSize", schedule.tableSize(),
+                "loadedAt", schedule.loadedAt());
+    }
+}
@@ -0,0 +1,13 @@
+package com.gringotts.banking.fee;
+
+import com.gringotts.banking.money.Money;
+
+/**
+ * The rule that priced one movement and what it costs.
+ *
+ * @param ruleId  Id of the matching rule (recorded on the Transaction).
+ * @param fee     In the account's currency; zero for a waiver rule (no fee movement is written).
+ * @param version Version of the rule file the rule came from.
+ */
+public record FeeQuote(String ruleId, Money fee, String version) {
+}
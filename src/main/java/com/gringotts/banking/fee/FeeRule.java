@@ -0,0 +1,20 @@
+package com.gringotts.banking.fee;
+
+import com.gringotts.banking.transaction.TransactionType;
+
+/**
+ * One line of the fee rule file, before compilation (see FeeSchedule).
+ * Amounts are in hundredths of the account's currency (cents, pence, ...).
+ *
+ * @param id          Stable name of the rule, recorded on every Transaction it priced.
+ * @param accountType "SAVINGS", "CHECKING", ... or null for any.
+ * @param type        Movement type, or null for any.
+ * @param fromAmount  Applies to amounts of at least this much.
+ * @param fromCount   Applies from this movement of the day on (1 = every movement).
+ * @param fixed       Flat part of the fee.
+ * @param basisPoints Proportional part, in 1/100 of a percent of the amount.
+ * @param max         Upper bound of the fee, or -1 for none.
+ */
+public record FeeRule(String id, String accountType, TransactionType type, long fromAmount, int fromCount,
+                      long fixed, int basisPoints, long max) {
+}
@@ -0,0 +1,257 @@
+package com.gringotts.banking.fee;
+
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.TransactionType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable, compiled form of one version of the fee rules.
+ * Rules are written in priority order (the first rule matching a movement prices it); compile() turns them
+ * into flat tables so that pricing a movement never walks the rule list:
+ * - one cell per (account type, movement type);
+ * - per cell, the amount bands and daily-count bands its rules start at (sorted thresholds);
+ * - per cell, a grid band x band -> index of the winning rule (-1 = free).
+ * match() is two array scans and one grid read; fee() is integer arithmetic. Neither allocates.
+ *
+ * Built once per rule load and published by FeeService with a single volatile write,
+ * so a movement is priced entirely by one version.
+ */
+public final class FeeSchedule {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    public static final FeeSchedule EMPTY = compile("none", Money.DEFAULT_CURRENCY, List.of());
+
+    private final String version;
+
+    // Every amount of the rules (bands, fixed fees, maxima) is in this currency
+    private final Currency currency;
+
+    // Account types named by the rules; cell row 0 is "any other type"
+    private final String[] accountTypes;
+
+    // Per cell: its thresholds are amountBands[amountStart[c], amountStart[c + 1]) (same for counts),
+    // its grid starts at gridStart[c], one row per amount band
+    private final int[] amountStart;
+    private final long[] amountBands;
+    private final int[] countStart;
+    private final int[] countBands;
+    private final int[] gridStart;
+    private final int[] grid;
+
+    // Per rule
+    private final String[] ruleIds;
+    private final long[] fixed;
+    private final int[] basisPoints;
+    private final long[] max;
+
+    private final Instant loadedAt;
+
+    private FeeSchedule(String version, Currency currency, String[] accountTypes, int[] amountStart, long[] amountBands,
+                        int[] countStart, int[] countBands, int[] gridStart, int[] grid,
+                        String[] ruleIds, long[] fixed, int[] basisPoints, long[] max) {
+        this.version = version;
+        this.currency = currency;
+        this.accountTypes = accountTypes;
+        this.amountStart = amountStart;
+        this.amountBands = amountBands;
+        this.countStart = countStart;
+        this.countBands = countBands;
+        this.gridStart = gridStart;
+        this.grid = grid;
+        this.ruleIds = ruleIds;
+        this.fixed = fixed;
+        this.basisPoints = basisPoints;
+        this.max = max;
+        this.loadedAt = Instant.now();
+    }
+
+    /**
+     * Builds the tables.
+     * Flow: account types named by the rules -> for every (account type, movement type) cell, the rules that
+     * can apply to it and the distinct thresholds they start at -> for every band pair, the first of those
+     * rules whose thresholds it reaches.
+     *
+     * @param currency Currency of the rule amounts.
+     * @param rules    In priority order.
+     * @throws IllegalArgumentException on a duplicate rule id or a negative amount.
+     */
+    public static FeeSchedule compile(String version, Currency currency, List<FeeRule> rules) {
+        Set<String> ids = new HashSet<>();
+        Set<String> named = new LinkedHashSet<>();
+        for (FeeRule r : rules) {
+            if (!ids.add(r.id())) {
+                throw new IllegalArgumentException("Duplicate fee rule id: " + r.id());
+            }
+            if (r.fromAmount() < 0 || r.fixed() < 0 || r.basisPoints() < 0 || r.fromCount() < 1) {
+                throw new IllegalArgumentException("Fee rule " + r.id() + ": amounts must be >= 0 and counts >= 1");
+            }
+            if (r.accountType() != null) {
+                named.add(r.accountType());
+            }
+        }
+        String[] accountTypes = named.toArray(String[]::new);
+
+        // 1. Cells: row 0 = unnamed account types, then one row per named type
+        int cells = (accountTypes.length + 1) * TYPES.length;
+        int[] amountStart = new int[cells + 1];
+        int[] countStart = new int[cells + 1];
+        int[] gridStart = new int[cells];
+        List<Long> amounts = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        List<Integer> winners = new ArrayList<>();
+
+        for (int a = 0; a <= accountTypes.length; a++) {
+            String accountType = a == 0 ? null : accountTypes[a - 1];
+            for (TransactionType type : TYPES) {
+                int cell = a * TYPES.length + type.ordinal();
+
+                // 2. Rules that can apply here, and the bands they start
+                List<Integer> candidates = new ArrayList<>();
+                TreeSet<Long> cellAmounts = new TreeSet<>();
+                TreeSet<Integer> cellCounts = new TreeSet<>();
+                for (int i = 0; i < rules.size(); i++) {
+                    FeeRule r = rules.get(i);
+                    boolean accountMatches = r.accountType() == null || r.accountType().equals(accountType);
+                    if (accountMatches && (r.type() == null || r.type() == type)) {
+                        candidates.add(i);
+                        cellAmounts.add(r.fromAmount());
+                        cellCounts.add(r.fromCount());
+                    }
+                }
+
+                // 3. Winner per band pair: the first candidate whose thresholds the band reaches
+                gridStart[cell] = winners.size();
+                for (long amount : cellAmounts) {
+                    for (int count : cellCounts) {
+                        int winner = -1;
+                        for (int i : candidates) {
+                            if (rules.get(i).fromAmount() <= amount && rules.get(i).fromCount() <= count) {
+                                winner = i;
+                                break;
+                            }
+                        }
+                        winners.add(winner);
+                    }
+                }
+                amounts.addAll(cellAmounts);
+                counts.addAll(cellCounts);
+                amountStart[cell + 1] = amounts.size();
+                countStart[cell + 1] = counts.size();
+            }
+        }
+
+        int n = rules.size();
+        String[] ruleIds = new String[n];
+        long[] fixed = new long[n];
+        int[] basisPoints = new int[n];
+        long[] max = new long[n];
+        for (int i = 0; i < n; i++) {
+            FeeRule r = rules.get(i);
+            ruleIds[i] = r.id();
+            fixed[i] = r.fixed();
+            basisPoints[i] = r.basisPoints();
+            max[i] = r.max();
+        }
+        return new FeeSchedule(version, currency, accountTypes, amountStart, amounts.stream().mapToLong(Long::longValue).toArray(),
+                countStart, counts.stream().mapToInt(Integer::intValue).toArray(), gridStart,
+                winners.stream().mapToInt(Integer::intValue).toArray(), ruleIds, fixed, basisPoints, max);
+    }
+
+    /**
+     * @param amount     In hundredths of the schedule's currency.
+     * @param dailyCount Position of this movement among the account's priced movements today (1 = first).
+     * @return Index of the rule pricing the movement, or -1 if none applies (free).
+     */
+    public int match(String accountType, TransactionType type, long amount, int dailyCount) {
+        int row = 0;
+        for (int i = 0; i < accountTypes.length; i++) {
+            if (accountTypes[i].equals(accountType)) {
+                row = i + 1;
+                break;
+            }
+        }
+        int cell = row * TYPES.length + type.ordinal();
+
+        int amountBand = floor(amountBands, amountStart[cell], amountStart[cell + 1], amount);
+        int countBand = floor(countBands, countStart[cell], countStart[cell + 1], dailyCount);
+        if (amountBand < 0 || countBand < 0) {
+            return -1;
+        }
+        int countBandsInCell = countStart[cell + 1] - countStart[cell];
+        return grid[gridStart[cell] + amountBand * countBandsInCell + countBand];
+    }
+
+    /**
+     * @param amount In hundredths of the schedule's currency.
+     * @return The fee of the rule for that amount, in hundredths (percent part rounded half up, then capped).
+     */
+    public long fee(int rule, long amount) {
+        long fee = fixed[rule] + (amount * basisPoints[rule] + 5_000) / 10_000;
+        return max[rule] >= 0 ? Math.min(fee, max[rule]) : fee;
+    }
+
+    public String ruleId(int rule) {
+        return ruleIds[rule];
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public Currency currency() {
+        return currency;
+    }
+
+    public int ruleCount() {
+        return ruleIds.length;
+    }
+
+    // Number of (account type x movement type x amount band x count band) entries
+    public int tableSize() {
+        return grid.length;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    // Position (relative to 'from') of the last threshold <= value, or -1 if value is below all of them
+    private static int floor(long[] bands, int from, int to, long value) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (bands[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - 1 - from;
+    }
+
+    private static int floor(int[] bands, int from, int to, int value) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (bands[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - 1 - from;
+    }
+}
@@ -0,0 +1,239 @@
+package com.gringotts.banking.fee;
+
+import com.gringotts.banking.fx.FxService;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.TransactionType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fees of outgoing movements (transfers, card purchases), by account type, movement type, amount band and
+ * the account's number of priced movements today.
+ * Flow: versioned rule file -> reload() compiles an immutable FeeSchedule -> one volatile write publishes it.
+ * quote() reads that reference once: no lock, no query, safe while the movement holds the account row.
+ *
+ * Rule file ('app.fees.rules'), a 'version:' line, an optional 'currency:' line (default USD), then one rule
+ * per line in priority order (the first matching rule wins), '#' starts a comment:
+ *   version: 2026-10
+ *   currency: USD
+ *   # id               account   type       from-amount  from-count  fixed  percent  max
+ *   savings-excess     SAVINGS   *          0            7           2.50   0        -
+ *   transfer-large     *         TRANSFER   10000.00     1           0      0.1      25.00
+ * Amounts are in the rule file's currency; '*' matches any account / movement type; '-' means no maximum.
+ * A rule with no fixed part and no percent is a waiver: it wins over the rules below it and charges nothing.
+ *
+ * Accounts in another currency are priced at today's rate (FxService, in memory): the movement is converted
+ * into the rule currency for the bands and the percentage, and the fee back into the account's currency.
+ * Both directions need a rate; without one the movement is refused rather than priced with the wrong numbers.
+ */
+@Service
+public class FeeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeService.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private FxService fxService;
+
+    // Blank = no fees
+    @Value("${app.fees.rules:}")
+    private String rulesLocation;
+
+    // Reload period (0 = only on startup and POST /api/fees/reload)
+    @Value("${app.fees.refresh-ms:0}")
+    private long refreshMs;
+
+    private volatile FeeSchedule schedule = FeeSchedule.EMPTY;
+
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    public void init() {
+        reloadQuietly();
+        if (refreshMs > 0) {
+            refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("fee-reload").daemon().factory());
+            refresher.scheduleWithFixedDelay(this::reloadQuietly, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Re-reads the rule file, compiles it and swaps the schedule in one step.
+     * Movements running meanwhile keep the version they already read.
+     */
+    public FeeSchedule reload() {
+        if (rulesLocation == null || rulesLocation.isBlank()) {
+            schedule = FeeSchedule.EMPTY;
+            return schedule;
+        }
+        Resource resource = resourceLoader.getResource(rulesLocation);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            FeeSchedule fresh = parse(reader);
+            schedule = fresh;
+            logger.info("Fee rules version {} loaded: {} rules, {} table entries",
+                    fresh.version(), fresh.ruleCount(), fresh.tableSize());
+            return fresh;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read fee rules from " + rulesLocation, e);
+        }
+    }
+
+    /**
+     * Prices one outgoing movement.
+     *
+     * @param amount     In the account's currency.
+     * @param dailyCount Position of this movement among the account's priced movements today (1 = first).
+     * @return The matching rule and its fee (in the account's currency), or null if no rule applies.
+     * @throws RuntimeException if the account's currency differs from the rules' and has no exchange rate.
+     */
+    public FeeQuote quote(String accountType, TransactionType type, Money amount, int dailyCount) {
+        FeeSchedule current = schedule;
+        if (current.ruleCount() == 0) {
+            return null;
+        }
+
+        // 1. The movement in the rule currency (as is, or at today's rate)
+        Currency ruleCurrency = current.currency();
+        boolean foreign = !amount.currency().equals(ruleCurrency);
+        Money priced = foreign ? fxService.convert(amount, ruleCurrency).target() : amount;
+        int digits = ruleCurrency.getDefaultFractionDigits();
+        long hundredths = toHundredths(priced.minorUnits(), digits);
+
+        // 2. Rule and fee, in the rule currency
+        int rule = current.match(accountType, type, hundredths, dailyCount);
+        if (rule < 0) {
+            return null;
+        }
+        Money fee = Money.ofMinor(fromHundredths(current.fee(rule, hundredths), digits), ruleCurrency);
+
+        // 3. Charged in the account's currency
+        return new FeeQuote(current.ruleId(rule), foreign ? fxService.convert(fee, amount.currency()).target() : fee,
+                current.version());
+    }
+
+    public FeeSchedule getSchedule() {
+        return schedule;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    /**
+     * "version: x" then "id account type from-amount from-count fixed percent max" lines -> compiled schedule.
+     */
+    static FeeSchedule parse(BufferedReader reader) throws IOException {
+        String version = null;
+        Currency currency = Money.DEFAULT_CURRENCY;
+        List<FeeRule> rules = new ArrayList<>();
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            int hash = line.indexOf('#');
+            line = (hash >= 0 ? line.substring(0, hash) : line).strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.toLowerCase(Locale.ROOT).startsWith("version:")) {
+                version = line.substring("version:".length()).strip();
+                continue;
+            }
+            if (line.toLowerCase(Locale.ROOT).startsWith("currency:")) {
+                currency = ruleCurrency(line.substring("currency:".length()).strip(), number);
+                continue;
+            }
+            String[] f = line.split("\\s+");
+            if (f.length != 8) {
+                throw new IllegalArgumentException("Fee rules line " + number
+                        + ": expected 'id account type from-amount from-count fixed percent max'");
+            }
+            try {
+                rules.add(new FeeRule(f[0],
+                        "*".equals(f[1]) ? null : f[1].toUpperCase(Locale.ROOT),
+                        "*".equals(f[2]) ? null : TransactionType.valueOf(f[2].toUpperCase(Locale.ROOT)),
+                        hundredths(f[3]), Integer.parseInt(f[4]), hundredths(f[5]),
+                        new BigDecimal(f[6]).movePointRight(2).intValueExact(),
+                        "-".equals(f[7]) ? -1 : hundredths(f[7])));
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                throw new IllegalArgumentException("Fee rules line " + number + ": " + e.getMessage());
+            }
+        }
+        if (version == null || version.isEmpty()) {
+            throw new IllegalArgumentException("Fee rules have no 'version:' line");
+        }
+        return FeeSchedule.compile(version, currency, rules);
+    }
+
+    // "2.50" -> 250 (at most two decimals)
+    private static long hundredths(String amount) {
+        return new BigDecimal(amount).movePointRight(2).longValueExact();
+    }
+
+    // Rule amounts are kept in hundredths, so the rule currency has at most two decimals (a JPY rule "100.00" is 100 yen)
+    private static Currency ruleCurrency(String code, int number) {
+        try {
+            Currency currency = Currency.getInstance(code.toUpperCase(Locale.ROOT));
+            if (Money.isSupported(currency)) {
+                return currency;
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Fee rules line " + number + ": unsupported currency '" + code + "'");
+    }
+
+    private static long toHundredths(long minorUnits, int digits) {
+        long scale = pow10(Math.abs(digits - 2));
+        return digits <= 2 ? minorUnits * scale : minorUnits / scale;
+    }
+
+    private static long fromHundredths(long hundredths, int digits) {
+        long scale = pow10(Math.abs(digits - 2));
+        return digits >= 2 ? hundredths * scale : hundredths / scale;
+    }
+
+    private static long pow10(int n) {
+        long p = 1;
+        for (int i = 0; i < n; i++) {
+            p *= 10;
+        }
+        return p;
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Keep pricing with the last good version
+            logger.warn("Fee rules reload failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.gringotts.banking.fx;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Exchange rates currently used for cross-currency transfers.
+ */
+@RestController
+@RequestMapping("/api/fx")
+public class FxController {
+
+    @Autowired
+    private FxService fxService;
+
+    /**
+     * The in-memory rate table.
+     * Endpoint: GET /api/fx/rates
+     * Returns: { "rates": { "EUR/USD": 1.0850000000, ... }, "loadedAt": "..." }
+     */
+    @GetMapping("/rates")
+    public ResponseEntity<FxRateTable> getRates() {
+        return ResponseEntity.ok(fxService.getRates());
+    }
+
+    /**
+     * Reloads 'fx_rates' now (e.g. right after updating it) instead of waiting for the next refresh.
+     * Endpoint: POST /api/fx/refresh (ROLE_ADMIN, see SecurityConfig)
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh() {
+        try {
+            return ResponseEntity.ok(fxService.refresh());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
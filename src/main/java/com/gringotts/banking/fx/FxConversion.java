@@ -0,0 +1,15 @@
+package com.gringotts.banking.fx;
+
+import com.gringotts.banking.money.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * Result of converting an amount between currencies.
+ *
+ * @param source The amount given (source currency).
+ * @param target The converted amount (target currency), rounded as described in FxService.
+ * @param rate   The applied rate: units of the target currency per 1 unit of the source.
+ */
+public record FxConversion(Money source, Money target, BigDecimal rate) {
+}
@@ -0,0 +1,63 @@
+package com.gringotts.banking.fx;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One exchange rate: 1 unit of 'baseCurrency' = 'rate' units of 'quoteCurrency'.
+ * Maps to table: 'fx_rates'
+ * Only read to build the in-memory rate table (FxService); never on the transfer path.
+ */
+@Entity
+@Table(name = "fx_rates", uniqueConstraints =
+        @UniqueConstraint(name = "uk_fx_pair", columnNames = {"base_currency", "quote_currency"}))
+public class FxRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "base_currency", nullable = false, length = 3)
+    private String baseCurrency;
+
+    @Column(name = "quote_currency", nullable = false, length = 3)
+    private String quoteCurrency;
+
+    @Column(nullable = false, precision = 19, scale = 10)
+    private BigDecimal rate;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // --- CONSTRUCTORS ---
+
+    public FxRate() {
+    }
+
+    public FxRate(String baseCurrency, String quoteCurrency, BigDecimal rate) {
+        this.baseCurrency = baseCurrency;
+        this.quoteCurrency = quoteCurrency;
+        this.rate = rate;
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getBaseCurrency() { return baseCurrency; }
+    public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
+
+    public String getQuoteCurrency() { return quoteCurrency; }
+    public void setQuoteCurrency(String quoteCurrency) { this.quoteCurrency = quoteCurrency; }
+
+    public BigDecimal getRate() { return rate; }
+    public void setRate(BigDecimal rate) { this.rate = rate; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
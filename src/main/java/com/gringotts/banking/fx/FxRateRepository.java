@@ -0,0 +1,8 @@
+package com.gringotts.banking.fx;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, Long> {
+}
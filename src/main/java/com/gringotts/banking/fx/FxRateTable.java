@@ -0,0 +1,49 @@
+package com.gringotts.banking.fx;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of every exchange rate, keyed "BASE/QUOTE" (e.g. "EUR/USD").
+ * Built once per refresh and swapped in whole, so readers never lock and never see half a refresh.
+ * Only the pairs stored in 'fx_rates' exist: an inverse is never derived (it would need rounding).
+ *
+ * @param rates    Units of the quote currency per 1 unit of the base currency.
+ * @param loadedAt When the snapshot was read.
+ */
+public record FxRateTable(Map<String, BigDecimal> rates, Instant loadedAt) {
+
+    public static final FxRateTable EMPTY = new FxRateTable(Map.of(), Instant.EPOCH);
+
+    public FxRateTable {
+        rates = Map.copyOf(rates);
+    }
+
+    public static FxRateTable of(List<FxRate> rows) {
+        Map<String, BigDecimal> rates = new HashMap<>(rows.size() * 2);
+        for (FxRate row : rows) {
+            rates.put(key(row.getBaseCurrency(), row.getQuoteCurrency()), row.getRate());
+        }
+        return new FxRateTable(rates, Instant.now());
+    }
+
+    /**
+     * @return The rate from 'from' to 'to' (1 for the same currency), or null if the pair is not quoted.
+     */
+    public BigDecimal rate(Currency from, Currency to) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        return rates.get(key(from.getCurrencyCode(), to.getCurrencyCode()));
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private static String key(String base, String quote) {
+        return base + "/" + quote;
+    }
+}
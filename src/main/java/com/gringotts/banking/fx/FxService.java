@@ -0,0 +1,102 @@
+package com.gringotts.banking.fx;
+
+import com.gringotts.banking.money.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Currency conversion against an in-memory rate table.
+ * Flow: 'fx_rates' -> refresh() builds an immutable FxRateTable -> one volatile write publishes it.
+ * convert() reads that reference once: no lock, no I/O, safe to call inside the transfer's DB transaction.
+ *
+ * Rounding rules (the only place money is ever rounded):
+ * - target = source x rate, computed exactly, then rounded ONCE to the target currency's
+ *   decimals with HALF_EVEN (banker's rounding, no systematic bias across many transfers).
+ * - The rate itself is used exactly as stored (up to 10 decimals); it is recorded on the Transaction.
+ */
+@Service
+public class FxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FxService.class);
+
+    static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+
+    @Autowired
+    private FxRateRepository fxRateRepository;
+
+    // Reload period (0 = only on startup and POST /api/fx/refresh)
+    @Value("${app.fx.refresh-ms:0}")
+    private long refreshMs;
+
+    private volatile FxRateTable table = FxRateTable.EMPTY;
+
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    public void init() {
+        refresh();
+        if (refreshMs > 0) {
+            refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("fx-refresh").daemon().factory());
+            refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Reloads every rate and swaps the snapshot in one step.
+     * Transfers running meanwhile keep the table they already read.
+     */
+    public FxRateTable refresh() {
+        FxRateTable fresh = FxRateTable.of(fxRateRepository.findAll());
+        table = fresh;
+        return fresh;
+    }
+
+    /**
+     * Converts an amount into another currency using the current snapshot.
+     *
+     * @throws RuntimeException if the pair has no rate.
+     */
+    public FxConversion convert(Money amount, Currency to) {
+        BigDecimal rate = table.rate(amount.currency(), to);
+        if (rate == null) {
+            throw new RuntimeException("No exchange rate for " + amount.currency() + " to " + to);
+        }
+        BigDecimal converted = amount.toBigDecimal().multiply(rate)
+                .setScale(to.getDefaultFractionDigits(), ROUNDING);
+        return new FxConversion(amount, Money.of(converted, to), rate);
+    }
+
+    public FxRateTable getRates() {
+        return table;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Keep serving the last good snapshot
+            logger.warn("FX rate refresh failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.gringotts.banking.interest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Interest of one account for one day, in minor units.
+ * The day's balance is time-weighted (balance x seconds it was held, summed over the day), so a deposit
+ * at 18:00 earns a quarter of a day. Exact interest = weighted balance x annual rate / (seconds per day x
+ * days in the year), plus the fraction left over from the previous day (the carry). Only whole minor units
+ * are credited; the rest is carried to the next day, so fractions of a cent add up instead of being rounded
+ * away (the exact interest is only cut at 10 decimals of a minor unit).
+ */
+final class DailyInterest {
+
+    static final long SECONDS_PER_DAY = 86_400;
+
+    // Scale of the carry (fractions of a minor unit)
+    static final int CARRY_SCALE = 10;
+
+    private DailyInterest() {
+    }
+
+    /**
+     * Weight of one movement: its amount x the seconds left in the day after it.
+     *
+     * @param secondOfDay 0 - 86399.
+     */
+    static long held(long amount, int secondOfDay) {
+        return Math.multiplyExact(amount, SECONDS_PER_DAY - secondOfDay);
+    }
+
+    /**
+     * @param opening   Balance at the start of the day (minor units).
+     * @param movements Sum of held() over the day's movements.
+     * @return Sum of balance x seconds held over the day.
+     */
+    static long weightedBalance(long opening, long movements) {
+        return Math.addExact(Math.multiplyExact(opening, SECONDS_PER_DAY), movements);
+    }
+
+    /**
+     * Average daily balance in minor units (4 decimals).
+     */
+    static BigDecimal averageBalance(long weighted) {
+        return BigDecimal.valueOf(weighted).divide(BigDecimal.valueOf(SECONDS_PER_DAY), 4, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Exact interest of the day plus the previous carry (fractions of a minor unit).
+     * Nothing accrues on a zero or negative average balance; the carry is kept as is then.
+     *
+     * @param annualRate E.g. 0.025 for 2.5% a year.
+     */
+    static BigDecimal accrued(long weighted, BigDecimal annualRate, int daysInYear, BigDecimal carry) {
+        if (weighted <= 0) {
+            return carry;
+        }
+        BigDecimal exact = BigDecimal.valueOf(weighted).multiply(annualRate)
+                .divide(BigDecimal.valueOf(SECONDS_PER_DAY * daysInYear), CARRY_SCALE, RoundingMode.DOWN);
+        return exact.add(carry);
+    }
+
+    /**
+     * Whole minor units to credit out of the accrued amount (the rest is the new carry).
+     */
+    static long credited(BigDecimal accrued) {
+        return accrued.setScale(0, RoundingMode.DOWN).longValueExact();
+    }
+}
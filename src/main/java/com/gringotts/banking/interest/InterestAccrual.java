@@ -0,0 +1,118 @@
+package com.gringotts.banking.interest;
+
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.ReferenceIdConverter;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Interest of one SAVINGS account for one day.
+ * Maps to table: 'interest_accruals'
+ * Written for every account the accrual job processes (also when nothing is credited), in the same
+ * DB transaction as the credit: it carries the sub-cent remainder to the next day, and the key
+ * (account, day) makes a second accrual of the same day fail instead of paying twice.
+ * The credit's Transaction, ledger entry and balance update are derived from these rows in bulk.
+ */
+@Entity
+@IdClass(InterestAccrualId.class)
+@Table(name = "interest_accruals")
+public class InterestAccrual implements Persistable<InterestAccrualId> {
+
+    @Id
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Id
+    @Column(name = "accrual_date", nullable = false, updatable = false)
+    private LocalDate accrualDate;
+
+    // Time-weighted balance of the day, in minor units
+    @Column(name = "average_balance", nullable = false, precision = 23, scale = 4, updatable = false)
+    private BigDecimal averageBalance;
+
+    // Annual rate applied (0.025 = 2.5%)
+    @Column(nullable = false, precision = 9, scale = 6, updatable = false)
+    private BigDecimal rate;
+
+    // Whole minor units credited (0 = nothing posted)
+    @Column(nullable = false, updatable = false)
+    private Money interest;
+
+    // Fraction of a minor unit accrued but not credited yet (0 <= carry < 1)
+    @Column(nullable = false, precision = 19, scale = 10, updatable = false)
+    private BigDecimal carry;
+
+    // Reference id of the credit (null if nothing was credited)
+    @Convert(converter = ReferenceIdConverter.class)
+    @Column(name = "reference_id", updatable = false, columnDefinition = "BINARY(16)")
+    private String referenceId;
+
+    // Running balance / sequence recorded on the credit (null for sharded accounts)
+    @Column(name = "balance_after", updatable = false)
+    private Money balanceAfter;
+
+    @Column(updatable = false)
+    private Long seq;
+
+    // Assigned key: tells Spring Data to insert (batched) instead of merging (one SELECT per row)
+    @Transient
+    private boolean isNew = true;
+
+    // --- CONSTRUCTORS ---
+
+    public InterestAccrual() {
+    }
+
+    public InterestAccrual(Long accountId, LocalDate accrualDate) {
+        this.accountId = accountId;
+        this.accrualDate = accrualDate;
+    }
+
+    @Override
+    public InterestAccrualId getId() {
+        return new InterestAccrualId(accountId, accrualDate);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public LocalDate getAccrualDate() { return accrualDate; }
+    public void setAccrualDate(LocalDate accrualDate) { this.accrualDate = accrualDate; }
+
+    public BigDecimal getAverageBalance() { return averageBalance; }
+    public void setAverageBalance(BigDecimal averageBalance) { this.averageBalance = averageBalance; }
+
+    public BigDecimal getRate() { return rate; }
+    public void setRate(BigDecimal rate) { this.rate = rate; }
+
+    public Money getInterest() { return interest; }
+    public void setInterest(Money interest) { this.interest = interest; }
+
+    public BigDecimal getCarry() { return carry; }
+    public void setCarry(BigDecimal carry) { this.carry = carry; }
+
+    public String getReferenceId() { return referenceId; }
+    public void setReferenceId(String referenceId) { this.referenceId = referenceId; }
+
+    public Money getBalanceAfter() { return balanceAfter; }
+    public void setBalanceAfter(Money balanceAfter) { this.balanceAfter = balanceAfter; }
+
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+}
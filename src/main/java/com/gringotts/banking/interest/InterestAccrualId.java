@@ -0,0 +1,10 @@
+package com.gringotts.banking.interest;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Primary key of InterestAccrual: one row per account and day.
+ */
+public record InterestAccrualId(Long accountId, LocalDate accrualDate) implements Serializable {
+}
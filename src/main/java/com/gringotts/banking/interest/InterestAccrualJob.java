@@ -0,0 +1,353 @@
+package com.gringotts.banking.interest;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.ledger.BalanceSnapshotRepository;
+import com.gringotts.banking.ledger.LedgerEntryRepository;
+import com.gringotts.banking.ledger.LedgerService;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.BalanceChangedEvent;
+import com.gringotts.banking.transaction.ReferenceIdGenerator;
+import com.gringotts.banking.transaction.TransactionType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nightly interest of SAVINGS accounts: every closed day, each ACTIVE savings account earns
+ * average daily balance x annual rate / days in the year (see DailyInterest), credited as an INTEREST movement.
+ * Flow, per day:
+ * 1. Partition: the savings id range is cut into 'partitions' ranges, each with a checkpoint row
+ *    (created once per day; a restarted run finds them and resumes).
+ * 2. Workers: 'threads' workers each take the next unfinished partition and walk it chunk by chunk.
+ * 3. Chunk (one DB transaction): lock the checkpoint and the next 'chunk-size' accounts -> opening balances
+ *    (snapshot + ledger), the day's movements and yesterday's carries, three range reads -> interest per
+ *    account -> accrual rows (batched inserts) -> Transactions, ledger entries, balances and rollups,
+ *    one set-based statement per table (rollups: update the existing rows, insert the missing) -> move the
+ *    checkpoint past the chunk.
+ * A crash loses at most the chunks in flight; the key (account, day) of the accrual rows makes paying
+ * a day twice impossible. Runs every 'check-ms' (if enabled) once a day has been closed for 'grace-minutes'.
+ *
+ * Credits are posted in bulk, so they bypass the per-movement side effects of LedgerService.record:
+ * the search index picks them up on its next rebuild. Each credit still publishes its BalanceChangedEvent,
+ * delivered once the chunk commits, so the EventJournal has no gaps and connected clients see the credit.
+ */
+@Component
+public class InterestAccrualJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualJob.class);
+
+    private static final String SAVINGS = "SAVINGS";
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private InterestAccrualRepository interestAccrualRepository;
+
+    @Autowired
+    private InterestCheckpointRepository interestCheckpointRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private ReferenceIdGenerator referenceIdGenerator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.interest.enabled:false}")
+    private boolean enabled;
+
+    // Annual rate as a fraction (0.025 = 2.5%)
+    @Value("${app.interest.savings-rate:0.025}")
+    private BigDecimal savingsRate;
+
+    @Value("${app.interest.check-ms:3600000}")
+    private long checkMs;
+
+    @Value("${app.interest.grace-minutes:10}")
+    private long graceMinutes;
+
+    @Value("${app.interest.partitions:16}")
+    private int partitions;
+
+    @Value("${app.interest.threads:4}")
+    private int threads;
+
+    @Value("${app.interest.chunk-size:500}")
+    private int chunkSize;
+
+    private ScheduledExecutorService scheduler;
+
+    // One run at a time per node (scheduler and POST /api/admin/interest/run)
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile boolean stopping;
+
+    /**
+     * Catches up once the app is up, then checks for a newly closed day every 'check-ms' (if enabled).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (enabled) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("interest-accrual").daemon().factory());
+            scheduler.scheduleWithFixedDelay(this::catchUpQuietly, 0, checkMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Accrues every closed day not accrued yet: the interrupted day first, if any.
+     * On the very first run, only the last closed day.
+     */
+    public List<InterestRunResult> catchUp() {
+        LocalDate lastClosed = LocalDateTime.now().minusMinutes(graceMinutes).toLocalDate().minusDays(1);
+        LocalDate next = interestCheckpointRepository.findLatestDay()
+                .map(day -> interestCheckpointRepository.countUnfinished(day) > 0 ? day : day.plusDays(1))
+                .orElse(lastClosed);
+
+        List<InterestRunResult> results = new ArrayList<>();
+        for (LocalDate day = next; !day.isAfter(lastClosed) && !stopping; day = day.plusDays(1)) {
+            results.add(accrue(day));
+        }
+        return results;
+    }
+
+    /**
+     * Accrues one closed day (resuming it if it was interrupted; a no-op if it is complete).
+     *
+     * @throws RuntimeException if the day is not closed, another run is in progress on this node,
+     *                          or a partition failed (it resumes from its checkpoint at the next run).
+     */
+    public InterestRunResult accrue(LocalDate day) {
+        if (!day.isBefore(LocalDate.now())) {
+            throw new RuntimeException("Interest can only be accrued for a closed day");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("An interest run is already in progress");
+        }
+        try {
+            long started = System.nanoTime();
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+            // 1. Partition
+            List<InterestCheckpoint> checkpoints = tx.execute(status -> partitionsOf(day));
+            AtomicInteger next = new AtomicInteger();
+            AtomicLong accounts = new AtomicLong();
+            AtomicLong credited = new AtomicLong();
+            AtomicInteger failed = new AtomicInteger();
+
+            // 2. Workers pull partitions until none are left, then walk them chunk by chunk
+            Runnable worker = () -> {
+                for (int i = next.getAndIncrement(); i < checkpoints.size(); i = next.getAndIncrement()) {
+                    Long checkpointId = checkpoints.get(i).getId();
+                    try {
+                        while (!stopping) {
+                            Chunk chunk = tx.execute(status -> accrueChunk(checkpointId, day));
+                            if (chunk == null) {
+                                break;
+                            }
+                            accounts.addAndGet(chunk.accounts());
+                            credited.addAndGet(chunk.credited());
+                        }
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        logger.warn("Interest accrual of {} partition {} failed: {}", day, i, e.getMessage());
+                    }
+                }
+            };
+            List<Thread> workers = new ArrayList<>(threads);
+            for (int w = 0; w < threads; w++) {
+                workers.add(Thread.ofPlatform().name("interest-accrual-" + w).start(worker));
+            }
+            for (Thread t : workers) {
+                try {
+                    t.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            long elapsedMs = Math.max((System.nanoTime() - started) / 1_000_000, 1);
+            double perSecond = accounts.get() * 1000.0 / elapsedMs;
+            logger.info("Interest accrued for {}: {} accounts ({} credited) in {} ms, {} accounts/s",
+                    day, accounts.get(), credited.get(), elapsedMs, Math.round(perSecond));
+            if (failed.get() > 0) {
+                throw new RuntimeException("Interest accrual of " + day + " is incomplete: " + failed.get() + " partition(s) failed");
+            }
+            return new InterestRunResult(day, checkpoints.size(), accounts.get(), credited.get(), elapsedMs, perSecond);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private record Chunk(int accounts, int credited) {
+    }
+
+    // The day's checkpoints, created on its first run: equal id ranges over the savings accounts
+    private List<InterestCheckpoint> partitionsOf(LocalDate day) {
+        List<InterestCheckpoint> existing = interestCheckpointRepository.findByAccrualDateOrderByPartitionNo(day);
+        if (!existing.isEmpty()) {
+            return existing;
+        }
+        Object[] range = accountRepository.findIdRangeByAccountType(SAVINGS).get(0);
+        List<InterestCheckpoint> created = new ArrayList<>();
+        if (range[0] == null) {
+            created.add(new InterestCheckpoint(day, 0, 0, 0)); // No savings accounts: nothing to do
+        } else {
+            long from = ((Number) range[0]).longValue();
+            long to = ((Number) range[1]).longValue() + 1;
+            long width = Math.max((to - from + partitions - 1) / partitions, 1);
+            int partitionNo = 0;
+            for (long lo = from; lo < to; lo += width) {
+                created.add(new InterestCheckpoint(day, partitionNo++, lo, Math.min(lo + width, to)));
+            }
+        }
+        return interestCheckpointRepository.saveAll(created);
+    }
+
+    /**
+     * Accrues and credits the next chunk of a partition. One DB transaction.
+     *
+     * @return null once the partition is complete (possibly finished by another node).
+     */
+    private Chunk accrueChunk(Long checkpointId, LocalDate day) {
+        InterestCheckpoint checkpoint = interestCheckpointRepository.findByIdForUpdate(checkpointId)
+                .orElseThrow(() -> new RuntimeException("Interest checkpoint not found"));
+        if (checkpoint.isDone()) {
+            return null;
+        }
+
+        // 1. Lock the next accounts (their movements wait until the chunk commits)
+        List<Account> accounts = accountRepository.findActiveByTypeForUpdate(SAVINGS, checkpoint.getNextId(),
+                checkpoint.getToId(), PageRequest.of(0, chunkSize));
+        long fromId = checkpoint.getNextId();
+        long toId = accounts.size() < chunkSize ? checkpoint.getToId() : accounts.getLast().getId() + 1;
+
+        int credited = 0;
+        if (!accounts.isEmpty()) {
+            LocalDateTime start = day.atStartOfDay();
+            LocalDateTime end = day.plusDays(1).atStartOfDay();
+            List<Long> ids = accounts.stream().map(Account::getId).toList();
+
+            // 2. Opening balances, the day's movements (weighted by the time they were held), previous carries
+            Map<Long, Long> opening = new HashMap<>();
+            for (Object[] row : balanceSnapshotRepository.findBalancesAt(ids, start.minusNanos(1_000), LedgerService.EPOCH)) {
+                opening.put(((Number) row[0]).longValue(), ((Number) row[2]).longValue());
+            }
+            Map<Long, Long> moved = new HashMap<>();
+            for (Object[] row : ledgerEntryRepository.findMovementsOfRange(fromId, toId, start, end)) {
+                long held = DailyInterest.held(((Money) row[2]).minorUnits(), ((LocalDateTime) row[1]).toLocalTime().toSecondOfDay());
+                moved.merge((Long) row[0], held, Math::addExact);
+            }
+            Map<Long, BigDecimal> carries = new HashMap<>();
+            for (Object[] row : interestAccrualRepository.findLatestCarries(fromId, toId, day)) {
+                carries.put(((Number) row[0]).longValue(), (BigDecimal) row[1]);
+            }
+
+            // 3. Interest per account; only whole minor units are credited, the rest is carried
+            List<InterestAccrual> accruals = new ArrayList<>(accounts.size());
+            for (Account account : accounts) {
+                long weighted = DailyInterest.weightedBalance(opening.getOrDefault(account.getId(), 0L),
+                        moved.getOrDefault(account.getId(), 0L));
+                BigDecimal accrued = DailyInterest.accrued(weighted, savingsRate, day.lengthOfYear(),
+                        carries.getOrDefault(account.getId(), BigDecimal.ZERO));
+                Money interest = Money.ofMinor(DailyInterest.credited(accrued), account.getCurrencyUnit());
+
+                InterestAccrual accrual = new InterestAccrual(account.getId(), day);
+                accrual.setAverageBalance(DailyInterest.averageBalance(weighted));
+                accrual.setRate(savingsRate);
+                accrual.setInterest(interest);
+                accrual.setCarry(accrued.subtract(BigDecimal.valueOf(interest.minorUnits())));
+                if (interest.isPositive()) {
+                    accrual.setReferenceId(referenceIdGenerator.next());
+                    // Running balance / sequence as a single credit would record them (not tracked for sharded accounts)
+                    if (!account.isSharded()) {
+                        accrual.setBalanceAfter(account.getBalance().plus(interest));
+                        accrual.setSeq(account.getVersion() + 1);
+                    }
+                    credited++;
+                }
+                accruals.add(accrual);
+            }
+
+            // 4. Post the chunk: accrual rows, then one statement per table for all its credits
+            interestAccrualRepository.saveAllAndFlush(accruals);
+            if (credited > 0) {
+                LocalDateTime postedAt = LocalDateTime.now();
+                interestAccrualRepository.insertTransactions(day, fromId, toId, TransactionType.INTEREST.name(),
+                        "Interest " + day, postedAt);
+                interestAccrualRepository.insertLedgerEntries(day, fromId, toId);
+                interestAccrualRepository.creditBalances(day, fromId, toId, postedAt);
+                LocalDate month = postedAt.toLocalDate().withDayOfMonth(1);
+                interestAccrualRepository.addToRollups(day, fromId, toId, month, TransactionType.INTEREST.name());
+                interestAccrualRepository.insertRollups(day, fromId, toId, month, TransactionType.INTEREST.name());
+
+                // One event per credit, delivered after commit (journal, live stream) like a single movement's
+                for (InterestAccrual accrual : accruals) {
+                    if (accrual.getReferenceId() != null) {
+                        eventPublisher.publishEvent(new BalanceChangedEvent(accrual.getAccountId(), null,
+                                accrual.getReferenceId(), TransactionType.INTEREST, accrual.getInterest(),
+                                accrual.getBalanceAfter(), accrual.getSeq()));
+                    }
+                }
+            }
+        }
+
+        // 5. Checkpoint, committed with the credits
+        checkpoint.setNextId(toId);
+        checkpoint.setAccounts(checkpoint.getAccounts() + accounts.size());
+        checkpoint.setCredited(checkpoint.getCredited() + credited);
+        return new Chunk(accounts.size(), credited);
+    }
+
+    private void catchUpQuietly() {
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            // Retried at the next check, from the checkpoints
+            logger.warn("Interest accrual run failed: {}", e.getMessage());
+        }
+    }
+}
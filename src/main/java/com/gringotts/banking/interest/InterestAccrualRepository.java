@@ -0,0 +1,91 @@
+package com.gringotts.banking.interest;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Accrual rows, and the set-based statements that post a chunk's credits from them.
+ * Every statement covers the accruals of one day in one account id range [fromId, toId) that credit something.
+ */
+@Repository
+public interface InterestAccrualRepository extends JpaRepository<InterestAccrual, InterestAccrualId> {
+
+    // Accruals of the chunk that post a credit (reference id set iff interest > 0)
+    String CHUNK = "i.accrual_date = :day AND i.account_id >= :fromId AND i.account_id < :toId AND i.reference_id IS NOT NULL";
+
+    /**
+     * Carry of each account in the range from its latest accrual before :day (accounts without one are absent).
+     * Columns: account id, carry.
+     */
+    @Query(value = "SELECT i.account_id, i.carry FROM interest_accruals i WHERE i.account_id >= :fromId AND i.account_id < :toId " +
+            "AND i.accrual_date = (SELECT MAX(i2.accrual_date) FROM interest_accruals i2 " +
+            "WHERE i2.account_id = i.account_id AND i2.accrual_date < :day)", nativeQuery = true)
+    List<Object[]> findLatestCarries(@Param("fromId") Long fromId, @Param("toId") Long toId, @Param("day") LocalDate day);
+
+    /**
+     * One INTEREST Transaction per credit (one statement for the whole chunk).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transactions (reference_id, account_id, amount, type, description, timestamp, " +
+            "source_balance_after, source_seq) " +
+            "SELECT i.reference_id, i.account_id, i.interest, :type, :description, :postedAt, i.balance_after, i.seq " +
+            "FROM interest_accruals i WHERE " + CHUNK, nativeQuery = true)
+    int insertTransactions(@Param("day") LocalDate day, @Param("fromId") Long fromId, @Param("toId") Long toId,
+                           @Param("type") String type, @Param("description") String description,
+                           @Param("postedAt") LocalDateTime postedAt);
+
+    /**
+     * The ledger entries of those Transactions (credits, found by reference id).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ledger_entries (account_id, transaction_id, reference_id, type, description, amount, " +
+            "balance_after, seq, created_at) " +
+            "SELECT t.account_id, t.id, t.reference_id, t.type, t.description, t.amount, t.source_balance_after, " +
+            "t.source_seq, t.timestamp FROM interest_accruals i JOIN transactions t ON t.reference_id = i.reference_id " +
+            "WHERE " + CHUNK, nativeQuery = true)
+    int insertLedgerEntries(@Param("day") LocalDate day, @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Adds the credits to the balances (the main balance for sharded accounts) and bumps their versions.
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance + (SELECT i.interest FROM interest_accruals i " +
+            "WHERE i.account_id = accounts.id AND i.accrual_date = :day), version = version + 1, updated_at = :postedAt " +
+            "WHERE id IN (SELECT i.account_id FROM interest_accruals i WHERE " + CHUNK + ")", nativeQuery = true)
+    int creditBalances(@Param("day") LocalDate day, @Param("fromId") Long fromId, @Param("toId") Long toId,
+                       @Param("postedAt") LocalDateTime postedAt);
+
+    // The chunk's accounts' INTEREST rollup row of the month (bucket 0, no category)
+    String ROLLUP = "r.period_start = :periodStart AND r.type = :type AND r.category = '' AND r.bucket = 0";
+
+    /**
+     * Adds the credits to the monthly rollup rows that exist already (see AccountRollup).
+     * Only this job writes INTEREST rollups and the chunk's accounts are locked, so updating the existing rows,
+     * then inserting the missing ones (insertRollups) cannot race.
+     */
+    @Modifying
+    @Query(value = "UPDATE account_rollups r SET movement_count = r.movement_count + 1, sum_in = r.sum_in + " +
+            "(SELECT i.interest FROM interest_accruals i WHERE i.account_id = r.account_id AND i.accrual_date = :day) " +
+            "WHERE " + ROLLUP + " AND r.account_id IN (SELECT i.account_id FROM interest_accruals i WHERE " + CHUNK + ")",
+            nativeQuery = true)
+    int addToRollups(@Param("day") LocalDate day, @Param("fromId") Long fromId, @Param("toId") Long toId,
+                     @Param("periodStart") LocalDate periodStart, @Param("type") String type);
+
+    /**
+     * Creates the month's rollup row of the credited accounts that have none yet.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO account_rollups (account_id, period_start, type, category, bucket, movement_count, sum_in, sum_out) " +
+            "SELECT i.account_id, :periodStart, :type, '', 0, 1, i.interest, 0 FROM interest_accruals i WHERE " + CHUNK +
+            " AND NOT EXISTS (SELECT 1 FROM account_rollups r WHERE r.account_id = i.account_id AND " + ROLLUP + ")",
+            nativeQuery = true)
+    int insertRollups(@Param("day") LocalDate day, @Param("fromId") Long fromId, @Param("toId") Long toId,
+                      @Param("periodStart") LocalDate periodStart, @Param("type") String type);
+}
@@ -0,0 +1,98 @@
+package com.gringotts.banking.interest;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one id range (partition) of one day's interest accrual.
+ * Maps to table: 'interest_checkpoints'
+ * 'nextId' moves forward in the same DB transaction as each chunk's credits, so after a crash the
+ * partition resumes right after the last committed chunk. The day is done once every partition
+ * has reached its 'toId'.
+ */
+@Entity
+@Table(name = "interest_checkpoints", uniqueConstraints =
+        @UniqueConstraint(name = "uk_interest_partition", columnNames = {"accrual_date", "partition_no"}))
+public class InterestCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "accrual_date", nullable = false, updatable = false)
+    private LocalDate accrualDate;
+
+    @Column(name = "partition_no", nullable = false, updatable = false)
+    private Integer partitionNo;
+
+    // Account ids [fromId, toId)
+    @Column(name = "from_id", nullable = false, updatable = false)
+    private Long fromId;
+
+    @Column(name = "to_id", nullable = false, updatable = false)
+    private Long toId;
+
+    // First account id not processed yet
+    @Column(name = "next_id", nullable = false)
+    private Long nextId;
+
+    // Accounts processed / credited so far
+    @Column(nullable = false)
+    private Long accounts = 0L;
+
+    @Column(nullable = false)
+    private Long credited = 0L;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // --- CONSTRUCTORS ---
+
+    public InterestCheckpoint() {
+    }
+
+    public InterestCheckpoint(LocalDate accrualDate, int partitionNo, long fromId, long toId) {
+        this.accrualDate = accrualDate;
+        this.partitionNo = partitionNo;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.nextId = fromId;
+    }
+
+    public boolean isDone() {
+        return nextId >= toId;
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getAccrualDate() { return accrualDate; }
+    public void setAccrualDate(LocalDate accrualDate) { this.accrualDate = accrualDate; }
+
+    public Integer getPartitionNo() { return partitionNo; }
+    public void setPartitionNo(Integer partitionNo) { this.partitionNo = partitionNo; }
+
+    public Long getFromId() { return fromId; }
+    public void setFromId(Long fromId) { this.fromId = fromId; }
+
+    public Long getToId() { return toId; }
+    public void setToId(Long toId) { this.toId = toId; }
+
+    public Long getNextId() { return nextId; }
+    public void setNextId(Long nextId) { this.nextId = nextId; }
+
+    public Long getAccounts() { return accounts; }
+    public void setAccounts(Long accounts) { this.accounts = accounts; }
+
+    public Long getCredited() { return credited; }
+    public void setCredited(Long credited) { this.credited = credited; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
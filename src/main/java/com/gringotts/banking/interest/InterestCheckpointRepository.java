@@ -0,0 +1,34 @@
+package com.gringotts.banking.interest;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InterestCheckpointRepository extends JpaRepository<InterestCheckpoint, Long> {
+
+    List<InterestCheckpoint> findByAccrualDateOrderByPartitionNo(LocalDate accrualDate);
+
+    /**
+     * Held while a chunk of the partition is accrued, so two nodes never accrue the same chunk.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM InterestCheckpoint c WHERE c.id = :id")
+    Optional<InterestCheckpoint> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Where the job stopped: the latest day it started.
+     */
+    @Query("SELECT MAX(c.accrualDate) FROM InterestCheckpoint c")
+    Optional<LocalDate> findLatestDay();
+
+    @Query("SELECT COUNT(c) FROM InterestCheckpoint c WHERE c.accrualDate = :day AND c.nextId < c.toId")
+    long countUnfinished(@Param("day") LocalDate day);
+}
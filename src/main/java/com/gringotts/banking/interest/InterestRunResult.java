@@ -0,0 +1,14 @@
+package com.gringotts.banking.interest;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of accruing one day (this run only: chunks committed by an earlier, interrupted run are not counted).
+ *
+ * @param accounts          SAVINGS accounts processed.
+ * @param credited          Of which received a credit (the others only carried a fraction of a cent).
+ * @param accountsPerSecond Throughput of the run.
+ */
+public record InterestRunResult(LocalDate day, int partitions, long accounts, long credited,
+                                long elapsedMs, double accountsPerSecond) {
+}
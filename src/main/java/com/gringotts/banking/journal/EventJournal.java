@@ -0,0 +1,106 @@
+package com.gringotts.banking.journal;
+
+import com.gringotts.banking.transaction.BalanceChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Appends every committed ledger event (one per account touched) to the on-disk Journal,
+ * so statements, analytics and notifications can tail a local file instead of polling 'transactions'.
+ * Flow: TransactionService/AccountService publish -> (commit) -> onBalanceChanged -> Journal.append.
+ *
+ * Offsets follow commit order across all accounts. Two commits on the same account can reach
+ * the journal in either order, so consumers order one account's records by seq, not by offset.
+ */
+@Component
+public class EventJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventJournal.class);
+
+    @Value("${app.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.journal.dir:data/journal}")
+    private String directory;
+
+    // 1M records = 80 MB per segment file
+    @Value("${app.journal.segment-records:1048576}")
+    private int segmentRecords;
+
+    private Journal journal;
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            journal = Journal.open(Path.of(directory), segmentRecords);
+            logger.info("Event journal opened at {} (tail {})", directory, journal.getTail());
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot open event journal at " + directory, e);
+        }
+    }
+
+    /**
+     * Journals a committed balance change. A journal failure is logged, never surfaced to the
+     * caller: the money already moved and the ledger remains the system of record.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(JournalRecord.of(event, System.currentTimeMillis()));
+        } catch (RuntimeException e) {
+            logger.error("Could not journal {} for account {}", event.referenceId(), event.accountId(), e);
+        }
+    }
+
+    /**
+     * A tailing cursor for a downstream consumer, starting at fromOffset.
+     */
+    public JournalReader reader(long fromOffset) {
+        return requireJournal().reader(fromOffset);
+    }
+
+    /**
+     * Rebuilds derived state: feeds every record from fromOffset to the current tail.
+     *
+     * @return The offset to resume from.
+     */
+    public long replay(long fromOffset, Consumer<JournalRecord> handler) {
+        return requireJournal().replay(fromOffset, handler);
+    }
+
+    public long getTail() {
+        return journal == null ? 0 : journal.getTail();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private Journal requireJournal() {
+        if (journal == null) {
+            throw new RuntimeException("Event journal is disabled (app.journal.enabled=false)");
+        }
+        return journal;
+    }
+}
@@ -0,0 +1,190 @@
+package com.gringotts.banking.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Segmented, memory-mapped, append-only journal of JournalRecords.
+ *
+ * On disk (one directory):
+ * - '<baseOffset>.log': fixed-size segments of 80-byte records, rolled when full.
+ * - 'journal.idx':      the tail (next offset to write), so readers in other processes know how far is safe to read.
+ *
+ * One writer (append is synchronized), any number of JournalReaders.
+ * On open, the tail is recovered by validating records (offset + CRC) from the index hint onwards,
+ * so a torn write after a crash is simply overwritten.
+ */
+public class Journal implements AutoCloseable {
+
+    static final String INDEX_FILE = "journal.idx";
+
+    private final Path directory;
+    private final int segmentRecords;
+
+    private final FileChannel indexChannel;
+    private final MappedByteBuffer index;
+
+    private JournalSegment active;
+
+    // Next offset to write; everything below it is complete and readable
+    private volatile long tail;
+
+    private Journal(Path directory, int segmentRecords) throws IOException {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+        this.index.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Opens (or creates) the journal in a directory and recovers its tail.
+     *
+     * @param segmentRecords Records per segment file (segment size = segmentRecords * 80 bytes).
+     */
+    public static Journal open(Path directory, int segmentRecords) throws IOException {
+        if (segmentRecords <= 0 || (long) segmentRecords * JournalRecord.SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segmentRecords must be between 1 and " + Integer.MAX_VALUE / JournalRecord.SIZE);
+        }
+        Files.createDirectories(directory);
+        Journal journal = new Journal(directory, segmentRecords);
+        journal.recover();
+        return journal;
+    }
+
+    /**
+     * Appends one record and returns the offset it was written at.
+     */
+    public synchronized long append(JournalRecord record) {
+        long offset = tail;
+
+        // 1. Roll to a new segment when the active one is full
+        if (!active.contains(offset)) {
+            roll(offset);
+        }
+
+        // 2. Write the record, then publish the new tail (volatile write: readers see the full record)
+        record.withOffset(offset).writeTo(active.buffer, active.position(offset));
+        tail = offset + 1;
+        index.putLong(0, tail);
+        return offset;
+    }
+
+    /**
+     * Next offset to be written (= number of records in the journal).
+     */
+    public long getTail() {
+        return tail;
+    }
+
+    /**
+     * A cursor positioned at fromOffset. The caller closes it.
+     */
+    public JournalReader reader(long fromOffset) {
+        if (fromOffset < 0 || fromOffset > tail) {
+            throw new IllegalArgumentException("Offset " + fromOffset + " is outside the journal (tail " + tail + ")");
+        }
+        return new JournalReader(this, fromOffset);
+    }
+
+    /**
+     * Feeds every record from fromOffset up to the current tail to the handler, in offset order.
+     * Used to rebuild derived state (statements, analytics, ...) from any point.
+     *
+     * @return The offset to resume from next time.
+     */
+    public long replay(long fromOffset, Consumer<JournalRecord> handler) {
+        try (JournalReader reader = reader(fromOffset)) {
+            while (reader.poll(handler, 4096) > 0) {
+                // keep draining
+            }
+            return reader.getPosition();
+        }
+    }
+
+    /**
+     * Flushes the active segment and the index to disk.
+     */
+    public synchronized void force() {
+        active.buffer.force();
+        index.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        active.close();
+        indexChannel.close();
+    }
+
+    // --- PACKAGE HELPERS (JournalReader) ---
+
+    int getSegmentRecords() {
+        return segmentRecords;
+    }
+
+    JournalSegment openForRead(long offset) {
+        try {
+            return JournalSegment.open(directory, baseOf(offset), segmentRecords, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal segment for offset " + offset, e);
+        }
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private long baseOf(long offset) {
+        return offset - offset % segmentRecords;
+    }
+
+    /**
+     * Finds the last segment and scans it for the first slot that is not a valid record.
+     */
+    private void recover() throws IOException {
+        long lastBase;
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Long> bases = files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(".log"))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - 4)))
+                    .sorted()
+                    .toList();
+            lastBase = bases.isEmpty() ? 0 : bases.get(bases.size() - 1);
+        }
+        active = JournalSegment.open(directory, lastBase, segmentRecords, true);
+
+        // 1. Start from the index hint if the record just before it checks out, else from the segment start
+        long hint = index.getLong(0);
+        long offset = lastBase;
+        if (hint > lastBase && active.contains(hint - 1)
+                && JournalRecord.isValid(active.buffer, active.position(hint - 1), hint - 1)) {
+            offset = hint;
+        }
+
+        // 2. Walk forward over records written after the hint was last updated
+        while (active.contains(offset) && JournalRecord.isValid(active.buffer, active.position(offset), offset)) {
+            offset++;
+        }
+        tail = offset;
+        index.putLong(0, tail);
+    }
+
+    private void roll(long baseOffset) {
+        try {
+            active.buffer.force();
+            active.close();
+            active = JournalSegment.open(directory, baseOffset, segmentRecords, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll journal segment at offset " + baseOffset, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.gringotts.banking.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Tailing cursor over the journal. Not thread-safe: one reader per consumer thread.
+ * Records are decoded straight from a read-only mapping of the segment (no read() copies),
+ * and never beyond the journal's published tail.
+ */
+public class JournalReader implements AutoCloseable {
+
+    private final Journal journal;
+
+    private JournalSegment segment;
+
+    // Next offset to read
+    private long position;
+
+    JournalReader(Journal journal, long position) {
+        this.journal = journal;
+        this.position = position;
+    }
+
+    /**
+     * Hands up to maxRecords new records to the handler.
+     *
+     * @return How many were read (0 = caught up with the writer).
+     */
+    public int poll(Consumer<JournalRecord> handler, int maxRecords) {
+        long tail = journal.getTail();
+        int read = 0;
+
+        while (position < tail && read < maxRecords) {
+            // 1. Move to the next segment file when the current one is exhausted
+            if (segment == null || !segment.contains(position)) {
+                closeSegment();
+                segment = journal.openForRead(position);
+            }
+
+            // 2. Check and decode in place
+            int at = segment.position(position);
+            if (!JournalRecord.isValid(segment.buffer, at, position)) {
+                throw new RuntimeException("Journal record " + position + " is corrupt");
+            }
+            handler.accept(JournalRecord.readFrom(segment.buffer, at));
+            position++;
+            read++;
+        }
+        return read;
+    }
+
+    /**
+     * Next offset this reader will return (persist it to resume later).
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public void close() {
+        closeSegment();
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            segment = null;
+        }
+    }
+}
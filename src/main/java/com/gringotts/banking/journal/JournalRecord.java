@@ -0,0 +1,145 @@
+package com.gringotts.banking.journal;
+
+import com.gringotts.banking.transaction.BalanceChangedEvent;
+import com.gringotts.banking.transaction.ReferenceIds;
+import com.gringotts.banking.transaction.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * One ledger event as stored in the journal: a fixed 80-byte little-endian record.
+ *
+ * Layout (byte offset):
+ * 0  offset         (position of the record in the journal, 0, 1, 2, ...)
+ * 8  timestamp      (epoch millis, when the event was committed)
+ * 16 accountId
+ * 24 counterparty   (0 = none)
+ * 32 amount         (signed, in minor units of 'currency')
+ * 40 balanceAfter   (in minor units, Long.MIN_VALUE = not tracked, see sharded accounts)
+ * 48 seq            (the account's movement sequence)
+ * 56 reference      (128-bit, high then low half)
+ * 72 type           (short: TransactionType.code(), stable across enum changes)
+ * 74 currency       (short: ISO 4217 numeric code, e.g. 840 = USD, 392 = JPY; 0 = not recorded)
+ * 76 crc            (CRC32C of bytes 0..75)
+ *
+ * Records written when bytes 72..75 held the type ordinal as an int read the same: the codes equal
+ * those ordinals and the (little-endian) high half is 0, i.e. currency not recorded.
+ *
+ * @param amountMinor       Signed from the account's point of view (negative = money out).
+ * @param counterpartyId    The other account of a transfer, 0 for deposits/purchases.
+ * @param currency          The account's currency; null if not recorded (older records).
+ */
+public record JournalRecord(
+        long offset,
+        long timestamp,
+        long accountId,
+        long counterpartyId,
+        long amountMinor,
+        long balanceAfterMinor,
+        long seq,
+        UUID reference,
+        TransactionType type,
+        Currency currency) {
+
+    public static final int SIZE = 80;
+
+    private static final int CRC_POSITION = 76;
+
+    // ISO 4217 numeric code -> currency. A code shared by withdrawn currencies (891: CSD, YUM) is left out (reads null).
+    private static final Map<Integer, Currency> BY_NUMERIC_CODE = new HashMap<>();
+
+    static {
+        Set<Integer> shared = new HashSet<>();
+        for (Currency c : Currency.getAvailableCurrencies()) {
+            if (c.getNumericCode() > 0 && BY_NUMERIC_CODE.putIfAbsent(c.getNumericCode(), c) != null) {
+                shared.add(c.getNumericCode());
+            }
+        }
+        BY_NUMERIC_CODE.keySet().removeAll(shared);
+    }
+
+    /**
+     * Builds the record of a committed BalanceChangedEvent (offset is assigned by the journal on append).
+     */
+    public static JournalRecord of(BalanceChangedEvent event, long timestamp) {
+        return new JournalRecord(
+                -1,
+                timestamp,
+                event.accountId(),
+                event.counterpartyAccountId() == null ? 0 : event.counterpartyAccountId(),
+                event.amount().minorUnits(),
+                event.balanceAfter() == null ? Long.MIN_VALUE : event.balanceAfter().minorUnits(),
+                event.seq() == null ? 0 : event.seq(),
+                ReferenceIds.decode(event.referenceId()),
+                event.type(),
+                event.amount().currency());
+    }
+
+    /**
+     * Same record, placed at the given journal offset.
+     */
+    public JournalRecord withOffset(long newOffset) {
+        return new JournalRecord(newOffset, timestamp, accountId, counterpartyId, amountMinor,
+                balanceAfterMinor, seq, reference, type, currency);
+    }
+
+    /**
+     * Writes the record (with its CRC) at an absolute buffer position. Does not move the buffer's position.
+     */
+    void writeTo(ByteBuffer buffer, int position) {
+        buffer.putLong(position, offset);
+        buffer.putLong(position + 8, timestamp);
+        buffer.putLong(position + 16, accountId);
+        buffer.putLong(position + 24, counterpartyId);
+        buffer.putLong(position + 32, amountMinor);
+        buffer.putLong(position + 40, balanceAfterMinor);
+        buffer.putLong(position + 48, seq);
+        buffer.putLong(position + 56, reference.getMostSignificantBits());
+        buffer.putLong(position + 64, reference.getLeastSignificantBits());
+        buffer.putShort(position + 72, (short) type.code());
+        buffer.putShort(position + 74, (short) (currency == null ? 0 : currency.getNumericCode()));
+        buffer.putInt(position + CRC_POSITION, crc(buffer, position));
+    }
+
+    /**
+     * Reads the record at an absolute buffer position, straight from the (mapped) buffer.
+     */
+    static JournalRecord readFrom(ByteBuffer buffer, int position) {
+        return new JournalRecord(
+                buffer.getLong(position),
+                buffer.getLong(position + 8),
+                buffer.getLong(position + 16),
+                buffer.getLong(position + 24),
+                buffer.getLong(position + 32),
+                buffer.getLong(position + 40),
+                buffer.getLong(position + 48),
+                new UUID(buffer.getLong(position + 56), buffer.getLong(position + 64)),
+                TransactionType.fromCode(buffer.getShort(position + 72)),
+                BY_NUMERIC_CODE.get((int) buffer.getShort(position + 74)));
+    }
+
+    /**
+     * True if the slot holds a complete, uncorrupted record for the expected offset.
+     * A never-written (zeroed) or torn slot fails this check, which is how the tail is found after a crash.
+     */
+    static boolean isValid(ByteBuffer buffer, int position, long expectedOffset) {
+        return buffer.getLong(position) == expectedOffset
+                && buffer.getInt(position + CRC_POSITION) == crc(buffer, position)
+                && TransactionType.fromCode(buffer.getShort(position + 72)) != null;
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private static int crc(ByteBuffer buffer, int position) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position, CRC_POSITION));
+        return (int) crc.getValue();
+    }
+}
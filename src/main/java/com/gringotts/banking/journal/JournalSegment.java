@@ -0,0 +1,63 @@
+package com.gringotts.banking.journal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One fixed-size journal file ('<baseOffset>.log'), memory-mapped whole.
+ * Holds the records baseOffset .. baseOffset + capacity - 1.
+ */
+final class JournalSegment implements AutoCloseable {
+
+    final long baseOffset;
+    final int capacity;
+    final MappedByteBuffer buffer;
+
+    private final FileChannel channel;
+
+    private JournalSegment(long baseOffset, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+        this.baseOffset = baseOffset;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Maps (and for the writer, creates and pre-sizes) the segment starting at baseOffset.
+     */
+    static JournalSegment open(Path directory, long baseOffset, int capacity, boolean writable) throws IOException {
+        Path file = directory.resolve(fileName(baseOffset));
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                0, (long) capacity * JournalRecord.SIZE);
+        return new JournalSegment(baseOffset, capacity, channel, buffer);
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d.log", baseOffset);
+    }
+
+    /**
+     * Byte position of a journal offset inside this segment.
+     */
+    int position(long offset) {
+        return (int) (offset - baseOffset) * JournalRecord.SIZE;
+    }
+
+    boolean contains(long offset) {
+        return offset >= baseOffset && offset < baseOffset + capacity;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The mapping itself is released when the buffer is garbage collected
+        channel.close();
+    }
+}
@@ -0,0 +1,15 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.money.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * Balance of an account at a past instant.
+ *
+ * @param at       The instant asked for (movements at or before it count).
+ * @param balance  In the account's currency; zero if the account had not moved yet.
+ * @param currency ISO 4217 code of the account.
+ */
+public record BalanceAt(Long accountId, LocalDateTime at, Money balance, String currency) {
+}
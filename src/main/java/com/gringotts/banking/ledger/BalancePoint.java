@@ -0,0 +1,11 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.money.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * One point of a balance chart: the balance right after a movement (or at the range bounds).
+ */
+public record BalancePoint(LocalDateTime at, Money balance) {
+}
@@ -0,0 +1,15 @@
+package com.gringotts.banking.ledger;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Downsampled balance-over-time series of an account.
+ *
+ * @param movements Number of ledger entries in the range (before downsampling).
+ * @param points    At most the requested number of points, in time order: the balance at 'from',
+ *                  the points kept by the downsampler, the balance at 'to'.
+ */
+public record BalanceSeries(Long accountId, String currency, LocalDateTime from, LocalDateTime to,
+                            long movements, List<BalancePoint> points) {
+}
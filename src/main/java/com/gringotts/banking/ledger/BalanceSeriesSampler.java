@@ -0,0 +1,175 @@
+package com.gringotts.banking.ledger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming downsampler for a balance-over-time series (Largest-Triangle-Three-Buckets with a
+ * min/max preselection, "MinMaxLTTB").
+ * The number of rows is not known up front, so LTTB cannot bucket them by position directly.
+ * Flow:
+ * 1. add(): each point lands in one of 2 * (N - 2) equal time bins, which only keep their lowest
+ *    and highest point (one pass, O(1) per point, O(N) memory whatever the row count).
+ * 2. finish(): classic LTTB over opening point + bin extremes + closing point picks at most N points,
+ *    keeping the visually important ones (spikes, dips, turning points).
+ * Not thread-safe: one instance per request.
+ */
+public final class BalanceSeriesSampler {
+
+    /**
+     * A point of the series: x = time (epoch micros), y = balance (minor units).
+     */
+    public record Point(long x, long y) {
+    }
+
+    // Candidates per output point (each bin keeps 2)
+    private static final int RATIO = 4;
+
+    private final long fromX;
+    private final long span;
+    private final int maxPoints;
+    private final int bins;
+
+    private final long[] minX;
+    private final long[] minY;
+    private final long[] maxX;
+    private final long[] maxY;
+
+    private final Point opening;
+    private long lastY;
+    private long count;
+
+    /**
+     * @param fromX     Start of the range; the opening point sits there.
+     * @param toX       End of the range (inclusive); the closing point sits there.
+     * @param opening   Balance at fromX.
+     * @param maxPoints Upper bound of the result size (at least 2: opening and closing).
+     */
+    public BalanceSeriesSampler(long fromX, long toX, long opening, int maxPoints) {
+        if (maxPoints < 2) {
+            throw new IllegalArgumentException("At least 2 points are needed");
+        }
+        if (toX <= fromX) {
+            throw new IllegalArgumentException("The range must end after it starts");
+        }
+        this.fromX = fromX;
+        this.span = toX - fromX;
+        this.maxPoints = maxPoints;
+        this.bins = Math.max(1, (maxPoints - 2) * RATIO / 2);
+        this.minX = new long[bins];
+        this.minY = new long[bins];
+        this.maxX = new long[bins];
+        this.maxY = new long[bins];
+        Arrays.fill(minX, Long.MIN_VALUE); // empty bin marker
+        this.opening = new Point(fromX, opening);
+        this.lastY = opening;
+    }
+
+    /**
+     * Adds the next point. Points must come in time order, within (fromX, toX].
+     */
+    public void add(long x, long y) {
+        int bin = (int) Math.min(bins - 1, (long) ((double) (x - fromX) / span * bins));
+        if (minX[bin] == Long.MIN_VALUE) {
+            minX[bin] = maxX[bin] = x;
+            minY[bin] = maxY[bin] = y;
+        } else if (y < minY[bin]) {
+            minX[bin] = x;
+            minY[bin] = y;
+        } else if (y > maxY[bin]) {
+            maxX[bin] = x;
+            maxY[bin] = y;
+        }
+        lastY = y;
+        count++;
+    }
+
+    /**
+     * @return Number of points added so far.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return At most maxPoints points in time order, starting with the opening point and ending
+     * with the closing one (the last balance, at toX).
+     */
+    public List<Point> finish() {
+        // 1. Candidates: opening, the extremes of each bin in time order, closing
+        List<Point> candidates = new ArrayList<>(bins * 2 + 2);
+        candidates.add(opening);
+        for (int i = 0; i < bins; i++) {
+            if (minX[i] == Long.MIN_VALUE) {
+                continue;
+            }
+            Point low = new Point(minX[i], minY[i]);
+            Point high = new Point(maxX[i], maxY[i]);
+            if (low.equals(high)) {
+                candidates.add(low);
+            } else {
+                candidates.add(low.x() <= high.x() ? low : high);
+                candidates.add(low.x() <= high.x() ? high : low);
+            }
+        }
+        candidates.add(new Point(fromX + span, lastY));
+
+        if (candidates.size() <= maxPoints) {
+            return candidates;
+        }
+        return largestTriangleThreeBuckets(candidates, maxPoints);
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    // Keeps first and last; from each of the (threshold - 2) buckets in between, the point forming
+    // the largest triangle with the previously kept point and the average of the next bucket.
+    private static List<Point> largestTriangleThreeBuckets(List<Point> data, int threshold) {
+        int n = data.size();
+        List<Point> sampled = new ArrayList<>(threshold);
+        if (threshold == 2) {
+            sampled.add(data.get(0));
+            sampled.add(data.get(n - 1));
+            return sampled;
+        }
+
+        double every = (double) (n - 2) / (threshold - 2);
+        Point a = data.get(0);
+        sampled.add(a);
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket (the last point for the last bucket)
+            int avgStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += data.get(j).x();
+                avgY += data.get(j).y();
+            }
+            avgX /= avgEnd - avgStart;
+            avgY /= avgEnd - avgStart;
+
+            // Largest triangle (a, candidate, average) in the current bucket
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double maxArea = -1;
+            Point chosen = data.get(rangeStart);
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                Point b = data.get(j);
+                double area = Math.abs(((double) a.x() - avgX) * ((double) b.y() - a.y())
+                        - ((double) a.x() - b.x()) * (avgY - a.y()));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = b;
+                }
+            }
+            sampled.add(chosen);
+            a = chosen;
+        }
+
+        sampled.add(data.get(n - 1));
+        return sampled;
+    }
+}
@@ -0,0 +1,58 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.money.Money;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * End-of-day balance of one account, derived from the ledger.
+ * Maps to table: 'balance_snapshots'
+ * 'balance' covers every ledger entry strictly before 'asOf' (midnight after the day it closes),
+ * so "balance at X" never has to add up more than the movements since the last snapshot.
+ * Written only for days on which the account moved (see BalanceSnapshotJob).
+ */
+@Entity
+@Table(name = "balance_snapshots", uniqueConstraints =
+        @UniqueConstraint(name = "uk_snapshot_account_as_of", columnNames = {"account_id", "as_of"}))
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Column(name = "as_of", nullable = false, updatable = false)
+    private LocalDateTime asOf;
+
+    // Minor units of the account's currency
+    @Column(nullable = false, updatable = false)
+    private Money balance;
+
+    // --- CONSTRUCTORS ---
+
+    public BalanceSnapshot() {
+    }
+
+    public BalanceSnapshot(Long accountId, LocalDateTime asOf, Money balance) {
+        this.accountId = accountId;
+        this.asOf = asOf;
+        this.balance = balance;
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public LocalDateTime getAsOf() { return asOf; }
+    public void setAsOf(LocalDateTime asOf) { this.asOf = asOf; }
+
+    public Money getBalance() { return balance; }
+    public void setBalance(Money balance) { this.balance = balance; }
+}
@@ -0,0 +1,150 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.money.Money;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes end-of-day balance snapshots from the ledger, so a point-in-time balance never
+ * sums more than about one day of movements (see LedgerService.getBalanceAsOf).
+ * Flow, per closed day (oldest first, one DB transaction each):
+ * 1. Net movement of every account that moved that day (one grouped range read).
+ * 2. Their previous snapshots (chunks of ids).
+ * 3. previous + net movement -> one new snapshot per account, as of the following midnight.
+ * Days are only closed 'grace-minutes' after midnight, so transactions committing late are included.
+ * Re-running is safe: it resumes at the first movement after the latest snapshot, so quiet days are skipped.
+ */
+@Component
+public class BalanceSnapshotJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceSnapshotJob.class);
+
+    private static final int CHUNK = 1000;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.balance-snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.balance-snapshot.check-ms:3600000}")
+    private long checkMs;
+
+    @Value("${app.balance-snapshot.grace-minutes:10}")
+    private long graceMinutes;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Catches up once the app is up, then checks for a newly closed day every 'check-ms' (if enabled).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (enabled) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("balance-snapshot").daemon().factory());
+            scheduler.scheduleWithFixedDelay(this::catchUpQuietly, 0, checkMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Snapshots every closed day that is not snapshotted yet.
+     *
+     * @return Number of days processed.
+     */
+    public int catchUp() {
+        LocalDate lastClosed = LocalDateTime.now().minusMinutes(graceMinutes).toLocalDate().minusDays(1);
+
+        // Resume at the first movement after the latest snapshot (as_of is the midnight ending its day),
+        // or at the very first ledger entry
+        LocalDateTime resumeFrom = balanceSnapshotRepository.findLatestAsOf().orElse(LedgerService.EPOCH);
+        LocalDate next = ledgerEntryRepository.findFirstCreatedAtFrom(resumeFrom)
+                .map(LocalDateTime::toLocalDate).orElse(null);
+        if (next == null) {
+            return 0;
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int days = 0;
+        for (LocalDate day = next; !day.isAfter(lastClosed); day = day.plusDays(1)) {
+            final LocalDate closing = day;
+            int written = tx.execute(status -> snapshot(closing));
+            logger.debug("Balance snapshots for {}: {} accounts", closing, written);
+            days++;
+        }
+        if (days > 0) {
+            logger.info("Balance snapshots written through {} ({} days)", lastClosed, days);
+        }
+        return days;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private int snapshot(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime asOf = day.plusDays(1).atStartOfDay();
+
+        // 1. Who moved, and by how much
+        Map<Long, Long> moved = new HashMap<>();
+        for (Object[] row : ledgerEntryRepository.sumAmountsByAccount(from, asOf)) {
+            moved.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+
+        // 2. + 3. Previous snapshot + the day's movement, chunk by chunk
+        List<Long> ids = new ArrayList<>(moved.keySet());
+        for (int i = 0; i < ids.size(); i += CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(i + CHUNK, ids.size()));
+            Map<Long, Long> previous = new HashMap<>();
+            for (Object[] row : balanceSnapshotRepository.findLatestBalances(chunk, from)) {
+                previous.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+
+            List<BalanceSnapshot> snapshots = new ArrayList<>(chunk.size());
+            for (Long accountId : chunk) {
+                long balance = Math.addExact(previous.getOrDefault(accountId, 0L), moved.get(accountId));
+                snapshots.add(new BalanceSnapshot(accountId, asOf, Money.ofMinor(balance)));
+            }
+            balanceSnapshotRepository.saveAll(snapshots);
+        }
+        return ids.size();
+    }
+
+    private void catchUpQuietly() {
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            // Retried at the next check; the days already written stay
+            logger.warn("Balance snapshot run failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.gringotts.banking.ledger;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    /**
+     * The latest snapshot usable for an instant (one seek on the unique account + as_of index).
+     */
+    Optional<BalanceSnapshot> findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(Long accountId, LocalDateTime at);
+
+    /**
+     * Where the snapshot job stopped.
+     */
+    @Query("SELECT MAX(s.asOf) FROM BalanceSnapshot s")
+    Optional<LocalDateTime> findLatestAsOf();
+
+    /**
+     * Snapshot job: the latest snapshot at or before :asOf of each given account (accounts without one are absent).
+     * Columns: account id, balance (minor units).
+     */
+    @Query(value = "SELECT s.account_id, s.balance FROM balance_snapshots s WHERE s.account_id IN (:accountIds) " +
+            "AND s.as_of = (SELECT MAX(s2.as_of) FROM balance_snapshots s2 WHERE s2.account_id = s.account_id AND s2.as_of <= :asOf)",
+            nativeQuery = true)
+    List<Object[]> findLatestBalances(@Param("accountIds") Collection<Long> accountIds, @Param("asOf") LocalDateTime asOf);
+
+    // Batch read: as_of of the account's latest snapshot at or before :at
+    String LATEST_AS_OF = "(SELECT MAX(s2.as_of) FROM balance_snapshots s2 WHERE s2.account_id = a.id AND s2.as_of <= :at)";
+
+    /**
+     * Balances of many accounts at one instant, in one statement: per account, the latest snapshot
+     * at or before :at plus the sum of its ledger entries from that snapshot up to :at
+     * (two index seeks and one bounded range scan per account; works for sharded accounts too).
+     * Columns: account id, currency, balance (minor units).
+     */
+    @Query(value = "SELECT a.id, a.currency, " +
+            "COALESCE((SELECT s.balance FROM balance_snapshots s WHERE s.account_id = a.id AND s.as_of = " + LATEST_AS_OF + "), 0) + " +
+            "COALESCE((SELECT SUM(e.amount) FROM ledger_entries e WHERE e.account_id = a.id " +
+            "AND e.created_at >= COALESCE(" + LATEST_AS_OF + ", :epoch) AND e.created_at <= :at), 0) " +
+            "FROM accounts a WHERE a.id IN (:accountIds) ORDER BY a.id", nativeQuery = true)
+    List<Object[]> findBalancesAt(@Param("accountIds") Collection<Long> accountIds, @Param("at") LocalDateTime at,
+                                  @Param("epoch") LocalDateTime epoch);
+}
@@ -0,0 +1,91 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.transaction.Transaction;
+import com.gringotts.banking.transaction.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off migration of existing 'transactions' rows into 'ledger_entries'.
+ * Works in chunks (one DB transaction each) walking the transactions by id, so it can be
+ * stopped at any time and simply re-run: rows that already have entries are skipped.
+ */
+@Component
+public class LedgerBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerBackfillJob.class);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.ledger.backfill.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.ledger.backfill.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Starts the backfill in the background once the app is up (if enabled).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (enabled) {
+            Thread.ofVirtual().name("ledger-backfill").start(this::backfill);
+        }
+    }
+
+    /**
+     * Posts ledger entries for every transaction that has none.
+     *
+     * @return Number of transactions migrated.
+     */
+    public long backfill() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long afterId = 0;
+        long migrated = 0;
+
+        while (true) {
+            final long cursor = afterId;
+
+            // 1. Read one chunk and write its entries in the same short transaction
+            List<Transaction> chunk = tx.execute(status -> {
+                List<Transaction> rows = transactionRepository.findUnpostedAfter(cursor, PageRequest.of(0, chunkSize));
+                ledgerEntryRepository.saveAll(rows.stream()
+                        .flatMap(t -> ledgerService.entriesOf(t).stream())
+                        .toList());
+                return rows;
+            });
+
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+
+            // 2. Move the keyset cursor
+            afterId = chunk.get(chunk.size() - 1).getId();
+            migrated += chunk.size();
+            logger.info("Ledger backfill: {} transactions migrated (up to id {})", migrated, afterId);
+        }
+
+        logger.info("Ledger backfill finished: {} transactions migrated", migrated);
+        return migrated;
+    }
+}
@@ -0,0 +1,120 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.ReferenceIdConverter;
+import com.gringotts.banking.transaction.TransactionType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One signed line of the double-entry ledger: a single account's side of a money movement.
+ * Maps to table: 'ledger_entries'
+ * Append-only: a transfer writes two rows (debit + credit), a deposit or purchase writes one.
+ *
+ * Accounts are referenced by plain id (no association) and the counterparty number is copied in,
+ * so history reads load no entity; they only join the account's primary key row for its currency.
+ */
+@Entity
+@Table(name = "ledger_entries", indexes = {
+        // History / balance-at-date: range scan of one account by time
+        @Index(name = "idx_ledger_account_time", columnList = "account_id, created_at"),
+        // Delta sync: range scan of one account by sequence
+        @Index(name = "idx_ledger_account_seq", columnList = "account_id, seq"),
+        // Backfill: which transactions are already posted
+        @Index(name = "idx_ledger_transaction", columnList = "transaction_id"),
+        // End-of-day snapshots: one day of entries across all accounts
+        @Index(name = "idx_ledger_time", columnList = "created_at")
+})
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    // The 'transactions' row this entry belongs to
+    @Column(name = "transaction_id", nullable = false, updatable = false)
+    private Long transactionId;
+
+    @Convert(converter = ReferenceIdConverter.class)
+    @Column(name = "reference_id", nullable = false, updatable = false, columnDefinition = "BINARY(16)")
+    private String referenceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private TransactionType type;
+
+    @Column(updatable = false)
+    private String description;
+
+    // Spending category copied from the Transaction (null if none)
+    @Column(length = 32, updatable = false)
+    private String category;
+
+    // Signed: negative = money left the account, positive = money came in.
+    // Minor units of the account's currency: loaded entities carry the default currency, the read
+    // projections (TransactionView, ActivityItem, LedgerMovement) re-tag with the account's
+    @Column(nullable = false, updatable = false)
+    private Money amount;
+
+    // Running balance of the account right after this entry
+    @Column(name = "balance_after", updatable = false)
+    private Money balanceAfter;
+
+    // The account's movement sequence (null for rows older than delta sync)
+    @Column(updatable = false)
+    private Long seq;
+
+    @Column(name = "counterparty_account_number", updatable = false)
+    private String counterpartyAccountNumber;
+
+    // Same instant as the Transaction row (not the time the entry was written, which differs for backfilled rows)
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // --- CONSTRUCTORS ---
+
+    public LedgerEntry() {
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public String getReferenceId() { return referenceId; }
+    public void setReferenceId(String referenceId) { this.referenceId = referenceId; }
+
+    public TransactionType getType() { return type; }
+    public void setType(TransactionType type) { this.type = type; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
+
+    public Money getBalanceAfter() { return balanceAfter; }
+    public void setBalanceAfter(Money balanceAfter) { this.balanceAfter = balanceAfter; }
+
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+
+    public String getCounterpartyAccountNumber() { return counterpartyAccountNumber; }
+    public void setCounterpartyAccountNumber(String counterpartyAccountNumber) { this.counterpartyAccountNumber = counterpartyAccountNumber; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
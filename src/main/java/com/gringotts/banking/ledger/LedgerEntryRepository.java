@@ -0,0 +1,158 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.activity.ActivityItem;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.transaction.TransactionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Data Access Layer for the Ledger.
+ * Every read is keyed by a single account_id, so it is one range scan on an (account_id, ...) index.
+ */
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    /**
+     * Shared SELECT: a ledger entry already IS the account's view of the movement.
+     * The account (one primary key row) only adds its currency: entries store bare minor units.
+     */
+    String VIEW_SELECT = "SELECT new com.gringotts.banking.transaction.TransactionView(" +
+            "e.transactionId, e.referenceId, e.createdAt, e.type, e.description, " +
+            "e.amount, e.counterpartyAccountNumber, e.balanceAfter, e.seq, a.currency) " +
+            "FROM LedgerEntry e JOIN Account a ON a.id = e.accountId ";
+
+    /**
+     * History of one account, newest first.
+     */
+    @Query(value = VIEW_SELECT + "WHERE e.accountId = :accountId ORDER BY e.createdAt DESC, e.id DESC",
+            countQuery = "SELECT COUNT(e) FROM LedgerEntry e WHERE e.accountId = :accountId")
+    Page<TransactionView> findHistoryByAccountId(@Param("accountId") Long accountId, Pageable pageable);
+
+    /**
+     * Filtered history for the search screen and CSV export.
+     * Every filter is optional (null / direction 0 skips it).
+     *
+     * @param direction -1 = debits only, 1 = credits only, 0 = both.
+     */
+    @Query(VIEW_SELECT + "WHERE e.accountId = :accountId" +
+            " AND (:type IS NULL OR e.type = :type)" +
+            " AND (:category IS NULL OR e.category = :category)" +
+            " AND (:start IS NULL OR e.createdAt >= :start)" +
+            " AND (:end IS NULL OR e.createdAt <= :end)" +
+            " AND (:direction = 0 OR SIGN(e.amount) = :direction)" +
+            " ORDER BY e.createdAt DESC, e.id DESC")
+    List<TransactionView> searchHistory(@Param("accountId") Long accountId,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end,
+                                        @Param("type") TransactionType type,
+                                        @Param("category") String category,
+                                        @Param("direction") int direction);
+
+    /**
+     * Delta sync: entries of the account with a sequence above :since, oldest first.
+     */
+    @Query(VIEW_SELECT + "WHERE e.accountId = :accountId AND e.seq > :since ORDER BY e.seq")
+    List<TransactionView> findChangesSince(@Param("accountId") Long accountId, @Param("since") Long since);
+
+    /**
+     * Free-text search: the account's entries among the transactions matched by the search index,
+     * with the same optional filters as searchHistory (one chunk of ids per call).
+     */
+    @Query(VIEW_SELECT + "WHERE e.accountId = :accountId AND e.transactionId IN :transactionIds" +
+            " AND (:type IS NULL OR e.type = :type)" +
+            " AND (:category IS NULL OR e.category = :category)" +
+            " AND (:start IS NULL OR e.createdAt >= :start)" +
+            " AND (:end IS NULL OR e.createdAt <= :end)" +
+            " AND (:direction = 0 OR SIGN(e.amount) = :direction)" +
+            " ORDER BY e.createdAt DESC, e.id DESC")
+    List<TransactionView> searchHistoryIn(@Param("accountId") Long accountId,
+                                          @Param("transactionIds") Collection<Long> transactionIds,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end,
+                                          @Param("type") TransactionType type,
+                                          @Param("category") String category,
+                                          @Param("direction") int direction);
+
+    /**
+     * Search index rebuild: what gets tokenized, per entry of the account.
+     * Columns: transaction id, description, counterparty account number.
+     */
+    @Query("SELECT e.transactionId, e.description, e.counterpartyAccountNumber FROM LedgerEntry e WHERE e.accountId = :accountId")
+    List<Object[]> findSearchableByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Activity feed: the next entries of one account strictly after a (timestamp, id) cursor, newest first.
+     * Keyset read: seeks into idx_ledger_account_time and stops after the page size (the index rows
+     * carry the primary key, so the id tie-break needs no extra lookup).
+     */
+    @Query("SELECT new com.gringotts.banking.activity.ActivityItem(e.id, e.accountId, a.accountNumber, " +
+            "e.referenceId, e.createdAt, e.type, e.description, e.amount, e.counterpartyAccountNumber, e.balanceAfter, " +
+            "a.currency) " +
+            "FROM LedgerEntry e JOIN Account a ON a.id = e.accountId " +
+            "WHERE e.accountId = :accountId " +
+            "AND (e.createdAt < :before OR (e.createdAt = :before AND e.id < :beforeId)) " +
+            "ORDER BY e.createdAt DESC, e.id DESC")
+    List<ActivityItem> findActivityBefore(@Param("accountId") Long accountId,
+                                          @Param("before") LocalDateTime before,
+                                          @Param("beforeId") Long beforeId,
+                                          Pageable limit);
+
+    /**
+     * Balance at an instant: the last entry at or before it (one index seek on account + time).
+     */
+    Optional<LedgerEntry> findFirstByAccountIdAndCreatedAtLessThanEqualOrderByCreatedAtDescIdDesc(Long accountId, LocalDateTime at);
+
+    /**
+     * Balance series: movements of one account in (from, to], oldest first, read as a stream
+     * (fetched 1000 rows at a time, so a busy account is never held in memory at once).
+     * Must be consumed, and closed, inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.gringotts.banking.ledger.LedgerMovement(e.createdAt, e.amount, a.currency) " +
+            "FROM LedgerEntry e JOIN Account a ON a.id = e.accountId WHERE e.accountId = :accountId AND e.createdAt > :from AND e.createdAt <= :to ORDER BY e.createdAt, e.id")
+    Stream<LedgerMovement> streamMovements(@Param("accountId") Long accountId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    /**
+     * Net movement of one account in [from, at] (minor units; range scan on account + time).
+     */
+    @Query(value = "SELECT COALESCE(SUM(amount), 0) FROM ledger_entries " +
+            "WHERE account_id = :accountId AND created_at >= :from AND created_at <= :at", nativeQuery = true)
+    long sumAmount(@Param("accountId") Long accountId, @Param("from") LocalDateTime from, @Param("at") LocalDateTime at);
+
+    /**
+     * Snapshot job: net movement per account in [from, to).
+     * Columns: account id, sum (minor units).
+     */
+    @Query(value = "SELECT account_id, SUM(amount) FROM ledger_entries " +
+            "WHERE created_at >= :from AND created_at < :to GROUP BY account_id", nativeQuery = true)
+    List<Object[]> sumAmountsByAccount(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Interest accrual: movements of the accounts in [fromId, toId) in [from, to) (range scan on account + time).
+     * Columns: account id, created at, amount.
+     */
+    @Query("SELECT e.accountId, e.createdAt, e.amount FROM LedgerEntry e WHERE e.accountId >= :fromId " +
+            "AND e.accountId < :toId AND e.createdAt >= :from AND e.createdAt < :to")
+    List<Object[]> findMovementsOfRange(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Snapshot job: first movement at or after a point in time (skips quiet days; uses idx_ledger_time)
+    @Query("SELECT MIN(e.createdAt) FROM LedgerEntry e WHERE e.createdAt >= :from")
+    Optional<LocalDateTime> findFirstCreatedAtFrom(@Param("from") LocalDateTime from);
+}
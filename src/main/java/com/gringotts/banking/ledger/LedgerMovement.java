@@ -0,0 +1,18 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.money.Money;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+/**
+ * Time and signed amount of one ledger entry (balance-series stream; nothing else is read).
+ * The amount is in the account's currency.
+ */
+public record LedgerMovement(LocalDateTime createdAt, Money amount) {
+
+    // Query constructor: the amount column only holds minor units, tagged here with the account's currency
+    public LedgerMovement(LocalDateTime createdAt, Money amount, String currency) {
+        this(createdAt, amount.inMinorUnitsOf(Currency.getInstance(currency)));
+    }
+}
@@ -0,0 +1,281 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.rollup.RollupService;
+import com.gringotts.banking.search.SearchIndexService;
+import com.gringotts.banking.transaction.Transaction;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.transaction.TransactionView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Business Logic for the Double-Entry Ledger.
+ * Posts the signed entries of each Transaction and serves every per-account read
+ * (history, search/CSV, delta sync, balance at a date, balance charts).
+ */
+@Service
+public class LedgerService {
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    // Lower bound for "all movements" (before any snapshot exists)
+    public static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Free-text search: matched transaction ids per IN (...) statement
+    private static final int SEARCH_CHUNK = 1000;
+
+    /**
+     * Posts the ledger entries of a saved Transaction.
+     * Called inside the same DB transaction as the Transaction insert (and by the backfill job).
+     * Flow:
+     * - TRANSFER: debit the sender, credit the receiver (2 rows).
+     * - Deposits: credit the account (1 row).
+     * - Purchases/Withdrawals: debit the account (1 row).
+     * Each entry is also added to its account's monthly rollup and search index (same DB transaction).
+     *
+     * @param transaction A persisted Transaction (id assigned).
+     * @return The entries written.
+     */
+    public List<LedgerEntry> record(Transaction transaction) {
+        List<LedgerEntry> entries = ledgerEntryRepository.saveAll(entriesOf(transaction));
+        for (LedgerEntry e : entries) {
+            Account account = e.getAccountId().equals(transaction.getAccount().getId())
+                    ? transaction.getAccount()
+                    : transaction.getTargetAccount();
+            rollupService.add(e, account);
+            searchIndexService.index(e, account);
+        }
+        return entries;
+    }
+
+    /**
+     * Builds (without saving) the entries of a Transaction. Shared by live posting and backfill.
+     */
+    public List<LedgerEntry> entriesOf(Transaction t) {
+        // Withdrawals store a negative amount, transfers/deposits a positive one
+        Money amount = t.getAmount().abs();
+        List<LedgerEntry> entries = new ArrayList<>(2);
+
+        if (t.getTargetAccount() != null) {
+            entries.add(entry(t, t.getAccount(), amount.negate(), t.getSourceBalanceAfter(), t.getSourceSeq(), t.getTargetAccount()));
+            // Cross-currency: each side is booked in its own account's currency
+            Money credited = t.getTargetAmount() != null ? t.getTargetAmount() : amount;
+            entries.add(entry(t, t.getTargetAccount(), credited, t.getTargetBalanceAfter(), t.getTargetSeq(), t.getAccount()));
+        } else if (t.getType().isDeposit()) {
+            entries.add(entry(t, t.getAccount(), amount, t.getSourceBalanceAfter(), t.getSourceSeq(), null));
+        } else {
+            entries.add(entry(t, t.getAccount(), amount.negate(), t.getSourceBalanceAfter(), t.getSourceSeq(), null));
+        }
+        return entries;
+    }
+
+    /**
+     * History of one account, newest first (paged).
+     */
+    public Page<TransactionView> getHistory(Long accountId, Pageable pageable) {
+        return ledgerEntryRepository.findHistoryByAccountId(accountId, pageable);
+    }
+
+    /**
+     * Filtered history; every filter is optional.
+     *
+     * @param flow "SENT" (debits only), "RECEIVED" (credits only) or null for both.
+     */
+    public List<TransactionView> search(Long accountId, LocalDateTime start, LocalDateTime end,
+                                        String flow, TransactionType type) {
+        return search(accountId, start, end, flow, type, null, null);
+    }
+
+    /**
+     * Filtered history with free text ('q', e.g. "transfer 4821" or "card purchase 1234").
+     * Flow: the search index gives the transactions matching every word (no LIKE scan of the ledger) ->
+     * their entries are read by id, newest ids first, with the date/type/flow filters applied in the same
+     * statement. Without 'q' this is the plain filtered history.
+     *
+     * @param category Spending category (groceries, travel, ...) or null for all.
+     */
+    public List<TransactionView> search(Long accountId, LocalDateTime start, LocalDateTime end,
+                                        String flow, TransactionType type, String category, String q) {
+        int direction = 0;
+        if ("SENT".equalsIgnoreCase(flow)) {
+            direction = -1;
+        } else if ("RECEIVED".equalsIgnoreCase(flow)) {
+            direction = 1;
+        }
+        if (q == null || q.isBlank()) {
+            return ledgerEntryRepository.searchHistory(accountId, start, end, type, category, direction);
+        }
+
+        long[] matches = searchIndexService.find(accountId, q);
+        List<TransactionView> result = new ArrayList<>();
+        for (int hi = matches.length; hi > 0; hi -= SEARCH_CHUNK) {
+            List<Long> chunk = new ArrayList<>(SEARCH_CHUNK);
+            for (int i = hi - 1; i >= Math.max(0, hi - SEARCH_CHUNK); i--) {
+                chunk.add(matches[i]);
+            }
+            result.addAll(ledgerEntryRepository.searchHistoryIn(accountId, chunk, start, end, type, category, direction));
+        }
+        // Chunks follow id order; restore the history order across them
+        result.sort(Comparator.comparing(TransactionView::timestamp).thenComparing(TransactionView::id).reversed());
+        return result;
+    }
+
+    /**
+     * Entries with a sequence above 'since', oldest first.
+     */
+    public List<TransactionView> getChangesSince(Long accountId, long since) {
+        return ledgerEntryRepository.findChangesSince(accountId, since);
+    }
+
+    /**
+     * Balance of the account right after its last movement at or before 'at'.
+     * Empty if the account had no movement yet at that instant.
+     */
+    public Optional<Money> getBalanceAt(Long accountId, LocalDateTime at) {
+        return ledgerEntryRepository.findFirstByAccountIdAndCreatedAtLessThanEqualOrderByCreatedAtDescIdDesc(accountId, at)
+                .map(LedgerEntry::getBalanceAfter)
+                .map(balance -> balance.inMinorUnitsOf(currencyOf(accountId)));
+    }
+
+    /**
+     * Point-in-time balance ("balance as of X" for support).
+     * Flow: account currency (PK lookup) -> one index seek to the last movement at or before 'at';
+     * its running balance is the answer. Sharded accounts (no running balance) fall back to the
+     * latest end-of-day snapshot plus the movements since it, a scan of at most about one day.
+     */
+    public BalanceAt getBalanceAsOf(Long accountId, LocalDateTime at) {
+        Currency currency = currencyOf(accountId);
+
+        // 1. The last movement at or before 'at'
+        Optional<LedgerEntry> last = ledgerEntryRepository
+                .findFirstByAccountIdAndCreatedAtLessThanEqualOrderByCreatedAtDescIdDesc(accountId, at);
+        Money balance;
+        if (last.isEmpty()) {
+            balance = Money.ofMinor(0, currency); // had not moved yet
+        } else if (last.get().getBalanceAfter() != null) {
+            balance = Money.ofMinor(last.get().getBalanceAfter().minorUnits(), currency);
+        } else {
+            // 2. No running balance: nearest snapshot + the movements since
+            Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository
+                    .findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, at);
+            Money base = Money.ofMinor(snapshot.map(s -> s.getBalance().minorUnits()).orElse(0L), currency);
+            long since = ledgerEntryRepository.sumAmount(accountId, snapshot.map(BalanceSnapshot::getAsOf).orElse(EPOCH), at);
+            balance = base.plus(Money.ofMinor(since, currency));
+        }
+        return new BalanceAt(accountId, at, balance, currency.getCurrencyCode());
+    }
+
+    /**
+     * Batch variant: balances of many accounts at one instant, in one statement
+     * (snapshot + movements since, per account; see BalanceSnapshotRepository.findBalancesAt).
+     * Unknown ids are left out.
+     */
+    public List<BalanceAt> getBalancesAsOf(Collection<Long> accountIds, LocalDateTime at) {
+        List<BalanceAt> balances = new ArrayList<>(accountIds.size());
+        for (Object[] row : balanceSnapshotRepository.findBalancesAt(accountIds, at, EPOCH)) {
+            Currency currency = Currency.getInstance((String) row[1]);
+            balances.add(new BalanceAt(((Number) row[0]).longValue(), at,
+                    Money.ofMinor(((Number) row[2]).longValue(), currency), currency.getCurrencyCode()));
+        }
+        return balances;
+    }
+
+    /**
+     * Balance over time for a chart, downsampled on the server to at most 'maxPoints' points.
+     * Flow: opening balance at 'from' (see getBalanceAsOf) -> stream the movements in (from, to]
+     * once, adding them up into the running balance -> each point goes through the
+     * BalanceSeriesSampler (O(maxPoints) memory, however many rows the range holds).
+     * Works for sharded accounts too: the running balance is rebuilt from the amounts.
+     */
+    @Transactional(readOnly = true) // the stream needs an open transaction
+    public BalanceSeries getBalanceSeries(Long accountId, LocalDateTime from, LocalDateTime to, int maxPoints) {
+        from = from.truncatedTo(ChronoUnit.MICROS);
+        to = to.truncatedTo(ChronoUnit.MICROS);
+
+        // 1. Where the chart starts
+        BalanceAt opening = getBalanceAsOf(accountId, from);
+        Currency currency = Currency.getInstance(opening.currency());
+        BalanceSeriesSampler sampler = new BalanceSeriesSampler(
+                micros(from), micros(to), opening.balance().minorUnits(), maxPoints);
+
+        // 2. One pass over the range
+        long balance = opening.balance().minorUnits();
+        try (Stream<LedgerMovement> movements = ledgerEntryRepository.streamMovements(accountId, from, to)) {
+            for (LedgerMovement m : (Iterable<LedgerMovement>) movements::iterator) {
+                balance = Math.addExact(balance, m.amount().minorUnits());
+                sampler.add(micros(m.createdAt()), balance);
+            }
+        }
+
+        // 3. Back to times and money
+        List<BalancePoint> points = new ArrayList<>(maxPoints);
+        for (BalanceSeriesSampler.Point p : sampler.finish()) {
+            points.add(new BalancePoint(fromMicros(p.x()), Money.ofMinor(p.y(), currency)));
+        }
+        return new BalanceSeries(accountId, currency.getCurrencyCode(), from, to, sampler.count(), points);
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private Currency currencyOf(Long accountId) {
+        return Currency.getInstance(accountRepository.findCurrencyById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found")));
+    }
+
+    // Chart x axis: epoch microseconds (the precision the DB keeps)
+    private static long micros(LocalDateTime t) {
+        return Math.addExact(Math.multiplyExact(t.toEpochSecond(ZoneOffset.UTC), 1_000_000L), t.getNano() / 1_000);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private LedgerEntry entry(Transaction t, Account account, Money signedAmount, Money balanceAfter,
+                              Long seq, Account counterparty) {
+        LedgerEntry e = new LedgerEntry();
+        e.setAccountId(account.getId());
+        e.setTransactionId(t.getId());
+        e.setReferenceId(t.getReferenceId());
+        e.setType(t.getType());
+        e.setDescription(t.getDescription());
+        e.setCategory(t.getCategory());
+        e.setAmount(signedAmount);
+        e.setBalanceAfter(balanceAfter);
+        e.setSeq(seq);
+        e.setCounterpartyAccountNumber(counterparty == null ? null : counterparty.getAccountNumber());
+        e.setCreatedAt(t.getTimestamp() != null ? t.getTimestamp() : LocalDateTime.now());
+        return e;
+    }
+}
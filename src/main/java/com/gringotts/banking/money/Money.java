@@ -0,0 +1,162 @@
+package com.gringotts.banking.money;
+
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * Immutable amount of money: a long count of minor units (cents) plus a currency.
+ * Arithmetic is exact and overflow-checked; nothing is rounded, ever.
+ *
+ * - Stored as BIGINT minor units (MoneyConverter).
+ * - JSON: a plain decimal number (12.50), so existing clients see the same payloads.
+ *   Input with more decimals than the currency allows (12.505) is rejected, not rounded.
+ *
+ * @param minorUnits Amount in the currency's smallest unit (e.g. 1250 = 12.50 USD).
+ */
+@JsonSerialize(using = MoneySerializer.class)
+@JsonDeserialize(using = MoneyDeserializer.class)
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    public Money {
+        if (currency == null) {
+            throw new IllegalArgumentException("Currency is required");
+        }
+    }
+
+    // --- FACTORIES ---
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    /**
+     * Exact conversion: fails if the amount has more decimals than the currency or does not fit a long.
+     */
+    public static Money of(BigDecimal amount, Currency currency) {
+        try {
+            return new Money(amount.movePointRight(currency.getDefaultFractionDigits()).longValueExact(), currency);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Invalid amount for " + currency + ": " + amount.toPlainString());
+        }
+    }
+
+    /**
+     * Parses user input such as "12.5" or "100".
+     * Read at the default currency's precision (2 decimals) before the target account is known,
+     * which is why accounts are only opened in currencies that have no more (see isSupported).
+     *
+     * @throws NumberFormatException if the text is not a number.
+     */
+    public static Money parse(String text) {
+        return of(new BigDecimal(text.trim()));
+    }
+
+    /**
+     * Whether accounts can be held in this currency: API amounts are parsed at the default currency's
+     * precision and then moved to the account's currency (withCurrency), so a currency with more decimals
+     * (KWD, BHD: 3) could never receive its smallest units, and one without decimals defined (XAU) has no unit at all.
+     */
+    public static boolean isSupported(Currency currency) {
+        int digits = currency.getDefaultFractionDigits();
+        return digits >= 0 && digits <= DEFAULT_CURRENCY.getDefaultFractionDigits();
+    }
+
+    /**
+     * The same decimal amount in another currency (NOT an FX conversion, see FxService).
+     * For plain API numbers, which are always meant in the account's own currency.
+     * Fails if the amount has more decimals than that currency (10.50 -> JPY).
+     */
+    public Money withCurrency(Currency other) {
+        return currency.equals(other) ? this : of(toBigDecimal(), other);
+    }
+
+    /**
+     * The same minor units tagged with another currency (1000 -> 1000 JPY, not 10 JPY).
+     * For amounts read through MoneyConverter, which stores minor units only and tags them USD:
+     * read paths re-tag them with the owning account's currency.
+     */
+    public Money inMinorUnitsOf(Currency other) {
+        return currency.equals(other) ? this : new Money(minorUnits, other);
+    }
+
+    // --- ARITHMETIC ---
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public Money abs() {
+        return minorUnits < 0 ? negate() : this;
+    }
+
+    // --- COMPARISONS ---
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    // --- CONVERSIONS ---
+
+    /**
+     * Decimal view (allocates): for display, CSV and JSON only.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.gringotts.banking.money;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+import java.math.BigDecimal;
+
+/**
+ * Reads Money from a JSON number or numeric string.
+ * Rejects (instead of rounding) values with more decimals than the currency has, or out of range.
+ */
+public class MoneyDeserializer extends ValueDeserializer<Money> {
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws JacksonException {
+        BigDecimal amount;
+        if (p.currentToken() == JsonToken.VALUE_NUMBER_INT || p.currentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+            amount = p.getDecimalValue();
+        } else if (p.currentToken() == JsonToken.VALUE_STRING) {
+            try {
+                amount = new BigDecimal(p.getString().trim());
+            } catch (NumberFormatException e) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, p.getString(), "not a number");
+            }
+        } else {
+            return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+        }
+
+        try {
+            return Money.of(amount);
+        } catch (ArithmeticException e) {
+            return (Money) ctxt.handleWeirdNumberValue(Money.class, amount, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.gringotts.banking.money;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+/**
+ * Writes Money as a plain JSON number with the currency's decimals (1250 cents -> 12.50).
+ */
+public class MoneySerializer extends ValueSerializer<Money> {
+
+    @Override
+    public void serialize(Money value, JsonGenerator gen, SerializationContext ctxt) throws JacksonException {
+        gen.writeNumber(value.toBigDecimal());
+    }
+}
@@ -0,0 +1,32 @@
+package com.gringotts.banking.partition;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Monitoring API for partitioned execution.
+ */
+@RestController
+@RequestMapping("/api/partitions")
+public class PartitionController {
+
+    @Autowired
+    private PartitionedExecutor partitionedExecutor;
+
+    /**
+     * Queue depth of every partition.
+     * Endpoint: GET /api/partitions
+     * Returns: { "enabled": true, "queueDepths": [0, 3, 0, ...] }
+     */
+    @GetMapping
+    public ResponseEntity<?> getStatus() {
+        return ResponseEntity.ok(Map.of(
+                "enabled", partitionedExecutor.isEnabled(),
+                "queueDepths", partitionedExecutor.getQueueDepths()));
+    }
+}
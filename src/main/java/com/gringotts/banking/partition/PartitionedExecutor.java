@@ -0,0 +1,182 @@
+package com.gringotts.banking.partition;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Optional single-writer execution of balance mutations (app.partitions.enabled).
+ * Every operation is routed by account id to one of N single-threaded partitions, so all
+ * mutations of an account run one after the other on the same thread and never queue on each
+ * other's row locks (the locks stay, for correctness, but are uncontended).
+ *
+ * Cross-partition operations (transfers): both partitions get a task, enqueued atomically under
+ * one sequencer lock so every partition sees them in the same global order. The higher partition
+ * parks until the lower one has run the operation. Because the order is identical everywhere,
+ * no two partitions can ever wait on each other in a cycle.
+ *
+ * When disabled, operations simply run on the caller's thread.
+ */
+@Component
+public class PartitionedExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedExecutor.class);
+
+    @Value("${app.partitions.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.partitions.count:8}")
+    private int partitionCount;
+
+    private final List<ThreadPoolExecutor> partitions = new ArrayList<>();
+
+    // Guards the enqueueing of cross-partition pairs (never held while an operation runs)
+    private final Object sequencer = new Object();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    Thread.ofPlatform().name("partition-" + i).factory()));
+        }
+        logger.info("Partitioned execution enabled with {} partitions", partitionCount);
+    }
+
+    /**
+     * Runs an operation touching one account on that account's partition.
+     */
+    public <T> CompletableFuture<T> submit(Long accountId, Supplier<T> operation) {
+        if (!enabled) {
+            return runInline(operation);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        partitions.get(partitionOf(accountId)).execute(() -> complete(result, operation));
+        return result;
+    }
+
+    /**
+     * Runs an operation touching two accounts (a transfer).
+     * Flow: same partition -> plain submit; otherwise park the higher partition and run on the lower.
+     */
+    public <T> CompletableFuture<T> submit(Long firstAccountId, Long secondAccountId, Supplier<T> operation) {
+        int first = partitionOf(firstAccountId);
+        int second = partitionOf(secondAccountId);
+        if (!enabled || first == second) {
+            return submit(firstAccountId, operation);
+        }
+
+        ThreadPoolExecutor low = partitions.get(Math.min(first, second));
+        ThreadPoolExecutor high = partitions.get(Math.max(first, second));
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CountDownLatch highParked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        synchronized (sequencer) {
+            high.execute(() -> {
+                highParked.countDown();
+                awaitUninterruptibly(done);
+            });
+            low.execute(() -> {
+                try {
+                    awaitUninterruptibly(highParked);
+                    complete(result, operation);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Blocks for the result, rethrowing the operation's own RuntimeException (e.g. "Insufficient funds")
+     * or Error.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Operations waiting in each partition (index = partition number).
+     */
+    public List<Integer> getQueueDepths() {
+        return partitions.stream().map(p -> p.getQueue().size()).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partitions.forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private int partitionOf(Long accountId) {
+        return enabled ? Math.floorMod(Long.hashCode(accountId), partitions.size()) : 0;
+    }
+
+    private static <T> CompletableFuture<T> runInline(Supplier<T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        complete(result, operation);
+        return result;
+    }
+
+    /**
+     * Always completes the future, whatever the operation throws, so no waiter is left hanging.
+     * Errors are rethrown afterwards: the partition thread dies and the pool replaces it.
+     */
+    private static <T> void complete(CompletableFuture<T> result, Supplier<T> operation) {
+        try {
+            result.complete(operation.get());
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+            if (t instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.gringotts.banking.payee;
+
+import com.gringotts.banking.account.AccountNumber;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.transaction.BalanceChangedEvent;
+import com.gringotts.banking.transaction.TransactionRepository;
+import com.gringotts.banking.transaction.TransactionType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * "Frequent payees" of an account, without a GROUP BY over its transfers on every request.
+ * Each account has a Space-Saving sketch of its transfer targets ('counters' counters, see SpaceSaving):
+ * - Write side: every committed outgoing transfer adds its target (AFTER_COMMIT, in memory).
+ * - Persistence: changed sketches are written to 'payee_sketches' every 'flush-ms' and on shutdown;
+ *   a restart picks them up from there (transfers since the last flush are lost, which only makes
+ *   the estimate slightly older; POST .../top-payees/rebuild makes it exact again).
+ * - Read side: the top counters of the sketch + one lookup of their account numbers (O(k)).
+ * An account without a sketch yet is rebuilt from its transfer history on its first read.
+ */
+@Service
+public class PayeeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayeeService.class);
+
+    @Autowired
+    private PayeeSketchRepository payeeSketchRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Counters per account: any payee with more than 1/counters of the account's transfers is always kept
+    @Value("${app.payees.counters:32}")
+    private int counters;
+
+    // Period of the sketch write-back (0 = only on shutdown)
+    @Value("${app.payees.flush-ms:60000}")
+    private long flushMs;
+
+    private final ConcurrentHashMap<Long, SpaceSaving> sketches = new ConcurrentHashMap<>();
+
+    // Accounts whose sketch changed since the last flush
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void init() {
+        if (counters < 1 || counters * 24 + 12 > PayeeSketch.MAX_BYTES) {
+            throw new IllegalStateException("app.payees.counters must be between 1 and 256");
+        }
+        if (flushMs > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("payee-flush").daemon().factory());
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushMs, flushMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Counts a committed transfer against the sender's sketch.
+     * Accounts whose sketch was never built are skipped: their first read rebuilds it from
+     * history, which already contains this transfer.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        if (event.type() != TransactionType.TRANSFER || event.counterpartyAccountId() == null
+                || !event.amount().isNegative()) {
+            return;
+        }
+        SpaceSaving sketch = loaded(event.accountId());
+        if (sketch == null) {
+            return;
+        }
+        synchronized (sketch) {
+            sketch.offer(event.counterpartyAccountId());
+        }
+        dirty.add(event.accountId());
+    }
+
+    /**
+     * The account's most frequent (still ACTIVE) transfer targets, most frequent first.
+     * Flow: in-memory sketch (else its saved copy, else a rebuild from history) -> top counters ->
+     * one read of their account numbers.
+     *
+     * @param limit At most this many (capped by the number of counters).
+     */
+    public List<TopPayee> getTopPayees(Long accountId, int limit) {
+        SpaceSaving sketch = loaded(accountId);
+        if (sketch == null) {
+            sketch = rebuild(accountId);
+        }
+
+        // 1. Every counter (closed payees are dropped below, so the others can move up)
+        List<SpaceSaving.Counter> top;
+        synchronized (sketch) {
+            top = sketch.top(sketch.capacity());
+        }
+        if (top.isEmpty()) {
+            return List.of();
+        }
+
+        // 2. Account numbers
+        Map<Long, String> numbers = accountRepository.findActiveNumbersByIdIn(
+                        top.stream().map(SpaceSaving.Counter::key).toList()).stream()
+                .collect(Collectors.toMap(AccountNumber::id, AccountNumber::accountNumber));
+
+        List<TopPayee> payees = new ArrayList<>(Math.min(limit, top.size()));
+        for (SpaceSaving.Counter c : top) {
+            String number = numbers.get(c.key());
+            if (number != null && payees.size() < limit) {
+                payees.add(new TopPayee(number, c.count(), c.count() - c.error()));
+            }
+        }
+        return payees;
+    }
+
+    /**
+     * Recounts the account's sketch from all its outgoing transfers (streamed, oldest first)
+     * and replaces the in-memory one; it is saved with the next flush.
+     */
+    public SpaceSaving rebuild(Long accountId) {
+        SpaceSaving sketch = new SpaceSaving(counters);
+        readOnly().executeWithoutResult(status -> {
+            try (Stream<Long> targets = transactionRepository.streamTransferTargets(accountId)) {
+                targets.forEach(sketch::offer);
+            }
+        });
+        sketches.put(accountId, sketch);
+        dirty.add(accountId);
+        return sketch;
+    }
+
+    /**
+     * Writes every changed sketch (one upsert each, one DB transaction).
+     *
+     * @return Number of sketches written.
+     */
+    public int flush() {
+        List<Long> accountIds = new ArrayList<>(dirty);
+        if (accountIds.isEmpty()) {
+            return 0;
+        }
+        // Unmark first: a transfer counted while we write marks its account again
+        dirty.removeAll(accountIds);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                for (Long accountId : accountIds) {
+                    SpaceSaving sketch = sketches.get(accountId);
+                    long total;
+                    byte[] bytes;
+                    synchronized (sketch) {
+                        total = sketch.total();
+                        bytes = sketch.toBytes();
+                    }
+                    payeeSketchRepository.upsert(accountId, total, bytes, now);
+                }
+            });
+        } catch (RuntimeException e) {
+            dirty.addAll(accountIds);
+            throw e;
+        }
+        return accountIds.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flushQuietly();
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    // In memory, else the saved copy (loaded once), else null
+    private SpaceSaving loaded(Long accountId) {
+        SpaceSaving sketch = sketches.get(accountId);
+        if (sketch != null) {
+            return sketch;
+        }
+        SpaceSaving saved = readOnly().execute(status -> payeeSketchRepository.findById(accountId)
+                .map(p -> SpaceSaving.fromBytes(p.getCounters(), counters))
+                .orElse(null));
+        if (saved == null) {
+            return null;
+        }
+        SpaceSaving raced = sketches.putIfAbsent(accountId, saved);
+        return raced != null ? raced : saved;
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        return tx;
+    }
+
+    private void flushQuietly() {
+        try {
+            int written = flush();
+            logger.debug("Payee sketches flushed: {}", written);
+        } catch (RuntimeException e) {
+            // Still marked dirty: retried on the next flush
+            logger.warn("Payee sketch flush failed: {}", e.getMessage());
+        }
+    }
+}
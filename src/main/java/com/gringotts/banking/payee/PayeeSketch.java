@@ -0,0 +1,59 @@
+package com.gringotts.banking.payee;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted Space-Saving summary of one account's transfer targets (see SpaceSaving.toBytes()).
+ * Maps to table: 'payee_sketches'
+ * Written periodically from the in-memory sketches by PayeeService; read back when an account's
+ * sketch is first needed after a restart.
+ */
+@Entity
+@Table(name = "payee_sketches")
+public class PayeeSketch {
+
+    // At most 256 counters of 24 bytes, plus the header
+    public static final int MAX_BYTES = 256 * 24 + 12;
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    // Transfers counted (N)
+    @Column(nullable = false)
+    private Long total;
+
+    @Column(nullable = false, length = MAX_BYTES)
+    private byte[] counters;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // --- CONSTRUCTORS ---
+
+    public PayeeSketch() {
+    }
+
+    public PayeeSketch(Long accountId, Long total, byte[] counters, LocalDateTime updatedAt) {
+        this.accountId = accountId;
+        this.total = total;
+        this.counters = counters;
+        this.updatedAt = updatedAt;
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+
+    public byte[] getCounters() { return counters; }
+    public void setCounters(byte[] counters) { this.counters = counters; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
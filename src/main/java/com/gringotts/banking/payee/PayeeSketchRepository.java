@@ -0,0 +1,25 @@
+package com.gringotts.banking.payee;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PayeeSketchRepository extends JpaRepository<PayeeSketch, Long> {
+
+    /**
+     * Writes an account's sketch in one statement, whether or not it was saved before
+     * (no read-before-write as with save() on an assigned id).
+     */
+    @Modifying
+    @Query("INSERT INTO PayeeSketch (accountId, total, counters, updatedAt) " +
+            "VALUES (:accountId, :total, :counters, :updatedAt) " +
+            "ON CONFLICT (accountId) DO UPDATE SET " +
+            "total = excluded.total, counters = excluded.counters, updatedAt = excluded.updatedAt")
+    int upsert(@Param("accountId") Long accountId, @Param("total") long total,
+               @Param("counters") byte[] counters, @Param("updatedAt") LocalDateTime updatedAt);
+}
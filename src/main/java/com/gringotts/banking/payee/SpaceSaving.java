@@ -0,0 +1,188 @@
+package com.gringotts.banking.payee;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters summary over a stream of long keys (here: payee account ids),
+ * with a fixed number of counters whatever the length of the stream.
+ *
+ * offer(): a monitored key gets +1; a new key takes over the SMALLEST counter, inheriting its count
+ * (recorded as the new key's 'error': it may have been overcounted by that much).
+ * Guarantees, with N offers and k counters:
+ * - every key seen more than N / k times is monitored;
+ * - a counter overestimates its key by at most its error (count - error is a lower bound).
+ *
+ * The counters are kept as a binary min-heap on count (the slot to evict is always at the root)
+ * plus a key -> slot map, so offer() is O(log k). Not thread-safe: callers synchronize on the instance.
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final long[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<Long, Integer> slots;
+    private int size;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.slots = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Counts one occurrence of the key.
+     */
+    public void offer(long key) {
+        total++;
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            counts[slot]++;
+            siftDown(slot);
+        } else if (size < capacity) {
+            keys[size] = key;
+            counts[size] = 1;
+            errors[size] = 0;
+            slots.put(key, size);
+            siftUp(size++);
+        } else {
+            // Evict the minimum: the newcomer may have been among the keys that counter stood for
+            slots.remove(keys[0]);
+            keys[0] = key;
+            errors[0] = counts[0];
+            counts[0]++;
+            slots.put(key, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * @return The (at most) n biggest counters, highest count first (ties: smaller error, then smaller key first).
+     */
+    public List<Counter> top(int n) {
+        List<Counter> all = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            all.add(new Counter(keys[i], counts[i], errors[i]));
+        }
+        all.sort(Comparator.comparingLong(Counter::count).reversed().thenComparingLong(Counter::error)
+                .thenComparingLong(Counter::key));
+        return all.subList(0, Math.min(n, all.size()));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Number of offers so far (N)
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Compact form for persistence: size, total, then (key, count, error) per counter.
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + size * 3 * Long.BYTES);
+        buffer.putInt(size).putLong(total);
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(keys[i]).putLong(counts[i]).putLong(errors[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Restores a summary written by toBytes(). With a smaller capacity than it was written with,
+     * the smallest counters are dropped (their keys fall back to unmonitored).
+     */
+    public static SpaceSaving fromBytes(byte[] bytes, int capacity) {
+        SpaceSaving sketch = new SpaceSaving(capacity);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int n = buffer.getInt();
+        sketch.total = buffer.getLong();
+        Counter[] counters = new Counter[n];
+        for (int i = 0; i < n; i++) {
+            counters[i] = new Counter(buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+        Arrays.sort(counters, Comparator.comparingLong(Counter::count).reversed());
+        for (int i = 0; i < Math.min(n, capacity); i++) {
+            sketch.keys[i] = counters[i].key();
+            sketch.counts[i] = counters[i].count();
+            sketch.errors[i] = counters[i].error();
+            sketch.slots.put(counters[i].key(), i);
+            sketch.siftUp(i);
+            sketch.size++;
+        }
+        return sketch;
+    }
+
+    /**
+     * One monitored key.
+     *
+     * @param count Estimated occurrences (never below the true count).
+     * @param error Maximum overestimate: the true count is at least count - error.
+     */
+    public record Counter(long key, long count, long error) {
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (counts[parent] <= counts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        long count = counts[a];
+        long error = errors[a];
+        keys[a] = keys[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+        keys[b] = key;
+        counts[b] = count;
+        errors[b] = error;
+        slots.put(keys[a], a);
+        slots.put(keys[b], b);
+    }
+}
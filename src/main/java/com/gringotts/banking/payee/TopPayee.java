@@ -0,0 +1,11 @@
+package com.gringotts.banking.payee;
+
+/**
+ * One frequent payee of an account (GET /api/accounts/{id}/top-payees).
+ *
+ * @param accountNumber The payee's account number (what the Pay form needs).
+ * @param transfers     Estimated number of transfers to it (never below the true number).
+ * @param guaranteed    Transfers it certainly received: the estimate minus its maximum overcount.
+ */
+public record TopPayee(String accountNumber, long transfers, long guaranteed) {
+}
@@ -0,0 +1,97 @@
+package com.gringotts.banking.rollup;
+
+import com.gringotts.banking.transaction.TransactionType;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Running monthly totals of one account for one transaction type and spending category.
+ * Maps to table: 'account_rollups'
+ * Upserted in the same DB transaction as every ledger entry (see RollupService), so the
+ * dashboard summary reads a handful of rows instead of aggregating the account's history.
+ *
+ * Sharded (hot) accounts spread their credits over 'bucket' rows the same way their balance is
+ * spread over slots; every other movement lands in bucket 0. Readers sum the buckets.
+ */
+@Entity
+@Table(name = "account_rollups", uniqueConstraints =
+        @UniqueConstraint(name = "uk_rollup_key", columnNames = {"account_id", "period_start", "type", "category", "bucket"}))
+public class AccountRollup {
+
+    public static final String NONE = "";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    // First day of the month
+    @Column(name = "period_start", nullable = false, updatable = false)
+    private LocalDate periodStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private TransactionType type;
+
+    // Spending category; NONE ('') for uncategorized movements, so the unique key never holds a NULL
+    @Column(nullable = false, updatable = false, length = 32)
+    private String category = NONE;
+
+    @Column(nullable = false, updatable = false)
+    private Integer bucket = 0;
+
+    @Column(name = "movement_count", nullable = false)
+    private Long movementCount = 0L;
+
+    // Minor units of the account's currency (money in / money out, both positive)
+    @Column(name = "sum_in", nullable = false)
+    private Long sumIn = 0L;
+
+    @Column(name = "sum_out", nullable = false)
+    private Long sumOut = 0L;
+
+    // --- CONSTRUCTORS ---
+
+    public AccountRollup() {
+    }
+
+    public AccountRollup(Long accountId, LocalDate periodStart, TransactionType type, String category, Integer bucket) {
+        this.accountId = accountId;
+        this.periodStart = periodStart;
+        this.type = type;
+        this.category = category == null ? NONE : category;
+        this.bucket = bucket;
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public LocalDate getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+
+    public TransactionType getType() { return type; }
+    public void setType(TransactionType type) { this.type = type; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Integer getBucket() { return bucket; }
+    public void setBucket(Integer bucket) { this.bucket = bucket; }
+
+    public Long getMovementCount() { return movementCount; }
+    public void setMovementCount(Long movementCount) { this.movementCount = movementCount; }
+
+    public Long getSumIn() { return sumIn; }
+    public void setSumIn(Long sumIn) { this.sumIn = sumIn; }
+
+    public Long getSumOut() { return sumOut; }
+    public void setSumOut(Long sumOut) { this.sumOut = sumOut; }
+}
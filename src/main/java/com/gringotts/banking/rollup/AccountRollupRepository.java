@@ -0,0 +1,57 @@
+package com.gringotts.banking.rollup;
+
+import com.gringotts.banking.transaction.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountRollupRepository extends JpaRepository<AccountRollup, Long> {
+
+    /**
+     * Adds one movement to its rollup row, creating the row on the month's first movement.
+     * A single atomic statement (ON DUPLICATE KEY UPDATE on MySQL), so concurrent first
+     * movements of a month cannot collide on the unique key.
+     */
+    @Modifying
+    @Query("INSERT INTO AccountRollup (accountId, periodStart, type, category, bucket, movementCount, sumIn, sumOut) " +
+            "VALUES (:accountId, :periodStart, :type, :category, :bucket, 1, :sumIn, :sumOut) " +
+            "ON CONFLICT (accountId, periodStart, type, category, bucket) DO UPDATE SET " +
+            "movementCount = movementCount + 1, sumIn = sumIn + excluded.sumIn, sumOut = sumOut + excluded.sumOut")
+    int add(@Param("accountId") Long accountId, @Param("periodStart") LocalDate periodStart,
+            @Param("type") TransactionType type, @Param("category") String category, @Param("bucket") int bucket,
+            @Param("sumIn") long sumIn, @Param("sumOut") long sumOut);
+
+    /**
+     * Summary read: the account's rollups between two months (inclusive), buckets and categories summed.
+     *
+     * @param category Only this spending category (null = all).
+     */
+    @Query("SELECT new com.gringotts.banking.rollup.RollupTotal(r.periodStart, r.type, " +
+            "SUM(r.movementCount), SUM(r.sumIn), SUM(r.sumOut)) FROM AccountRollup r " +
+            "WHERE r.accountId = :accountId AND r.periodStart BETWEEN :from AND :to " +
+            "AND (:category IS NULL OR r.category = :category) " +
+            "GROUP BY r.periodStart, r.type ORDER BY r.periodStart, r.type")
+    List<RollupTotal> findTotals(@Param("accountId") Long accountId,
+                                 @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                 @Param("category") String category);
+
+    @Modifying
+    @Query("DELETE FROM AccountRollup r WHERE r.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Rebuild: the account's ledger aggregated per (year, month, type, category).
+     * Columns: year, month, type, category, count, sum in, sum out (minor units).
+     */
+    @Query(value = "SELECT YEAR(created_at), MONTH(created_at), type, category, COUNT(*), " +
+            "SUM(CASE WHEN amount > 0 THEN amount ELSE 0 END), SUM(CASE WHEN amount < 0 THEN -amount ELSE 0 END) " +
+            "FROM ledger_entries WHERE account_id = :accountId " +
+            "GROUP BY YEAR(created_at), MONTH(created_at), type, category", nativeQuery = true)
+    List<Object[]> aggregateLedger(@Param("accountId") Long accountId);
+}
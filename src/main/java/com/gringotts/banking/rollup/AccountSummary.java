@@ -0,0 +1,17 @@
+package com.gringotts.banking.rollup;
+
+import com.gringotts.banking.money.Money;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Response of GET /api/accounts/{id}/summary.
+ *
+ * @param currency The account's currency (every amount below is in it).
+ * @param category Spending category the lines are limited to (null = all movements).
+ * @param lines    One line per (month, type) that had movements, oldest month first.
+ */
+public record AccountSummary(Long accountId, String currency, YearMonth from, YearMonth to, String category,
+                             List<SummaryLine> lines, Money totalIn, Money totalOut) {
+}
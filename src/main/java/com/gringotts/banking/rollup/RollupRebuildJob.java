@@ -0,0 +1,118 @@
+package com.gringotts.banking.rollup;
+
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.transaction.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Regenerates 'account_rollups' from the ledger (e.g. once after upgrading, or after a repair).
+ * Accounts are independent, so 'threads' workers each take the next account id and rebuild it in
+ * its own short DB transaction: lock the account (its live movements wait, nothing is double counted),
+ * delete its rollups, aggregate its ledger per month, type and category in the database, insert the result.
+ */
+@Component
+public class RollupRebuildJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupRebuildJob.class);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountRollupRepository accountRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.rollup.rebuild.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.rollup.rebuild.threads:4}")
+    private int threads;
+
+    /**
+     * Starts the rebuild in the background once the app is up (if enabled).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (enabled) {
+            Thread.ofVirtual().name("rollup-rebuild").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Rebuilds the rollups of every account.
+     *
+     * @return Number of accounts rebuilt.
+     */
+    public long rebuild() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Long> accountIds = accountRepository.findAllIds();
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong rebuilt = new AtomicLong();
+
+        // 1. Workers pull account ids until none are left
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < accountIds.size(); i = next.getAndIncrement()) {
+                Long accountId = accountIds.get(i);
+                try {
+                    tx.executeWithoutResult(status -> rebuild(accountId));
+                    rebuilt.incrementAndGet();
+                } catch (RuntimeException e) {
+                    logger.warn("Rollup rebuild of account {} failed: {}", accountId, e.getMessage());
+                }
+            }
+        };
+
+        // 2. Run them and wait
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int w = 0; w < threads; w++) {
+            workers.add(Thread.ofPlatform().name("rollup-rebuild-" + w).start(worker));
+        }
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        logger.info("Rollup rebuild finished: {} of {} accounts", rebuilt.get(), accountIds.size());
+        return rebuilt.get();
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private void rebuild(Long accountId) {
+        // Blocks (and is blocked by) the account's movements for the duration of this short transaction
+        accountRepository.findByIdForUpdate(accountId);
+
+        accountRollupRepository.deleteByAccountId(accountId);
+        List<AccountRollup> rows = new ArrayList<>();
+        for (Object[] r : accountRollupRepository.aggregateLedger(accountId)) {
+            AccountRollup rollup = new AccountRollup(accountId,
+                    LocalDate.of(((Number) r[0]).intValue(), ((Number) r[1]).intValue(), 1),
+                    TransactionType.valueOf((String) r[2]), (String) r[3], 0);
+            rollup.setMovementCount(((Number) r[4]).longValue());
+            rollup.setSumIn(((Number) r[5]).longValue());
+            rollup.setSumOut(((Number) r[6]).longValue());
+            rows.add(rollup);
+        }
+        accountRollupRepository.saveAll(rows);
+    }
+}
@@ -0,0 +1,86 @@
+package com.gringotts.banking.rollup;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.ledger.LedgerEntry;
+import com.gringotts.banking.money.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Monthly "money in / money out by type" per account, filterable by spending category.
+ * Write side: every ledger entry is added to its rollup row inside the movement's own DB transaction
+ * (LedgerService.record), so rollups are exactly as committed as the money itself.
+ * Read side: the summary only reads rollup rows (at most months x types x buckets per account).
+ */
+@Service
+public class RollupService {
+
+    @Autowired
+    private AccountRollupRepository accountRollupRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    /**
+     * Adds one ledger entry to its month's rollup. Runs inside the caller's DB transaction.
+     *
+     * @param account The entry's account (already locked by the caller).
+     */
+    public void add(LedgerEntry entry, Account account) {
+        long amount = entry.getAmount().minorUnits();
+
+        // Credits to a hot account spread over buckets, like its balance over slots
+        int bucket = account.isSharded() && amount > 0
+                ? ThreadLocalRandom.current().nextInt(account.getSlotCount())
+                : 0;
+
+        accountRollupRepository.add(entry.getAccountId(), periodOf(entry.getCreatedAt().toLocalDate()),
+                entry.getType(), entry.getCategory() == null ? AccountRollup.NONE : entry.getCategory(),
+                bucket, Math.max(amount, 0), Math.max(-amount, 0));
+    }
+
+    /**
+     * Money in / out by month and type between two months (inclusive).
+     * Flow: one currency lookup + one grouped read of the rollup rows; the ledger is never scanned.
+     */
+    public AccountSummary getSummary(Long accountId, YearMonth from, YearMonth to) {
+        return getSummary(accountId, from, to, null);
+    }
+
+    /**
+     * Same, counting only the movements of one spending category (null = all).
+     */
+    public AccountSummary getSummary(Long accountId, YearMonth from, YearMonth to, String category) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+        Currency currency = Currency.getInstance(accountRepository.findCurrencyById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found")));
+
+        List<SummaryLine> lines = new ArrayList<>();
+        Money totalIn = Money.ofMinor(0, currency);
+        Money totalOut = Money.ofMinor(0, currency);
+        for (RollupTotal t : accountRollupRepository.findTotals(accountId, from.atDay(1), to.atDay(1), category)) {
+            Money in = Money.ofMinor(t.sumIn(), currency);
+            Money out = Money.ofMinor(t.sumOut(), currency);
+            lines.add(new SummaryLine(YearMonth.from(t.periodStart()), t.type(), t.count(), in, out));
+            totalIn = totalIn.plus(in);
+            totalOut = totalOut.plus(out);
+        }
+        return new AccountSummary(accountId, currency.getCurrencyCode(), from, to, category, lines, totalIn, totalOut);
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    static LocalDate periodOf(LocalDate day) {
+        return day.withDayOfMonth(1);
+    }
+}
@@ -0,0 +1,14 @@
+package com.gringotts.banking.rollup;
+
+import com.gringotts.banking.transaction.TransactionType;
+
+import java.time.LocalDate;
+
+/**
+ * One (month, type) row of an account's rollups, buckets already summed. Built by the JPQL query.
+ *
+ * @param sumIn  Minor units.
+ * @param sumOut Minor units.
+ */
+public record RollupTotal(LocalDate periodStart, TransactionType type, Long count, Long sumIn, Long sumOut) {
+}
@@ -0,0 +1,16 @@
+package com.gringotts.banking.rollup;
+
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.TransactionType;
+
+import java.time.YearMonth;
+
+/**
+ * Money in / money out of one account for one month and transaction type.
+ *
+ * @param count    Number of movements.
+ * @param moneyIn  Total credited (positive).
+ * @param moneyOut Total debited (positive).
+ */
+public record SummaryLine(YearMonth period, TransactionType type, long count, Money moneyIn, Money moneyOut) {
+}
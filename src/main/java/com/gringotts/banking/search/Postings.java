@@ -0,0 +1,96 @@
+package com.gringotts.banking.search;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Compact posting lists: transaction ids stored as varint deltas from the previous id.
+ * Ids of one account arrive almost in order, so most deltas fit in 1-2 bytes instead of 8.
+ * Deltas are zigzag encoded, so an id committed slightly out of order (concurrent credits of a
+ * sharded account) still encodes; readers sort after decoding.
+ */
+public final class Postings {
+
+    private Postings() {
+    }
+
+    /**
+     * @param block  Encoded postings so far (empty for a new block).
+     * @param lastId The last id appended to the block (0 for a new block).
+     * @return The block with 'id' appended.
+     */
+    public static byte[] append(byte[] block, long lastId, long id) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(block.length + 3);
+        out.writeBytes(block);
+        long delta = id - lastId;
+        long zigzag = (delta << 1) ^ (delta >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+        return out.toByteArray();
+    }
+
+    /**
+     * @param count Number of ids in the block.
+     * @return The ids, in append order.
+     */
+    public static long[] decode(byte[] block, int count) {
+        long[] ids = new long[count];
+        long id = 0;
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            long zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = block[pos++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            id += (zigzag >>> 1) ^ -(zigzag & 1);
+            ids[i] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Sorted, duplicate-free copy of the concatenation of several id arrays.
+     */
+    public static long[] union(Iterable<long[]> lists) {
+        int size = 0;
+        for (long[] l : lists) {
+            size += l.length;
+        }
+        long[] all = new long[size];
+        int pos = 0;
+        for (long[] l : lists) {
+            System.arraycopy(l, 0, all, pos, l.length);
+            pos += l.length;
+        }
+        return Arrays.stream(all).sorted().distinct().toArray();
+    }
+
+    /**
+     * Ids present in both sorted lists (linear merge).
+     */
+    public static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
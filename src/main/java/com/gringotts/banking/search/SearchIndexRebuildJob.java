@@ -0,0 +1,112 @@
+package com.gringotts.banking.search;
+
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.ledger.LedgerEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Regenerates 'search_postings' from the ledger (once after upgrading, so older movements are searchable).
+ * Same shape as the rollup rebuild: 'threads' workers take the next account id and rebuild it in its own
+ * short DB transaction (lock the account, delete its blocks, tokenize its entries, write packed blocks).
+ */
+@Component
+public class SearchIndexRebuildJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexRebuildJob.class);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private SearchPostingRepository searchPostingRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.search.rebuild.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.search.rebuild.threads:4}")
+    private int threads;
+
+    /**
+     * Starts the rebuild in the background once the app is up (if enabled).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (enabled) {
+            Thread.ofVirtual().name("search-rebuild").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Rebuilds the posting lists of every account.
+     *
+     * @return Number of accounts rebuilt.
+     */
+    public long rebuild() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Long> accountIds = accountRepository.findAllIds();
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong rebuilt = new AtomicLong();
+
+        // 1. Workers pull account ids until none are left
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < accountIds.size(); i = next.getAndIncrement()) {
+                Long accountId = accountIds.get(i);
+                try {
+                    tx.executeWithoutResult(status -> rebuild(accountId));
+                    rebuilt.incrementAndGet();
+                } catch (RuntimeException e) {
+                    logger.warn("Search index rebuild of account {} failed: {}", accountId, e.getMessage());
+                }
+            }
+        };
+
+        // 2. Run them and wait
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int w = 0; w < threads; w++) {
+            workers.add(Thread.ofPlatform().name("search-rebuild-" + w).start(worker));
+        }
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        logger.info("Search index rebuild finished: {} of {} accounts", rebuilt.get(), accountIds.size());
+        return rebuilt.get();
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private void rebuild(Long accountId) {
+        // Blocks (and is blocked by) the account's movements for the duration of this short transaction
+        accountRepository.findByIdForUpdate(accountId);
+
+        searchPostingRepository.deleteByAccountId(accountId);
+        searchIndexService.rebuild(accountId, ledgerEntryRepository.findSearchableByAccountId(accountId));
+    }
+}
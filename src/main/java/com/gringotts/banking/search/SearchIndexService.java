@@ -0,0 +1,132 @@
+package com.gringotts.banking.search;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.ledger.LedgerEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Inverted index over ledger descriptions and counterparty account numbers, per account:
+ * token -> sorted transaction ids (see SearchPosting).
+ * Write side: every ledger entry is added inside the movement's own DB transaction (LedgerService.record),
+ * so search sees exactly the committed movements.
+ * Read side: a query never touches the ledger; it intersects the posting lists of its tokens.
+ */
+@Service
+public class SearchIndexService {
+
+    // Query tokens beyond this are ignored (each costs one index read)
+    public static final int MAX_QUERY_TOKENS = 8;
+
+    @Autowired
+    private SearchPostingRepository searchPostingRepository;
+
+    /**
+     * Adds one ledger entry to its account's posting lists. Runs inside the caller's DB transaction.
+     * Flow: tokens of description + counterparty -> lock their open blocks (one statement) ->
+     * append the transaction id to each (a new block for tokens without an open one).
+     *
+     * @param account The entry's account (already locked or share-locked by the caller).
+     */
+    public void index(LedgerEntry entry, Account account) {
+        Set<String> tokens = SearchTokenizer.tokenize(entry.getDescription(), entry.getCounterpartyAccountNumber());
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        // Credits to a hot account spread over buckets, like its rollups
+        int bucket = account.isSharded() && entry.getAmount().isPositive()
+                ? ThreadLocalRandom.current().nextInt(account.getSlotCount())
+                : 0;
+
+        // 1. Open blocks (the newest one per token, if a race ever left two open)
+        Map<String, SearchPosting> open = new HashMap<>();
+        for (SearchPosting p : searchPostingRepository.findOpenBlocksForUpdate(entry.getAccountId(), bucket, tokens)) {
+            open.put(p.getToken(), p);
+        }
+
+        // 2. Append
+        List<SearchPosting> changed = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            SearchPosting block = open.computeIfAbsent(token, t -> new SearchPosting(entry.getAccountId(), t, bucket));
+            block.add(entry.getTransactionId());
+            changed.add(block);
+        }
+        searchPostingRepository.saveAll(changed);
+    }
+
+    /**
+     * Transactions of the account matching every token of the query.
+     * Each query token matches the indexed tokens it is a prefix of ("4821" finds "482100001234").
+     * Flow: per query token, one index range read of its blocks -> decode + union -> intersect,
+     * rarest token first, stopping as soon as nothing is left.
+     *
+     * @return Matching transaction ids, ascending; empty if the query has no usable token.
+     */
+    public long[] find(Long accountId, String query) {
+        List<String> tokens = SearchTokenizer.tokenize(query).stream().limit(MAX_QUERY_TOKENS).toList();
+        if (tokens.isEmpty()) {
+            return new long[0];
+        }
+
+        // 1. One sorted id list per query token
+        List<long[]> lists = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            List<long[]> blocks = new ArrayList<>();
+            for (SearchPosting p : searchPostingRepository.findByAccountIdAndTokenStartingWith(accountId, token)) {
+                blocks.add(p.ids());
+            }
+            long[] ids = Postings.union(blocks);
+            if (ids.length == 0) {
+                return ids; // one token matches nothing: neither does the query
+            }
+            lists.add(ids);
+        }
+
+        // 2. Intersect, shortest list first
+        lists.sort(Comparator.comparingInt(l -> l.length));
+        long[] result = lists.getFirst();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = Postings.intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Rebuild: the posting lists of one account from (transaction id, description, counterparty) rows,
+     * written as fully packed blocks. The caller holds the account lock and has deleted the old blocks.
+     */
+    public void rebuild(Long accountId, List<Object[]> rows) {
+        Map<String, List<Long>> postings = new HashMap<>();
+        for (Object[] row : rows) {
+            long transactionId = ((Number) row[0]).longValue();
+            for (String token : SearchTokenizer.tokenize((String) row[1], (String) row[2])) {
+                postings.computeIfAbsent(token, t -> new ArrayList<>()).add(transactionId);
+            }
+        }
+
+        List<SearchPosting> blocks = new ArrayList<>();
+        for (Map.Entry<String, List<Long>> e : postings.entrySet()) {
+            long[] ids = e.getValue().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(ids);
+            SearchPosting block = null;
+            for (long id : ids) {
+                if (block == null || block.isClosed()) {
+                    block = new SearchPosting(accountId, e.getKey(), 0);
+                    blocks.add(block);
+                }
+                block.add(id);
+            }
+        }
+        searchPostingRepository.saveAll(blocks);
+    }
+}
@@ -0,0 +1,92 @@
+package com.gringotts.banking.search;
+
+import jakarta.persistence.*;
+
+/**
+ * One block of an account's posting list for one token: the ids of the transactions whose
+ * description or counterparty contains the token, delta encoded (see Postings).
+ * Maps to table: 'search_postings'
+ *
+ * Postings are appended to the account's open block for the token (in the movement's own DB transaction);
+ * once a block passes BLOCK_BYTES it is closed and the next posting starts a new one, so an append
+ * never rewrites more than about 1 KB. Readers take the union of all blocks of a token.
+ *
+ * Sharded (hot) accounts spread their credits over 'bucket' blocks, like their rollups, so concurrent
+ * credits do not queue on the same open block.
+ */
+@Entity
+@Table(name = "search_postings", indexes = {
+        // Query: all blocks of an account whose token starts with a prefix (range scan)
+        @Index(name = "idx_postings_account_token", columnList = "account_id, token")
+})
+public class SearchPosting {
+
+    public static final int BLOCK_BYTES = 1024;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Column(nullable = false, updatable = false, length = SearchTokenizer.MAX_LENGTH)
+    private String token;
+
+    @Column(nullable = false, updatable = false)
+    private Integer bucket = 0;
+
+    @Column(name = "posting_count", nullable = false)
+    private Integer count = 0;
+
+    // Last id appended (the base of the next delta)
+    @Column(name = "last_id", nullable = false)
+    private Long lastId = 0L;
+
+    @Column(nullable = false, length = BLOCK_BYTES + 16)
+    private byte[] postings = new byte[0];
+
+    @Column(nullable = false)
+    private boolean closed = false;
+
+    // --- CONSTRUCTORS ---
+
+    public SearchPosting() {
+    }
+
+    public SearchPosting(Long accountId, String token, Integer bucket) {
+        this.accountId = accountId;
+        this.token = token;
+        this.bucket = bucket;
+    }
+
+    /**
+     * Appends one id, closing the block once it is full.
+     */
+    public void add(long id) {
+        postings = Postings.append(postings, lastId, id);
+        lastId = id;
+        count++;
+        closed = postings.length >= BLOCK_BYTES;
+    }
+
+    public long[] ids() {
+        return Postings.decode(postings, count);
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getId() { return id; }
+
+    public Long getAccountId() { return accountId; }
+
+    public String getToken() { return token; }
+
+    public Integer getBucket() { return bucket; }
+
+    public Integer getCount() { return count; }
+
+    public Long getLastId() { return lastId; }
+
+    public boolean isClosed() { return closed; }
+}
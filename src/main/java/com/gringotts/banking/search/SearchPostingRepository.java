@@ -0,0 +1,36 @@
+package com.gringotts.banking.search;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SearchPostingRepository extends JpaRepository<SearchPosting, Long> {
+
+    /**
+     * Write path: the open blocks of several tokens of one account bucket, locked until commit
+     * (one statement per ledger entry, whatever the number of tokens).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM SearchPosting p WHERE p.accountId = :accountId AND p.bucket = :bucket " +
+            "AND p.token IN :tokens AND p.closed = false ORDER BY p.id")
+    List<SearchPosting> findOpenBlocksForUpdate(@Param("accountId") Long accountId, @Param("bucket") int bucket,
+                                                @Param("tokens") Collection<String> tokens);
+
+    /**
+     * Read path: every block of the account whose token starts with the prefix
+     * (index range scan on account_id, token).
+     */
+    List<SearchPosting> findByAccountIdAndTokenStartingWith(Long accountId, String prefix);
+
+    @Modifying
+    @Query("DELETE FROM SearchPosting p WHERE p.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,45 @@
+package com.gringotts.banking.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits descriptions, counterparty numbers and search queries into index tokens:
+ * lower case runs of letters/digits, at least 2 and at most 32 characters long (longer runs are cut).
+ * "Card Purchase: 1234" -> [card, purchase, 1234]; "Transfer to 482100001234" -> [transfer, to, 482100001234].
+ */
+public final class SearchTokenizer {
+
+    public static final int MIN_LENGTH = 2;
+    public static final int MAX_LENGTH = 32;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * @param texts Any number of texts (nulls are skipped).
+     * @return The distinct tokens, in order of first appearance.
+     */
+    public static Set<String> tokenize(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (word && start < 0) {
+                    start = i;
+                } else if (!word && start >= 0) {
+                    if (i - start >= MIN_LENGTH) {
+                        tokens.add(text.substring(start, Math.min(i, start + MAX_LENGTH)).toLowerCase(Locale.ROOT));
+                    }
+                    start = -1;
+                }
+            }
+        }
+        return tokens;
+    }
+}
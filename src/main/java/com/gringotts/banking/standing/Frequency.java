@@ -0,0 +1,29 @@
+package com.gringotts.banking.standing;
+
+import java.time.LocalDate;
+
+/**
+ * How often a standing order pays.
+ */
+public enum Frequency {
+
+    DAILY,
+
+    WEEKLY,
+
+    /**
+     * Same day every month; on shorter months the last day (the 31st pays on Feb 28, then on Mar 31 again).
+     */
+    MONTHLY;
+
+    /**
+     * Date of the given period (0 = the start date). Always computed from the start date, so short months don't drift it.
+     */
+    public LocalDate dateOf(LocalDate start, long period) {
+        return switch (this) {
+            case DAILY -> start.plusDays(period);
+            case WEEKLY -> start.plusWeeks(period);
+            case MONTHLY -> start.plusMonths(period);
+        };
+    }
+}
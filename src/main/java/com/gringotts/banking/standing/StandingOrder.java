@@ -0,0 +1,151 @@
+package com.gringotts.banking.standing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gringotts.banking.money.Money;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+/**
+ * A recurring transfer: 'amount' from one account to another every day / week / month.
+ * Maps to table: 'standing_orders'
+ *
+ * 'period' counts the payments already made (or given up on); the next one is due on
+ * frequency.dateOf(startDate, period). A node executing it holds a lease (leaseOwner / leaseUntil)
+ * so no other node picks it up meanwhile; an expired lease (crashed node) makes it claimable again.
+ */
+@Entity
+@Table(name = "standing_orders", indexes = {
+        // Claim query: ACTIVE orders by next attempt time
+        @Index(name = "idx_so_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_so_from_account", columnList = "from_account_id")
+})
+public class StandingOrder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "from_account_id", nullable = false, updatable = false)
+    private Long fromAccountId;
+
+    @Column(name = "to_account_id", nullable = false, updatable = false)
+    private Long toAccountId;
+
+    // Minor units in 'currency' (the sender's)
+    @Column(nullable = false)
+    private Money amount;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Frequency frequency;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    // Last day a payment may fall on (null = until cancelled)
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(nullable = false)
+    private Long period = 0L;
+
+    // Date of the payment due next (null once COMPLETED)
+    @Column(name = "next_run_date")
+    private LocalDate nextRunDate;
+
+    // When it may be claimed next: the due date, or later after a failed attempt (backoff)
+    @JsonIgnore
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    // Failed attempts of the current period
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    // ACTIVE, CANCELLED or COMPLETED
+    @Column(nullable = false, length = 16)
+    private String status = "ACTIVE";
+
+    @JsonIgnore
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @JsonIgnore
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // --- CONSTRUCTORS ---
+
+    public StandingOrder() {
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getFromAccountId() { return fromAccountId; }
+    public void setFromAccountId(Long fromAccountId) { this.fromAccountId = fromAccountId; }
+
+    public Long getToAccountId() { return toAccountId; }
+    public void setToAccountId(Long toAccountId) { this.toAccountId = toAccountId; }
+
+    // The column only holds minor units: tag them with the order's currency
+    public Money getAmount() { return Money.ofMinor(amount.minorUnits(), Currency.getInstance(currency)); }
+    public void setAmount(Money amount) {
+        this.amount = amount;
+        this.currency = amount.currency().getCurrencyCode();
+    }
+
+    public String getCurrency() { return currency; }
+
+    public Frequency getFrequency() { return frequency; }
+    public void setFrequency(Frequency frequency) { this.frequency = frequency; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public Long getPeriod() { return period; }
+    public void setPeriod(Long period) { this.period = period; }
+
+    public LocalDate getNextRunDate() { return nextRunDate; }
+    public void setNextRunDate(LocalDate nextRunDate) { this.nextRunDate = nextRunDate; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,88 @@
+package com.gringotts.banking.standing;
+
+import com.gringotts.banking.money.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Standing orders (recurring transfers).
+ */
+@RestController
+@RequestMapping("/api/standing-orders")
+public class StandingOrderController {
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    private static final int MAX_RUNS = 100;
+
+    /**
+     * Sets up a standing order.
+     * Endpoint: POST /api/standing-orders
+     * Body: { "fromAccountId": 1, "toAccountNumber": "123456789012", "amount": 50.00,
+     *         "frequency": "MONTHLY", "startDate": "2026-11-01", "endDate": "2027-10-31" (optional) }
+     */
+    @PostMapping
+    public ResponseEntity<?> create(@RequestBody Map<String, Object> request) {
+        try {
+            if (!request.containsKey("fromAccountId") || !request.containsKey("toAccountNumber")
+                    || !request.containsKey("amount") || !request.containsKey("frequency")
+                    || !request.containsKey("startDate")) {
+                return ResponseEntity.badRequest()
+                        .body("Missing required fields: fromAccountId, toAccountNumber, amount, frequency, startDate");
+            }
+            Object endDate = request.get("endDate");
+            return ResponseEntity.ok(standingOrderService.create(
+                    Long.valueOf(request.get("fromAccountId").toString()),
+                    request.get("toAccountNumber").toString(),
+                    Money.parse(request.get("amount").toString()),
+                    Frequency.valueOf(request.get("frequency").toString().toUpperCase(Locale.ROOT)),
+                    LocalDate.parse(request.get("startDate").toString()),
+                    endDate == null || endDate.toString().isBlank() ? null : LocalDate.parse(endDate.toString())));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid number or date format");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Standing orders paying from an account (all statuses).
+     * Endpoint: GET /api/standing-orders?accountId=1
+     */
+    @GetMapping
+    public ResponseEntity<?> getOrders(@RequestParam Long accountId) {
+        return ResponseEntity.ok(standingOrderService.getOrders(accountId));
+    }
+
+    /**
+     * Cancels a standing order (no further payments).
+     * Endpoint: DELETE /api/standing-orders/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(standingOrderService.cancel(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Latest payments of a standing order, newest first.
+     * Endpoint: GET /api/standing-orders/{id}/runs?limit=20
+     */
+    @GetMapping("/{id}/runs")
+    public ResponseEntity<?> getRuns(@PathVariable Long id, @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_RUNS) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_RUNS);
+        }
+        return ResponseEntity.ok(standingOrderService.getRuns(id, limit));
+    }
+}
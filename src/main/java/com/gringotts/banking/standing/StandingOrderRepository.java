@@ -0,0 +1,37 @@
+package com.gringotts.banking.standing;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StandingOrderRepository extends JpaRepository<StandingOrder, Long> {
+
+    /**
+     * Claim query: up to a page of due, unleased (or lease-expired) ACTIVE orders, oldest attempt first,
+     * locked with SELECT ... FOR UPDATE SKIP LOCKED (lock timeout -2): rows another node is claiming
+     * right now are skipped instead of waited for, so concurrent claimers get disjoint chunks.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT o FROM StandingOrder o WHERE o.status = 'ACTIVE' AND o.nextAttemptAt <= :now " +
+            "AND (o.leaseUntil IS NULL OR o.leaseUntil < :now) ORDER BY o.nextAttemptAt")
+    List<StandingOrder> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StandingOrder o WHERE o.id = :id")
+    Optional<StandingOrder> findByIdForUpdate(@Param("id") Long id);
+
+    List<StandingOrder> findByFromAccountIdOrderById(Long fromAccountId);
+}
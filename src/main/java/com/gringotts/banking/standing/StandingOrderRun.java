@@ -0,0 +1,94 @@
+package com.gringotts.banking.standing;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of one period of a standing order.
+ * Maps to table: 'standing_order_runs'
+ * Written in the same DB transaction as the transfer; the unique (order, period) key makes a second
+ * execution of the same period fail and roll back its transfer, whatever node attempts it.
+ */
+@Entity
+@Table(name = "standing_order_runs", uniqueConstraints =
+        @UniqueConstraint(name = "uk_so_run_period", columnNames = {"order_id", "period"}))
+public class StandingOrderRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Long orderId;
+
+    @Column(nullable = false, updatable = false)
+    private Long period;
+
+    @Column(name = "run_date", nullable = false, updatable = false)
+    private LocalDate runDate;
+
+    // EXECUTED or FAILED (given up after the last retry)
+    @Column(nullable = false, length = 16, updatable = false)
+    private String status;
+
+    // Reference id of the transfer (EXECUTED only)
+    @Column(name = "reference_id", length = 32, updatable = false)
+    private String referenceId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer attempts;
+
+    @Column(updatable = false)
+    private String error;
+
+    @CreationTimestamp
+    @Column(name = "executed_at", updatable = false)
+    private LocalDateTime executedAt;
+
+    // --- CONSTRUCTORS ---
+
+    public StandingOrderRun() {
+    }
+
+    public StandingOrderRun(StandingOrder order, String status, String referenceId, String error) {
+        this.orderId = order.getId();
+        this.period = order.getPeriod();
+        this.runDate = order.getNextRunDate();
+        this.status = status;
+        this.referenceId = referenceId;
+        this.attempts = order.getAttempts() + 1;
+        this.error = error;
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Long getPeriod() { return period; }
+    public void setPeriod(Long period) { this.period = period; }
+
+    public LocalDate getRunDate() { return runDate; }
+    public void setRunDate(LocalDate runDate) { this.runDate = runDate; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getReferenceId() { return referenceId; }
+    public void setReferenceId(String referenceId) { this.referenceId = referenceId; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getExecutedAt() { return executedAt; }
+    public void setExecutedAt(LocalDateTime executedAt) { this.executedAt = executedAt; }
+}
@@ -0,0 +1,16 @@
+package com.gringotts.banking.standing;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StandingOrderRunRepository extends JpaRepository<StandingOrderRun, Long> {
+
+    boolean existsByOrderIdAndPeriod(Long orderId, Long period);
+
+    // Newest first
+    List<StandingOrderRun> findByOrderIdOrderByPeriodDesc(Long orderId, Pageable pageable);
+}
@@ -0,0 +1,282 @@
+package com.gringotts.banking.standing;
+
+import com.gringotts.banking.partition.PartitionedExecutor;
+import com.gringotts.banking.transaction.Transaction;
+import com.gringotts.banking.transaction.TransactionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Makes the due payments of standing orders. Safe to run on every node at once.
+ * Flow, every 'poll-ms' (if enabled), until nothing is due:
+ * 1. Claim: one short DB transaction locks up to 'chunk-size' due orders with FOR UPDATE SKIP LOCKED
+ *    (orders another node is claiming are skipped, not waited for) and leases them to this node.
+ * 2. Execute: each claimed order is paid on a pool of 'threads' workers, one DB transaction per order
+ *    (through the partitioned executor, like any transfer). A node only claims again once its chunk is done,
+ *    so busy nodes take less and idle nodes more: the work spreads by capacity.
+ * 3. Failure (insufficient funds, closed account, ...): retried after retry-base-ms, then 2x, 4x, ...;
+ *    after 'max-attempts' the period is recorded as FAILED and the order moves on to the next one.
+ *
+ * Each period is paid at most once: the payment, its StandingOrderRun (unique per order and period) and the
+ * move to the next period commit together. A node that crashes mid-chunk only delays its orders until
+ * their lease ('lease-ms') expires.
+ */
+@Component
+public class StandingOrderRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StandingOrderRunner.class);
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private StandingOrderRunRepository standingOrderRunRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PartitionedExecutor partitionedExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.standing-orders.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.standing-orders.poll-ms:60000}")
+    private long pollMs;
+
+    @Value("${app.standing-orders.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.standing-orders.threads:8}")
+    private int threads;
+
+    @Value("${app.standing-orders.lease-ms:600000}")
+    private long leaseMs;
+
+    @Value("${app.standing-orders.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${app.standing-orders.retry-base-ms:300000}")
+    private long retryBaseMs;
+
+    // Lease owner name of this node (blank = host name + process id)
+    @Value("${app.standing-orders.node-id:}")
+    private String nodeId;
+
+    private ExecutorService workers;
+
+    private ScheduledExecutorService scheduler;
+
+    // One run at a time per node (scheduler and POST /api/standing-orders/run)
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile boolean stopping;
+
+    @PostConstruct
+    public void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = hostName() + ":" + ProcessHandle.current().pid();
+        }
+        nodeId = nodeId.substring(0, Math.min(nodeId.length(), 64));
+        workers = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("standing-order-", 0).daemon().factory());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (enabled) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("standing-order-poll").daemon().factory());
+            scheduler.scheduleWithFixedDelay(this::runDueQuietly, 0, pollMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Claims and pays due orders, chunk after chunk, until none is left for this node.
+     *
+     * @return Number of payments made (0 if a run was already in progress on this node).
+     */
+    public int runDue() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int paid = 0;
+            int failed = 0;
+            while (!stopping) {
+                // 1. Claim
+                List<StandingOrder> claimed = claim();
+                if (claimed.isEmpty()) {
+                    break;
+                }
+
+                // 2. Execute in parallel (bounded by the pool), wait for the whole chunk
+                List<CompletableFuture<Boolean>> results = claimed.stream()
+                        .map(order -> CompletableFuture.supplyAsync(() -> executeQuietly(order), workers))
+                        .toList();
+                for (CompletableFuture<Boolean> result : results) {
+                    if (result.join()) {
+                        paid++;
+                    } else {
+                        failed++;
+                    }
+                }
+                if (claimed.size() < chunkSize) {
+                    break;
+                }
+            }
+            if (paid + failed > 0) {
+                logger.info("Standing orders: {} paid, {} failed (node {})", paid, failed, nodeId);
+            }
+            return paid;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        workers.shutdown();
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    // Leases up to one chunk of due orders to this node (committed at once, so the locks are short)
+    private List<StandingOrder> claim() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<StandingOrder> due = standingOrderRepository.findDueForUpdate(now, PageRequest.of(0, chunkSize));
+            for (StandingOrder order : due) {
+                order.setLeaseOwner(nodeId);
+                order.setLeaseUntil(now.plus(leaseMs, ChronoUnit.MILLIS));
+            }
+            return due;
+        });
+    }
+
+    // true if the period was paid (or had been already)
+    private boolean executeQuietly(StandingOrder claimed) {
+        try {
+            return partitionedExecutor.submit(claimed.getFromAccountId(), claimed.getToAccountId(),
+                    () -> new TransactionTemplate(transactionManager).execute(status -> execute(claimed.getId()))).join();
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                        recordFailure(claimed.getId(), cause.getMessage()));
+            } catch (RuntimeException again) {
+                // The lease expires and another attempt is made then
+                logger.warn("Standing order {}: cannot record failure: {}", claimed.getId(), again.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Pays the current period of a leased order: transfer + run record + next period, one DB transaction.
+     */
+    private boolean execute(Long orderId) {
+        StandingOrder order = standingOrderRepository.findByIdForUpdate(orderId).orElse(null);
+        if (order == null || !isOurs(order)) {
+            return false; // cancelled, or our lease expired and another node took over
+        }
+        // Already paid (e.g. the previous holder committed the payment, then crashed before we saw it)
+        if (!standingOrderRunRepository.existsByOrderIdAndPeriod(order.getId(), order.getPeriod())) {
+            Transaction transfer = transactionService.transferFunds(order.getFromAccountId(), order.getToAccountId(),
+                    order.getAmount());
+            standingOrderRunRepository.save(new StandingOrderRun(order, "EXECUTED", transfer.getReferenceId(), null));
+        }
+        advance(order);
+        return true;
+    }
+
+    // Backoff, or give up on this period after the last attempt
+    private void recordFailure(Long orderId, String error) {
+        StandingOrder order = standingOrderRepository.findByIdForUpdate(orderId).orElse(null);
+        if (order == null || !isOurs(order)) {
+            return;
+        }
+        String message = error == null ? "Payment failed" : error.substring(0, Math.min(error.length(), 255));
+        if (order.getAttempts() + 1 >= maxAttempts) {
+            standingOrderRunRepository.save(new StandingOrderRun(order, "FAILED", null, message));
+            advance(order);
+            order.setLastError(message);
+            return;
+        }
+        long delayMs = retryBaseMs << Math.min(order.getAttempts(), 20);
+        order.setAttempts(order.getAttempts() + 1);
+        order.setLastError(message);
+        order.setNextAttemptAt(LocalDateTime.now().plus(delayMs, ChronoUnit.MILLIS));
+        order.setLeaseOwner(null);
+        order.setLeaseUntil(null);
+    }
+
+    // Next period (or COMPLETED past the end date), lease released
+    private static void advance(StandingOrder order) {
+        order.setPeriod(order.getPeriod() + 1);
+        order.setAttempts(0);
+        order.setLastError(null);
+        order.setLeaseOwner(null);
+        order.setLeaseUntil(null);
+
+        LocalDate next = order.getFrequency().dateOf(order.getStartDate(), order.getPeriod());
+        if (order.getEndDate() != null && next.isAfter(order.getEndDate())) {
+            order.setStatus("COMPLETED");
+            order.setNextRunDate(null);
+            order.setNextAttemptAt(null);
+        } else {
+            order.setNextRunDate(next);
+            order.setNextAttemptAt(next.atStartOfDay());
+        }
+    }
+
+    private boolean isOurs(StandingOrder order) {
+        return "ACTIVE".equals(order.getStatus()) && nodeId.equals(order.getLeaseOwner());
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+
+    private void runDueQuietly() {
+        try {
+            runDue();
+        } catch (RuntimeException e) {
+            // Leases of the claimed orders expire; they are picked up again then
+            logger.warn("Standing order run failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.gringotts.banking.standing;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.money.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Setting up and cancelling standing orders (recurring transfers).
+ * The payments themselves are made by the StandingOrderRunner.
+ */
+@Service
+public class StandingOrderService {
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private StandingOrderRunRepository standingOrderRunRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    /**
+     * Sets up a recurring transfer.
+     * Flow: validate dates and amount -> both accounts ACTIVE -> first payment due on the start date.
+     *
+     * @param amount    In the sender's currency (like a one-off transfer).
+     * @param startDate Date of the first payment (today or later).
+     * @param endDate   Last day a payment may fall on, or null for no end.
+     */
+    @Transactional
+    public StandingOrder create(Long fromAccountId, String toAccountNumber, Money amount, Frequency frequency,
+                                LocalDate startDate, LocalDate endDate) {
+        // 1. Validate
+        if (!amount.isPositive()) {
+            throw new RuntimeException("Amount must be positive");
+        }
+        if (startDate.isBefore(LocalDate.now())) {
+            throw new RuntimeException("Start date cannot be in the past");
+        }
+        if (endDate != null && endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date is before the start date");
+        }
+
+        // 2. Accounts
+        Account from = accountRepository.findById(fromAccountId)
+                .orElseThrow(() -> new RuntimeException("Sender account not found"));
+        Account to = accountRepository.findByAccountNumber(toAccountNumber)
+                .orElseThrow(() -> new RuntimeException("Target Account Number not found"));
+        if (from.getId().equals(to.getId())) {
+            throw new RuntimeException("Cannot transfer funds to the same account");
+        }
+        if (!"ACTIVE".equals(from.getStatus()) || !"ACTIVE".equals(to.getStatus())) {
+            throw new RuntimeException("Both accounts must be ACTIVE");
+        }
+
+        // 3. Schedule the first payment
+        StandingOrder order = new StandingOrder();
+        order.setFromAccountId(from.getId());
+        order.setToAccountId(to.getId());
+        order.setAmount(amount.withCurrency(from.getCurrencyUnit()));
+        order.setFrequency(frequency);
+        order.setStartDate(startDate);
+        order.setEndDate(endDate);
+        order.setNextRunDate(startDate);
+        order.setNextAttemptAt(startDate.atStartOfDay());
+        return standingOrderRepository.save(order);
+    }
+
+    /**
+     * Stops future payments. Waits for a payment in progress (row lock), which then still completes.
+     */
+    @Transactional
+    public StandingOrder cancel(Long orderId) {
+        StandingOrder order = standingOrderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new RuntimeException("Standing order not found"));
+        if (!"ACTIVE".equals(order.getStatus())) {
+            throw new RuntimeException("Standing order is already " + order.getStatus());
+        }
+        order.setStatus("CANCELLED");
+        order.setNextRunDate(null);
+        order.setNextAttemptAt(null);
+        order.setLeaseOwner(null);
+        order.setLeaseUntil(null);
+        return order;
+    }
+
+    public List<StandingOrder> getOrders(Long fromAccountId) {
+        return standingOrderRepository.findByFromAccountIdOrderById(fromAccountId);
+    }
+
+    /**
+     * The latest payments (executed or given up) of an order, newest first.
+     */
+    public List<StandingOrderRun> getRuns(Long orderId, int limit) {
+        return standingOrderRunRepository.findByOrderIdOrderByPeriodDesc(orderId, PageRequest.of(0, limit));
+    }
+}
@@ -0,0 +1,117 @@
+package com.gringotts.banking.stream;
+
+import com.gringotts.banking.transaction.BalanceChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One open SSE stream of one user.
+ * Publishers only ever offer() into a small bounded queue and never block;
+ * a dedicated virtual thread drains the queue into the socket and sends heartbeats.
+ * If the queue is full the client is not keeping up and gets disconnected (it will
+ * reconnect and catch up through delta sync).
+ */
+class SseConnection implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseConnection.class);
+
+    private final Long userId;
+    private final List<Long> accountIds;
+    private final SseEmitter emitter;
+    private final BlockingQueue<BalanceChangedEvent> outbound;
+    private final long heartbeatMs;
+    private final Consumer<SseConnection> onClose;
+
+    private volatile boolean closed;
+    private volatile Thread writer;
+
+    // SSE event id, monotonic per stream (one stream mixes several accounts' seqs, and sharded ones have none).
+    // Only touched by the writer thread.
+    private long lastEventId;
+
+    SseConnection(Long userId, List<Long> accountIds, SseEmitter emitter, int queueCapacity,
+                  long heartbeatMs, Consumer<SseConnection> onClose) {
+        this.userId = userId;
+        this.accountIds = accountIds;
+        this.emitter = emitter;
+        this.outbound = new ArrayBlockingQueue<>(queueCapacity);
+        this.heartbeatMs = heartbeatMs;
+        this.onClose = onClose;
+    }
+
+    Long getUserId() { return userId; }
+    List<Long> getAccountIds() { return accountIds; }
+
+    /**
+     * Queues an event for this client. Never blocks the caller.
+     * A full queue means a slow consumer: the connection is dropped.
+     */
+    void offer(BalanceChangedEvent event) {
+        if (closed) {
+            return;
+        }
+        if (!outbound.offer(event)) {
+            logger.warn("SSE client of user {} is too slow ({} events queued), disconnecting", userId, outbound.size());
+            close();
+            emitter.complete();
+        }
+    }
+
+    /**
+     * Writer loop (runs on its own virtual thread): event or heartbeat, until closed.
+     */
+    @Override
+    public void run() {
+        writer = Thread.currentThread();
+        try {
+            while (!closed) {
+                BalanceChangedEvent event = outbound.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                if (closed) {
+                    break;
+                }
+                if (event == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .name("balance")
+                            .id(String.valueOf(++lastEventId))
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter already completed)
+            logger.debug("SSE stream of user {} ended: {}", userId, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Idempotent: unregisters from the hub and stops the writer loop.
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        outbound.clear();
+        onClose.accept(this);
+
+        // Wake the writer if it is parked waiting for the next heartbeat
+        Thread w = writer;
+        if (w != null && w != Thread.currentThread()) {
+            w.interrupt();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.gringotts.banking.stream;
+
+import com.gringotts.banking.config.CustomUserDetails;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events API.
+ * Pushes balance/transaction updates so the frontend doesn't have to poll.
+ */
+@RestController
+@RequestMapping("/api/stream")
+public class StreamController {
+
+    @Autowired
+    private StreamHub streamHub;
+
+    /**
+     * Opens the update stream of the logged-in user.
+     * Endpoint: GET /api/stream (Accept: text/event-stream)
+     * Events: 'balance' (JSON BalanceChangedEvent, id = per-stream counter; the account sequence is in the payload) + periodic heartbeat comments.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        // The principal already carries the user: no lookup per (re)connect
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        return streamHub.subscribe(principal.getUser().getId());
+    }
+}
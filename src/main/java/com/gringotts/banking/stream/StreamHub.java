@@ -0,0 +1,117 @@
+package com.gringotts.banking.stream;
+
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.account.AccountVersion;
+import com.gringotts.banking.transaction.BalanceChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Routes committed balance changes to the SSE streams of the accounts' owners.
+ * Flow: TransactionService/AccountService publish -> (commit) -> onBalanceChanged ->
+ * offer() into each subscribed connection's bounded queue -> its writer thread sends it.
+ *
+ * The servlet request thread is released as soon as the emitter is returned (async),
+ * so an idle connection costs one parked virtual thread and a small queue.
+ */
+@Component
+public class StreamHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamHub.class);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    // Max events waiting for one client before it is considered too slow
+    @Value("${app.stream.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    // Max lifetime of one stream; the client reconnects (and picks up new accounts)
+    @Value("${app.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // accountId -> open connections interested in it
+    private final ConcurrentHashMap<Long, Set<SseConnection>> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Opens a stream for the user's ACTIVE accounts.
+     *
+     * @param userId The authenticated user.
+     * @return The emitter the controller hands back to Spring MVC.
+     */
+    public SseEmitter subscribe(Long userId) {
+        List<Long> accountIds = accountRepository.findVersionsByUserIdAndStatus(userId, "ACTIVE").stream()
+                .map(AccountVersion::id)
+                .toList();
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        SseConnection connection = new SseConnection(userId, accountIds, emitter, queueCapacity, heartbeatMs, this::unregister);
+
+        for (Long accountId : accountIds) {
+            subscribers.computeIfAbsent(accountId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+
+        writers.submit(connection);
+        logger.debug("SSE stream opened for user {} ({} accounts)", userId, accountIds.size());
+        return emitter;
+    }
+
+    /**
+     * Fans a committed change out to every stream watching the account.
+     * Only enqueues, so a slow client can never hold up the publishing request.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        Set<SseConnection> connections = subscribers.get(event.accountId());
+        if (connections == null) {
+            return;
+        }
+        for (SseConnection connection : connections) {
+            connection.offer(event);
+        }
+    }
+
+    /**
+     * Number of open streams (for monitoring).
+     */
+    public long getOpenConnections() {
+        return subscribers.values().stream().flatMap(Set::stream).distinct().count();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private void unregister(SseConnection connection) {
+        for (Long accountId : connection.getAccountIds()) {
+            subscribers.computeIfPresent(accountId, (id, set) -> {
+                set.remove(connection);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
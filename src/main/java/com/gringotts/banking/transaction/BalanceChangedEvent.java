@@ -0,0 +1,25 @@
+package com.gringotts.banking.transaction;
+
+import com.gringotts.banking.money.Money;
+
+/**
+ * Published once per account touched by a money movement (a transfer publishes two).
+ * Listeners that must only see committed money use @TransactionalEventListener(AFTER_COMMIT).
+ *
+ * @param accountId             The account whose balance changed.
+ * @param counterpartyAccountId The other side of a transfer (null for deposits/purchases).
+ * @param referenceId           Reference of the Transaction row.
+ * @param type                  TRANSFER, CARD_PURCHASE, CASH_DEPOSIT, ...
+ * @param amount                Signed from this account's point of view (negative = money out).
+ * @param balanceAfter          New balance of the account (null for sharded accounts).
+ * @param seq                   The account's movement sequence after this change (see delta sync; null for sharded accounts).
+ */
+public record BalanceChangedEvent(
+        Long accountId,
+        Long counterpartyAccountId,
+        String referenceId,
+        TransactionType type,
+        Money amount,
+        Money balanceAfter,
+        Long seq) {
+}
@@ -0,0 +1,21 @@
+package com.gringotts.banking.transaction;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a reference id (text form in Java and JSON) as 16 raw bytes in the database.
+ */
+@Converter
+public class ReferenceIdConverter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String referenceId) {
+        return referenceId == null ? null : ReferenceIds.toBytes(ReferenceIds.decode(referenceId));
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : ReferenceIds.encode(ReferenceIds.fromBytes(bytes));
+    }
+}
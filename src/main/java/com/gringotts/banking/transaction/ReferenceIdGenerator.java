@@ -0,0 +1,88 @@
+package com.gringotts.banking.transaction;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates time-ordered, per-node monotonic 128-bit reference ids (UUIDv7 layout).
+ *
+ * Bits (most significant first):
+ * - 48 Unix time in milliseconds
+ * - 4  version (7)
+ * - 12 counter, high part
+ * - 2  variant (10)
+ * - 18 counter, low part
+ * - 16 node id (app.reference.node-id, or derived from the host name)
+ * - 28 random
+ *
+ * Within one millisecond the 30-bit counter increases (it starts at a random point in its lower half),
+ * so ids from one node are strictly increasing. New rows land at the right edge of the unique index
+ * instead of at random pages, and no SecureRandom is involved.
+ */
+@Component
+public class ReferenceIdGenerator {
+
+    private static final long MAX_COUNTER = (1L << 30) - 1;
+
+    // -1 = derive from the host name
+    @Value("${app.reference.node-id:-1}")
+    private int configuredNodeId = -1;
+
+    private long nodeId;
+
+    private long lastMillis = -1;
+    private long counter;
+
+    @PostConstruct
+    public void init() {
+        nodeId = (configuredNodeId >= 0 ? configuredNodeId : hostHash()) & 0xFFFF;
+    }
+
+    /**
+     * Next id in its 26-char text form.
+     */
+    public String next() {
+        return ReferenceIds.encode(nextUuid());
+    }
+
+    public UUID nextUuid() {
+        long millis;
+        long count;
+        synchronized (this) {
+            // 1. Same (or earlier, if the clock stepped back) millisecond: count up; else reseed
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                counter = ThreadLocalRandom.current().nextLong(1L << 29);
+            } else if (++counter > MAX_COUNTER) {
+                // Counter exhausted: borrow the next millisecond
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            count = counter;
+        }
+
+        // 2. Pack
+        long msb = (millis << 16) | (0x7L << 12) | ((count >>> 18) & 0xFFF);
+        long lsb = (0b10L << 62) | ((count & 0x3FFFF) << 44) | (nodeId << 28)
+                | ThreadLocalRandom.current().nextLong(1L << 28);
+        return new UUID(msb, lsb);
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private static int hostHash() {
+        try {
+            return InetAddress.getLocalHost().getHostName().hashCode();
+        } catch (UnknownHostException e) {
+            return ThreadLocalRandom.current().nextInt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.gringotts.banking.transaction;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Codec for 128-bit transaction reference ids.
+ * - Text form: 26 chars of Crockford base32 (0-9, A-Z without I, L, O, U), most significant first,
+ *   so sorting the strings sorts the ids (and, for generated ids, their creation time).
+ * - Storage form: 16 bytes (BINARY(16) column, see ReferenceIdConverter).
+ *
+ * Legacy references (random UUID strings, 36 chars) are still accepted and map to the same 128 bits.
+ */
+public final class ReferenceIds {
+
+    public static final int LENGTH = 26;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+            VALUES[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+        // Crockford: read the easily confused letters as digits
+        VALUES['O'] = VALUES['o'] = 0;
+        VALUES['I'] = VALUES['i'] = VALUES['L'] = VALUES['l'] = 1;
+    }
+
+    private ReferenceIds() {
+    }
+
+    /**
+     * 128 bits -> 26-char base32 text.
+     */
+    public static String encode(UUID id) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        char[] out = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (lo & 31)];
+            lo = (lo >>> 5) | (hi << 59);
+            hi >>>= 5;
+        }
+        return new String(out);
+    }
+
+    /**
+     * Base32 text (or a legacy UUID string) -> 128 bits.
+     */
+    public static UUID decode(String text) {
+        if (text == null) {
+            throw new RuntimeException("Reference id is missing");
+        }
+        if (text.length() == 36 && text.charAt(8) == '-') {
+            return UUID.fromString(text);
+        }
+        if (text.length() != LENGTH) {
+            throw new RuntimeException("Invalid reference id: " + text);
+        }
+
+        long hi = 0;
+        long lo = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = text.charAt(i);
+            int value = c < 128 ? VALUES[c] : -1;
+            if (value < 0 || (i == 0 && value > 7)) {
+                throw new RuntimeException("Invalid reference id: " + text);
+            }
+            hi = (hi << 5) | (lo >>> 59);
+            lo = (lo << 5) | value;
+        }
+        return new UUID(hi, lo);
+    }
+
+    public static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes.length != 16) {
+            throw new RuntimeException("Reference id must be 16 bytes, got " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -1,6 +1,7 @@
 package com.gringotts.banking.transaction;
 
 import com.gringotts.banking.account.Account;
+import com.gringotts.banking.money.Money;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 
@@ -13,28 +14,36 @@ import java.time.LocalDateTime;
  * Immutable: Transactions should never be updated, only created.
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Delta sync: range reads of one account's movements after a given sequence
+        @Index(name = "idx_tx_account_seq", columnList = "account_id, source_seq"),
+        @Index(name = "idx_tx_target_seq", columnList = "target_account_id, target_seq")
+})
 public class Transaction {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "reference_id", unique = true, nullable = false)
+    // Time-ordered 128-bit id (see ReferenceIdGenerator): base32 text in Java/JSON, 16 bytes in the DB
+    @Convert(converter = ReferenceIdConverter.class)
+    @Column(name = "reference_id", unique = true, nullable = false, columnDefinition = "BINARY(16)")
     private String referenceId;
 
     // The account performing the action (Source of funds)
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
     private Account account;
 
     // The target account (Receiver) - Nullable for Deposits/Withdrawals
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "target_account_id")
     private Account targetAccount;
 
+    // In the sender's currency. Only minor units are stored: a loaded Transaction carries the default
+    // currency (history is read through the ledger projections, which re-tag with the account's)
     @Column(nullable = false)
-    private BigDecimal amount;
+    private Money amount;
 
     // Stores the text value (e.g., "TRANSFER") instead of a number
     @Enumerated(EnumType.STRING)
@@ -50,9 +59,29 @@ public class Transaction {
     // ... existing fields ...
 
     // ✅ NEW: Store balance snapshot
-    private BigDecimal sourceBalanceAfter; // Balance of the 'account' (sender) after this tx
-    private BigDecimal targetBalanceAfter; // Balance of the 'targetAccount' (receiver) after this tx
+    private Money sourceBalanceAfter; // Balance of the 'account' (sender) after this tx
+    private Money targetBalanceAfter; // Balance of the 'targetAccount' (receiver) after this tx
 
+    // Per-account sequence (the account's version after this tx), used by delta sync
+    @Column(name = "source_seq", updatable = false)
+    private Long sourceSeq; // Sequence in the 'account' stream
+    @Column(name = "target_seq", updatable = false)
+    private Long targetSeq; // Sequence in the 'targetAccount' stream
+
+    // Cross-currency transfers only: 'amount' is in the sender's currency, 'targetAmount' is what the
+    // receiver got (in its currency), at 'fxRate' units of the target currency per unit of the source
+    @Column(name = "target_amount", updatable = false)
+    private Money targetAmount;
+    @Column(name = "fx_rate", precision = 19, scale = 10, updatable = false)
+    private BigDecimal fxRate;
+
+    // Spending category (groceries, travel, ...) of card purchases and transfers; null if no rule matched
+    @Column(length = 32, updatable = false)
+    private String category;
+
+    // Transfers / card purchases: the fee rule that priced the movement (also set on the FEE movement it produced)
+    @Column(name = "fee_rule_id", length = 32, updatable = false)
+    private String feeRuleId;
 
 
     // --- CONSTRUCTORS ---
@@ -74,8 +103,8 @@ public class Transaction {
     public Account getTargetAccount() { return targetAccount; }
     public void setTargetAccount(Account targetAccount) { this.targetAccount = targetAccount; }
 
-    public BigDecimal getAmount() { return amount; }
-    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
 
     public TransactionType getType() { return type; }
     public void setType(TransactionType type) { this.type = type; }
@@ -87,9 +116,27 @@ public class Transaction {
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
 
     // Getters and Setters
-    public BigDecimal getSourceBalanceAfter() { return sourceBalanceAfter; }
-    public void setSourceBalanceAfter(BigDecimal sourceBalanceAfter) { this.sourceBalanceAfter = sourceBalanceAfter; }
+    public Money getSourceBalanceAfter() { return sourceBalanceAfter; }
+    public void setSourceBalanceAfter(Money sourceBalanceAfter) { this.sourceBalanceAfter = sourceBalanceAfter; }
+
+    public Money getTargetBalanceAfter() { return targetBalanceAfter; }
+    public void setTargetBalanceAfter(Money targetBalanceAfter) { this.targetBalanceAfter = targetBalanceAfter; }
+
+    public Long getSourceSeq() { return sourceSeq; }
+    public void setSourceSeq(Long sourceSeq) { this.sourceSeq = sourceSeq; }
+
+    public Long getTargetSeq() { return targetSeq; }
+    public void setTargetSeq(Long targetSeq) { this.targetSeq = targetSeq; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getFeeRuleId() { return feeRuleId; }
+    public void setFeeRuleId(String feeRuleId) { this.feeRuleId = feeRuleId; }
+
+    public Money getTargetAmount() { return targetAmount; }
+    public void setTargetAmount(Money targetAmount) { this.targetAmount = targetAmount; }
 
-    public BigDecimal getTargetBalanceAfter() { return targetBalanceAfter; }
-    public void setTargetBalanceAfter(BigDecimal targetBalanceAfter) { this.targetBalanceAfter = targetBalanceAfter; }
+    public BigDecimal getFxRate() { return fxRate; }
+    public void setFxRate(BigDecimal fxRate) { this.fxRate = fxRate; }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.gringotts.banking.transaction;
+
+import java.util.List;
+
+/**
+ * Response of the delta-sync endpoint.
+ *
+ * @param latestSeq The account's current sequence; the client stores it and sends it as 'since' next time.
+ * @param resync    True if the client is too far behind: drop the local copy and reload the first page.
+ * @param changes   New movements after 'since', oldest first (empty when resync is true).
+ */
+public record TransactionChanges(Long latestSeq, boolean resync, List<TransactionView> changes) {
+}
@@ -1,14 +1,20 @@
 package com.gringotts.banking.transaction;
 
+import com.gringotts.banking.alias.AliasDirectory;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.partition.PartitionedExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.    domain.Pageable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.math.BigDecimal;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -26,56 +32,32 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private PartitionedExecutor partitionedExecutor;
+
+    @Autowired
+    private AliasDirectory aliasDirectory;
+
     /**
      * Advanced Search & Filter Endpoint
+     * Returns lean TransactionView rows (no Account/User graph).
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Transaction>> searchTransactions(
+    public ResponseEntity<List<TransactionView>> searchTransactions(
             @RequestParam Long accountId,
             @RequestParam(required = false) String startDate, // Format: YYYY-MM-DD
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String flow, // "SENT" or "RECEIVED"
-            @RequestParam(required = false) TransactionType type) {
-
-        // Note: For a real production app, use JPA Specifications.
-        // For this project, we will fetch history and filter in Java (simplest for now)
-        // or you can add a custom @Query in Repository.
-
-        // Let's use the existing repository method and filter in stream for simplicity
-        List<Transaction> all = transactionService.getTransactionHistory(accountId, Pageable.unpaged()).getContent();
-
-        List<Transaction> filtered = all.stream()
-                .filter(t -> {
-                    boolean match = true;
-
-                    // Date Filter
-                    if (startDate != null && !startDate.isEmpty()) {
-                        LocalDateTime start = LocalDateTime.parse(startDate + "T00:00:00");
-                        match = match && !t.getTimestamp().isBefore(start);
-                    }
-                    if (endDate != null && !endDate.isEmpty()) {
-                        LocalDateTime end = LocalDateTime.parse(endDate + "T23:59:59");
-                        match = match && !t.getTimestamp().isAfter(end);
-                    }
-
-                    // Flow Filter (Sent vs Received)
-                    if ("SENT".equalsIgnoreCase(flow)) {
-                        match = match && t.getAccount().getId().equals(accountId);
-                    } else if ("RECEIVED".equalsIgnoreCase(flow)) {
-                        // It is received if Target is me
-                        match = match && (t.getTargetAccount() != null && t.getTargetAccount().getId().equals(accountId));
-                    }
-
-                    // Type Filter
-                    if (type != null) {
-                        match = match && t.getType() == type;
-                    }
-
-                    return match;
-                })
-                .toList();
-
-        return ResponseEntity.ok(filtered);
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) String category, // e.g. "groceries"
+            @RequestParam(required = false) String q) { // Free text, e.g. "transfer 4821"
+
+        LocalDateTime start = (startDate != null && !startDate.isEmpty())
+                ? LocalDateTime.parse(startDate + "T00:00:00") : null;
+        LocalDateTime end = (endDate != null && !endDate.isEmpty())
+                ? LocalDateTime.parse(endDate + "T23:59:59") : null;
+
+        return ResponseEntity.ok(transactionService.searchTransactions(accountId, start, end, flow, type, category, q));
     }
 
     /**
@@ -88,11 +70,13 @@ public class TransactionController {
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String flow,
-            @RequestParam(required = false) TransactionType type) throws Exception {
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String q) throws Exception {
 
-        // reuse search logic (or call the method above directly if refactored)
-        ResponseEntity<List<Transaction>> res = searchTransactions(accountId, startDate, endDate, flow, type);
-        List<Transaction> transactions = res.getBody();
+        // reuse search logic
+        ResponseEntity<List<TransactionView>> res = searchTransactions(accountId, startDate, endDate, flow, type, category, q);
+        List<TransactionView> transactions = res.getBody();
 
         response.setContentType("text/csv");
         response.setHeader("Content-Disposition", "attachment; filename=\"transactions.csv\"");
@@ -102,20 +86,19 @@ public class TransactionController {
 
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-        for (Transaction t : transactions) {
-            boolean isSent = t.getAccount().getId().equals(accountId);
-            String flowType = isSent ? "DEBIT" : "CREDIT";
-            String sign = isSent ? "-" : "+";
+        for (TransactionView t : transactions) {
+            // The projection is already signed from this account's point of view
+            String flowType = t.isDebit() ? "DEBIT" : "CREDIT";
 
-            BigDecimal balance = isSent ? t.getSourceBalanceAfter() : t.getTargetBalanceAfter();
-            if(balance == null) balance = BigDecimal.ZERO; // Safety
+            Money balance = t.balanceAfter();
+            if(balance == null) balance = Money.ZERO; // Safety
 
-            writer.printf("%s,%s,%s,%s,%s%s,%s,%s\n",
-                    t.getReferenceId(),
-                    t.getTimestamp().format(fmt),
-                    t.getType(),
-                    t.getDescription(),
-                    sign, t.getAmount(),
+            writer.printf("%s,%s,%s,%s,%s,%s,%s\n",
+                    t.referenceId(),
+                    t.timestamp().format(fmt),
+                    t.type(),
+                    t.description(),
+                    t.amount(),
                     flowType,
                     balance
             );
@@ -126,33 +109,57 @@ public class TransactionController {
      * Transfers money between accounts.
      * Endpoint: POST /api/transactions/transfer
      * Body: { "fromAccountId": 1, "toAccountNumber": 2, "amount": 50.00 }
+     *   or: { "fromAccountId": 1, "toAlias": "+44 20 7946 0018" (or an email), "amount": 50.00 }
      */
     @PostMapping("/transfer")
-    public ResponseEntity<?> transfer(@RequestBody Map<String, Object> request) {
+    public CompletableFuture<ResponseEntity<?>> transfer(@RequestBody Map<String, Object> request) {
         try {
             // 1. Validate mandatory fields
             if (!request.containsKey("fromAccountId") ||
-                    !request.containsKey("toAccountNumber") ||
+                    !(request.containsKey("toAccountNumber") || request.containsKey("toAlias")) ||
                     !request.containsKey("amount")) {
-                return ResponseEntity.badRequest().body("Missing required fields: fromAccountId, toAccountNumber, amount");
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.badRequest().body("Missing required fields: fromAccountId, toAccountNumber (or toAlias), amount"));
             }
 
             // 2. Parse Inputs
             // We use fromAccountId because the Frontend already knows the logged-in user's ID
             Long fromId = Long.valueOf(request.get("fromAccountId").toString());
 
-            // We use toAccountNumber because that is what the user types in the UI
-            String toAccountNumber = request.get("toAccountNumber").toString();
-
-            BigDecimal amount = new BigDecimal(request.get("amount").toString());
+            Money amount = Money.parse(request.get("amount").toString());
 
-            // 3. Execute Transfer
-            transactionService.transferFunds(fromId, toAccountNumber, amount);
+            // We use toAccountNumber because that is what the user types in the UI;
+            // a phone / email alias resolves in memory to its owner's default account (no query)
+            Long toId = request.containsKey("toAlias")
+                    ? aliasDirectory.resolve(request.get("toAlias").toString()).accountId()
+                    : transactionService.getAccountIdByNumber(request.get("toAccountNumber").toString());
 
-            return ResponseEntity.ok("Transfer Successful");
+            // 3. Execute Transfer (on the accounts' partitions when partitioned execution is on;
+            //    the request thread is released while it waits)
+            return partitionedExecutor.submit(fromId, toId, () -> {
+                transactionService.transferFunds(fromId, toId, amount);
+                return null;
+            }).<ResponseEntity<?>>handle((ignored, e) -> e == null
+                    ? ResponseEntity.ok("Transfer Successful")
+                    : ResponseEntity.badRequest().body(e.getMessage()));
 
         } catch (NumberFormatException e) {
-            return ResponseEntity.badRequest().body("Invalid number format");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Invalid number format"));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+        }
+    }
+
+    /**
+     * Incremental refresh of the history (delta sync).
+     * Endpoint: GET /api/transactions/{accountId}/changes?since=42
+     * Returns only movements newer than 'since', or resync=true if the client is too far behind.
+     */
+    @GetMapping("/{accountId}/changes")
+    public ResponseEntity<?> getChanges(@PathVariable Long accountId,
+                                        @RequestParam(defaultValue = "0") long since) {
+        try {
+            return ResponseEntity.ok(transactionService.getChangesSince(accountId, since));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -163,13 +170,23 @@ public class TransactionController {
      * Endpoint: GET /api/transactions/{accountId}?page=0&size=10
      */
     @GetMapping("/{accountId}")
-    public ResponseEntity<Page<Transaction>> getHistory(
+    public ResponseEntity<?> getHistory(
             @PathVariable Long accountId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
+        try {
+            // Conditional GET (If-None-Match lists, W/ and * included): a match costs one version lookup, no history query
+            String etag = transactionService.getHistoryETag(accountId, page, size);
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).build();
+            }
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Transaction> history = transactionService.getTransactionHistory(accountId, pageable);
-        return ResponseEntity.ok(history);
+            Pageable pageable = PageRequest.of(page, size);
+            Page<TransactionView> history = transactionService.getTransactionHistory(accountId, pageable);
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(history);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
\ No newline at end of file
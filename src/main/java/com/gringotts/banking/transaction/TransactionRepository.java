@@ -1,27 +1,44 @@
 package com.gringotts.banking.transaction;
 
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Data Access Layer for Transactions.
+ * Per-account reads (history, search, delta sync) go through the ledger (see LedgerEntryRepository).
  */
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
     /**
-     * Finds all transactions involving a specific account.
-     * Logic: Returns rows where the account was the SENDER (account.id)
-     * OR the RECEIVER (targetAccount.id).
+     * Backfill: the next chunk of transactions (by id, after :afterId) that have no ledger entries yet.
+     * Both accounts are fetched in the same query since the entries copy their numbers.
      *
-     * @param accountId The ID of the account to query history for.
-     * @param pageable  Pagination information (page number, size, sort).
-     * @return A Page of Transaction entities.
+     * @param afterId  Keyset cursor: last id of the previous chunk (0 to start).
+     * @param pageable Chunk size (first page only).
+     */
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.account LEFT JOIN FETCH t.targetAccount " +
+            "WHERE t.id > :afterId " +
+            "AND NOT EXISTS (SELECT 1 FROM LedgerEntry e WHERE e.transactionId = t.id) " +
+            "ORDER BY t.id")
+    List<Transaction> findUnpostedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Payee rebuild: target account ids of the account's outgoing transfers, oldest first.
+     * Streamed (must be consumed inside a transaction); uses the (account_id) foreign key index.
      */
-    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId OR t.targetAccount.id = :accountId ORDER BY t.timestamp DESC")
-    Page<Transaction> findByAccountId(@Param("accountId") Long accountId, Pageable pageable);
-}
\ No newline at end of file
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.targetAccount.id FROM Transaction t WHERE t.account.id = :accountId " +
+            "AND t.type = com.gringotts.banking.transaction.TransactionType.TRANSFER AND t.targetAccount IS NOT NULL " +
+            "ORDER BY t.id")
+    Stream<Long> streamTransferTargets(@Param("accountId") Long accountId);
+}
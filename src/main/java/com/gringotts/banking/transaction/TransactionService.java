@@ -2,16 +2,25 @@ package com.gringotts.banking.transaction;
 
 import com.gringotts.banking.account.Account;
 import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.account.BalanceSlotService;
+import com.gringotts.banking.category.CategoryService;
+import com.gringotts.banking.fee.FeeQuote;
+import com.gringotts.banking.fee.FeeService;
+import com.gringotts.banking.fx.FxConversion;
+import com.gringotts.banking.fx.FxService;
+import com.gringotts.banking.ledger.LedgerService;
+import com.gringotts.banking.money.Money;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
-import java.math.BigDecimal;
-import java.util.UUID;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Business Logic for Money Movement.
@@ -27,31 +36,67 @@ public class TransactionService {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private BalanceSlotService balanceSlotService;
+
+    @Autowired
+    private ReferenceIdGenerator referenceIdGenerator;
+
+    @Autowired
+    private FxService fxService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private FeeService feeService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Delta sync: beyond this many new movements the client is told to resync
+    @Value("${app.sync.max-changes:200}")
+    private long maxChanges;
+
+    /**
+     * Resolves an account number (as typed by the user) to its id.
+     */
+    public Long getAccountIdByNumber(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .map(Account::getId)
+                .orElseThrow(() -> new RuntimeException("Target Account Number not found"));
+    }
+
     /**
      * NEW: Transfer using Account Number for the destination.
      * This looks up the account ID from the number, then calls the main logic.
      */
     @Transactional
-    public void transferFunds(Long fromAccountId, String toAccountNumber, BigDecimal amount) {
-        // 1. Find the Target Account ID by Number
-        Account toAccount = accountRepository.findByAccountNumber(toAccountNumber)
-                .orElseThrow(() -> new RuntimeException("Target Account Number not found"));
+    public Transaction transferFunds(Long fromAccountId, String toAccountNumber, Money amount) {
+        // 1. Find the Target Account ID by Number (the id only: the main logic loads + locks the row itself)
+        Long toAccountId = getAccountIdByNumber(toAccountNumber);
 
         // 2. Delegate to the main transfer logic
-        transferFunds(fromAccountId, toAccount.getId(), amount);
+        return transferFunds(fromAccountId, toAccountId, amount);
     }
 
     /**
      * Executes a secure money transfer between two internal accounts.
      * Flow:
      * 1. Validate Input (Amount > 0, Sender != Receiver).
-     * 2. Check Balance (Sender has enough money).
-     * 3. Atomic Update: Deduct from Sender, Add to Receiver.
-     * 4. Log Transaction.
+     * 2. Convert (only if the receiver's currency differs; the amount is in the sender's currency).
+     * 3. Price it (fee rules) and check Balance (Sender has enough money for the amount and the fee).
+     * 4. Atomic Update: Deduct from Sender, Add to Receiver.
+     * 5. Log Transaction (with the applied FX rate and fee rule), then the fee as its own FEE movement.
      * * ACID Guarantee: If any step fails, the entire operation rolls back.
+     *
+     * @return The logged TRANSFER Transaction.
      */
     @Transactional
-    public void transferFunds(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+    public Transaction transferFunds(Long fromAccountId, Long toAccountId, Money amount) {
 
         // 0. Self-Transfer Check
         if (fromAccountId.equals(toAccountId)) {
@@ -59,16 +104,20 @@ public class TransactionService {
         }
 
         // 1. Validate Amount
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (!amount.isPositive()) {
             throw new RuntimeException("Transfer amount must be positive");
         }
 
-        // 2. Fetch Accounts
-            Account fromAccount = accountRepository.findById(fromAccountId)
-                .orElseThrow(() -> new RuntimeException("Sender account not found"));
-
-        Account toAccount = accountRepository.findById(toAccountId)
-                .orElseThrow(() -> new RuntimeException("Receiver account not found"));
+        // 2. Fetch + Lock Accounts (lowest id first, so two opposite transfers can't deadlock)
+        Account fromAccount;
+        Account toAccount;
+        if (fromAccountId < toAccountId) {
+            fromAccount = lockSender(fromAccountId);
+            toAccount = lockReceiver(toAccountId);
+        } else {
+            toAccount = lockReceiver(toAccountId);
+            fromAccount = lockSender(fromAccountId);
+        }
 
         // ✅ NEW: Status Checks
         if (!"ACTIVE".equals(fromAccount.getStatus())) {
@@ -78,34 +127,81 @@ public class TransactionService {
             throw new RuntimeException("Target account is CLOSED. Transaction denied.");
         }
 
-        // 3. Check Balance
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
+        // 3. Amount is in the sender's currency; a receiver in another currency gets it converted
+        //    (in-memory rate snapshot: no I/O while the rows are locked)
+        Money debit = amount.withCurrency(fromAccount.getCurrencyUnit());
+        FxConversion fx = fromAccount.getCurrency().equals(toAccount.getCurrency()) ? null
+                : fxService.convert(debit, toAccount.getCurrencyUnit());
+        Money credit = fx == null ? debit : fx.target();
+        if (!credit.isPositive()) {
+            throw new RuntimeException("Transfer amount is too small to convert to " + toAccount.getCurrency());
+        }
+
+        // 4. Fee (in-memory rule tables) + Check Balance
+        int dailyCount = nextDailyCount(fromAccount);
+        FeeQuote fee = feeService.quote(fromAccount.getAccountType(), TransactionType.TRANSFER, debit, dailyCount);
+        if (fromAccount.getBalance().isLessThan(fee == null ? debit : debit.plus(fee.fee()))) {
             throw new RuntimeException("Insufficient funds");
         }
 
-        // 4. Perform the Transfer (In Memory)
-        fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
-        toAccount.setBalance(toAccount.getBalance().add(amount));
+        // 5. Perform the Transfer (In Memory; hot sharded accounts go through their balance slots)
+        if (fromAccount.isSharded()) {
+            balanceSlotService.debit(fromAccount, debit);
+        } else {
+            fromAccount.setBalance(fromAccount.getBalance().minus(debit));
+        }
+        fromAccount.setVersion(fromAccount.getVersion() + 1);
+        fromAccount.setFeeCountDay(LocalDate.now());
+        fromAccount.setFeeCount(dailyCount);
+        if (toAccount.isSharded()) {
+            balanceSlotService.credit(toAccount, credit); // share-locked row: the slot's version moves instead
+        } else {
+            toAccount.setBalance(toAccount.getBalance().plus(credit));
+            toAccount.setVersion(toAccount.getVersion() + 1);
+        }
 
-        // 5. Save Changes to DB
+        // 6. Save Changes to DB
         accountRepository.save(fromAccount);
         accountRepository.save(toAccount);
 
-        // 6. Log the Transaction
+        // 7. Log the Transaction (with the applied rate for cross-currency transfers)
         Transaction transaction = new Transaction();
-        transaction.setReferenceId(UUID.randomUUID().toString());
+        transaction.setReferenceId(referenceIdGenerator.next());
         transaction.setAccount(fromAccount);
         transaction.setTargetAccount(toAccount);
-        transaction.setAmount(amount);
+        transaction.setAmount(debit);
+        if (fx != null) {
+            transaction.setTargetAmount(credit);
+            transaction.setFxRate(fx.rate());
+        }
 
         // ✅ CHANGED: Set using Enum
         transaction.setType(TransactionType.TRANSFER);
 
         transaction.setDescription("Transfer to " + toAccount.getAccountNumber());
+        transaction.setCategory(categoryService.categorize(transaction.getDescription()));
+        transaction.setFeeRuleId(fee == null ? null : fee.ruleId());
         // ✅ NEW: Save the running balances
-        transaction.setSourceBalanceAfter(fromAccount.getBalance());
-        transaction.setTargetBalanceAfter(toAccount.getBalance());
+        transaction.setSourceBalanceAfter(balanceAfter(fromAccount));
+        transaction.setTargetBalanceAfter(balanceAfter(toAccount));
+        transaction.setSourceSeq(seqOf(fromAccount));
+        transaction.setTargetSeq(seqOf(toAccount));
         transactionRepository.save(transaction);
+        ledgerService.record(transaction); // debit + credit entries, same DB transaction
+
+        // 8. Notify listeners (delivered after commit)
+        eventPublisher.publishEvent(new BalanceChangedEvent(fromAccount.getId(), toAccount.getId(),
+                transaction.getReferenceId(), TransactionType.TRANSFER, debit.negate(),
+                balanceAfter(fromAccount), seqOf(fromAccount)));
+        eventPublisher.publishEvent(new BalanceChangedEvent(toAccount.getId(), fromAccount.getId(),
+                transaction.getReferenceId(), TransactionType.TRANSFER, credit,
+                balanceAfter(toAccount), seqOf(toAccount)));
+
+        // 9. The fee, as a separate debit of the sender
+        if (fee != null && fee.fee().isPositive()) {
+            chargeFee(fromAccount, fee, transaction);
+        }
+        return transaction;
     }
 
     /**
@@ -114,48 +210,206 @@ public class TransactionService {
      */
     // NEW METHOD: Handle Withdrawal / Card Purchase
     @Transactional
-    public void withdraw(Long accountId, BigDecimal amount, String description, TransactionType type) {
+    public void withdraw(Long accountId, Money amount, String description, TransactionType type) {
         // 1. Validate Amount
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (!amount.isPositive()) {
             throw new RuntimeException("Amount must be positive");
         }
 
-        // 2. Fetch Account
-        Account account = accountRepository.findById(accountId)
+        // 2. Fetch + Lock Account
+        Account account = accountRepository.findByIdForUpdate(accountId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
 
+        applyWithdrawal(account, amount, description, type);
+    }
+
+    /**
+     * Withdrawal logic on an account the caller has ALREADY locked, inside the caller's DB transaction.
+     * Shared by withdraw() and the GroupCommitter. Every check runs before anything is modified,
+     * so a rejected withdrawal leaves the account and the DB transaction untouched.
+     * A fee (see FeeService) is checked together with the amount and written as its own FEE movement.
+     *
+     * @return The logged Transaction.
+     */
+    public Transaction applyWithdrawal(Account account, Money amount, String description, TransactionType type) {
+        if (!amount.isPositive()) {
+            throw new RuntimeException("Amount must be positive");
+        }
+        amount = amount.withCurrency(account.getCurrencyUnit()); // always in the account's own currency
+
         // ✅ NEW: Status Check
         if (!"ACTIVE".equals(account.getStatus())) {
             throw new RuntimeException("Account is CLOSED. Withdrawal denied.");
         }
 
-        // 3. Check Balance
-        if (account.getBalance().compareTo(amount) < 0) {
+        // 3. Fee (in-memory rule tables) + Check Balance (a sharded account's total includes its slots)
+        balanceSlotService.withSlotBalance(account);
+        int dailyCount = nextDailyCount(account);
+        FeeQuote fee = feeService.quote(account.getAccountType(), type, amount, dailyCount);
+        if (account.getBalance().isLessThan(fee == null ? amount : amount.plus(fee.fee()))) {
             throw new RuntimeException("Insufficient funds");
         }
 
         // 4. Deduct Money
-        account.setBalance(account.getBalance().subtract(amount));
+        if (account.isSharded()) {
+            balanceSlotService.debit(account, amount);
+        } else {
+            account.setBalance(account.getBalance().minus(amount));
+        }
+        account.setVersion(account.getVersion() + 1);
+        account.setFeeCountDay(LocalDate.now());
+        account.setFeeCount(dailyCount);
         accountRepository.save(account);
 
         // 5. Log Transaction
         Transaction transaction = new Transaction();
-        transaction.setReferenceId(UUID.randomUUID().toString());
+        transaction.setReferenceId(referenceIdGenerator.next());
         transaction.setAccount(account);
         transaction.setTargetAccount(null); // No target for purchases
         transaction.setAmount(amount.negate()); // Store as negative for easier math later?
         // OR store positive and rely on Type. Let's keep positive.
         transaction.setType(type);
         transaction.setDescription(description);
+        if (type == TransactionType.CARD_PURCHASE) {
+            transaction.setCategory(categoryService.categorize(description));
+        }
+        transaction.setFeeRuleId(fee == null ? null : fee.ruleId());
         // ✅ NEW: Save the running balance
-        transaction.setSourceBalanceAfter(account.getBalance());
+        transaction.setSourceBalanceAfter(balanceAfter(account));
+        transaction.setSourceSeq(seqOf(account));
         transactionRepository.save(transaction);
+        ledgerService.record(transaction);
+
+        // 6. Notify listeners (delivered after commit)
+        eventPublisher.publishEvent(new BalanceChangedEvent(account.getId(), null,
+                transaction.getReferenceId(), type, amount.negate(),
+                balanceAfter(account), seqOf(account)));
+
+        // 7. The fee, as a separate debit
+        if (fee != null && fee.fee().isPositive()) {
+            chargeFee(account, fee, transaction);
+        }
+        return transaction;
     }
     /**
      * Retrieves transaction history for an account.
      * Supports Pagination to handle large datasets efficiently.
+     * Reads the account's ledger entries (one index range scan, no joins).
+     */
+    public Page<TransactionView> getTransactionHistory(Long accountId, Pageable pageable) {
+        return ledgerService.getHistory(accountId, pageable);
+    }
+
+    /**
+     * Delta sync: movements of the account after sequence 'since', oldest first.
+     * Flow: one PK lookup for the current sequence -> if the client is close enough,
+     * one indexed range read of just the new rows; otherwise tell it to resync.
+     *
+     * @param since The highest sequence the client already holds (0 = nothing).
+     */
+    public TransactionChanges getChangesSince(Long accountId, long since) {
+        long latest = accountRepository.findVersionById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+
+        // Sharded (hot) accounts have no per-movement sequence: the client reloads instead
+        if (accountRepository.findSlotCountById(accountId).orElse(0) > 0) {
+            return new TransactionChanges(latest, true, List.of());
+        }
+
+        // Already up to date
+        if (since == latest) {
+            return new TransactionChanges(latest, false, List.of());
+        }
+        // Too far behind (or ahead, e.g. a stale cache): cheaper to reload the first page
+        if (since > latest || latest - since > maxChanges) {
+            return new TransactionChanges(latest, true, List.of());
+        }
+        return new TransactionChanges(latest, false, ledgerService.getChangesSince(accountId, since));
+    }
+
+    /**
+     * Strong ETag of one history page.
+     * The account version moves in the same DB transaction as every new Transaction row,
+     * so it identifies the newest movement without touching the transactions table.
+     */
+    public String getHistoryETag(Long accountId, int page, int size) {
+        Long version = accountRepository.findVersionById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        return "\"tx-" + accountId + "v" + version + "p" + page + "s" + size + "\"";
+    }
+
+    /**
+     * Filtered history used by the Search screen and the CSV export.
+     * All filters (date, type, category, flow) run in the database against the ledger; free text ('q')
+     * is answered by the search index.
+     *
+     * @param flow "SENT" (debits only), "RECEIVED" (credits only) or null for both.
+     * @param q    Words the description or counterparty must contain (optional).
+     */
+    public List<TransactionView> searchTransactions(Long accountId, LocalDateTime start, LocalDateTime end,
+                                                    String flow, TransactionType type, String category, String q) {
+        return ledgerService.search(accountId, start, end, flow, type, category, q);
+    }
+
+    // --- PRIVATE HELPERS ---
+
+    private Account lockSender(Long accountId) {
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new RuntimeException("Sender account not found"));
+        // A sharded sender's funds check needs its slots too (consistent: credits share-lock the row we hold)
+        balanceSlotService.withSlotBalance(account);
+        return account;
+    }
+
+    private Account lockReceiver(Long accountId) {
+        // A sharded (hot) receiver is only share-locked, so its many concurrent credits don't queue on the row
+        boolean sharded = accountRepository.findSlotCountById(accountId).orElse(0) > 0;
+        return (sharded ? accountRepository.findByIdForShare(accountId) : accountRepository.findByIdForUpdate(accountId))
+                .orElseThrow(() -> new RuntimeException("Receiver account not found"));
+    }
+
+    // Position of the next priced movement of the (locked) account today; stored once the movement is accepted
+    private static int nextDailyCount(Account account) {
+        boolean today = LocalDate.now().equals(account.getFeeCountDay()) && account.getFeeCount() != null;
+        return today ? account.getFeeCount() + 1 : 1;
+    }
+
+    /**
+     * Debits a fee from an account the caller has locked and already debited for the priced movement:
+     * its own Transaction (type FEE, own sequence), ledger entry and notification.
      */
-    public Page<Transaction> getTransactionHistory(Long accountId, Pageable pageable) {
-        return transactionRepository.findByAccountId(accountId, pageable);
+    private void chargeFee(Account account, FeeQuote fee, Transaction priced) {
+        if (account.isSharded()) {
+            balanceSlotService.debit(account, fee.fee());
+        } else {
+            account.setBalance(account.getBalance().minus(fee.fee()));
+        }
+        account.setVersion(account.getVersion() + 1);
+        accountRepository.save(account);
+
+        Transaction transaction = new Transaction();
+        transaction.setReferenceId(referenceIdGenerator.next());
+        transaction.setAccount(account);
+        transaction.setAmount(fee.fee().negate());
+        transaction.setType(TransactionType.FEE);
+        transaction.setDescription("Fee: " + (priced.getDescription() != null ? priced.getDescription() : priced.getType()));
+        transaction.setFeeRuleId(fee.ruleId());
+        transaction.setSourceBalanceAfter(balanceAfter(account));
+        transaction.setSourceSeq(seqOf(account));
+        transactionRepository.save(transaction);
+        ledgerService.record(transaction);
+
+        eventPublisher.publishEvent(new BalanceChangedEvent(account.getId(), null,
+                transaction.getReferenceId(), TransactionType.FEE, fee.fee().negate(),
+                balanceAfter(account), seqOf(account)));
+    }
+
+    // Running balance / sequence recorded on a movement; not tracked for sharded accounts
+    private static Money balanceAfter(Account account) {
+        return account.isSharded() ? null : account.getBalance();
+    }
+
+    private static Long seqOf(Account account) {
+        return account.isSharded() ? null : account.getVersion();
     }
-}
\ No newline at end of file
+}
@@ -2,26 +2,80 @@ package com.gringotts.banking.transaction;
 
 /**
  * Defines the types of financial movements in the system.
+ * Each type has a fixed numeric code for binary formats (the event journal): never renumber or reuse one,
+ * a new type takes the next free code. The codes equal the declaration order they had when the journal
+ * first stored ordinals, so those files read the same.
  */
 public enum TransactionType {
 
     /**
      * Money added via Branch or physical cash.
      */
-    CASH_DEPOSIT,
+    CASH_DEPOSIT(0),
 
     /**
      * Money added via ATM using a Debit Card.
      */
-    CARD_DEPOSIT,
+    CARD_DEPOSIT(1),
 
     /**
      * Money sent from one internal account to another.
      */
-    TRANSFER,
+    TRANSFER(2),
 
     /**
      * Money spent using a Debit Card (POS/Online).
      */
-    CARD_PURCHASE
-}
\ No newline at end of file
+    CARD_PURCHASE(3),
+
+    /**
+     * Charge for another movement (see FeeService), debited from the paying account.
+     */
+    FEE(4),
+
+    /**
+     * Interest credited to a SAVINGS account by the nightly accrual (see InterestAccrualJob).
+     */
+    INTEREST(5);
+
+    // By code, for reading binary records
+    private static final TransactionType[] BY_CODE;
+
+    static {
+        int maxCode = 0;
+        for (TransactionType t : values()) {
+            maxCode = Math.max(maxCode, t.code);
+        }
+        BY_CODE = new TransactionType[maxCode + 1];
+        for (TransactionType t : values()) {
+            BY_CODE[t.code] = t;
+        }
+    }
+
+    private final int code;
+
+    TransactionType(int code) {
+        this.code = code;
+    }
+
+    /**
+     * True for movements that only add money to their account (no sender account involved).
+     */
+    public boolean isDeposit() {
+        return this == CASH_DEPOSIT || this == CARD_DEPOSIT || this == INTEREST;
+    }
+
+    /**
+     * Stable numeric code (see class doc); unlike ordinal() it does not move when the enum is reordered.
+     */
+    public int code() {
+        return code;
+    }
+
+    /**
+     * @return The type with that code, or null if there is none.
+     */
+    public static TransactionType fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
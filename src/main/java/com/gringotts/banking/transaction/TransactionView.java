@@ -0,0 +1,51 @@
+package com.gringotts.banking.transaction;
+
+import com.gringotts.banking.money.Money;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+/**
+ * Read-only projection of a Transaction as seen from ONE account.
+ * Built directly by the JPQL query (see LedgerEntryRepository), so no entity or
+ * association is ever loaded or serialized for history screens. Amounts are in the account's currency.
+ *
+ * @param id                        Row id (stable key for the frontend list).
+ * @param referenceId               Public reference of the movement.
+ * @param timestamp                 When the movement was booked.
+ * @param type                      TRANSFER, CARD_PURCHASE, CASH_DEPOSIT, ...
+ * @param description               Free text shown in the UI.
+ * @param amount                    Signed amount: negative = money left this account, positive = money came in.
+ * @param counterpartyAccountNumber The other side of a transfer (null for deposits/purchases).
+ * @param balanceAfter              Running balance of THIS account after the movement.
+ * @param seq                       Position in THIS account's movement sequence (null for rows older than delta sync).
+ */
+public record TransactionView(
+        Long id,
+        String referenceId,
+        LocalDateTime timestamp,
+        TransactionType type,
+        String description,
+        Money amount,
+        String counterpartyAccountNumber,
+        Money balanceAfter,
+        Long seq) {
+
+    /**
+     * Query constructor: the amount columns only hold minor units, tagged here with the account's currency.
+     */
+    public TransactionView(Long id, String referenceId, LocalDateTime timestamp, TransactionType type,
+                           String description, Money amount, String counterpartyAccountNumber,
+                           Money balanceAfter, Long seq, String currency) {
+        this(id, referenceId, timestamp, type, description, amount.inMinorUnitsOf(Currency.getInstance(currency)),
+                counterpartyAccountNumber,
+                balanceAfter == null ? null : balanceAfter.inMinorUnitsOf(Currency.getInstance(currency)), seq);
+    }
+
+    /**
+     * True if money left the account (Dr), false if it came in (Cr).
+     */
+    public boolean isDebit() {
+        return amount.signum() < 0;
+    }
+}
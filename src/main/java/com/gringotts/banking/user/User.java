@@ -1,5 +1,6 @@
 package com.gringotts.banking.user;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
  * Maps to the 'users' table.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = "uk_users_phone_key", columnNames = "phone_key"))
 public class User {
 
 	@Id
@@ -37,6 +38,11 @@ public class User {
 	@Column(name = "phone_number", unique = true)
 	private String phoneNumber;
 
+	// Digits of the phone number, the way pay-by-phone matches it: unique, so no two users share a phone alias
+	@JsonIgnore
+	@Column(name = "phone_key", length = 32)
+	private String phoneKey;
+
 	private String address;
 
 	@Column(name = "date_of_birth")
@@ -48,6 +54,10 @@ public class User {
 	@Column(nullable = false)
 	private String role = "ROLE_USER";
 
+	// Account that receives payments to the user's phone/email aliases (null = the oldest active one)
+	@Column(name = "default_account_id")
+	private Long defaultAccountId;
+
 	@CreationTimestamp
 	@Column(name = "created_at", updatable = false)
 	private LocalDateTime createdAt;
@@ -77,6 +87,23 @@ public class User {
 		this.updatedAt = updatedAt;
 	}
 
+	@PrePersist
+	@PreUpdate
+	private void updatePhoneKey() {
+		phoneKey = phoneKey(phoneNumber);
+	}
+
+	/**
+	 * Digits only ("+44 (0)20 7946-0018" -> "4402079460018"); null when there are none.
+	 */
+	public static String phoneKey(String phoneNumber) {
+		if (phoneNumber == null) {
+			return null;
+		}
+		String digits = phoneNumber.replaceAll("\\D", "");
+		return digits.isEmpty() ? null : digits;
+	}
+
 	// --- GETTERS AND SETTERS ---
 
 	public Long getId() { return id; }
@@ -100,6 +127,8 @@ public class User {
 	public String getPhoneNumber() { return phoneNumber; }
 	public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
 
+	public String getPhoneKey() { return phoneKey; }
+
 	public String getAddress() { return address; }
 	public void setAddress(String address) { this.address = address; }
 
@@ -112,6 +141,9 @@ public class User {
 	public String getRole() { return role; }
 	public void setRole(String role) { this.role = role; }
 
+	public Long getDefaultAccountId() { return defaultAccountId; }
+	public void setDefaultAccountId(Long defaultAccountId) { this.defaultAccountId = defaultAccountId; }
+
 	public LocalDateTime getCreatedAt() { return createdAt; }
 	public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -1,5 +1,7 @@
 package com.gringotts.banking.user;
 
+import com.gringotts.banking.account.AccountService;
+import com.gringotts.banking.activity.ActivityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -22,6 +24,14 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private AccountService accountService;
+
+    private static final int MAX_ACTIVITY_PAGE = 200;
+
     // Configuration: Where to save images locally
     private static final String UPLOAD_DIR = "uploads/";
 
@@ -101,6 +111,44 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Unified activity feed across all of the user's active accounts, newest first.
+     * Endpoint: GET /api/users/{id}/activity?cursor=...&limit=50
+     * Paging: pass the 'nextCursor' of a page to get the next one (null = no more).
+     */
+    @GetMapping("/{id}/activity")
+    public ResponseEntity<?> getActivity(@PathVariable Long id,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int limit) {
+        try {
+            if (limit < 1 || limit > MAX_ACTIVITY_PAGE) {
+                return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_ACTIVITY_PAGE);
+            }
+            return ResponseEntity.ok(activityService.getActivity(id, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Chooses the account that receives payments sent to the user's phone number / email.
+     * Endpoint: PUT /api/users/{id}/default-account
+     * Body: { "accountId": 7 }
+     */
+    @PutMapping("/{id}/default-account")
+    public ResponseEntity<?> setDefaultAccount(@PathVariable Long id, @RequestBody Map<String, Long> request) {
+        try {
+            Long accountId = request.get("accountId");
+            if (accountId == null) {
+                return ResponseEntity.badRequest().body("Missing required field: accountId");
+            }
+            accountService.setDefaultAccount(id, accountId);
+            return ResponseEntity.ok("Default account updated");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Uploads a profile picture.
      * Endpoint: POST /api/users/{id}/image
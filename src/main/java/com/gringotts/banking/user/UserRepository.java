@@ -1,9 +1,15 @@
 package com.gringotts.banking.user;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Data Access Layer for Users.
@@ -46,9 +52,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByPhoneNumber(String phoneNumber);
 
+    /**
+     * Checks if another user has the same phone number up to formatting (see User.phoneKey).
+     * Used during registration / profile update, so a phone alias never points at two users.
+     */
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.phoneKey = :phoneKey AND (:userId IS NULL OR u.id <> :userId)")
+    boolean existsOtherByPhoneKey(@Param("phoneKey") String phoneKey, @Param("userId") Long userId);
+
+    /**
+     * Checks if another user has the same email, ignoring case (how pay-by-email matches it).
+     */
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = LOWER(:email) AND (:userId IS NULL OR u.id <> :userId)")
+    boolean existsOtherByEmail(@Param("email") String email, @Param("userId") Long userId);
+
     /**
      * Finds a user by phone number.
      * Useful for password recovery or lookup features.
      */
     Optional<User> findByPhoneNumber(String phoneNumber);
-}
\ No newline at end of file
+
+    /**
+     * Admin lookup index load: the searchable keys of every user, streamed (inside a transaction).
+     * Columns: id, username, email, phone number.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.id, u.username, u.email, u.phoneNumber FROM User u")
+    Stream<Object[]> streamLookupKeys();
+}
@@ -1,6 +1,8 @@
 package com.gringotts.banking.user;
 
+import com.gringotts.banking.alias.AliasChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -15,18 +17,21 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Constructor Injection (Best Practice)
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Registers a new user in the system.
      * Flow: Controller -> UserService -> UserRepository -> DB
-     * 1. Checks if username/email exists.
+     * 1. Checks if username/email/phone exists (email ignoring case, phone ignoring formatting: they are payment aliases).
      * 2. Hashes the password using BCrypt.
      * 3. Sets default role.
      * 4. Saves to database.
@@ -38,15 +43,15 @@ public class UserService {
         if (userRepository.existsByUsername(user.getUsername())) {
             throw new RuntimeException("Username already taken");
         }
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already registered");
-        }
+        checkAliasesFree(user); // email + phone
 
         String encodedPassword = passwordEncoder.encode(user.getPassword());
         user.setPassword(encodedPassword);
         user.setRole("ROLE_USER");
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new AliasChangedEvent(saved.getId())); // searchable in the admin lookup
+        return saved;
     }
 
     /**
@@ -77,14 +82,30 @@ public class UserService {
 
     /**
      * Updates an existing user.
-     * Flow: Controller -> Service -> DB Update
+     * Flow: Controller -> Service -> DB Update -> alias directory re-reads the user (phone / email may have changed)
      */
     public User saveUser(User user) {
-        return userRepository.save(user);
+        checkAliasesFree(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new AliasChangedEvent(saved.getId()));
+        return saved;
     }
 
     public boolean existsByPhoneNumber(String phoneNumber) {
         if (phoneNumber == null) return false;
         return userRepository.existsByPhoneNumber(phoneNumber);
     }
-}
\ No newline at end of file
+
+    // --- PRIVATE HELPERS ---
+
+    // Pay-by-alias matches emails ignoring case and phones by their digits: another user must not have the same
+    private void checkAliasesFree(User user) {
+        if (user.getEmail() != null && userRepository.existsOtherByEmail(user.getEmail(), user.getId())) {
+            throw new RuntimeException("Email already registered");
+        }
+        String phoneKey = User.phoneKey(user.getPhoneNumber());
+        if (phoneKey != null && userRepository.existsOtherByPhoneKey(phoneKey, user.getId())) {
+            throw new RuntimeException("Phone number already registered");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- One-off migration for databases created before accounts had a currency.
+-- (ddl-auto=update would add the NOT NULL column without a value for existing rows.)
+-- Every existing account was held in USD.
+
+ALTER TABLE accounts ADD COLUMN currency CHAR(3) NOT NULL DEFAULT 'USD';
+
+-- Rates are maintained here and picked up by the next refresh (or POST /api/fx/refresh), e.g.:
+-- INSERT INTO fx_rates (base_currency, quote_currency, rate) VALUES ('EUR', 'USD', 1.0850000000);
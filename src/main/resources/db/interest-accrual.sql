@@ -0,0 +1,10 @@
+-- One-off migration for databases created before interest accrual (see InterestAccrualJob).
+-- (ddl-auto=update creates the new tables by itself, but does not widen the MySQL ENUM columns
+-- Hibernate generated for the movement type, which would reject the new INTEREST movements.)
+
+ALTER TABLE transactions MODIFY COLUMN type
+    ENUM ('CASH_DEPOSIT', 'CARD_DEPOSIT', 'TRANSFER', 'CARD_PURCHASE', 'FEE', 'INTEREST') NOT NULL;
+ALTER TABLE ledger_entries MODIFY COLUMN type
+    ENUM ('CASH_DEPOSIT', 'CARD_DEPOSIT', 'TRANSFER', 'CARD_PURCHASE', 'FEE', 'INTEREST') NOT NULL;
+ALTER TABLE account_rollups MODIFY COLUMN type
+    ENUM ('CASH_DEPOSIT', 'CARD_DEPOSIT', 'TRANSFER', 'CARD_PURCHASE', 'FEE', 'INTEREST') NOT NULL;
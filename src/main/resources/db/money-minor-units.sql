@@ -0,0 +1,19 @@
+-- One-off migration for databases created before amounts became BIGINT minor units (cents).
+-- (ddl-auto=update adds columns but never changes a column's type.)
+-- Scale first while the columns are still DECIMAL, then change the type: no value is rounded.
+
+UPDATE accounts SET balance = balance * 100;
+ALTER TABLE accounts MODIFY balance BIGINT NOT NULL;
+
+UPDATE balance_slots SET balance = balance * 100;
+ALTER TABLE balance_slots MODIFY balance BIGINT NOT NULL;
+
+UPDATE transactions SET amount = amount * 100,
+                        source_balance_after = source_balance_after * 100,
+                        target_balance_after = target_balance_after * 100;
+ALTER TABLE transactions MODIFY amount BIGINT NOT NULL,
+                         MODIFY source_balance_after BIGINT,
+                         MODIFY target_balance_after BIGINT;
+
+UPDATE ledger_entries SET amount = amount * 100, balance_after = balance_after * 100;
+ALTER TABLE ledger_entries MODIFY amount BIGINT NOT NULL, MODIFY balance_after BIGINT;
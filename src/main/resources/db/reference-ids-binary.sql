@@ -0,0 +1,15 @@
+-- One-off migration for databases created before reference ids became BINARY(16).
+-- (ddl-auto=update adds columns but never changes a column's type.)
+-- Existing random-UUID references keep their 128 bits; the API now renders them in base32.
+
+ALTER TABLE transactions ADD COLUMN reference_bin BINARY(16);
+UPDATE transactions SET reference_bin = UNHEX(REPLACE(reference_id, '-', ''));
+ALTER TABLE transactions DROP COLUMN reference_id;
+ALTER TABLE transactions RENAME COLUMN reference_bin TO reference_id;
+ALTER TABLE transactions MODIFY reference_id BINARY(16) NOT NULL, ADD UNIQUE (reference_id);
+
+ALTER TABLE ledger_entries ADD COLUMN reference_bin BINARY(16);
+UPDATE ledger_entries SET reference_bin = UNHEX(REPLACE(reference_id, '-', ''));
+ALTER TABLE ledger_entries DROP COLUMN reference_id;
+ALTER TABLE ledger_entries RENAME COLUMN reference_bin TO reference_id;
+ALTER TABLE ledger_entries MODIFY reference_id BINARY(16) NOT NULL;
@@ -0,0 +1,11 @@
+-- One-off migration for databases created before transactions had a spending category.
+-- (ddl-auto=update adds the nullable columns by itself, but neither the NOT NULL rollup column with its
+-- default nor the wider unique key of the rollups.)
+-- Existing movements stay uncategorized; new card purchases and transfers get a category from categories.txt.
+
+ALTER TABLE transactions ADD COLUMN category VARCHAR(32) NULL;
+ALTER TABLE ledger_entries ADD COLUMN category VARCHAR(32) NULL;
+
+ALTER TABLE account_rollups ADD COLUMN category VARCHAR(32) NOT NULL DEFAULT '';
+ALTER TABLE account_rollups DROP INDEX uk_rollup_key,
+    ADD CONSTRAINT uk_rollup_key UNIQUE (account_id, period_start, type, category, bucket);
@@ -0,0 +1,13 @@
+-- One-off migration for databases created before fees (see FeeService / fees.txt).
+-- (ddl-auto=update adds the nullable columns by itself, but does not widen the MySQL ENUM columns
+-- Hibernate generated for the movement type, which would reject the new FEE movements.)
+
+ALTER TABLE transactions MODIFY COLUMN type
+    ENUM ('CASH_DEPOSIT', 'CARD_DEPOSIT', 'TRANSFER', 'CARD_PURCHASE', 'FEE') NOT NULL;
+ALTER TABLE ledger_entries MODIFY COLUMN type
+    ENUM ('CASH_DEPOSIT', 'CARD_DEPOSIT', 'TRANSFER', 'CARD_PURCHASE', 'FEE') NOT NULL;
+ALTER TABLE account_rollups MODIFY COLUMN type
+    ENUM ('CASH_DEPOSIT', 'CARD_DEPOSIT', 'TRANSFER', 'CARD_PURCHASE', 'FEE') NOT NULL;
+
+ALTER TABLE transactions ADD COLUMN fee_rule_id VARCHAR(32) NULL;
+ALTER TABLE accounts ADD COLUMN fee_count_day DATE NULL, ADD COLUMN fee_count INT NULL;
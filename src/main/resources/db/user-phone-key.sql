@@ -0,0 +1,11 @@
+-- One-off migration for databases created before phone numbers were unique by their digits.
+-- (ddl-auto=update adds the column, but does not fill it.)
+-- Pay-by-phone matches a number by its digits only, so "+1 555-0100" and "15550100" are the same alias.
+
+ALTER TABLE users ADD COLUMN phone_key VARCHAR(32) NULL;
+UPDATE users SET phone_key = NULLIF(REGEXP_REPLACE(phone_number, '[^0-9]', ''), '');
+
+-- Users sharing a phone alias (the alias directory refuses those aliases until this is empty):
+-- SELECT phone_key, GROUP_CONCAT(id) FROM users WHERE phone_key IS NOT NULL GROUP BY phone_key HAVING COUNT(*) > 1;
+-- Once they are resolved:
+ALTER TABLE users ADD CONSTRAINT uk_users_phone_key UNIQUE (phone_key);
@@ -0,0 +1,101 @@
+package com.gringotts.banking.account;
+
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.support.BankingTestConfiguration;
+import com.gringotts.banking.transaction.TransactionService;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.fees.rules=" // balances here are exact: no fees
+})
+@Import({BankingTestConfiguration.class})
+class BalanceSlotServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BalanceSlotService balanceSlotService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceSlotRepository balanceSlotRepository;
+
+    private Long customerId;
+    private Long merchantId;
+
+    @BeforeEach
+    void setUp() {
+        // 1. SETUP: a customer and a merchant whose credits are spread over 4 slots
+        User owner = user("owner");
+        em.persist(owner);
+        customerId = em.persist(account(owner, "300000000001", "1000.00")).getId();
+        merchantId = em.persist(account(owner, "300000000002", "50.00")).getId();
+        balanceSlotService.shard(merchantId, 4);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void credits_LandInSlotsAndBalanceReadsTheSum() {
+        long versionBefore = accountRepository.findVersionById(merchantId).orElseThrow();
+
+        for (int i = 0; i < 8; i++) {
+            transactionService.transferFunds(customerId, merchantId, Money.parse("10.00"));
+        }
+        em.flush();
+        em.clear();
+
+        Account merchant = accountRepository.findById(merchantId).orElseThrow();
+        assertEquals(Money.parse("50.00"), merchant.getBalance());     // slots not loaded with the row
+        balanceSlotService.withSlotBalance(merchant);
+        assertEquals(Money.parse("50.00"), merchant.getMainBalance()); // row untouched
+        assertEquals(Money.parse("130.00"), merchant.getBalance());    // pool + slots
+        assertEquals(versionBefore + 8, accountRepository.findVersionById(merchantId).orElseThrow());
+    }
+
+    @Test
+    void debit_RebalancesWhenNoSingleSlotCoversIt() {
+        for (int i = 0; i < 8; i++) {
+            transactionService.transferFunds(customerId, merchantId, Money.parse("10.00"));
+        }
+        em.flush();
+        em.clear();
+
+        // 120 > pool (50) and > any one slot (at most 80): forces the sweep
+        transactionService.withdraw(merchantId, Money.parse("120.00"), "Payout", TransactionType.CARD_PURCHASE);
+        em.flush();
+        em.clear();
+
+        Account merchant = balanceSlotService.withSlotBalance(accountRepository.findById(merchantId).orElseThrow());
+        assertEquals(Money.parse("10.00"), merchant.getBalance());
+        assertTrue(balanceSlotRepository.findAll().stream().allMatch(s -> s.getBalance().signum() == 0));
+    }
+
+    @Test
+    void debit_BeyondTheSumIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class, () ->
+                transactionService.withdraw(merchantId, Money.parse("50.01"), "Payout", TransactionType.CARD_PURCHASE));
+
+        assertEquals("Insufficient funds", e.getMessage());
+    }
+
+    // --- HELPERS ---
+}
@@ -0,0 +1,148 @@
+package com.gringotts.banking.activity;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.ledger.LedgerEntry;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.ReferenceIds;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.user.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ActivityService.class)
+class ActivityServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime t0 = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private Long userId;
+    private final List<LedgerEntry> visible = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 1. SETUP: three active accounts moving at interleaved times (two at the very same instant),
+        //    and a closed one that must not show up
+        User owner = user("owner");
+        userId = em.persist(owner).getId();
+        Long a = em.persist(accountWithStatus(owner, "600000000001", "ACTIVE")).getId();
+        Long b = em.persist(accountWithStatus(owner, "600000000002", "ACTIVE")).getId();
+        Long c = em.persist(accountWithStatus(owner, "600000000003", "ACTIVE")).getId();
+        Long closed = em.persist(accountWithStatus(owner, "600000000004", "CLOSED")).getId();
+
+        for (int i = 0; i < 5; i++) {
+            visible.add(entry(a, t0.plusMinutes(3 * i)));
+            visible.add(entry(b, t0.plusMinutes(3 * i + 1)));
+        }
+        visible.add(entry(c, t0.plusMinutes(4)));
+        visible.add(entry(a, t0.plusMinutes(4))); // same instant as c's
+        entry(closed, t0.plusMinutes(2));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void pages_MergeAllAccountsNewestFirstWithoutGapsOrRepeats() {
+        List<Long> expected = visible.stream()
+                .sorted((x, y) -> x.getCreatedAt().equals(y.getCreatedAt())
+                        ? y.getId().compareTo(x.getId())
+                        : y.getCreatedAt().compareTo(x.getCreatedAt()))
+                .map(LedgerEntry::getId)
+                .toList();
+
+        // 2. EXECUTE: walk the feed 5 items at a time
+        List<Long> served = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics().clear();
+            ActivityPage page = activityService.getActivity(userId, cursor, 5);
+            // accounts + one bounded read per active account
+            assertEquals(4, statistics().getPrepareStatementCount());
+            page.items().forEach(item -> served.add(item.entryId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // 3. ASSERT
+        assertEquals(expected, served);
+        assertEquals(3, pages); // 12 items: 5 + 5 + 2
+    }
+
+    @Test
+    void items_CarryTheirAccount() {
+        ActivityItem newest = activityService.getActivity(userId, null, 1).items().getFirst();
+
+        assertEquals("600000000002", newest.accountNumber());
+        assertEquals(t0.plusMinutes(13), newest.timestamp());
+        assertThrows(RuntimeException.class, () -> activityService.getActivity(userId, "garbage", 5));
+    }
+
+    @Test
+    void items_AreInTheirAccountsCurrency() {
+        // 1. SETUP: the newest movement is on a yen account (1000 JPY stored as 1000 minor units)
+        User owner = em.find(User.class, userId);
+        Account tokyo = accountWithStatus(owner, "600000000005", "ACTIVE");
+        tokyo.setCurrency("JPY");
+        entry(em.persist(tokyo).getId(), t0.plusHours(1), Money.ofMinor(1000));
+        em.flush();
+        em.clear();
+
+        // 2. EXECUTE
+        List<ActivityItem> items = activityService.getActivity(userId, null, 2).items();
+
+        // 3. ASSERT: the yen line reads 1000 JPY (not 10.00), the next one stays in USD
+        assertEquals("JPY", items.get(0).currency());
+        assertEquals(Money.ofMinor(1000, Currency.getInstance("JPY")), items.get(0).amount());
+        assertEquals("USD", items.get(1).currency());
+        assertEquals(Money.parse("1.00"), items.get(1).amount());
+    }
+
+    // --- HELPERS ---
+
+    private LedgerEntry entry(Long accountId, LocalDateTime at) {
+        return entry(accountId, at, Money.parse("1.00"));
+    }
+
+    private LedgerEntry entry(Long accountId, LocalDateTime at, Money amount) {
+        LedgerEntry e = new LedgerEntry();
+        e.setAccountId(accountId);
+        e.setTransactionId(1L);
+        e.setReferenceId(ReferenceIds.encode(UUID.randomUUID()));
+        e.setType(TransactionType.CASH_DEPOSIT);
+        e.setAmount(amount);
+        e.setCreatedAt(at);
+        return em.persist(e);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,143 @@
+package com.gringotts.banking.admin;
+
+import com.gringotts.banking.alias.AliasChangedEvent;
+import com.gringotts.banking.user.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(CustomerIndex.class)
+class CustomerIndexTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private CustomerIndex customerIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User harry;
+    private User hermione;
+    private User henry;
+
+    @BeforeEach
+    void setUp() {
+        // 1. SETUP: three customers starting with "h", one account each (Hermione's is closed: still searchable)
+        harry = em.persist(user("harry", "Harry.Potter@hogwarts.test", "+44 20 7946 0018"));
+        hermione = em.persist(user("hermione", "granger@hogwarts.test", "07700 900123"));
+        henry = em.persist(user("henry", "henry@ministry.test", null));
+        em.persist(accountWithStatus(harry, "482100001234", "ACTIVE"));
+        em.persist(accountWithStatus(hermione, "482100005678", "CLOSED"));
+        em.persist(accountWithStatus(henry, "700000000001", "ACTIVE"));
+        em.flush();
+        customerIndex.reload();
+    }
+
+    @Test
+    void lookup_MatchesAnyFieldByPrefixFromMemory() {
+        statistics().clear();
+
+        // 2. EXECUTE + ASSERT: one match per user, in value order
+        assertEquals(List.of(
+                        new CustomerIndex.IndexMatch(harry.getId(), "username", "harry"),
+                        new CustomerIndex.IndexMatch(henry.getId(), "username", "henry"),
+                        new CustomerIndex.IndexMatch(hermione.getId(), "username", "hermione")),
+                customerIndex.lookup("H", 10));
+        assertEquals(List.of(new CustomerIndex.IndexMatch(hermione.getId(), "email", "granger@hogwarts.test")),
+                customerIndex.lookup("gran", 10));
+        // Phone and account numbers ignore formatting
+        assertEquals(List.of(new CustomerIndex.IndexMatch(harry.getId(), "phone", "442079460018")),
+                customerIndex.lookup("+44 20", 10));
+        assertEquals(List.of(harry.getId(), hermione.getId()),
+                customerIndex.lookup("4821 0000", 10).stream().map(CustomerIndex.IndexMatch::userId).toList());
+        assertEquals(2, customerIndex.lookup("h", 2).size());
+        assertTrue(customerIndex.lookup("zz", 10).isEmpty());
+        assertEquals(0, statistics().getPrepareStatementCount());
+
+        // With the customers' details: one read of the matched users
+        List<CustomerMatch> matches = customerIndex.search("harry.p", 10);
+        assertEquals("harry", matches.getFirst().username());
+        assertEquals("email", matches.getFirst().matchedField());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void refresh_UpdatesIncrementallyAndSurvivesCompaction() {
+        // Harry changes his email and opens an account
+        harry.setEmail("the.chosen.one@hogwarts.test");
+        em.persist(accountWithStatus(harry, "482100009999", "ACTIVE"));
+        em.flush();
+        customerIndex.onCustomerChanged(new AliasChangedEvent(harry.getId()));
+
+        assertTrue(customerIndex.lookup("harry.potter", 10).isEmpty());
+        assertEquals(harry.getId(), customerIndex.lookup("the.chosen", 10).getFirst().userId());
+        assertEquals(List.of(harry.getId()),
+                customerIndex.lookup("4821000099", 10).stream().map(CustomerIndex.IndexMatch::userId).toList());
+        assertEquals(1, customerIndex.stats().get("changedUsers"));
+
+        // Folding the delta into the base changes no answer
+        customerIndex.compact();
+        assertEquals(0, customerIndex.stats().get("changedUsers"));
+        assertTrue(customerIndex.lookup("harry.potter", 10).isEmpty());
+        assertEquals(harry.getId(), customerIndex.lookup("the.chosen", 10).getFirst().userId());
+        assertEquals(3, customerIndex.lookup("h", 10).size());
+    }
+
+    @Test
+    void prefixIndex_SortsAndFindsLikeATreeSet() {
+        Random random = new Random(7);
+        PrefixIndex.Builder builder = new PrefixIndex.Builder();
+        TreeSet<String> expected = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            String key = Long.toString(random.nextLong() & 0xffffffffL, 36) + i;
+            builder.add(key.getBytes(StandardCharsets.UTF_8), i);
+            expected.add(key);
+        }
+        PrefixIndex index = builder.build(true);
+
+        for (String prefix : List.of("a", "zz", "1b", "q7", "")) {
+            byte[] p = prefix.getBytes(StandardCharsets.UTF_8);
+            long found = 0;
+            for (int i = index.lowerBound(p); i < index.size() && index.startsWith(i, p); i++) {
+                found++;
+            }
+            long want = expected.stream().filter(k -> k.startsWith(prefix)).count();
+            assertEquals(want, found, "prefix " + prefix);
+        }
+    }
+
+    // --- HELPERS ---
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static User user(String username, String email, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPhoneNumber(phone);
+        user.setPassword("hash");
+        return user;
+    }
+}
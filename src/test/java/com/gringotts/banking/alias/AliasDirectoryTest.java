@@ -0,0 +1,146 @@
+package com.gringotts.banking.alias;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.user.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(AliasDirectory.class)
+class AliasDirectoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private AliasDirectory aliasDirectory;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User harry;
+    private Account vault;
+    private Account savings;
+
+    @BeforeEach
+    void setUp() {
+        // 1. SETUP: Harry has two active accounts; Ron's only account is closed
+        harry = em.persist(user("harry", "Harry@Hogwarts.test", "+44 20 7946 0018", "Harry", "Potter"));
+        vault = em.persist(accountWithStatus(harry, "100000000687", "ACTIVE"));
+        savings = em.persist(accountWithStatus(harry, "100000000713", "ACTIVE"));
+        User ron = em.persist(user("ron", "ron@hogwarts.test", "07700 900123", "Ron", null));
+        em.persist(accountWithStatus(ron, "100000000999", "CLOSED"));
+        em.flush();
+        aliasDirectory.reload();
+    }
+
+    @Test
+    void resolve_FindsTheDefaultAccountFromMemory() {
+        statistics().clear();
+
+        // 2. EXECUTE + ASSERT: any formatting of the phone, any case of the email -> the oldest account
+        assertEquals(new AliasTarget(harry.getId(), vault.getId(), "100000000687", "Harry P."),
+                aliasDirectory.resolve("harry@hogwarts.TEST"));
+        assertEquals(vault.getId(), aliasDirectory.resolve("442079460018").accountId());
+        assertEquals(0, statistics().getPrepareStatementCount());
+
+        // Users without an active account cannot be paid; malformed aliases are rejected
+        assertEquals(2, aliasDirectory.size());
+        assertThrows(RuntimeException.class, () -> aliasDirectory.resolve("ron@hogwarts.test"));
+        assertThrows(RuntimeException.class, () -> aliasDirectory.resolve("12-34"));
+    }
+
+    @Test
+    void refresh_FollowsDefaultAccountClosureAndProfileChanges() {
+        // Harry picks his savings account
+        harry.setDefaultAccountId(savings.getId());
+        em.flush();
+        aliasDirectory.onAliasChanged(new AliasChangedEvent(harry.getId()));
+        assertEquals(savings.getId(), aliasDirectory.resolve("harry@hogwarts.test").accountId());
+
+        // ... then closes it: payments fall back to the vault
+        savings.setStatus("CLOSED");
+        em.flush();
+        aliasDirectory.refresh(harry.getId());
+        assertEquals(vault.getId(), aliasDirectory.resolve("harry@hogwarts.test").accountId());
+
+        // New phone number: the old one stops resolving
+        harry.setPhoneNumber("+1 555 0100 777");
+        em.flush();
+        aliasDirectory.refresh(harry.getId());
+        assertEquals(vault.getId(), aliasDirectory.resolve("15550100777").accountId());
+        assertThrows(RuntimeException.class, () -> aliasDirectory.resolve("+44 20 7946 0018"));
+        assertEquals(2, aliasDirectory.size());
+    }
+
+    @Test
+    void reload_RefusesAnAliasSharedByTwoUsers() {
+        // 1. SETUP: a legacy row (no phone key yet) with Harry's phone number, formatted differently
+        User neville = em.persist(user("neville", "neville@hogwarts.test", null, "Neville", "Longbottom"));
+        Account trunk = em.persist(accountWithStatus(neville, "100000000800", "ACTIVE"));
+        em.flush();
+        setPhoneNumberOnly(neville, "442079460018");
+
+        // 2. EXECUTE
+        aliasDirectory.reload();
+
+        // 3. ASSERT: the shared phone pays nobody; each email still pays its owner
+        RuntimeException ambiguous = assertThrows(RuntimeException.class, () -> aliasDirectory.resolve("+44 20 7946 0018"));
+        assertTrue(ambiguous.getMessage().contains("more than one customer"));
+        assertEquals(trunk.getId(), aliasDirectory.resolve("neville@hogwarts.test").accountId());
+
+        // ... until Neville changes his number
+        setPhoneNumberOnly(neville, "07700 900456");
+        aliasDirectory.refresh(neville.getId());
+        assertEquals(vault.getId(), aliasDirectory.resolve("+44 20 7946 0018").accountId());
+        assertEquals(trunk.getId(), aliasDirectory.resolve("07700900456").accountId());
+    }
+
+    @Test
+    void phoneKey_KeepsANewUserOffAnotherUsersPhone() {
+        // The same digits with another formatting cannot be saved a second time
+        assertThrows(ConstraintViolationException.class, () -> {
+            em.persist(user("luna", "luna@hogwarts.test", "44-20-7946-0018", "Luna", "Lovegood"));
+            em.flush();
+        });
+    }
+
+    // --- HELPERS ---
+
+    // As rows written before the phone key existed: the number changes, the key does not
+    private void setPhoneNumberOnly(User user, String phone) {
+        em.getEntityManager().createNativeQuery("UPDATE users SET phone_number = :phone WHERE id = :id")
+                .setParameter("phone", phone)
+                .setParameter("id", user.getId())
+                .executeUpdate();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static User user(String username, String email, String phone, String firstName, String lastName) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPhoneNumber(phone);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setPassword("hash");
+        return user;
+    }
+}
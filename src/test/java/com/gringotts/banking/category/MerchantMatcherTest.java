@@ -0,0 +1,66 @@
+package com.gringotts.banking.category;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerchantMatcherTest {
+
+    @Test
+    void categorize_FindsTheLongestWholeWordKeywordInOnePass() throws Exception {
+        Map<String, String> rules = CategoryService.parse(new BufferedReader(new StringReader("""
+                # comment
+                travel: uber, ryanair
+                dining: uber eats, eats
+                transport: bp
+                groceries: tesco, Whole Foods  # trailing comment
+                """)));
+        MerchantMatcher matcher = MerchantMatcher.compile(rules);
+
+        assertEquals("groceries", matcher.categorize("Card Purchase: 1234 at TESCO EXPRESS"));
+        assertEquals("groceries", matcher.categorize("Card Purchase: 1234 at whole foods market"));
+        assertEquals("travel", matcher.categorize("Card Purchase: 1234 at UBER *TRIP"));
+        // Overlapping keywords: the longest one wins, wherever the shorter ones start
+        assertEquals("dining", matcher.categorize("Card Purchase: 1234 at Uber Eats London"));
+        // Whole words only
+        assertEquals("transport", matcher.categorize("Card Purchase: 1234 at BP 0042"));
+        assertNull(matcher.categorize("Card Purchase: 1234 at BPAY"));
+        assertNull(matcher.categorize("Card Purchase: 1234"));
+        assertNull(matcher.categorize(null));
+        assertEquals(7, matcher.keywordCount());
+    }
+
+    @Test
+    void compile_FollowsFailureLinksAcrossSharedPrefixes() {
+        // The textbook set: reading "ushers" must fall from "she" to "he" and then reach "hers"
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("he", "a");
+        rules.put("she", "b");
+        rules.put("his", "c");
+        rules.put("hers", "d");
+        MerchantMatcher matcher = MerchantMatcher.compile(rules);
+
+        assertEquals("d", matcher.categorize("x hers y"));
+        assertEquals("b", matcher.categorize("ushers she"));
+        assertNull(matcher.categorize("ushers")); // only inside a word
+        assertNull(MerchantMatcher.EMPTY.categorize("anything"));
+    }
+
+    @Test
+    void shippedRules_Parse() throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/categories.txt"), StandardCharsets.UTF_8))) {
+            MerchantMatcher matcher = MerchantMatcher.compile(CategoryService.parse(reader));
+            assertTrue(matcher.keywordCount() > 100);
+            assertEquals("dining", matcher.categorize("Card Purchase: 1234 at STARBUCKS #123"));
+            assertEquals("rent", matcher.categorize("Transfer to landlord"));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.gringotts.banking.commit;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.support.BankingTestConfiguration;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.user.User;
+import com.gringotts.banking.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Group commit vs one transaction per request, same workload: CALLERS concurrent terminals, each paying
+ * PAYMENTS_PER_CALLER small card purchases from its own account and waiting for each answer (as CardService does).
+ * Run with: mvn test -Pbenchmark
+ *
+ * On the in-memory H2 of the tests there is no fsync, so the gap shown here is the per-transaction overhead
+ * only; on MySQL every saved commit also saves a redo-log flush.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "app.group-commit.enabled=true",
+        "app.group-commit.window-ms=2",
+        "app.fees.rules="
+})
+@Import({BankingTestConfiguration.class, GroupCommitter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the committer thread must see committed rows
+class GroupCommitterBenchmarkTest {
+
+    private static final int CALLERS = 64;
+
+    private static final int PAYMENTS_PER_CALLER = 50;
+
+    private static final int WARMUP_PAYMENTS = 5;
+
+    @Autowired
+    private GroupCommitter groupCommitter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void groupCommit_VersusOneTransactionPerRequest() throws Exception {
+        // 1. SETUP: one account per terminal; the per-request path is a committer with grouping off
+        User owner = userRepository.save(user("bench"));
+        List<Long> accounts = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            Account account = accountRepository.save(account(owner, String.valueOf(300_000_000_000L + i), "1000000.00"));
+            accounts.add(account.getId());
+        }
+        GroupCommitter perRequest = new GroupCommitter();
+        beanFactory.autowireBean(perRequest);
+        ReflectionTestUtils.setField(perRequest, "enabled", false);
+        perRequest.start();
+
+        // 2. EXECUTE: warm both paths up, then measure each
+        run(perRequest, accounts, WARMUP_PAYMENTS);
+        run(groupCommitter, accounts, WARMUP_PAYMENTS);
+        Result alone = run(perRequest, accounts, PAYMENTS_PER_CALLER);
+        Result grouped = run(groupCommitter, accounts, PAYMENTS_PER_CALLER);
+
+        // 3. REPORT + ASSERT: the same payments in far fewer DB transactions
+        System.out.printf("%-22s %8s %10s %12s%n", "path", "payments", "db txs", "payments/s");
+        alone.print("one tx per request");
+        grouped.print("group commit");
+        assertEquals(alone.payments(), grouped.payments());
+        assertTrue(grouped.transactions() * 4 < alone.transactions(),
+                "expected grouped commits, got " + grouped.transactions() + " vs " + alone.transactions());
+    }
+
+    // --- HELPERS ---
+
+    private record Result(long payments, long transactions, long elapsedNanos) {
+
+        void print(String path) {
+            System.out.printf("%-22s %8d %10d %12.0f%n", path, payments, transactions, payments * 1e9 / elapsedNanos);
+        }
+    }
+
+    // Every caller pays its payments one after the other, all callers at once
+    private Result run(GroupCommitter committer, List<Long> accounts, int paymentsPerCaller) throws Exception {
+        statistics().clear();
+        List<Future<?>> done = new ArrayList<>();
+        long start = System.nanoTime();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long accountId : accounts) {
+                done.add(callers.submit(() -> {
+                    for (int i = 0; i < paymentsPerCaller; i++) {
+                        committer.submit(new MoneyMovement(accountId, Money.parse("0.01"),
+                                TransactionType.CARD_PURCHASE, "Card Purchase: bench")).join();
+                    }
+                    return null;
+                }));
+            }
+        } // close() waits for every caller
+        long elapsed = System.nanoTime() - start;
+        for (Future<?> caller : done) {
+            caller.get(); // a failed payment fails the benchmark
+        }
+        return new Result((long) accounts.size() * paymentsPerCaller, statistics().getSuccessfulTransactionCount(), elapsed);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,142 @@
+package com.gringotts.banking.commit;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.ledger.LedgerEntryRepository;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.support.BankingTestConfiguration;
+import com.gringotts.banking.transaction.Transaction;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.user.User;
+import com.gringotts.banking.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.group-commit.enabled=true",
+        "app.group-commit.window-ms=200",
+        "app.fees.rules=" // balances here are exact: no fees
+})
+@Import({BankingTestConfiguration.class, GroupCommitter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the committer thread must see committed rows
+class GroupCommitterTest {
+
+    @Autowired
+    private GroupCommitter groupCommitter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void group_CommitsOnceAndIsolatesRejectedMovements() {
+        // 1. SETUP: Alice can afford 10 of the 15 purchases; Bob gets 5 deposits
+        User owner = user("owner");
+        userRepository.save(owner);
+        Account alice = accountRepository.save(account(owner, "200000000001", "100.00"));
+        Account bob = accountRepository.save(account(owner, "200000000002", "0.00"));
+        long entriesBefore = ledgerEntryRepository.count();
+        statistics().clear();
+
+        // 2. EXECUTE: everything arrives within one window
+        List<CompletableFuture<Transaction>> purchases = new ArrayList<>();
+        List<CompletableFuture<Transaction>> deposits = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            purchases.add(groupCommitter.submit(new MoneyMovement(alice.getId(), Money.parse("10.00"),
+                    TransactionType.CARD_PURCHASE, "Card Purchase: " + i)));
+        }
+        for (int i = 0; i < 5; i++) {
+            deposits.add(groupCommitter.submit(new MoneyMovement(bob.getId(), Money.parse("20.00"),
+                    TransactionType.CARD_DEPOSIT, null)));
+        }
+        CompletableFuture.allOf(deposits.toArray(CompletableFuture[]::new)).join();
+
+        // 3. ASSERT: each caller got its own outcome ...
+        long paid = purchases.stream().filter(f -> !failed(f)).count();
+        assertEquals(10, paid);
+        CompletionException rejected = assertThrows(CompletionException.class, () -> purchases.get(14).join());
+        assertEquals("Insufficient funds", rejected.getCause().getMessage());
+
+        // ... the survivors were committed together ...
+        assertEquals(Money.parse("0.00"), accountRepository.findById(alice.getId()).orElseThrow().getBalance());
+        assertEquals(Money.parse("100.00"), accountRepository.findById(bob.getId()).orElseThrow().getBalance());
+        assertEquals(15, ledgerEntryRepository.count() - entriesBefore);
+
+        // ... in far fewer DB transactions than requests
+        assertTrue(statistics().getSuccessfulTransactionCount() < 5,
+                "expected grouped commits, got " + statistics().getSuccessfulTransactionCount());
+    }
+
+    @Test
+    void shutdown_AnswersEveryQueuedCallerAndRejectsNewOnes() {
+        // 1. SETUP: a committer of its own (the shared one stays up for the other tests)
+        User owner = userRepository.save(user("stopper"));
+        Account carol = accountRepository.save(account(owner, "200000000003", "50.00"));
+        GroupCommitter committer = new GroupCommitter();
+        beanFactory.autowireBean(committer);
+        committer.start();
+
+        // 2. EXECUTE: stop while the purchases wait for their window to close
+        List<CompletableFuture<Transaction>> queued = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            queued.add(committer.submit(new MoneyMovement(carol.getId(), Money.parse("10.00"),
+                    TransactionType.CARD_PURCHASE, "Card Purchase: " + i)));
+        }
+        committer.shutdown();
+
+        // 3. ASSERT: no caller is left waiting (what was gathered before the stop is committed) ...
+        assertTrue(queued.stream().allMatch(CompletableFuture::isDone));
+        long paid = queued.stream().filter(f -> !failed(f)).count();
+        assertEquals(Money.ofMinor(5_000 - 1_000 * paid),
+                accountRepository.findById(carol.getId()).orElseThrow().getBalance());
+
+        // ... and a late caller fails at once instead of hanging
+        CompletionException late = assertThrows(CompletionException.class, () -> committer.submit(
+                new MoneyMovement(carol.getId(), Money.parse("1.00"), TransactionType.CARD_PURCHASE, "late")).join());
+        assertEquals("Group commit is shut down, movement not applied", late.getCause().getMessage());
+    }
+
+    // --- HELPERS ---
+
+    private static boolean failed(CompletableFuture<Transaction> future) {
+        try {
+            future.join();
+            return false;
+        } catch (CompletionException e) {
+            return true;
+        }
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
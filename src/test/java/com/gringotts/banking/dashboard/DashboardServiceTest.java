@@ -0,0 +1,81 @@
+package com.gringotts.banking.dashboard;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountService;
+import com.gringotts.banking.card.CardService;
+import com.gringotts.banking.config.CustomUserDetails;
+import com.gringotts.banking.config.CustomUserDetailsService;
+import com.gringotts.banking.transaction.TransactionService;
+import com.gringotts.banking.user.User;
+import com.gringotts.banking.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private CardService cardService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock // Only read by the JWT filter's lookup (CustomUserDetailsService)
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dashboardService, "deadlineMs", 5000L);
+        ReflectionTestUtils.setField(dashboardService, "recentTransactions", 5);
+    }
+
+    @Test
+    void getDashboard_UsesTheUserLoadedWithThePrincipal() {
+        // 1. SETUP: the filter's lookup (one DB read), then the dashboard parts of user 7
+        User owner = user("harry");
+        owner.setId(7L);
+        owner.setRole("ROLE_USER");
+        when(userRepository.findByUsernameOrEmail("harry", "harry")).thenReturn(Optional.of(owner));
+        Account primary = account(owner, "100000000001");
+        primary.setId(11L);
+        when(accountService.getAccountsByUser(7L)).thenReturn(List.of(primary));
+        when(cardService.getCardsByUser(7L)).thenReturn(List.of());
+        when(transactionService.getTransactionHistory(eq(11L), any(Pageable.class))).thenReturn(Page.empty());
+
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+        CustomUserDetails principal = (CustomUserDetails) userDetailsService.loadUserByUsername("harry");
+
+        // 2. EXECUTE
+        DashboardResponse dashboard = dashboardService.getDashboard(principal.getUser());
+
+        // 3. ASSERT: every part is complete and the user was read once (by the filter), not again
+        assertEquals("harry", dashboard.profile().getUsername());
+        assertEquals(List.of(primary), dashboard.accounts());
+        assertTrue(dashboard.unavailable().isEmpty());
+        verify(userRepository, times(1)).findByUsernameOrEmail("harry", "harry");
+        verifyNoMoreInteractions(userRepository);
+    }
+}
@@ -0,0 +1,115 @@
+package com.gringotts.banking.fee;
+
+import com.gringotts.banking.fx.FxRate;
+import com.gringotts.banking.fx.FxRateTable;
+import com.gringotts.banking.fx.FxService;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeeScheduleTest {
+
+    @Test
+    void match_FirstRuleReachedByTheBandsWins() throws Exception {
+        FeeSchedule schedule = FeeService.parse(new BufferedReader(new StringReader("""
+                version: 7   # comment
+                checking-purchases  CHECKING  CARD_PURCHASE  0       1   0     0    -
+                savings-excess      SAVINGS   *              0       7   2.50  0    -
+                transfer-large      *         TRANSFER       100.00  1   0     0.1  0.50
+                transfer-frequent   *         TRANSFER       0       3   0.25  0    -
+                """)));
+
+        assertEquals("7", schedule.version());
+        assertEquals(4, schedule.ruleCount());
+
+        // Below every band of the cell: free
+        assertEquals(-1, schedule.match("CHECKING", TransactionType.TRANSFER, 50_00, 1));
+        // Amount band: 0.1% of 200.00 = 0.20
+        int large = schedule.match("CHECKING", TransactionType.TRANSFER, 200_00, 1);
+        assertEquals("transfer-large", schedule.ruleId(large));
+        assertEquals(20, schedule.fee(large, 200_00));
+        // ... capped at 0.50
+        assertEquals(50, schedule.fee(large, 2_000_00));
+        // Count band: the 3rd transfer of the day
+        assertEquals("transfer-frequent", schedule.ruleId(schedule.match("CHECKING", TransactionType.TRANSFER, 50_00, 3)));
+        // Both bands reached: the earlier rule wins
+        assertEquals("transfer-large", schedule.ruleId(schedule.match("CHECKING", TransactionType.TRANSFER, 200_00, 5)));
+        // Account type rules come first for their type; unknown types only see '*' rules
+        assertEquals("savings-excess", schedule.ruleId(schedule.match("SAVINGS", TransactionType.TRANSFER, 200_00, 7)));
+        assertEquals("transfer-frequent", schedule.ruleId(schedule.match("BUSINESS", TransactionType.TRANSFER, 1_00, 9)));
+        // Waiver: matches, charges nothing
+        int waiver = schedule.match("CHECKING", TransactionType.CARD_PURCHASE, 1_000_00, 50);
+        assertEquals("checking-purchases", schedule.ruleId(waiver));
+        assertEquals(0, schedule.fee(waiver, 1_000_00));
+        assertEquals(-1, schedule.match("CHECKING", TransactionType.CASH_DEPOSIT, 1_000_00, 50));
+    }
+
+    @Test
+    void parse_RejectsMalformedRulesAndShippedFileCompiles() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> FeeService.parse(new BufferedReader(new StringReader("""
+                version: 1
+                a  *  TRANSFER  0  1  0.25  0  -
+                a  *  TRANSFER  0  2  0.50  0  -
+                """))));
+        assertThrows(IllegalArgumentException.class, () -> FeeService.parse(new BufferedReader(new StringReader("""
+                a  *  TRANSFER  0  1  0.25  0  -
+                """))));
+        assertThrows(IllegalArgumentException.class, () -> FeeService.parse(new BufferedReader(new StringReader("""
+                version: 1
+                a  *  WIRE  0  1  0.25  0  -
+                """))));
+        assertThrows(IllegalArgumentException.class, () -> FeeService.parse(new BufferedReader(new StringReader("""
+                version: 1
+                currency: KWD
+                a  *  TRANSFER  0  1  0.25  0  -
+                """))));
+
+        try (BufferedReader shipped = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/fees.txt"), StandardCharsets.UTF_8))) {
+            FeeSchedule schedule = FeeService.parse(shipped);
+            assertTrue(schedule.ruleCount() > 0);
+            assertEquals(Money.DEFAULT_CURRENCY, schedule.currency());
+        }
+    }
+
+    @Test
+    void quote_PricesOtherCurrenciesAtTodaysRate() throws Exception {
+        // 1. SETUP: USD rules; 1 JPY = 0.0067 USD, 1 USD = 149.25 JPY
+        Currency jpy = Currency.getInstance("JPY");
+        FxService fxService = new FxService();
+        ReflectionTestUtils.setField(fxService, "table", FxRateTable.of(List.of(
+                new FxRate("JPY", "USD", new BigDecimal("0.0067")),
+                new FxRate("USD", "JPY", new BigDecimal("149.25")))));
+        FeeService feeService = new FeeService();
+        ReflectionTestUtils.setField(feeService, "fxService", fxService);
+        ReflectionTestUtils.setField(feeService, "schedule", FeeService.parse(new BufferedReader(new StringReader("""
+                version: 1
+                currency: USD
+                transfer-large  *  TRANSFER  100.00  1  0  1  5.00
+                """))));
+
+        // 2. EXECUTE + ASSERT: 20000 JPY = 134.00 USD, over the band: 1% = 1.34 USD = 199.995 -> 200 JPY
+        FeeQuote quote = feeService.quote("CHECKING", TransactionType.TRANSFER, Money.ofMinor(20_000, jpy), 1);
+        assertEquals("transfer-large", quote.ruleId());
+        assertEquals(Money.ofMinor(200, jpy), quote.fee());
+
+        // 10000 JPY = 67.00 USD: below the 100.00 band, not read as "10000.00" of the rule currency
+        assertNull(feeService.quote("CHECKING", TransactionType.TRANSFER, Money.ofMinor(10_000, jpy), 1));
+        // Same currency as the rules: no conversion (1% of 150.00)
+        assertEquals(Money.parse("1.50"), feeService.quote("CHECKING", TransactionType.TRANSFER, Money.parse("150.00"), 1).fee());
+        // No rate for the account's currency: refused, not priced with the raw number
+        assertThrows(RuntimeException.class, () -> feeService.quote("CHECKING", TransactionType.TRANSFER,
+                Money.of(new BigDecimal("500.00"), Currency.getInstance("EUR")), 1));
+    }
+}
@@ -0,0 +1,65 @@
+package com.gringotts.banking.fx;
+
+import com.gringotts.banking.money.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FxServiceTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    @Mock
+    private FxRateRepository fxRateRepository;
+
+    @InjectMocks
+    private FxService fxService;
+
+    @Test
+    void convert_RoundsOnceHalfEvenToTheTargetCurrency() {
+        when(fxRateRepository.findAll()).thenReturn(List.of(
+                new FxRate("EUR", "USD", new BigDecimal("1.0850000000")),
+                new FxRate("USD", "JPY", new BigDecimal("149.5000000000"))));
+        fxService.refresh();
+
+        // 10.05 x 1.085 = 10.904250 -> 10.90 (exact product, one rounding step)
+        FxConversion eurToUsd = fxService.convert(Money.of(new BigDecimal("10.05"), EUR), USD);
+        assertEquals(Money.of(new BigDecimal("10.90"), USD), eurToUsd.target());
+        assertEquals(0, new BigDecimal("1.085").compareTo(eurToUsd.rate()));
+
+        // 0.01 x 149.5 = 1.495 -> 1 yen; 0.03 x 149.5 = 4.485 -> 4 yen (half-even ties go to even)
+        assertEquals(Money.ofMinor(1, JPY), fxService.convert(Money.parse("0.01"), JPY).target());
+        assertEquals(Money.ofMinor(4, JPY), fxService.convert(Money.parse("0.03"), JPY).target());
+
+        // Only quoted pairs: no derived inverse
+        assertThrows(RuntimeException.class, () -> fxService.convert(Money.parse("1.00"), EUR));
+    }
+
+    @Test
+    void refresh_SwapsTheWholeSnapshot() {
+        when(fxRateRepository.findAll())
+                .thenReturn(List.of(new FxRate("EUR", "USD", new BigDecimal("1.10"))))
+                .thenReturn(List.of(new FxRate("GBP", "USD", new BigDecimal("1.25"))));
+
+        FxRateTable first = fxService.refresh();
+        FxRateTable second = fxService.refresh();
+
+        // A reader holding the old snapshot keeps a consistent view
+        assertNotNull(first.rate(EUR, USD));
+        assertNull(second.rate(EUR, USD));
+        assertSame(second, fxService.getRates());
+        assertThrows(UnsupportedOperationException.class, () -> second.rates().put("X/Y", BigDecimal.ONE));
+    }
+}
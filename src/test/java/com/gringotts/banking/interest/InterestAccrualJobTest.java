@@ -0,0 +1,169 @@
+package com.gringotts.banking.interest;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.ledger.LedgerEntry;
+import com.gringotts.banking.ledger.LedgerEntryRepository;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.rollup.AccountRollup;
+import com.gringotts.banking.rollup.AccountRollupRepository;
+import com.gringotts.banking.transaction.BalanceChangedEvent;
+import com.gringotts.banking.transaction.ReferenceIdGenerator;
+import com.gringotts.banking.transaction.Transaction;
+import com.gringotts.banking.transaction.TransactionRepository;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.user.User;
+import com.gringotts.banking.user.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.interest.enabled=false", // runs are triggered by the test
+        "app.interest.savings-rate=0.0365", // 0.01% a day in a 365-day year
+        "app.interest.partitions=2",
+        "app.interest.threads=2",
+        "app.interest.chunk-size=1" // one account per chunk: every account goes through a checkpoint
+})
+@Import({InterestAccrualJob.class, ReferenceIdGenerator.class, InterestAccrualJobTest.CommittedEvents.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the worker threads must see committed rows
+class InterestAccrualJobTest {
+
+    @Autowired
+    private InterestAccrualJob job;
+
+    @Autowired
+    private InterestAccrualRepository interestAccrualRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRollupRepository accountRollupRepository;
+
+    @Autowired
+    private ReferenceIdGenerator referenceIdGenerator;
+
+    @Autowired
+    private CommittedEvents committedEvents;
+
+    @Test
+    void accrue_CreditsTimeWeightedInterestOnceAndCarriesTheFractions() {
+        // 1. SETUP: savings with 1000.00, plus 1000.00 deposited at noon; small savings of 40.00; a checking account
+        User owner = userRepository.save(user("saver"));
+        LocalDate day = LocalDate.of(2025, 3, 10);
+        Account saver = saved(owner, "400000000001", "SAVINGS");
+        deposit(saver, "1000.00", day.minusDays(5).atTime(9, 0));
+        deposit(saver, "1000.00", day.atTime(12, 0));
+        Account small = saved(owner, "400000000002", "SAVINGS");
+        deposit(small, "40.00", day.minusDays(5).atTime(9, 0));
+        Account checking = saved(owner, "400000000003", "CHECKING");
+        deposit(checking, "1000.00", day.minusDays(5).atTime(9, 0));
+
+        // 2. EXECUTE: the day, then the same day again
+        InterestRunResult result = job.accrue(day);
+        InterestRunResult again = job.accrue(day);
+
+        // 3. ASSERT: average balance 1500.00 x 0.01% = 0.15, credited once, with its Transaction, ledger entry and rollup
+        assertEquals(2, result.accounts());
+        assertEquals(1, result.credited());
+        assertEquals(0, again.accounts());
+        Account credited = accountRepository.findById(saver.getId()).orElseThrow();
+        assertEquals(Money.parse("2000.15"), credited.getBalance());
+        assertEquals(1L, credited.getVersion());
+
+        InterestAccrual accrual = interestAccrualRepository.findById(new InterestAccrualId(saver.getId(), day)).orElseThrow();
+        assertEquals(0, new BigDecimal("150000").compareTo(accrual.getAverageBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(accrual.getCarry()));
+
+        Transaction interest = transactionRepository.findAll().stream()
+                .filter(t -> t.getType() == TransactionType.INTEREST).findFirst().orElseThrow();
+        assertEquals(accrual.getReferenceId(), interest.getReferenceId());
+        LedgerEntry entry = ledgerEntryRepository.findAll().stream()
+                .filter(e -> e.getType() == TransactionType.INTEREST).findFirst().orElseThrow();
+        assertEquals(saver.getId(), entry.getAccountId());
+        assertEquals(15L, entry.getAmount().minorUnits());
+        assertEquals(200_015L, entry.getBalanceAfter().minorUnits());
+        assertEquals(1L, entry.getSeq());
+        AccountRollup rollup = accountRollupRepository.findAll().stream()
+                .filter(r -> r.getType() == TransactionType.INTEREST).findFirst().orElseThrow();
+        assertEquals(15L, rollup.getSumIn());
+
+        // ... and announced once committed, like a single movement (the event journal has no gap)
+        assertEquals(List.of(new BalanceChangedEvent(saver.getId(), null, accrual.getReferenceId(),
+                TransactionType.INTEREST, Money.parse("0.15"), Money.parse("2000.15"), 1L)), committedEvents.received);
+
+        // ... 40.00 earns 0.4 cent a day: carried until it adds up to a whole cent (day 3: 1.2 -> 1 paid, 0.2 carried)
+        assertEquals(Money.parse("40.00"), accountRepository.findById(small.getId()).orElseThrow().getBalance());
+        job.accrue(day.plusDays(1));
+        job.accrue(day.plusDays(2));
+        assertEquals(Money.parse("40.01"), accountRepository.findById(small.getId()).orElseThrow().getBalance());
+        InterestAccrual third = interestAccrualRepository.findById(new InterestAccrualId(small.getId(), day.plusDays(2))).orElseThrow();
+        assertEquals(0, new BigDecimal("0.2").compareTo(third.getCarry()));
+
+        // ... and the checking account earns nothing
+        assertEquals(Money.parse("1000.00"), accountRepository.findById(checking.getId()).orElseThrow().getBalance());
+        assertFalse(interestAccrualRepository.existsById(new InterestAccrualId(checking.getId(), day)));
+    }
+
+    // --- HELPERS ---
+
+    // What a journal-like AFTER_COMMIT listener receives
+    static class CommittedEvents {
+
+        final List<BalanceChangedEvent> received = new CopyOnWriteArrayList<>();
+
+        @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+        void onBalanceChanged(BalanceChangedEvent event) {
+            received.add(event);
+        }
+    }
+
+    private Account saved(User user, String number, String type) {
+        Account account = account(user, number);
+        account.setAccountType(type);
+        return accountRepository.save(account);
+    }
+
+    // A posted deposit: ledger entry at 'at' + the account's balance
+    private void deposit(Account account, String amount, LocalDateTime at) {
+        Money money = Money.parse(amount);
+        Account current = accountRepository.findById(account.getId()).orElseThrow();
+        current.setBalance(current.getBalance().plus(money));
+        accountRepository.save(current);
+
+        LedgerEntry entry = new LedgerEntry();
+        entry.setAccountId(account.getId());
+        entry.setTransactionId(0L);
+        entry.setReferenceId(referenceIdGenerator.next());
+        entry.setType(TransactionType.CASH_DEPOSIT);
+        entry.setAmount(money);
+        entry.setBalanceAfter(current.getBalance());
+        entry.setCreatedAt(at);
+        ledgerEntryRepository.save(entry);
+    }
+}
@@ -0,0 +1,112 @@
+package com.gringotts.banking.journal;
+
+import com.gringotts.banking.transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void append_RollsSegmentsAndReplaysFromAnyOffset() throws Exception {
+        // 1. SETUP: 4 records per segment, 10 records -> 3 segment files
+        try (Journal journal = Journal.open(dir, 4)) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, journal.append(record(i)));
+            }
+
+            // 2. EXECUTE
+            List<JournalRecord> all = new ArrayList<>();
+            List<JournalRecord> fromSix = new ArrayList<>();
+            long resumeAt = journal.replay(0, all::add);
+            journal.replay(6, fromSix::add);
+
+            // 3. ASSERT
+            assertEquals(10, resumeAt);
+            assertEquals(10, all.size());
+            assertEquals(record(7).withOffset(7), all.get(7));
+            assertEquals(List.of(6L, 7L, 8L, 9L), fromSix.stream().map(JournalRecord::offset).toList());
+            assertTrue(Files.exists(dir.resolve(JournalSegment.fileName(8))));
+        }
+    }
+
+    @Test
+    void reader_TailsTheWriter() throws Exception {
+        try (Journal journal = Journal.open(dir, 4);
+             JournalReader reader = journal.reader(0)) {
+            List<JournalRecord> seen = new ArrayList<>();
+
+            journal.append(record(0));
+            assertEquals(1, reader.poll(seen::add, 100));
+            assertEquals(0, reader.poll(seen::add, 100)); // caught up
+
+            for (int i = 1; i < 6; i++) {
+                journal.append(record(i));
+            }
+            assertEquals(5, reader.poll(seen::add, 100));
+            assertEquals(6, reader.getPosition());
+        }
+    }
+
+    @Test
+    void open_RecoversTailAndDropsTornRecord() throws Exception {
+        try (Journal journal = Journal.open(dir, 8)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(record(i));
+            }
+        }
+
+        // Simulate a crash half-way through writing record 4
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve(JournalSegment.fileName(0)).toFile(), "rw")) {
+            file.seek(4L * JournalRecord.SIZE + 40);
+            file.writeLong(-1);
+        }
+
+        try (Journal journal = Journal.open(dir, 8)) {
+            assertEquals(4, journal.getTail());
+            assertEquals(4, journal.append(record(99))); // the torn slot is reused
+        }
+    }
+
+    @Test
+    void record_StoresAStableTypeCodeAndTheCurrency() {
+        ByteBuffer buffer = ByteBuffer.allocate(JournalRecord.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        // 1000 JPY of interest: type code 5, ISO numeric 392, read back as written
+        JournalRecord yen = new JournalRecord(0, 1_700_000_000_000L, 3L, 0, 1000L, 51_000L, 9L,
+                new UUID(1, 2), TransactionType.INTEREST, Currency.getInstance("JPY"));
+        yen.writeTo(buffer, 0);
+        assertEquals(5, buffer.getShort(72));
+        assertEquals(392, buffer.getShort(74));
+        assertTrue(JournalRecord.isValid(buffer, 0, 0));
+        assertEquals(yen, JournalRecord.readFrom(buffer, 0));
+
+        // Records from before the currency field held the type ordinal as an int: same bytes, no currency
+        JournalRecord legacy = new JournalRecord(0, 1_700_000_000_000L, 3L, 4L, -500L, 100L, 10L,
+                new UUID(3, 4), TransactionType.TRANSFER, null);
+        legacy.writeTo(buffer, 0);
+        assertEquals(TransactionType.TRANSFER.ordinal(), buffer.getInt(72));
+        assertEquals(legacy, JournalRecord.readFrom(buffer, 0));
+    }
+
+    // --- HELPERS ---
+
+    private JournalRecord record(int i) {
+        return new JournalRecord(-1, 1_700_000_000_000L + i, 1L, i % 2 == 0 ? 0 : 2L,
+                -100L * i, 10_000L - 100L * i, i + 1L, new UUID(i, i), TransactionType.TRANSFER, Currency.getInstance("USD"));
+    }
+}
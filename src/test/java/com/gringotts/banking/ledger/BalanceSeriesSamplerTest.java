@@ -0,0 +1,49 @@
+package com.gringotts.banking.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceSeriesSamplerTest {
+
+    @Test
+    void finish_ReturnsAtMostNPointsAndKeepsTheSpikes() {
+        // 1. SETUP: a million movements over a day, a slow wave with one large dip
+        long from = 0;
+        long to = 86_400_000_000L;
+        BalanceSeriesSampler sampler = new BalanceSeriesSampler(from, to, 500_00, 200);
+        for (int i = 1; i <= 1_000_000; i++) {
+            long x = from + (to - from) * i / 1_000_001;
+            long y = i == 654_321 ? -2_000_00 : 500_00 + (long) (1_000_00 * Math.sin(i / 50_000.0));
+            sampler.add(x, y);
+        }
+
+        // 2. EXECUTE
+        List<BalanceSeriesSampler.Point> points = sampler.finish();
+
+        // 3. ASSERT: bounded, ordered, ends kept, the dip kept
+        assertEquals(1_000_000, sampler.count());
+        assertTrue(points.size() <= 200, "got " + points.size());
+        assertEquals(new BalanceSeriesSampler.Point(from, 500_00), points.get(0));
+        assertEquals(to, points.get(points.size() - 1).x());
+        for (int i = 1; i < points.size(); i++) {
+            assertTrue(points.get(i - 1).x() <= points.get(i).x());
+        }
+        assertTrue(points.stream().anyMatch(p -> p.y() == -2_000_00));
+    }
+
+    @Test
+    void finish_KeepsEveryPointOfAShortSeries() {
+        BalanceSeriesSampler sampler = new BalanceSeriesSampler(0, 1000, 0, 50);
+        sampler.add(100, 10);
+        sampler.add(500, 30);
+        sampler.add(900, 20);
+
+        assertEquals(List.of(new BalanceSeriesSampler.Point(0, 0), new BalanceSeriesSampler.Point(100, 10),
+                new BalanceSeriesSampler.Point(500, 30), new BalanceSeriesSampler.Point(900, 20),
+                new BalanceSeriesSampler.Point(1000, 20)), sampler.finish());
+        assertThrows(IllegalArgumentException.class, () -> new BalanceSeriesSampler(0, 1000, 0, 1));
+    }
+}
@@ -0,0 +1,146 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.rollup.RollupService;
+import com.gringotts.banking.search.SearchIndexService;
+import com.gringotts.banking.transaction.ReferenceIds;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.user.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.balance-snapshot.grace-minutes=0"
+})
+@Import({LedgerService.class, BalanceSnapshotJob.class, RollupService.class, SearchIndexService.class})
+class BalanceSnapshotJobTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private BalanceSnapshotJob balanceSnapshotJob;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDate today = LocalDate.now();
+
+    private Long plain;
+    private Long sharded;
+
+    @BeforeEach
+    void setUp() {
+        // 1. SETUP: a normal account (running balances) and a sharded one (none) moving over three days
+        User owner = user("owner");
+        em.persist(owner);
+        plain = em.persist(account(owner, "500000000001")).getId();
+        sharded = em.persist(sharded(owner, "500000000002", 4)).getId();
+
+        entry(plain, day(-3, 10), "100.00", "100.00");
+        entry(plain, day(-2, 9), "-30.00", "70.00");
+        entry(sharded, day(-3, 10), "50.00", null);
+        entry(sharded, day(-2, 11), "25.00", null);
+        entry(sharded, day(-2, 15), "-10.00", null);
+        entry(sharded, LocalDateTime.now().minusSeconds(5), "5.00", null);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void catchUp_SnapshotsEveryClosedDayOnce() {
+        assertEquals(3, balanceSnapshotJob.catchUp()); // day -3, -2 and -1 (no movement: no rows)
+        assertEquals(0, balanceSnapshotJob.catchUp());
+
+        BalanceSnapshot latest = balanceSnapshotRepository
+                .findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(sharded, LocalDateTime.now()).orElseThrow();
+        assertEquals(today.minusDays(1).atStartOfDay(), latest.getAsOf());
+        assertEquals(Money.parse("65.00"), latest.getBalance());
+        assertEquals(4, balanceSnapshotRepository.count());
+    }
+
+    @Test
+    void balanceAsOf_SeeksTheRunningBalanceOrAddsUpFromTheLastSnapshot() {
+        balanceSnapshotJob.catchUp();
+        em.clear();
+        statistics().clear();
+
+        // Running balance: currency + one seek
+        assertEquals(Money.parse("70.00"), ledgerService.getBalanceAsOf(plain, day(-2, 12)).balance());
+        assertEquals(2, statistics().getPrepareStatementCount());
+
+        // Sharded: snapshot of the day before (50) + that day's movements so far (25 - 10)
+        assertEquals(Money.parse("65.00"), ledgerService.getBalanceAsOf(sharded, day(-2, 16)).balance());
+        assertEquals(Money.parse("70.00"), ledgerService.getBalanceAsOf(sharded, LocalDateTime.now()).balance());
+        assertEquals(Money.parse("0.00"), ledgerService.getBalanceAsOf(sharded, day(-4, 0)).balance());
+    }
+
+    @Test
+    void balancesAsOf_AnswersManyAccountsInOneStatement() {
+        balanceSnapshotJob.catchUp();
+        statistics().clear();
+
+        List<BalanceAt> balances = ledgerService.getBalancesAsOf(List.of(plain, sharded, -1L), day(-2, 12));
+
+        assertEquals(List.of(plain, sharded), balances.stream().map(BalanceAt::accountId).toList());
+        assertEquals(List.of(Money.parse("70.00"), Money.parse("75.00")), balances.stream().map(BalanceAt::balance).toList());
+        assertEquals(1, statistics().getPrepareStatementCount());
+
+        // Same answers as the single lookup, before any snapshot exists too
+        balanceSnapshotRepository.deleteAll();
+        assertEquals(ledgerService.getBalanceAsOf(sharded, LocalDateTime.now()).balance(),
+                ledgerService.getBalancesAsOf(List.of(sharded), LocalDateTime.now()).get(0).balance());
+    }
+
+    // --- HELPERS ---
+
+    private LocalDateTime day(int offset, int hour) {
+        return today.plusDays(offset).atTime(hour, 0);
+    }
+
+    private void entry(Long accountId, LocalDateTime at, String amount, String balanceAfter) {
+        LedgerEntry e = new LedgerEntry();
+        e.setAccountId(accountId);
+        e.setTransactionId(1L);
+        e.setReferenceId(ReferenceIds.encode(UUID.randomUUID()));
+        e.setType(amount.startsWith("-") ? TransactionType.CARD_PURCHASE : TransactionType.CASH_DEPOSIT);
+        e.setAmount(Money.parse(amount));
+        e.setBalanceAfter(balanceAfter == null ? null : Money.parse(balanceAfter));
+        e.setCreatedAt(at);
+        em.persist(e);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static Account sharded(User user, String number, int slots) {
+        Account account = account(user, number);
+        account.setSlotCount(slots);
+        return account;
+    }
+}
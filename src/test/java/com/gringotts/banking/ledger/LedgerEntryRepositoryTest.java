@@ -0,0 +1,233 @@
+package com.gringotts.banking.ledger;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.rollup.RollupService;
+import com.gringotts.banking.search.SearchIndexService;
+import com.gringotts.banking.transaction.ReferenceIds;
+import com.gringotts.banking.transaction.Transaction;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.transaction.TransactionView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({LedgerService.class, LedgerBackfillJob.class, RollupService.class, SearchIndexService.class})
+class LedgerEntryRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerBackfillJob backfillJob;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Account alice;
+    private Account bob;
+
+    @BeforeEach
+    void setUp() {
+        // 1. SETUP: two customers, one account each
+        alice = em.persist(account(em.persist(user("alice")), "100000000001", "900.00"));
+        bob = em.persist(account(em.persist(user("bob")), "100000000002", "100.00"));
+
+        // Alice deposits, sends Bob money 5 times, then buys something with her card
+        // (Alice's sequence runs 1..7, Bob's 1..5); each one is posted to the ledger like the live path does
+        post(tx("R-0", alice, null, "1000.00", TransactionType.CASH_DEPOSIT, "1000.00", null, 1L, null));
+        for (int i = 1; i <= 5; i++) {
+            post(tx("R-" + i, alice, bob, "10.00", TransactionType.TRANSFER,
+                    String.valueOf(1000 - 10 * i), String.valueOf(10 * i), i + 1L, (long) i));
+        }
+        post(tx("R-6", alice, null, "-50.00", TransactionType.CARD_PURCHASE, "900.00", null, 7L, null));
+
+        // Start every test with a cold persistence context
+        em.flush();
+        em.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void historyPage_IsFetchedInOneQuery() {
+        // 2. EXECUTE: page larger than the result, so no COUNT query is needed either
+        Page<TransactionView> page = ledgerEntryRepository.findHistoryByAccountId(alice.getId(), PageRequest.of(0, 20));
+
+        // 3. ASSERT: one SELECT, no entity loaded behind it
+        assertEquals(7, page.getTotalElements());
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+    }
+
+    @Test
+    void history_IsSignedFromEachAccountsPerspective() {
+        List<TransactionView> aliceRows = ledgerEntryRepository.findHistoryByAccountId(alice.getId(), PageRequest.of(0, 20)).getContent();
+        List<TransactionView> bobRows = ledgerEntryRepository.findHistoryByAccountId(bob.getId(), PageRequest.of(0, 20)).getContent();
+
+        TransactionView deposit = find(aliceRows, "R-0");
+        assertFalse(deposit.isDebit());
+        assertEquals(Money.parse("1000.00"), deposit.balanceAfter());
+
+        TransactionView sent = find(aliceRows, "R-3");
+        assertEquals(Money.parse("-10.00"), sent.amount());
+        assertEquals("100000000002", sent.counterpartyAccountNumber());
+        assertEquals(Money.parse("970"), sent.balanceAfter());
+
+        TransactionView purchase = find(aliceRows, "R-6");
+        assertEquals(Money.parse("-50.00"), purchase.amount());
+        assertNull(purchase.counterpartyAccountNumber());
+
+        TransactionView received = find(bobRows, "R-3");
+        assertEquals(Money.parse("10.00"), received.amount());
+        assertEquals("100000000001", received.counterpartyAccountNumber());
+        assertEquals(Money.parse("30"), received.balanceAfter());
+        assertEquals(5, bobRows.size());
+    }
+
+    @Test
+    void search_FiltersByTypeAndFlowInOneQueryEach() {
+        List<TransactionView> transfers = ledgerEntryRepository.searchHistory(alice.getId(), null, null, TransactionType.TRANSFER, null, 0);
+        List<TransactionView> received = ledgerService.search(alice.getId(), null, null, "RECEIVED", null);
+
+        assertEquals(5, transfers.size());
+        assertEquals(List.of(ref("R-0")), received.stream().map(TransactionView::referenceId).toList());
+        assertEquals(2, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void changesSince_ReturnsOnlyNewRowsInSequenceOrder() {
+        List<TransactionView> bobChanges = ledgerEntryRepository.findChangesSince(bob.getId(), 3L);
+        List<TransactionView> aliceChanges = ledgerEntryRepository.findChangesSince(alice.getId(), 5L);
+
+        assertEquals(List.of(ref("R-4"), ref("R-5")), bobChanges.stream().map(TransactionView::referenceId).toList());
+        assertEquals(List.of(6L, 7L), aliceChanges.stream().map(TransactionView::seq).toList());
+        assertEquals(2, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void balanceAt_IsTheLastEntryAtOrBeforeTheInstant() {
+        assertEquals(Money.parse("900.00"), ledgerService.getBalanceAt(alice.getId(), LocalDateTime.now().plusMinutes(1)).orElseThrow());
+        assertTrue(ledgerService.getBalanceAt(alice.getId(), LocalDateTime.now().minusYears(1)).isEmpty());
+        assertEquals(3, statistics().getPrepareStatementCount()); // two seeks + the currency of the found balance
+    }
+
+    @Test
+    void balanceSeries_RebuildsTheRunningBalanceFromAStream() {
+        BalanceSeries series = ledgerService.getBalanceSeries(alice.getId(),
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().plusMinutes(1), 10);
+
+        // All 7 movements fall in one time bin: only its highest and lowest balance survive
+        assertEquals(7, series.movements());
+        assertEquals(List.of(Money.parse("0.00"), Money.parse("1000.00"), Money.parse("900.00"), Money.parse("900.00")),
+                series.points().stream().map(BalancePoint::balance).toList());
+        assertEquals(series.to(), series.points().get(3).at());
+    }
+
+    @Test
+    void history_IsInTheAccountsOwnCurrency() {
+        // 1. SETUP: a yen account (no minor unit): 1000 JPY is stored as 1000, not as 10.00
+        Currency yen = Currency.getInstance("JPY");
+        Account tokyo = account(em.persist(user("kenji")), "100000000003");
+        tokyo.setCurrency("JPY");
+        em.persist(tokyo);
+        Transaction deposit = tx("R-JPY", tokyo, null, "10.00", TransactionType.CASH_DEPOSIT, "10.00", null, 1L, null);
+        deposit.setAmount(Money.ofMinor(1000, yen));
+        deposit.setSourceBalanceAfter(Money.ofMinor(1000, yen));
+        post(deposit);
+        em.flush();
+        em.clear();
+
+        // 2. EXECUTE
+        TransactionView row = find(ledgerEntryRepository.findHistoryByAccountId(tokyo.getId(), PageRequest.of(0, 20)).getContent(), "R-JPY");
+        BalanceSeries series = ledgerService.getBalanceSeries(tokyo.getId(),
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().plusMinutes(1), 10);
+
+        // 3. ASSERT: every read path is tagged JPY, so the JSON number is 1000 (USD would print 10.00)
+        assertEquals(Money.ofMinor(1000, yen), row.amount());
+        assertEquals(Money.ofMinor(1000, yen), row.balanceAfter());
+        assertEquals("1000", row.amount().toString());
+        assertEquals(Money.ofMinor(1000, yen), find(ledgerEntryRepository.findChangesSince(tokyo.getId(), 0L), "R-JPY").amount());
+        assertEquals(Money.ofMinor(1000, yen), ledgerService.getBalanceAt(tokyo.getId(), LocalDateTime.now().plusMinutes(1)).orElseThrow());
+        assertEquals(Money.ofMinor(1000, yen), series.points().getLast().balance());
+    }
+
+    @Test
+    void backfill_PostsOnlyTransactionsWithoutEntries() {
+        // A row written before the ledger existed
+        Transaction legacy = em.persist(tx("LEGACY", bob, alice, "5.00", TransactionType.TRANSFER, "45", "905", null, null));
+        em.flush();
+
+        assertEquals(1, backfillJob.backfill());
+        assertEquals(0, backfillJob.backfill()); // idempotent
+
+        List<TransactionView> aliceRows = ledgerEntryRepository.findHistoryByAccountId(alice.getId(), PageRequest.of(0, 20)).getContent();
+        TransactionView credit = find(aliceRows, "LEGACY");
+        assertEquals(Money.parse("5.00"), credit.amount());
+        assertEquals(legacy.getId(), credit.id());
+        assertEquals(14, ledgerEntryRepository.count()); // 12 from setUp + debit/credit of the legacy transfer
+    }
+
+    // --- HELPERS ---
+
+    private void post(Transaction transaction) {
+        ledgerService.record(em.persist(transaction));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Readable test labels -> valid (base32, 128-bit) reference ids
+    private static String ref(String label) {
+        return ReferenceIds.encode(UUID.nameUUIDFromBytes(label.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static TransactionView find(List<TransactionView> rows, String referenceId) {
+        return rows.stream().filter(r -> r.referenceId().equals(ref(referenceId))).findFirst().orElseThrow();
+    }
+
+
+
+    private static Transaction tx(String ref, Account from, Account to, String amount, TransactionType type,
+                                  String sourceAfter, String targetAfter, Long sourceSeq, Long targetSeq) {
+        Transaction t = new Transaction();
+        t.setReferenceId(ref(ref));
+        t.setAccount(from);
+        t.setTargetAccount(to);
+        t.setAmount(Money.parse(amount));
+        t.setType(type);
+        t.setDescription(type.name());
+        t.setSourceBalanceAfter(sourceAfter == null ? null : Money.parse(sourceAfter));
+        t.setTargetBalanceAfter(targetAfter == null ? null : Money.parse(targetAfter));
+        t.setSourceSeq(sourceSeq);
+        t.setTargetSeq(targetSeq);
+        return t;
+    }
+}
@@ -0,0 +1,57 @@
+package com.gringotts.banking.money;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+
+    @Test
+    void arithmetic_IsExactAndOverflowChecked() {
+        Money a = Money.parse("10.10");
+
+        assertEquals(1010, a.minorUnits());
+        assertEquals(Money.ofMinor(1030), a.plus(Money.parse("0.2")));
+        assertEquals(Money.parse("-0.90"), a.minus(Money.parse("11")));
+        assertTrue(a.minus(Money.parse("11")).isNegative());
+        assertEquals(a, a.negate().abs());
+        assertEquals(new BigDecimal("10.10"), a.toBigDecimal());
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+        assertThrows(ArithmeticException.class, () -> Money.parse("10.005"));          // sub-cent
+        assertThrows(ArithmeticException.class, () -> Money.parse("1e30"));            // beyond a long
+        assertThrows(IllegalArgumentException.class,
+                () -> a.plus(Money.of(BigDecimal.ONE, Currency.getInstance("EUR")))); // no implicit FX
+    }
+
+    @Test
+    void json_WritesPlainNumbersAndRejectsInvalidPrecision() {
+        assertEquals("12.50", mapper.writeValueAsString(Money.ofMinor(1250)));
+        assertEquals(Money.ofMinor(1250), mapper.readValue("12.5", Money.class));
+        assertEquals(Money.ofMinor(1250), mapper.readValue("\"12.50\"", Money.class));
+
+        assertThrows(DatabindException.class, () -> mapper.readValue("12.505", Money.class));
+        assertThrows(DatabindException.class, () -> mapper.readValue("\"abc\"", Money.class));
+    }
+
+    @Test
+    void accountCurrencies_AreThoseEveryInputAmountFits() {
+        assertTrue(Money.isSupported(Currency.getInstance("EUR")));
+        assertTrue(Money.isSupported(Currency.getInstance("JPY")));
+        assertEquals(Money.ofMinor(1000, Currency.getInstance("JPY")), Money.parse("1000").withCurrency(Currency.getInstance("JPY")));
+
+        // 1.234 KWD cannot even be parsed: such an account could never move its last digit
+        assertThrows(ArithmeticException.class, () -> Money.parse("1.234"));
+        assertFalse(Money.isSupported(Currency.getInstance("KWD")));
+        assertFalse(Money.isSupported(Currency.getInstance("XAU")));
+    }
+}
@@ -0,0 +1,96 @@
+package com.gringotts.banking.partition;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedExecutorTest {
+
+    private PartitionedExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new PartitionedExecutor();
+        ReflectionTestUtils.setField(executor, "enabled", true);
+        ReflectionTestUtils.setField(executor, "partitionCount", 4);
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void sameAccount_RunsOnOneThreadInOrder() {
+        List<Integer> applied = new ArrayList<>(); // deliberately not thread-safe
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            futures.add(executor.submit(7L, () -> {
+                applied.add(n);
+                return Thread.currentThread().getName();
+            }));
+        }
+
+        assertEquals(1, futures.stream().map(CompletableFuture::join).distinct().count());
+        assertEquals(1000, applied.size());
+        assertEquals(999, applied.get(999));
+    }
+
+    @Test
+    void crossPartitionTransfers_InBothDirectionsNeverDeadlock() throws Exception {
+        // Accounts 1..4 land on different partitions; hammer every pair in both directions
+        AtomicInteger done = new AtomicInteger();
+        Queue<CompletableFuture<Integer>> futures = new ConcurrentLinkedQueue<>();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2000; i++) {
+                long from = 1 + i % 4;
+                long to = 1 + (i / 4 + from) % 4;
+                callers.submit(() -> futures.add(executor.submit(from, to, done::incrementAndGet)));
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        assertEquals(2000, done.get());
+    }
+
+    @Test
+    void await_RethrowsTheOperationsException() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> PartitionedExecutor.await(
+                executor.submit(1L, 2L, () -> {
+                    throw new RuntimeException("Insufficient funds");
+                })));
+
+        assertEquals("Insufficient funds", e.getMessage());
+    }
+
+    @Test
+    void await_RethrowsAnErrorInsteadOfHanging() throws Exception {
+        CompletableFuture<Object> failed = executor.submit(3L, () -> {
+            throw new StackOverflowError("boom");
+        });
+
+        StackOverflowError e = assertThrows(StackOverflowError.class,
+                () -> PartitionedExecutor.await(failed.orTimeout(5, TimeUnit.SECONDS)));
+        assertEquals("boom", e.getMessage());
+
+        // The partition keeps serving after its thread died
+        assertEquals("ok", executor.submit(3L, () -> "ok").get(5, TimeUnit.SECONDS));
+    }
+}
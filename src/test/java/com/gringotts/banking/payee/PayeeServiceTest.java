@@ -0,0 +1,161 @@
+package com.gringotts.banking.payee;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.transaction.BalanceChangedEvent;
+import com.gringotts.banking.transaction.ReferenceIds;
+import com.gringotts.banking.transaction.Transaction;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.user.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.payees.counters=4",
+        "app.payees.flush-ms=0"
+})
+@Import(PayeeService.class)
+class PayeeServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private PayeeService payeeService;
+
+    @Autowired
+    private PayeeSketchRepository payeeSketchRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Account alice;
+    private Account bob;
+    private Account carol;
+    private Account dave;
+
+    @BeforeEach
+    void setUp() {
+        // 1. SETUP: Alice paid Bob 5 times, Dave (now closed) 3 times and Carol twice; Bob paid Alice once
+        User owner = user("owner");
+        em.persist(owner);
+        alice = em.persist(accountWithStatus(owner, "100000000001", "ACTIVE"));
+        bob = em.persist(accountWithStatus(owner, "100000000002", "ACTIVE"));
+        carol = em.persist(accountWithStatus(owner, "100000000003", "ACTIVE"));
+        dave = em.persist(accountWithStatus(owner, "100000000004", "CLOSED"));
+
+        for (int i = 0; i < 5; i++) {
+            em.persist(transfer(alice, bob));
+        }
+        for (int i = 0; i < 3; i++) {
+            em.persist(transfer(alice, dave));
+        }
+        em.persist(transfer(alice, carol));
+        em.persist(transfer(alice, carol));
+        em.persist(transfer(bob, alice));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void topPayees_RebuiltFromHistoryThenUpdatedByCommittedTransfers() {
+        // 2. EXECUTE: first read rebuilds the sketch; closed payees are left out
+        assertEquals(List.of(new TopPayee("100000000002", 5, 5), new TopPayee("100000000003", 2, 2)),
+                payeeService.getTopPayees(alice.getId(), 10));
+
+        // New transfers to Carol (incoming ones and card purchases are not payees)
+        for (int i = 0; i < 4; i++) {
+            payeeService.onBalanceChanged(sent(alice, carol));
+        }
+        payeeService.onBalanceChanged(new BalanceChangedEvent(alice.getId(), bob.getId(), "ref",
+                TransactionType.TRANSFER, Money.parse("20.00"), null, null));
+        payeeService.onBalanceChanged(new BalanceChangedEvent(alice.getId(), null, "ref",
+                TransactionType.CARD_PURCHASE, Money.parse("-20.00"), null, null));
+
+        // 3. ASSERT: O(k) read -> one statement (the payees' account numbers), never the transfers
+        statistics().clear();
+        assertEquals(List.of(new TopPayee("100000000003", 6, 6)), payeeService.getTopPayees(alice.getId(), 1));
+        assertEquals(1, statistics().getPrepareStatementCount());
+
+        // Persisted on flush, and readable back
+        assertEquals(1, payeeService.flush());
+        assertEquals(0, payeeService.flush());
+        em.clear();
+        PayeeSketch saved = payeeSketchRepository.findById(alice.getId()).orElseThrow();
+        assertEquals(14, saved.getTotal());
+        assertEquals(List.of(new SpaceSaving.Counter(carol.getId(), 6, 0), new SpaceSaving.Counter(bob.getId(), 5, 0)),
+                SpaceSaving.fromBytes(saved.getCounters(), 4).top(2));
+    }
+
+    @Test
+    void spaceSaving_KeepsEveryHeavyHitterWithinItsErrorBound() {
+        // Zipf-like stream over 1000 keys, 16 counters
+        SpaceSaving sketch = new SpaceSaving(16);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        int n = 100_000;
+        for (int i = 0; i < n; i++) {
+            long key = (long) Math.floor(Math.pow(1000, random.nextDouble())); // 1..999, small keys frequent
+            sketch.offer(key);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        assertEquals(n, sketch.total());
+        List<SpaceSaving.Counter> top = sketch.top(16);
+        for (SpaceSaving.Counter c : top) {
+            long truth = exact.getOrDefault(c.key(), 0L);
+            assertTrue(c.count() >= truth && c.count() - c.error() <= truth, "bounds of " + c);
+        }
+        // Every key above N/k is monitored
+        exact.forEach((key, count) -> {
+            if (count > n / 16) {
+                assertTrue(top.stream().anyMatch(c -> c.key() == key), "missing heavy hitter " + key);
+            }
+        });
+        assertEquals(1, top.getFirst().key());
+
+        // Round trip
+        assertEquals(top, SpaceSaving.fromBytes(sketch.toBytes(), 16).top(16));
+    }
+
+    // --- HELPERS ---
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static BalanceChangedEvent sent(Account from, Account to) {
+        return new BalanceChangedEvent(from.getId(), to.getId(), "ref", TransactionType.TRANSFER,
+                Money.parse("-10.00"), null, null);
+    }
+
+
+    private static Transaction transfer(Account from, Account to) {
+        Transaction t = new Transaction();
+        t.setReferenceId(ReferenceIds.encode(UUID.randomUUID()));
+        t.setAccount(from);
+        t.setTargetAccount(to);
+        t.setAmount(Money.parse("10.00"));
+        t.setType(TransactionType.TRANSFER);
+        t.setDescription("Transfer to " + to.getAccountNumber());
+        return t;
+    }
+}
@@ -0,0 +1,112 @@
+package com.gringotts.banking.rollup;
+
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.account.AccountService;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.support.BankingTestConfiguration;
+import com.gringotts.banking.transaction.TransactionService;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.user.User;
+import com.gringotts.banking.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.fees.rules=" // totals here are exact: no fees
+})
+@Import({BankingTestConfiguration.class, RollupRebuildJob.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the rebuild workers must see committed rows
+class RollupServiceTest {
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private RollupRebuildJob rollupRebuildJob;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountRollupRepository accountRollupRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void movements_UpdateRollupsAndRebuildReproducesThem() {
+        // 1. SETUP: Alice gets a deposit, pays Bob and buys something
+        User owner = user("owner");
+        userRepository.save(owner);
+        Long alice = accountRepository.save(account(owner, "400000000001")).getId();
+        Long bob = accountRepository.save(account(owner, "400000000002")).getId();
+
+        accountService.deposit(alice, Money.parse("100.00"));
+        accountService.deposit(alice, Money.parse("0.50"));
+        transactionService.transferFunds(alice, bob, Money.parse("30.00"));
+        transactionService.withdraw(alice, Money.parse("20.25"), "Card Purchase: 1234 at Tesco Express", TransactionType.CARD_PURCHASE);
+
+        // 2. The summary is read from the rollups alone (currency + one grouped query)
+        YearMonth month = YearMonth.now();
+        statistics().clear();
+        AccountSummary summary = rollupService.getSummary(alice, month.minusMonths(1), month);
+        assertEquals(2, statistics().getPrepareStatementCount());
+
+        Map<TransactionType, SummaryLine> lines = byType(summary);
+        assertEquals(3, lines.size());
+        assertEquals(2, lines.get(TransactionType.CASH_DEPOSIT).count());
+        assertEquals(Money.parse("100.50"), lines.get(TransactionType.CASH_DEPOSIT).moneyIn());
+        assertEquals(Money.parse("30.00"), lines.get(TransactionType.TRANSFER).moneyOut());
+        assertEquals(Money.parse("20.25"), lines.get(TransactionType.CARD_PURCHASE).moneyOut());
+        assertEquals(month, lines.get(TransactionType.TRANSFER).period());
+        assertEquals(Money.parse("100.50"), summary.totalIn());
+        assertEquals(Money.parse("50.25"), summary.totalOut());
+        assertEquals(Money.parse("30.00"), rollupService.getSummary(bob, month, month).totalIn());
+
+        // The purchase was categorized from its merchant, and the rollups filter by it
+        AccountSummary groceries = rollupService.getSummary(alice, month, month, "groceries");
+        assertEquals(Money.parse("20.25"), groceries.totalOut());
+        assertEquals(1, groceries.lines().size());
+
+        // 3. Regenerating from the ledger gives the same numbers
+        accountRollupRepository.deleteAll();
+        assertEquals(2, rollupRebuildJob.rebuild());
+        assertEquals(summary, rollupService.getSummary(alice, month.minusMonths(1), month));
+    }
+
+    // --- HELPERS ---
+
+    private static Map<TransactionType, SummaryLine> byType(AccountSummary summary) {
+        return summary.lines().stream().collect(Collectors.toMap(SummaryLine::type, Function.identity()));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,145 @@
+package com.gringotts.banking.search;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.ledger.LedgerEntryRepository;
+import com.gringotts.banking.ledger.LedgerService;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.rollup.RollupService;
+import com.gringotts.banking.transaction.ReferenceIds;
+import com.gringotts.banking.transaction.Transaction;
+import com.gringotts.banking.transaction.TransactionType;
+import com.gringotts.banking.transaction.TransactionView;
+import com.gringotts.banking.user.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({SearchIndexService.class, LedgerService.class, RollupService.class})
+class SearchIndexServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private SearchPostingRepository searchPostingRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Account alice;
+    private Account bob;
+
+    @BeforeEach
+    void setUp() {
+        // 1. SETUP: Alice deposits, pays Bob twice and buys with two cards; every movement is indexed as it is posted
+        User owner = user("owner");
+        em.persist(owner);
+        alice = em.persist(account(owner, "700000000001"));
+        bob = em.persist(account(owner, "482100001234"));
+
+        post(tx(alice, null, "500.00", TransactionType.CASH_DEPOSIT, "Deposit via Branch"));
+        post(tx(alice, bob, "20.00", TransactionType.TRANSFER, "Transfer to 482100001234"));
+        post(tx(alice, null, "-15.00", TransactionType.CARD_PURCHASE, "Card Purchase: 1234"));
+        post(tx(alice, null, "-7.50", TransactionType.CARD_PURCHASE, "Card Purchase: 5678"));
+        post(tx(alice, bob, "30.00", TransactionType.TRANSFER, "Transfer to 482100001234"));
+        em.flush();
+        em.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void search_MatchesEveryWordByPrefixWithoutScanningTheLedger() {
+        // 2. EXECUTE + ASSERT: three words -> three index reads + one read of the matching entries
+        List<TransactionView> card = ledgerService.search(alice.getId(), null, null, null, null, null, "card purchase 1234");
+        assertEquals(List.of("Card Purchase: 1234"), card.stream().map(TransactionView::description).toList());
+        assertEquals(4, statistics().getPrepareStatementCount());
+
+        // A partial account number, newest first
+        List<TransactionView> transfers = ledgerService.search(alice.getId(), null, null, null, null, null, "Transfer to 4821");
+        assertEquals(List.of(Money.parse("-30.00"), Money.parse("-20.00")), transfers.stream().map(TransactionView::amount).toList());
+
+        // The counterparty is indexed too (Bob sees Alice's number on his credits)
+        assertEquals(2, ledgerService.search(bob.getId(), null, null, "RECEIVED", null, null, "70000").size());
+
+        // Combined with the existing filters, and words that match nothing
+        assertEquals(2, ledgerService.search(alice.getId(), null, null, "SENT", TransactionType.CARD_PURCHASE, null, "card").size());
+        assertTrue(ledgerService.search(alice.getId(), LocalDateTime.now().plusDays(1), null, null, null, null, "card").isEmpty());
+        assertTrue(ledgerService.search(alice.getId(), null, null, null, null, null, "card 9999").isEmpty());
+    }
+
+    @Test
+    void rebuild_ProducesTheSameAnswers() {
+        long[] before = searchIndexService.find(alice.getId(), "transfer");
+
+        searchPostingRepository.deleteByAccountId(alice.getId());
+        assertEquals(0, searchIndexService.find(alice.getId(), "transfer").length);
+        searchIndexService.rebuild(alice.getId(), ledgerEntryRepository.findSearchableByAccountId(alice.getId()));
+
+        assertArrayEquals(before, searchIndexService.find(alice.getId(), "transfer"));
+        assertEquals(2, before.length);
+    }
+
+    @Test
+    void postings_RoundTripOutOfOrderIdsAndCloseFullBlocks() {
+        long[] ids = {5, 300, 299, 1_000_000_000_000L, 1_000_000_000_001L};
+        SearchPosting block = new SearchPosting(1L, "x", 0);
+        for (long id : ids) {
+            block.add(id);
+        }
+        assertArrayEquals(ids, block.ids());
+        assertFalse(block.isClosed());
+
+        for (long id = 1; !block.isClosed(); id++) {
+            block.add(2_000_000_000_000L + id); // consecutive ids: one byte each
+        }
+        assertTrue(block.getCount() > 1000, "got " + block.getCount()); // ~1 byte per posting, not 8
+    }
+
+    // --- HELPERS ---
+
+    private void post(Transaction transaction) {
+        ledgerService.record(em.persist(transaction));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+
+    private static Transaction tx(Account from, Account to, String amount, TransactionType type, String description) {
+        Transaction t = new Transaction();
+        t.setReferenceId(ReferenceIds.encode(UUID.randomUUID()));
+        t.setAccount(from);
+        t.setTargetAccount(to);
+        t.setAmount(Money.parse(amount));
+        t.setType(type);
+        t.setDescription(description);
+        return t;
+    }
+}
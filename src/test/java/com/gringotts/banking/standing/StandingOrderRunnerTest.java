@@ -0,0 +1,100 @@
+package com.gringotts.banking.standing;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.partition.PartitionedExecutor;
+import com.gringotts.banking.support.BankingTestConfiguration;
+import com.gringotts.banking.user.User;
+import com.gringotts.banking.user.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.gringotts.banking.support.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.standing-orders.enabled=false", // runs are triggered by the test
+        "app.standing-orders.max-attempts=2",
+        "app.standing-orders.retry-base-ms=0", // retry at once, so the second run gives up
+        "app.fees.rules=" // balances here are exact: no fees
+})
+@Import({BankingTestConfiguration.class, StandingOrderRunner.class, StandingOrderService.class,
+        PartitionedExecutor.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the worker threads must see committed rows
+class StandingOrderRunnerTest {
+
+    @Autowired
+    private StandingOrderRunner runner;
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private StandingOrderRunRepository standingOrderRunRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void runDue_PaysEachPeriodOnceAndGivesUpAfterTheLastRetry() {
+        // 1. SETUP: Alice pays Bob monthly (affordable), Carol pays Bob weekly (never affordable)
+        User owner = user("payer");
+        userRepository.save(owner);
+        Account alice = accountRepository.save(account(owner, "300000000001", "100.00"));
+        Account bob = accountRepository.save(account(owner, "300000000002", "0.00"));
+        Account carol = accountRepository.save(account(owner, "300000000003", "1.00"));
+        LocalDate today = LocalDate.now();
+        StandingOrder rent = standingOrderService.create(alice.getId(), bob.getAccountNumber(), Money.parse("40.00"),
+                Frequency.MONTHLY, today, null);
+        StandingOrder gym = standingOrderService.create(carol.getId(), bob.getAccountNumber(), Money.parse("25.00"),
+                Frequency.WEEKLY, today, today.plusWeeks(4));
+
+        // 2. EXECUTE: the first run pays the rent; a second run finds nothing new due for it
+        assertEquals(1, runner.runDue());
+        assertEquals(0, runner.runDue());
+
+        // 3. ASSERT: paid once, next period scheduled a month out, lease released
+        assertEquals(Money.parse("60.00"), accountRepository.findById(alice.getId()).orElseThrow().getBalance());
+        assertEquals(Money.parse("40.00"), accountRepository.findById(bob.getId()).orElseThrow().getBalance());
+        StandingOrder paid = standingOrderRepository.findById(rent.getId()).orElseThrow();
+        assertEquals(1L, paid.getPeriod());
+        assertEquals(today.plusMonths(1), paid.getNextRunDate());
+        assertNull(paid.getLeaseOwner());
+        List<StandingOrderRun> runs = standingOrderRunRepository.findByOrderIdOrderByPeriodDesc(rent.getId(), PageRequest.of(0, 10));
+        assertEquals(1, runs.size());
+        assertEquals("EXECUTED", runs.getFirst().getStatus());
+        assertNotNull(runs.getFirst().getReferenceId());
+
+        // ... the gym payment failed twice (max-attempts=2): recorded as FAILED, moved to next week, no money moved
+        StandingOrder failed = standingOrderRepository.findById(gym.getId()).orElseThrow();
+        assertEquals(1L, failed.getPeriod());
+        assertEquals(today.plusWeeks(1), failed.getNextRunDate());
+        assertEquals("Insufficient funds", failed.getLastError());
+        StandingOrderRun gaveUp = standingOrderRunRepository.findByOrderIdOrderByPeriodDesc(gym.getId(), PageRequest.of(0, 10)).getFirst();
+        assertEquals("FAILED", gaveUp.getStatus());
+        assertEquals(2, gaveUp.getAttempts());
+        assertEquals(Money.parse("1.00"), accountRepository.findById(carol.getId()).orElseThrow().getBalance());
+
+        // 4. Nothing is due any more
+        assertEquals(0, runner.runDue());
+        assertEquals(1L, standingOrderRepository.findById(gym.getId()).orElseThrow().getPeriod());
+    }
+
+    // --- HELPERS ---
+}
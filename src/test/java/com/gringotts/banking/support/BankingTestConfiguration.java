@@ -0,0 +1,27 @@
+package com.gringotts.banking.support;
+
+import com.gringotts.banking.account.AccountService;
+import com.gringotts.banking.account.BalanceSlotService;
+import com.gringotts.banking.category.CategoryService;
+import com.gringotts.banking.fee.FeeService;
+import com.gringotts.banking.fx.FxService;
+import com.gringotts.banking.ledger.LedgerService;
+import com.gringotts.banking.rollup.RollupService;
+import com.gringotts.banking.search.SearchIndexService;
+import com.gringotts.banking.transaction.ReferenceIdGenerator;
+import com.gringotts.banking.transaction.TransactionService;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The services behind a money movement (TransactionService and everything it posts through), for slice tests
+ * (@DataJpaTest) that move money for real. Import this instead of listing the services, so a new collaborator
+ * of TransactionService / LedgerService is added here once.
+ * Tests that compare exact balances also set "app.fees.rules=" (no fees).
+ */
+@TestConfiguration(proxyBeanMethods = false)
+@Import({TransactionService.class, AccountService.class, LedgerService.class, BalanceSlotService.class,
+        ReferenceIdGenerator.class, FxService.class, RollupService.class, SearchIndexService.class,
+        CategoryService.class, FeeService.class})
+public class BankingTestConfiguration {
+}
@@ -0,0 +1,45 @@
+package com.gringotts.banking.support;
+
+import com.gringotts.banking.account.Account;
+import com.gringotts.banking.money.Money;
+import com.gringotts.banking.user.User;
+
+/**
+ * Unsaved entities for tests (persist them with the repository or TestEntityManager).
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    // A customer with email '<username>@gringotts.test'
+    public static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@gringotts.test");
+        user.setPassword("hash");
+        return user;
+    }
+
+    // An ACTIVE SAVINGS account with a zero USD balance
+    public static Account account(User user, String number) {
+        Account account = new Account();
+        account.setUser(user);
+        account.setAccountNumber(number);
+        return account;
+    }
+
+    // An ACTIVE SAVINGS account holding 'balance' (e.g. "100.00", in USD)
+    public static Account account(User user, String number, String balance) {
+        Account account = account(user, number);
+        account.setBalance(Money.parse(balance));
+        return account;
+    }
+
+    // An account in the given status (ACTIVE, CLOSED, ...)
+    public static Account accountWithStatus(User user, String number, String status) {
+        Account account = account(user, number);
+        account.setStatus(status);
+        return account;
+    }
+}
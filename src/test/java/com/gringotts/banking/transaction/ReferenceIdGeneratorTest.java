@@ -0,0 +1,46 @@
+package com.gringotts.banking.transaction;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceIdGeneratorTest {
+
+    @Test
+    void ids_AreStrictlyIncreasingAsTextAndCarryTheNode() {
+        ReferenceIdGenerator generator = new ReferenceIdGenerator();
+        ReflectionTestUtils.setField(generator, "configuredNodeId", 0xBEEF);
+        generator.init();
+
+        String previous = generator.next();
+        for (int i = 0; i < 200_000; i++) {
+            String next = generator.next();
+            assertTrue(next.compareTo(previous) > 0, previous + " !< " + next);
+            previous = next;
+        }
+
+        UUID id = ReferenceIds.decode(previous);
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(0xBEEF, (id.getLeastSignificantBits() >>> 28) & 0xFFFF);
+        assertTrue(Math.abs((id.getMostSignificantBits() >>> 16) - System.currentTimeMillis()) < 60_000);
+    }
+
+    @Test
+    void codec_RoundTripsAndAcceptsLegacyUuids() {
+        UUID random = UUID.randomUUID();
+        String text = ReferenceIds.encode(random);
+
+        assertEquals(ReferenceIds.LENGTH, text.length());
+        assertEquals(random, ReferenceIds.decode(text));
+        assertEquals(random, ReferenceIds.decode(text.toLowerCase()));
+        assertEquals(random, ReferenceIds.fromBytes(ReferenceIds.toBytes(random)));
+        assertEquals(random, ReferenceIds.decode(random.toString())); // rows written before base32
+        assertEquals("7ZZZZZZZZZZZZZZZZZZZZZZZZZ", ReferenceIds.encode(new UUID(-1L, -1L)));
+        assertThrows(RuntimeException.class, () -> ReferenceIds.decode("8ZZZZZZZZZZZZZZZZZZZZZZZZZ")); // > 128 bits
+        assertThrows(RuntimeException.class, () -> ReferenceIds.decode("R-0"));
+    }
+}
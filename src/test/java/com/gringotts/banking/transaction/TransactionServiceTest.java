@@ -2,17 +2,29 @@ package com.gringotts.banking.transaction;
 
 import com.gringotts.banking.account.Account;
 import com.gringotts.banking.account.AccountRepository;
+import com.gringotts.banking.account.BalanceSlotService;
+import com.gringotts.banking.category.CategoryService;
+import com.gringotts.banking.fee.FeeQuote;
+import com.gringotts.banking.fee.FeeService;
+import com.gringotts.banking.fx.FxConversion;
+import com.gringotts.banking.fx.FxService;
+import com.gringotts.banking.ledger.LedgerService;
+import com.gringotts.banking.money.Money;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.util.Currency;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class) // Tells JUnit to use Mockito
@@ -24,6 +36,27 @@ class TransactionServiceTest {
     @Mock // Create a fake transaction repository
     private TransactionRepository transactionRepository;
 
+    @Mock // Fake ledger (entries are covered by LedgerEntryRepositoryTest)
+    private LedgerService ledgerService;
+
+    @Mock // Only used by sharded accounts
+    private BalanceSlotService balanceSlotService;
+
+    @Mock // Reference ids are not under test here
+    private ReferenceIdGenerator referenceIdGenerator;
+
+    @Mock // Only used by cross-currency transfers (rounding is covered by FxServiceTest)
+    private FxService fxService;
+
+    @Mock // Categories are covered by MerchantMatcherTest
+    private CategoryService categoryService;
+
+    @Mock // No fee unless a test says so (rule matching is covered by FeeScheduleTest)
+    private FeeService feeService;
+
+    @Mock // Swallow the after-commit notifications
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks // Inject the fake repos into the real service
     private TransactionService transactionService;
 
@@ -32,28 +65,65 @@ class TransactionServiceTest {
         // 1. SETUP (The "Given")
         Account sender = new Account();
         sender.setId(1L);
-        sender.setBalance(new BigDecimal("100.00"));
+        sender.setBalance(Money.parse("100.00"));
 
         Account receiver = new Account();
         receiver.setId(2L);
-        receiver.setBalance(new BigDecimal("50.00"));
+        receiver.setBalance(Money.parse("50.00"));
 
         // Teach the Mock Repository what to do
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(sender));
-        when(accountRepository.findById(2L)).thenReturn(Optional.of(receiver));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sender));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(receiver));
 
         // 2. EXECUTE (The "When")
-        transactionService.transferFunds(1L, 2L, new BigDecimal("50.00"));
+        transactionService.transferFunds(1L, 2L, Money.parse("50.00"));
 
         // 3. ASSERT (The "Then")
         // Did the balances change correctly?
-        assertEquals(new BigDecimal("50.00"), sender.getBalance()); // 100 - 50 = 50
-        assertEquals(new BigDecimal("100.00"), receiver.getBalance()); // 50 + 50 = 100
+        assertEquals(Money.parse("50.00"), sender.getBalance()); // 100 - 50 = 50
+        assertEquals(Money.parse("100.00"), receiver.getBalance()); // 50 + 50 = 100
+
+        // Did both versions move? (invalidates cached ETags of both accounts)
+        assertEquals(1L, sender.getVersion());
+        assertEquals(1L, receiver.getVersion());
 
         // Did we save the changes?
         verify(accountRepository, times(1)).save(sender);
         verify(accountRepository, times(1)).save(receiver);
         verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(ledgerService, times(1)).record(any());
+
+        // One notification per account touched
+        verify(eventPublisher, times(2)).publishEvent(any(BalanceChangedEvent.class));
+    }
+
+    @Test
+    void transferFunds_CrossCurrency_CreditsConvertedAmountAndRecordsRate() {
+        Currency usd = Currency.getInstance("USD");
+        Account sender = new Account();
+        sender.setId(1L);
+        sender.setCurrency("EUR");
+        sender.setBalance(Money.parse("100.00"));
+
+        Account receiver = new Account();
+        receiver.setId(2L);
+        receiver.setBalance(Money.parse("5.00"));
+
+        Money sent = Money.of(new BigDecimal("20.00"), Currency.getInstance("EUR"));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sender));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(receiver));
+        when(fxService.convert(sent, usd))
+                .thenReturn(new FxConversion(sent, Money.parse("21.70"), new BigDecimal("1.085")));
+
+        // The plain API number is read in the sender's currency
+        transactionService.transferFunds(1L, 2L, Money.parse("20.00"));
+
+        assertEquals(Money.of(new BigDecimal("80.00"), sent.currency()), sender.getBalance());
+        assertEquals(Money.parse("26.70"), receiver.getBalance());
+
+        verify(transactionRepository).save(argThat(t -> t.getAmount().equals(sent)
+                && t.getTargetAmount().equals(Money.parse("21.70"))
+                && t.getFxRate().compareTo(new BigDecimal("1.085")) == 0));
     }
 
     @Test
@@ -61,18 +131,18 @@ class TransactionServiceTest {
         // 1. SETUP
         Account sender = new Account();
         sender.setId(1L);
-        sender.setBalance(new BigDecimal("10.00")); // Only has $10
+        sender.setBalance(Money.parse("10.00")); // Only has $10
 
         Account receiver = new Account();
         receiver.setId(2L);
 
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(sender));
-        when(accountRepository.findById(2L)).thenReturn(Optional.of(receiver));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sender));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(receiver));
 
         // 2. EXECUTE & ASSERT
         // Expect a RuntimeException when trying to send $50
         Exception exception = assertThrows(RuntimeException.class, () -> {
-            transactionService.transferFunds(1L, 2L, new BigDecimal("50.00"));
+            transactionService.transferFunds(1L, 2L, Money.parse("50.00"));
         });
 
         assertEquals("Insufficient funds", exception.getMessage());
@@ -80,4 +150,56 @@ class TransactionServiceTest {
         // Verify we NEVER saved any changes
         verify(accountRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void transferFunds_WithFee_DebitsFeeAsSeparateMovement() {
+        Account sender = new Account();
+        sender.setId(1L);
+        sender.setBalance(Money.parse("100.00"));
+
+        Account receiver = new Account();
+        receiver.setId(2L);
+
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sender));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(receiver));
+        when(feeService.quote("SAVINGS", TransactionType.TRANSFER, Money.parse("50.00"), 1))
+                .thenReturn(new FeeQuote("transfer-std", Money.parse("0.25"), "test"));
+
+        transactionService.transferFunds(1L, 2L, Money.parse("50.00"));
+
+        // Amount + fee left the sender; the receiver got the amount only
+        assertEquals(Money.parse("49.75"), sender.getBalance());
+        assertEquals(Money.parse("50.00"), receiver.getBalance());
+        assertEquals(2L, sender.getVersion()); // one sequence per movement
+        assertEquals(1, sender.getFeeCount());
+
+        // The transfer records the rule; the fee is its own FEE movement
+        verify(transactionRepository).save(argThat(t -> t.getType() == TransactionType.TRANSFER
+                && "transfer-std".equals(t.getFeeRuleId())));
+        verify(transactionRepository).save(argThat(t -> t.getType() == TransactionType.FEE
+                && t.getAmount().equals(Money.parse("-0.25")) && t.getSourceSeq() == 2L));
+        verify(ledgerService, times(2)).record(any());
+        verify(eventPublisher, times(3)).publishEvent(any(BalanceChangedEvent.class));
+    }
+
+    @Test
+    void transferFunds_FeeNotCovered_ShouldThrowException() {
+        Account sender = new Account();
+        sender.setId(1L);
+        sender.setBalance(Money.parse("50.00")); // Enough for the amount, not for the fee
+
+        Account receiver = new Account();
+        receiver.setId(2L);
+
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sender));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(receiver));
+        when(feeService.quote(any(), any(), any(), anyInt()))
+                .thenReturn(new FeeQuote("transfer-std", Money.parse("0.25"), "test"));
+
+        Exception exception = assertThrows(RuntimeException.class,
+                () -> transactionService.transferFunds(1L, 2L, Money.parse("50.00")));
+
+        assertEquals("Insufficient funds", exception.getMessage());
+        verify(accountRepository, never()).save(any());
+    }
+}